@@ -0,0 +1,66 @@
+package id.ac.tazkia.minibank.config;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publishes Hibernate second-level cache region statistics as Micrometer counters
+ * ({@code minibank.cache.region.requests} tagged by region and hit/miss result, and
+ * {@code minibank.cache.region.puts} tagged by region).
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder cacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            Set<String> regions = new LinkedHashSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+            regions.addAll(ReferenceDataCache.QUERY_REGIONS);
+
+            for (String region : regions) {
+                FunctionCounter.builder("minibank.cache.region.requests", statistics,
+                        regionCount(region, CacheRegionStatistics::getHitCount))
+                    .description("Second-level cache lookups per region")
+                    .tags("region", region, "result", "hit")
+                    .register(registry);
+                FunctionCounter.builder("minibank.cache.region.requests", statistics,
+                        regionCount(region, CacheRegionStatistics::getMissCount))
+                    .description("Second-level cache lookups per region")
+                    .tags("region", region, "result", "miss")
+                    .register(registry);
+                FunctionCounter.builder("minibank.cache.region.puts", statistics,
+                        regionCount(region, CacheRegionStatistics::getPutCount))
+                    .description("Entries written to each second-level cache region")
+                    .tag("region", region)
+                    .register(registry);
+            }
+        };
+    }
+
+    // Query regions only exist once a cached query has run, so look the region up on every read
+    private static ToDoubleFunction<Statistics> regionCount(String region, ToLongFunction<CacheRegionStatistics> count) {
+        return statistics -> {
+            try {
+                CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+                return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+            } catch (IllegalArgumentException unknownRegion) {
+                return 0;
+            }
+        };
+    }
+}
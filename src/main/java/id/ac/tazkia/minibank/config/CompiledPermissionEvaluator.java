@@ -0,0 +1,40 @@
+package id.ac.tazkia.minibank.config;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+
+import id.ac.tazkia.minibank.service.PermissionRegistry;
+
+/**
+ * Answers {@code hasPermission} in method security from the {@link PermissionRegistry}.
+ * {@code hasPermission('CUSTOMER', 'APPROVE')} and {@code hasPermission(#id, 'CUSTOMER', 'APPROVE')}
+ * both check the permission code {@code CUSTOMER_APPROVE}; {@code hasPermission(null, 'CUSTOMER_APPROVE')}
+ * checks the code as given.
+ */
+public class CompiledPermissionEvaluator implements PermissionEvaluator {
+
+    // Looked up on first use: the expression handler is created before the application beans
+    private final ObjectProvider<PermissionRegistry> permissionRegistry;
+
+    public CompiledPermissionEvaluator(ObjectProvider<PermissionRegistry> permissionRegistry) {
+        this.permissionRegistry = permissionRegistry;
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        String code = targetDomainObject == null
+            ? String.valueOf(permission)
+            : targetDomainObject + "_" + permission;
+        return permissionRegistry.getObject().hasPermission(authentication, code.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Serializable targetId, String targetType, Object permission) {
+        return permissionRegistry.getObject().hasPermission(authentication,
+            (targetType + "_" + permission).toUpperCase(Locale.ROOT));
+    }
+}
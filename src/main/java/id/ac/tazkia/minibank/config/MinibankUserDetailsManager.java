@@ -0,0 +1,47 @@
+package id.ac.tazkia.minibank.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+import id.ac.tazkia.minibank.service.AuthenticatedUser;
+
+/**
+ * JDBC user details that load as an {@link AuthenticatedUser}: besides the user and
+ * authority queries, the roles query gives the user's active role codes, first the one
+ * shown in the header.
+ */
+public class MinibankUserDetailsManager extends JdbcUserDetailsManager {
+
+    private String rolesByUsernameQuery;
+
+    public MinibankUserDetailsManager(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /** Query returning role code and role name of the user's active roles, display role first. */
+    public void setRolesByUsernameQuery(String rolesByUsernameQuery) {
+        this.rolesByUsernameQuery = rolesByUsernameQuery;
+    }
+
+    @Override
+    protected UserDetails createUserDetails(String username, UserDetails userFromUserQuery,
+                                            List<GrantedAuthority> combinedAuthorities) {
+        UserDetails user = super.createUserDetails(username, userFromUserQuery, combinedAuthorities);
+        if (rolesByUsernameQuery == null) {
+            throw new IllegalStateException("Roles by username query is not set");
+        }
+        List<String> roleCodes = new ArrayList<>();
+        List<String> roleNames = new ArrayList<>();
+        getJdbcTemplate().query(rolesByUsernameQuery, rs -> {
+            roleCodes.add(rs.getString(1));
+            roleNames.add(rs.getString(2));
+        }, username);
+        return new AuthenticatedUser(user, roleCodes, roleNames.isEmpty() ? null : roleNames.get(0));
+    }
+}
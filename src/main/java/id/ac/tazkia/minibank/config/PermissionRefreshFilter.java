@@ -0,0 +1,64 @@
+package id.ac.tazkia.minibank.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import id.ac.tazkia.minibank.service.AuthenticatedUser;
+import id.ac.tazkia.minibank.service.PermissionRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Keeps the authorities of a logged-in user's authentication in step with the
+ * {@link PermissionRegistry}. URL rules and {@code sec:authorize} in the templates read
+ * the authorities loaded at login; when role grants have changed since, the
+ * authentication is replaced with one carrying the current authorities before the
+ * request is authorized, and stored in the session for the requests that follow.
+ */
+public class PermissionRefreshFilter extends OncePerRequestFilter {
+
+    private final PermissionRegistry permissionRegistry;
+    private final SecurityContextRepository sessionContextRepository = new HttpSessionSecurityContextRepository();
+
+    public PermissionRefreshFilter(PermissionRegistry permissionRegistry) {
+        this.permissionRegistry = permissionRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            Set<GrantedAuthority> current = permissionRegistry.authoritiesOf(user);
+            if (!sameAuthorities(authentication.getAuthorities(), current)) {
+                UsernamePasswordAuthenticationToken refreshed = UsernamePasswordAuthenticationToken.authenticated(
+                    user, authentication.getCredentials(), current);
+                refreshed.setDetails(authentication.getDetails());
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(refreshed);
+                SecurityContextHolder.setContext(context);
+                // HTTP Basic calls authenticate on every request and have no session to update
+                if (request.getSession(false) != null) {
+                    sessionContextRepository.saveContext(context, request, response);
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean sameAuthorities(Collection<? extends GrantedAuthority> granted, Set<GrantedAuthority> current) {
+        return granted.size() == current.size() && current.containsAll(granted);
+    }
+}
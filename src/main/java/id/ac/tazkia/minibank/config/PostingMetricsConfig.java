@@ -0,0 +1,33 @@
+package id.ac.tazkia.minibank.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.PostingStageListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes PostingService stage timings as Micrometer timers
+ * ({@code minibank.posting.stage}, tagged by stage).
+ */
+@Configuration
+public class PostingMetricsConfig {
+    
+    @Bean
+    public PostingStageListener postingStageTimer(MeterRegistry meterRegistry) {
+        Map<PostingService.Stage, Timer> timers = new EnumMap<>(PostingService.Stage.class);
+        for (PostingService.Stage stage : PostingService.Stage.values()) {
+            timers.put(stage, Timer.builder("minibank.posting.stage")
+                .description("Time spent in each posting stage")
+                .tag("stage", stage.name())
+                .register(meterRegistry));
+        }
+        return (stage, legs, elapsedNanos) -> timers.get(stage).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
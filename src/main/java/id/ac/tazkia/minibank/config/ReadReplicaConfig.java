@@ -0,0 +1,52 @@
+package id.ac.tazkia.minibank.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Routes read-only transactions to the streaming replicas listed in
+ * {@code minibank.datasource.replica.urls}; without it every connection comes from the
+ * primary as before. The auto-configured primary pool is wrapped rather than replaced, so
+ * its settings and connection details still come from {@code spring.datasource.*}.
+ * Replica lag is published as {@code minibank.datasource.replica.lag} tagged by pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "minibank.datasource.replica", name = "urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public static BeanPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplicaRouter> readReplicaRouter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Replica pools are created by the router itself, so the only pool bean is the primary
+                if (bean instanceof HikariDataSource primary) {
+                    return readReplicaRouter.getObject().route(primary);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(ReadReplicaRouter readReplicaRouter) {
+        return registry -> {
+            for (String poolName : readReplicaRouter.getReplicaPoolNames()) {
+                Gauge.builder("minibank.datasource.replica.lag", readReplicaRouter,
+                        router -> router.lagMillis(poolName).map(Long::doubleValue).orElse(Double.NaN))
+                    .description("How far the replica's replay is behind the primary")
+                    .baseUnit("milliseconds")
+                    .tag("pool", poolName)
+                    .register(registry);
+            }
+        };
+    }
+}
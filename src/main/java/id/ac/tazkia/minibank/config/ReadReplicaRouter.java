@@ -0,0 +1,370 @@
+package id.ac.tazkia.minibank.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends the connections of read-only transactions to streaming replicas, so statements,
+ * searches and reports do not take primary connections away from postings.
+ *
+ * <p>A replica is used only while it is known to have replayed everything the primary had
+ * written no more than {@code max-lag-millis} ago, and only for a user whose last committed
+ * write it has already replayed, so a teller always reads their own postings. Both are
+ * measured by sampling the primary's WAL position and each replica's replay position every
+ * {@code lag-check-interval-millis}; a replica that cannot be checked is skipped. Reads
+ * with no eligible replica go to the primary.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "minibank.datasource.replica", name = "urls")
+public class ReadReplicaRouter implements SmartLifecycle {
+
+    private static final String SYSTEM_USER = "SYSTEM";
+
+    private final List<String> urls;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final long maxLagMillis;
+    private final long checkIntervalMillis;
+    private final AuditorAware<String> auditorAware;
+
+    // Commit time of each user's last write; dropped once every usable replica is past it
+    private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private HikariDataSource primary;
+    private volatile boolean running;
+    private Thread monitorThread;
+
+    public ReadReplicaRouter(@Value("${minibank.datasource.replica.urls}") String[] urls,
+                             @Value("${minibank.datasource.replica.username:}") String username,
+                             @Value("${minibank.datasource.replica.password:}") String password,
+                             @Value("${minibank.datasource.replica.pool-size:10}") int poolSize,
+                             @Value("${minibank.datasource.replica.max-lag-millis:5000}") long maxLagMillis,
+                             @Value("${minibank.datasource.replica.lag-check-interval-millis:1000}") long checkIntervalMillis,
+                             AuditorAware<String> auditorAware) {
+        List<String> configured = new ArrayList<>();
+        for (String url : urls) {
+            if (!url.isBlank()) {
+                configured.add(url.trim());
+            }
+        }
+        if (configured.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica URL is required");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Replica pool size must be at least 1");
+        }
+        if (checkIntervalMillis < 1) {
+            throw new IllegalArgumentException("Replica lag check interval must be at least 1ms");
+        }
+        if (maxLagMillis < checkIntervalMillis) {
+            throw new IllegalArgumentException("Replica max lag must not be shorter than the lag check interval");
+        }
+        this.urls = configured;
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.maxLagMillis = maxLagMillis;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * Wraps the primary pool: connections of read-only transactions come from a replica,
+     * all others from the primary. Replicas connect with the primary's credentials unless
+     * their own are configured.
+     */
+    public synchronized DataSource route(HikariDataSource primaryPool) {
+        if (primary != null) {
+            throw new IllegalStateException("Read replica routing is already set up");
+        }
+        primary = primaryPool;
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(new Replica(openPool(poolName(i), urls.get(i))));
+        }
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryPool));
+        proxy.setReadOnlyDataSource(new ReplicaDataSource());
+        log.info("Routing read-only transactions to {} replica(s), max lag {}ms", replicas.size(), maxLagMillis);
+        return proxy;
+    }
+
+    /**
+     * How far behind the primary the replica's replay is, in milliseconds, or empty when
+     * it has not been checked successfully yet or its last check failed.
+     */
+    public Optional<Long> lagMillis(String poolName) {
+        for (Replica replica : replicas) {
+            if (replica.pool.getPoolName().equals(poolName) && replica.healthy && replica.appliedThrough > 0) {
+                return Optional.of(Math.max(0, System.currentTimeMillis() - replica.appliedThrough));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Pool names of the replicas, {@code replica-1} for the first configured URL and so on. */
+    public List<String> getReplicaPoolNames() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            names.add(poolName(i));
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        monitorThread = Thread.ofVirtual().name("read-replica-lag-monitor").start(this::monitor);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (monitorThread != null) {
+            monitorThread.interrupt();
+            monitorThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static String poolName(int index) {
+        return "replica-" + (index + 1);
+    }
+
+    private HikariDataSource openPool(String poolName, String url) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(username.isBlank() ? primary.getUsername() : username);
+        config.setPassword(username.isBlank() ? primary.getPassword() : password);
+        config.setMaximumPoolSize(poolSize);
+        config.setReadOnly(true);
+        // A replica that is down at startup is skipped until it answers, not fatal
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private Connection readConnection() throws SQLException {
+        long now = System.currentTimeMillis();
+        long required = Math.max(now - maxLagMillis, lastWrites.getOrDefault(currentUser(), 0L));
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            // Strictly after: a sample taken in the same millisecond as the commit may predate it
+            if (replica.healthy && replica.appliedThrough > required) {
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    replica.markUnhealthy(e);
+                }
+            }
+        }
+        Connection connection = primary.getConnection();
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    private void recordWrite() {
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWrites.put(user, System.currentTimeMillis());
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(user, System.currentTimeMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReadReplicaRouter.this);
+            }
+        });
+    }
+
+    private String currentUser() {
+        return auditorAware.getCurrentAuditor().orElse(SYSTEM_USER);
+    }
+
+    private void monitor() {
+        while (running) {
+            // Taken before reading the WAL position, so every write committed by now is below it
+            long sampledAt = System.currentTimeMillis();
+            try {
+                long primaryLsn = primaryLsn();
+                replicas.forEach(replica -> replica.check(sampledAt, primaryLsn));
+            } catch (SQLException e) {
+                log.warn("Could not read the primary WAL position, replica lag not updated", e);
+            }
+            lastWrites.values().removeIf(writtenAt -> writtenAt < sampledAt - maxLagMillis);
+            try {
+                Thread.sleep(checkIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long primaryLsn() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            resultSet.next();
+            return parseLsn(resultSet.getString(1));
+        }
+    }
+
+    // A pg_lsn prints as two hexadecimal halves, e.g. 16/B374D848
+    private static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash < 1) {
+            throw new IllegalArgumentException("Not a WAL position: " + lsn);
+        }
+        return (Long.parseLong(lsn.substring(0, slash), 16) << 32) | Long.parseLong(lsn.substring(slash + 1), 16);
+    }
+
+    private final class Replica {
+
+        private final HikariDataSource pool;
+        // Primary WAL positions not yet replayed here, oldest first, as {sampledAt, lsn}
+        private final Deque<long[]> pendingSamples = new ArrayDeque<>();
+        private final int maxPendingSamples;
+
+        private volatile boolean healthy;
+        private volatile boolean reported;
+        // Every write committed on the primary before this time has been replayed
+        private volatile long appliedThrough;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.maxPendingSamples = (int) (maxLagMillis / checkIntervalMillis) + 2;
+        }
+
+        private void check(long sampledAt, long primaryLsn) {
+            pendingSamples.addLast(new long[] {sampledAt, primaryLsn});
+            if (pendingSamples.size() > maxPendingSamples) {
+                pendingSamples.removeFirst();
+            }
+            try (Connection connection = pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                     "SELECT pg_is_in_recovery(), pg_last_wal_replay_lsn()::text")) {
+                resultSet.next();
+                String replayed = resultSet.getString(2);
+                if (!resultSet.getBoolean(1) || replayed == null) {
+                    markUnhealthy(null);
+                    return;
+                }
+                long replayLsn = parseLsn(replayed);
+                while (!pendingSamples.isEmpty() && pendingSamples.peekFirst()[1] <= replayLsn) {
+                    appliedThrough = pendingSamples.removeFirst()[0];
+                }
+                if (!healthy) {
+                    log.info("Replica {} is available for read-only transactions", pool.getPoolName());
+                    healthy = true;
+                }
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(e);
+            }
+        }
+
+        private void markUnhealthy(Exception cause) {
+            // Warn when a replica drops out, and once for one that has never come up
+            if (healthy || !reported) {
+                if (cause == null) {
+                    log.warn("Replica {} is not a standby, not routing reads to it", pool.getPoolName());
+                } else {
+                    log.warn("Replica {} is unavailable, reading from the primary", pool.getPoolName(), cause);
+                }
+            }
+            reported = true;
+            healthy = false;
+        }
+    }
+
+    /**
+     * The primary pool, remembering who wrote through it for read-your-writes routing. Any
+     * connection taken outside a read-only transaction counts as a write once it commits.
+     */
+    private final class WriteTrackingDataSource extends DelegatingDataSource {
+
+        private WriteTrackingDataSource(DataSource primaryPool) {
+            super(primaryPool);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            recordWrite();
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String user, String pass) throws SQLException {
+            Connection connection = super.getConnection(user, pass);
+            recordWrite();
+            return connection;
+        }
+    }
+
+    private final class ReplicaDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return readConnection();
+        }
+
+        @Override
+        public Connection getConnection(String user, String pass) throws SQLException {
+            return readConnection();
+        }
+    }
+}
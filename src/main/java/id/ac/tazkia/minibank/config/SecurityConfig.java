@@ -2,20 +2,29 @@ package id.ac.tazkia.minibank.config;
 
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
 import id.ac.tazkia.minibank.service.AuthenticationService;
+import id.ac.tazkia.minibank.service.LoginAttemptTracker;
+import id.ac.tazkia.minibank.service.LoginUserCache;
+import id.ac.tazkia.minibank.service.PermissionRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -28,6 +37,21 @@ public class SecurityConfig {
 
     private final DataSource dataSource;
     private final AuthenticationService authenticationService;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final LoginUserCache loginUserCache;
+    private final PermissionRegistry permissionRegistry;
+
+    /**
+     * Method security {@code hasPermission} expressions are answered from the compiled
+     * role permissions instead of scanning the principal's authorities.
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<PermissionRegistry> permissionRegistry) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setPermissionEvaluator(new CompiledPermissionEvaluator(permissionRegistry));
+        return handler;
+    }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -35,8 +59,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JdbcUserDetailsManager jdbcUserDetailsManager() {
-        JdbcUserDetailsManager manager = new JdbcUserDetailsManager(dataSource);
+    public MinibankUserDetailsManager jdbcUserDetailsManager() {
+        MinibankUserDetailsManager manager = new MinibankUserDetailsManager(dataSource);
         
         // Custom query to get user credentials
         manager.setUsersByUsernameQuery(
@@ -62,10 +86,41 @@ public class SecurityConfig {
             "WHERE u.username = ? AND u.is_active = true AND r.is_active = true " +
             "AND p.permission_code IS NOT NULL"
         );
+
+        // Active roles of the user, the earliest assigned first as the role shown in the header
+        manager.setRolesByUsernameQuery(
+            "SELECT r.role_code, r.role_name " +
+            "FROM users u " +
+            "JOIN user_roles ur ON u.id = ur.id_users " +
+            "JOIN roles r ON ur.id_roles = r.id " +
+            "WHERE u.username = ? AND r.is_active = true " +
+            "ORDER BY ur.assigned_date, r.role_code"
+        );
         
         return manager;
     }
 
+    /**
+     * Authenticates form logins and HTTP Basic calls from cached user details. A username
+     * locked by too many failed logins is refused before its password is checked. As the
+     * only provider bean it backs the global authentication manager, which the filter
+     * chain uses; adding it to the chain as well would check a wrong password twice.
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(jdbcUserDetailsManager());
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserCache(loginUserCache);
+        AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+        provider.setPreAuthenticationChecks(user -> {
+            if (loginAttemptTracker.isLocked(user.getUsername())) {
+                throw new LockedException("User account is locked");
+            }
+            accountStatusChecker.check(user);
+        });
+        return provider;
+    }
+
     @Bean
     public AuthenticationSuccessHandler authenticationSuccessHandler() {
         return (request, response, authentication) -> {
@@ -113,10 +168,11 @@ public class SecurityConfig {
             )
             // Enable HTTP Basic authentication for API testing (Karate tests)
             .httpBasic(basic -> basic.realmName("Minibank API"))
-            .userDetailsService(jdbcUserDetailsManager())
             .csrf(csrf -> csrf
                 .ignoringRequestMatchers("/api/**")
-            );
+            )
+            // Role grant changes reach the authorities of users already logged in
+            .addFilterBefore(new PermissionRefreshFilter(permissionRegistry), AuthorizationFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
@@ -6,8 +6,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-import id.ac.tazkia.minibank.entity.User;
 import id.ac.tazkia.minibank.repository.UserRepository;
+import id.ac.tazkia.minibank.service.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -20,7 +20,8 @@ public class GlobalControllerAdvice {
     private final UserRepository userRepository;
     
     /**
-     * Add current user's role name to all views
+     * Add current user's role name to all views. The role is resolved at login and kept
+     * on the principal; other principals fall back to reading the user's roles.
      */
     @ModelAttribute
     public void addCurrentUserRole(Model model) {
@@ -28,6 +29,13 @@ public class GlobalControllerAdvice {
         
         if (authentication != null && authentication.isAuthenticated() && 
             !"anonymousUser".equals(authentication.getName())) {
+
+            if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+                if (user.getRoleName() != null) {
+                    model.addAttribute("currentUserRoleName", user.getRoleName());
+                }
+                return;
+            }
             
             String username = authentication.getName();
             userRepository.findByUsername(username)
@@ -42,4 +50,4 @@ public class GlobalControllerAdvice {
                 });
         }
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,26 @@
 package id.ac.tazkia.minibank.controller.rest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -21,20 +29,24 @@ import org.springframework.web.bind.annotation.RestController;
 import id.ac.tazkia.minibank.dto.AccountOpeningRequest;
 import id.ac.tazkia.minibank.dto.AccountOpeningResponse;
 import id.ac.tazkia.minibank.dto.AccountStatementRequest;
+import id.ac.tazkia.minibank.dto.BalanceHistory;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.CorporateCustomer;
 import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.entity.PersonalCustomer;
 import id.ac.tazkia.minibank.entity.Product;
-import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.BranchRepository;
 import id.ac.tazkia.minibank.repository.CorporateCustomerRepository;
 import id.ac.tazkia.minibank.repository.PersonalCustomerRepository;
 import id.ac.tazkia.minibank.repository.ProductRepository;
+import id.ac.tazkia.minibank.service.AccountBalanceHistoryService;
 import id.ac.tazkia.minibank.service.AccountStatementService;
 import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.StripedBalanceService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -53,6 +65,9 @@ public class AccountRestController {
     private final SequenceNumberService sequenceNumberService;
     private final AccountStatementService accountStatementService;
     private final AccountStatementPdfService accountStatementPdfService;
+    private final AccountBalanceHistoryService accountBalanceHistoryService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final StripedBalanceService stripedBalanceService;
     
     public AccountRestController(PersonalCustomerRepository personalCustomerRepository,
                                CorporateCustomerRepository corporateCustomerRepository,
@@ -61,7 +76,10 @@ public class AccountRestController {
                                BranchRepository branchRepository,
                                SequenceNumberService sequenceNumberService,
                                AccountStatementService accountStatementService,
-                               AccountStatementPdfService accountStatementPdfService) {
+                               AccountStatementPdfService accountStatementPdfService,
+                               AccountBalanceHistoryService accountBalanceHistoryService,
+                               CacheInvalidationBus cacheInvalidationBus,
+                               StripedBalanceService stripedBalanceService) {
         this.personalCustomerRepository = personalCustomerRepository;
         this.corporateCustomerRepository = corporateCustomerRepository;
         this.accountRepository = accountRepository;
@@ -70,6 +88,9 @@ public class AccountRestController {
         this.sequenceNumberService = sequenceNumberService;
         this.accountStatementService = accountStatementService;
         this.accountStatementPdfService = accountStatementPdfService;
+        this.accountBalanceHistoryService = accountBalanceHistoryService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.stripedBalanceService = stripedBalanceService;
     }
 
     @PostMapping("/open")
@@ -141,6 +162,7 @@ public class AccountRestController {
             // createdBy will be set automatically by JPA auditing
 
             Account savedAccount = accountRepository.save(account);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, savedAccount.getId());
 
             // Build response
             AccountOpeningResponse response = new AccountOpeningResponse();
@@ -180,90 +202,151 @@ public class AccountRestController {
         }
     }
 
-    private String generateAccountNumber() {
-        return sequenceNumberService.generateNextSequence("ACCOUNT_NUMBER", "ACC");
+    /**
+     * Balance of the account just before {@code asOf} (ISO date-time), or now when omitted.
+     * The current balance includes transfers still on the account's balance stripes.
+     */
+    @GetMapping("/{accountId}/balance")
+    public ResponseEntity<Object> getBalanceAsOf(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        LocalDateTime at = asOf != null ? asOf : LocalDateTime.now();
+        try {
+            Map<String, Object> body = new HashMap<>();
+            body.put("accountId", accountId);
+            body.put("asOf", at);
+            body.put("balance", asOf != null
+                ? accountBalanceHistoryService.getBalanceAsOf(accountId, at)
+                : stripedBalanceService.visibleBalance(accountId));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
     }
 
-    @PostMapping("/statement/pdf")
-    public ResponseEntity<byte[]> generateAccountStatementPdf(@Valid @RequestBody AccountStatementRequest request, 
-                                                            BindingResult bindingResult) {
-        if (bindingResult.hasErrors()) {
-            Map<String, String> errors = new HashMap<>();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.put(error.getField(), error.getDefaultMessage())
-            );
-            return ResponseEntity.badRequest().build();
+    /**
+     * Spreads incoming transfers of a very busy account over {@code stripes} balance stripes,
+     * 1 to 64, or stops with zero; see {@link StripedBalanceService}.
+     */
+    @PutMapping("/{accountId}/balance-stripes")
+    @PreAuthorize("hasPermission('ACCOUNT', 'UPDATE')")
+    public ResponseEntity<Object> setBalanceStripes(@PathVariable UUID accountId, @RequestParam int stripes) {
+        if (!accountRepository.existsById(accountId)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Account not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        try {
+            stripedBalanceService.setStripes(accountId, stripes);
+            Map<String, Object> body = new HashMap<>();
+            body.put("accountId", accountId);
+            body.put("stripes", stripes);
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("stripes", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         }
+    }
 
+    /**
+     * Day-by-day balances for charts, with the average daily balance of the period.
+     */
+    @GetMapping("/{accountId}/balance-history")
+    public ResponseEntity<Object> getBalanceHistory(
+            @PathVariable UUID accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (accountRepository.findById(accountId).isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Account not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
         try {
-            // Validate that either accountId or accountNumber is provided
-            if (request.getAccountId() == null && (request.getAccountNumber() == null || request.getAccountNumber().trim().isEmpty())) {
-                return ResponseEntity.badRequest().build();
-            }
+            BalanceHistory history = accountBalanceHistoryService.getBalanceHistory(accountId, startDate, endDate);
+            return ResponseEntity.ok(history);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
 
-            // Find account
-            Optional<Account> accountOpt;
-            if (request.getAccountId() != null) {
-                accountOpt = accountStatementService.findAccountById(request.getAccountId());
-            } else {
-                accountOpt = accountStatementService.findAccountByAccountNumber(request.getAccountNumber().trim());
-            }
+    private String generateAccountNumber() {
+        return sequenceNumberService.generateNextSequence("ACCOUNT_NUMBER", "ACC");
+    }
 
-            if (accountOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+    @PostMapping("/statement/pdf")
+    public void generateAccountStatementPdf(@Valid @RequestBody AccountStatementRequest request, 
+                                           BindingResult bindingResult,
+                                           HttpServletResponse response) throws IOException {
+        if (bindingResult.hasErrors()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
 
-            Account account = accountOpt.get();
+        // Validate that either accountId or accountNumber is provided
+        if (request.getAccountId() == null && (request.getAccountNumber() == null || request.getAccountNumber().trim().isEmpty())) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
 
-            // Validate date range
-            if (request.getStartDate().isAfter(request.getEndDate())) {
-                return ResponseEntity.badRequest().build();
-            }
+        // Find account
+        Optional<Account> accountOpt;
+        if (request.getAccountId() != null) {
+            accountOpt = accountStatementService.findAccountById(request.getAccountId());
+        } else {
+            accountOpt = accountStatementService.findAccountByAccountNumber(request.getAccountNumber().trim());
+        }
 
-            // Get transactions for the period
-            List<Transaction> transactions = accountStatementService.getTransactionsByAccountAndDateRange(
-                account.getId(), request.getStartDate(), request.getEndDate()
-            );
+        if (accountOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            // Generate PDF
-            byte[] pdfBytes = accountStatementPdfService.generateAccountStatementPdf(
-                account, transactions, request.getStartDate(), request.getEndDate()
-            );
+        Account account = accountOpt.get();
 
-            // Build filename
-            String filename = String.format("statement_%s_%s_to_%s.pdf", 
-                account.getAccountNumber(),
-                request.getStartDate().toString(),
-                request.getEndDate().toString());
+        // Validate date range
+        if (request.getStartDate().isAfter(request.getEndDate())) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
+        // Build filename
+        String filename = String.format("statement_%s_%s_to_%s.pdf", 
+            account.getAccountNumber(),
+            request.getStartDate().toString(),
+            request.getEndDate().toString());
 
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.formData().name("attachment").filename(filename).build().toString());
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid request for account statement", e);
-            return ResponseEntity.badRequest().build();
+        // Streamed straight to the client, so there is no Content-Length
+        try {
+            accountStatementPdfService.writeAccountStatementPdf(
+                account, request.getStartDate(), request.getEndDate(), response.getOutputStream());
         } catch (RuntimeException e) {
             log.error("Failed to generate account statement PDF", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 
     @GetMapping("/statement/pdf")
-    public ResponseEntity<byte[]> generateAccountStatementPdfByParams(
+    public void generateAccountStatementPdfByParams(
             @RequestParam(required = false) String accountId,
             @RequestParam(required = false) String accountNumber,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
+            @RequestParam String endDate,
+            HttpServletResponse response) throws IOException {
         
+        AccountStatementRequest request = new AccountStatementRequest();
         try {
-            AccountStatementRequest request = new AccountStatementRequest();
-            
             if (accountId != null && !accountId.trim().isEmpty()) {
                 request.setAccountId(java.util.UUID.fromString(accountId));
             }
@@ -273,12 +356,12 @@ public class AccountRestController {
             
             request.setStartDate(java.time.LocalDate.parse(startDate));
             request.setEndDate(java.time.LocalDate.parse(endDate));
-
-            return generateAccountStatementPdf(request, new org.springframework.validation.BeanPropertyBindingResult(request, "accountStatementRequest"));
-            
-        } catch (Exception e) {
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
             log.error("Failed to parse account statement parameters", e);
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
+
+        generateAccountStatementPdf(request, new org.springframework.validation.BeanPropertyBindingResult(request, "accountStatementRequest"), response);
     }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import id.ac.tazkia.minibank.dto.CustomerOverview;
 import id.ac.tazkia.minibank.entity.CorporateCustomer;
 import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.entity.PersonalCustomer;
@@ -24,6 +25,7 @@ import id.ac.tazkia.minibank.entity.Branch;
 import id.ac.tazkia.minibank.repository.CorporateCustomerRepository;
 import id.ac.tazkia.minibank.repository.PersonalCustomerRepository;
 import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.service.CustomerOverviewService;
 import jakarta.validation.Valid;
 
 @RestController
@@ -33,13 +35,16 @@ public class CustomerRestController {
     private final PersonalCustomerRepository personalCustomerRepository;
     private final CorporateCustomerRepository corporateCustomerRepository;
     private final BranchRepository branchRepository;
+    private final CustomerOverviewService customerOverviewService;
     
     public CustomerRestController(PersonalCustomerRepository personalCustomerRepository,
                                 CorporateCustomerRepository corporateCustomerRepository,
-                                BranchRepository branchRepository) {
+                                BranchRepository branchRepository,
+                                CustomerOverviewService customerOverviewService) {
         this.personalCustomerRepository = personalCustomerRepository;
         this.corporateCustomerRepository = corporateCustomerRepository;
         this.branchRepository = branchRepository;
+        this.customerOverviewService = customerOverviewService;
     }
 
     @PostMapping("/personal/register")
@@ -142,6 +147,18 @@ public class CustomerRestController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<Object> getCustomerOverview(@PathVariable UUID id,
+            @RequestParam(defaultValue = "" + CustomerOverviewService.DEFAULT_TRANSACTION_LIMIT) int transactions) {
+        try {
+            Optional<CustomerOverview> overview = customerOverviewService.getOverview(id, transactions);
+            return overview.<ResponseEntity<Object>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/personal")
     public ResponseEntity<List<PersonalCustomer>> getAllPersonalCustomers(@RequestParam(required = false) String search) {
         List<PersonalCustomer> customers;
@@ -0,0 +1,34 @@
+package id.ac.tazkia.minibank.controller.rest;
+
+import java.util.UUID;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import id.ac.tazkia.minibank.dto.DashboardStatistics;
+import id.ac.tazkia.minibank.service.DashboardStatisticsService;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardRestController {
+    
+    private final DashboardStatisticsService dashboardStatisticsService;
+    
+    public DashboardRestController(DashboardStatisticsService dashboardStatisticsService) {
+        this.dashboardStatisticsService = dashboardStatisticsService;
+    }
+
+    /**
+     * Served from memory; the dashboard polls this every few seconds.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<DashboardStatistics> getStatistics(@RequestParam(required = false) UUID branchId) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(dashboardStatisticsService.getStatistics(branchId));
+    }
+}
@@ -50,19 +50,14 @@ public class PassbookRestController {
             // Get or create passbook
             Passbook passbook = passbookPrintService.getOrCreatePassbook(accountId);
 
-            // Get unprinted transactions
-            List<Transaction> unprintedTransactions = passbookPrintService.getUnprintedTransactions(accountId);
+            // Get unprinted transactions, only as many as fit on the current page
+            List<Transaction> transactionsToPrint =
+                    passbookPrintService.getUnprintedTransactions(accountId, passbook.getRemainingLines());
 
-            if (unprintedTransactions.isEmpty()) {
+            if (transactionsToPrint.isEmpty()) {
                 return errorResponse("No new transactions to print", HttpStatus.OK);
             }
 
-            // Limit to remaining lines on current page
-            int remainingLines = passbook.getRemainingLines();
-            List<Transaction> transactionsToPrint = unprintedTransactions.stream()
-                    .limit(remainingLines)
-                    .toList();
-
             // Build response
             PassbookPrintDataResponse response = buildPrintDataResponse(passbook, account, transactionsToPrint);
 
@@ -102,8 +97,7 @@ public class PassbookRestController {
             }
 
             // Count unprinted transactions
-            List<Transaction> unprintedTransactions = passbookPrintService.getUnprintedTransactions(accountId);
-            status.put("unprintedTransactionCount", unprintedTransactions.size());
+            status.put("unprintedTransactionCount", passbookPrintService.countUnprintedTransactions(accountId));
 
             return ResponseEntity.ok(status);
 
@@ -133,20 +127,17 @@ public class PassbookRestController {
             if (request.getStatus() == PassbookPrintResultRequest.PrintStatus.SUCCESS ||
                 request.getStatus() == PassbookPrintResultRequest.PrintStatus.PARTIAL) {
 
-                // Get printed transactions
-                List<Transaction> printedTransactions = new ArrayList<>();
-                if (request.getPrintedTransactionIds() != null) {
-                    for (UUID txId : request.getPrintedTransactionIds()) {
-                        transactionRepository.findById(txId).ifPresent(printedTransactions::add);
-                    }
-                }
+                // Get printed transactions in one query; unknown ids are skipped
+                List<Transaction> printedTransactions = request.getPrintedTransactionIds() != null
+                        ? transactionRepository.findAllById(request.getPrintedTransactionIds())
+                        : List.of();
 
                 if (printedTransactions.isEmpty()) {
                     return errorResponse("No valid transaction IDs provided", HttpStatus.BAD_REQUEST);
                 }
 
-                // Sort by transaction date to ensure correct order
-                printedTransactions.sort(Comparator.comparing(Transaction::getTransactionDate));
+                // Sort into passbook order so the last one becomes the print watermark
+                printedTransactions = PassbookPrintService.sortInPrintOrder(printedTransactions);
 
                 history = passbookPrintService.recordPrintSuccess(
                         request.getAccountId(),
@@ -2,28 +2,40 @@ package id.ac.tazkia.minibank.controller.rest;
 
 import id.ac.tazkia.minibank.dto.DepositRequest;
 import id.ac.tazkia.minibank.dto.DepositResponse;
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
 import id.ac.tazkia.minibank.dto.WithdrawalRequest;
 import id.ac.tazkia.minibank.dto.WithdrawalResponse;
-import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
-import id.ac.tazkia.minibank.repository.AccountRepository;
-import id.ac.tazkia.minibank.repository.TransactionRepository;
-import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.TransactionQueryService;
+import id.ac.tazkia.minibank.service.PostingSequencer;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -33,194 +45,202 @@ public class TransactionRestController {
     
     private static final String ACCOUNT_ID_FIELD = "accountId";
     private static final String TRANSACTION_PROCESSING_FAILED = "Transaction processing failed";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENCY_KEY_FIELD = "idempotencyKey";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
     
-    private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
+    private final PostingService postingService;
+    private final TransactionQueryService transactionQueryService;
+    private final ObjectProvider<PostingSequencer> postingSequencer;
     
-    public TransactionRestController(AccountRepository accountRepository,
-                                   TransactionRepository transactionRepository,
-                                   SequenceNumberService sequenceNumberService) {
-        this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
-        this.sequenceNumberService = sequenceNumberService;
+    public TransactionRestController(PostingService postingService, TransactionQueryService transactionQueryService,
+                                     ObjectProvider<PostingSequencer> postingSequencer) {
+        this.postingService = postingService;
+        this.transactionQueryService = transactionQueryService;
+        this.postingSequencer = postingSequencer;
     }
     
+    /**
+     * Posts a deposit. A retry carrying the same {@code Idempotency-Key} header returns the
+     * original deposit with an {@code Idempotent-Replayed} header instead of posting it again.
+     */
     @PostMapping("/deposit")
-    @Transactional
-    public ResponseEntity<Object> deposit(@Valid @RequestBody DepositRequest request, BindingResult bindingResult) {
+    public ResponseEntity<Object> deposit(@Valid @RequestBody DepositRequest request, BindingResult bindingResult,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
-            Map<String, String> errors = new HashMap<>();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.put(error.getField(), error.getDefaultMessage())
-            );
-            return ResponseEntity.badRequest().body(errors);
+            return fieldErrors(bindingResult);
         }
-        
-        try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(request.getAccountId());
-            if (accountOpt.isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account not found");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account is not active");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.DEPOSIT);
-            transaction.setAmount(request.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(request.getDescription());
-            transaction.setReferenceNumber(request.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process deposit using business method
-            account.deposit(request.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            Account savedAccount = accountRepository.save(account);
-            
-            // Build response
+        PostingRequest posting = posting(Transaction.TransactionType.DEPOSIT, request.getAccountId(), request.getAmount(),
+            request.getDescription(), request.getReferenceNumber(), idempotencyKey);
+        return post(posting, result -> {
             DepositResponse response = new DepositResponse();
-            response.setTransactionId(savedTransaction.getId());
-            response.setTransactionNumber(savedTransaction.getTransactionNumber());
-            response.setAccountId(savedAccount.getId());
-            response.setAccountNumber(savedAccount.getAccountNumber());
-            response.setAmount(savedTransaction.getAmount());
-            response.setBalanceBefore(savedTransaction.getBalanceBefore());
-            response.setBalanceAfter(savedTransaction.getBalanceAfter());
-            response.setDescription(savedTransaction.getDescription());
-            response.setReferenceNumber(savedTransaction.getReferenceNumber());
-            response.setCurrency(savedTransaction.getCurrency());
-            response.setChannel(savedTransaction.getChannel().name());
-            response.setTransactionDate(savedTransaction.getTransactionDate());
-            response.setProcessedDate(savedTransaction.getProcessedDate());
+            response.setTransactionId(result.getTransactionId());
+            response.setTransactionNumber(result.getTransactionNumber());
+            response.setAccountId(result.getAccountId());
+            response.setAccountNumber(result.getAccountNumber());
+            response.setAmount(result.getAmount());
+            response.setBalanceBefore(result.getBalanceBefore());
+            response.setBalanceAfter(result.getBalanceAfter());
+            response.setDescription(result.getDescription());
+            response.setReferenceNumber(result.getReferenceNumber());
+            response.setCurrency(result.getCurrency());
+            response.setChannel(result.getChannel().name());
+            response.setTransactionDate(result.getTransactionDate());
+            response.setProcessedDate(result.getProcessedDate());
             
-            // Account info
             DepositResponse.AccountInfo accountInfo = new DepositResponse.AccountInfo();
-            accountInfo.setId(savedAccount.getId());
-            accountInfo.setAccountNumber(savedAccount.getAccountNumber());
-            accountInfo.setAccountName(savedAccount.getAccountName());
-            accountInfo.setCurrentBalance(savedAccount.getBalance());
+            accountInfo.setId(result.getAccountId());
+            accountInfo.setAccountNumber(result.getAccountNumber());
+            accountInfo.setAccountName(result.getAccountName());
+            accountInfo.setCurrentBalance(result.getBalanceAfter());
             response.setAccount(accountInfo);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
-        } catch (IllegalArgumentException e) {
-            log.warn("Invalid transaction amount: {}", e.getMessage());
-            Map<String, String> error = new HashMap<>();
-            error.put("amount", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
-        } catch (RuntimeException e) {
-            log.error(TRANSACTION_PROCESSING_FAILED, e);
-            Map<String, String> error = new HashMap<>();
-            error.put("error", TRANSACTION_PROCESSING_FAILED);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+            return response;
+        });
     }
     
+    /**
+     * Posts a withdrawal. A retry carrying the same {@code Idempotency-Key} header returns the
+     * original withdrawal with an {@code Idempotent-Replayed} header instead of posting it again.
+     */
     @PostMapping("/withdrawal")
-    @Transactional
-    public ResponseEntity<Object> withdrawal(@Valid @RequestBody WithdrawalRequest request, BindingResult bindingResult) {
+    public ResponseEntity<Object> withdrawal(@Valid @RequestBody WithdrawalRequest request, BindingResult bindingResult,
+                                          @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (bindingResult.hasErrors()) {
-            Map<String, String> errors = new HashMap<>();
-            bindingResult.getFieldErrors().forEach(error -> 
-                errors.put(error.getField(), error.getDefaultMessage())
-            );
-            return ResponseEntity.badRequest().body(errors);
+            return fieldErrors(bindingResult);
         }
-        
-        try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(request.getAccountId());
-            if (accountOpt.isEmpty()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account not found");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                Map<String, String> error = new HashMap<>();
-                error.put(ACCOUNT_ID_FIELD, "Account is not active");
-                return ResponseEntity.badRequest().body(error);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
-            transaction.setAmount(request.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(request.getDescription());
-            transaction.setReferenceNumber(request.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process withdrawal using business method
-            account.withdraw(request.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
-            
-            // Save transaction and account
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            Account savedAccount = accountRepository.save(account);
-            
-            // Build response
+        PostingRequest posting = posting(Transaction.TransactionType.WITHDRAWAL, request.getAccountId(), request.getAmount(),
+            request.getDescription(), request.getReferenceNumber(), idempotencyKey);
+        return post(posting, result -> {
             WithdrawalResponse response = new WithdrawalResponse();
-            response.setTransactionId(savedTransaction.getId());
-            response.setTransactionNumber(savedTransaction.getTransactionNumber());
-            response.setAccountId(savedAccount.getId());
-            response.setAccountNumber(savedAccount.getAccountNumber());
-            response.setAmount(savedTransaction.getAmount());
-            response.setBalanceBefore(savedTransaction.getBalanceBefore());
-            response.setBalanceAfter(savedTransaction.getBalanceAfter());
-            response.setDescription(savedTransaction.getDescription());
-            response.setReferenceNumber(savedTransaction.getReferenceNumber());
-            response.setCurrency(savedTransaction.getCurrency());
-            response.setChannel(savedTransaction.getChannel().name());
-            response.setTransactionDate(savedTransaction.getTransactionDate());
-            response.setProcessedDate(savedTransaction.getProcessedDate());
+            response.setTransactionId(result.getTransactionId());
+            response.setTransactionNumber(result.getTransactionNumber());
+            response.setAccountId(result.getAccountId());
+            response.setAccountNumber(result.getAccountNumber());
+            response.setAmount(result.getAmount());
+            response.setBalanceBefore(result.getBalanceBefore());
+            response.setBalanceAfter(result.getBalanceAfter());
+            response.setDescription(result.getDescription());
+            response.setReferenceNumber(result.getReferenceNumber());
+            response.setCurrency(result.getCurrency());
+            response.setChannel(result.getChannel().name());
+            response.setTransactionDate(result.getTransactionDate());
+            response.setProcessedDate(result.getProcessedDate());
             
-            // Account info
             WithdrawalResponse.AccountInfo accountInfo = new WithdrawalResponse.AccountInfo();
-            accountInfo.setId(savedAccount.getId());
-            accountInfo.setAccountNumber(savedAccount.getAccountNumber());
-            accountInfo.setAccountName(savedAccount.getAccountName());
-            accountInfo.setCurrentBalance(savedAccount.getBalance());
+            accountInfo.setId(result.getAccountId());
+            accountInfo.setAccountNumber(result.getAccountNumber());
+            accountInfo.setAccountName(result.getAccountName());
+            accountInfo.setCurrentBalance(result.getBalanceAfter());
             response.setAccount(accountInfo);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
+            return response;
+        });
+    }
+    
+    /**
+     * Transaction history of one account, newest first. Pass {@code nextCursor} from
+     * the previous response as {@code after} to get the following page.
+     */
+    @GetMapping("/account/{accountId}")
+    public ResponseEntity<Object> accountHistory(@PathVariable UUID accountId,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) String before,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setAccountId(accountId);
+        return history(criteria, after, before, size);
+    }
+    
+    /**
+     * Transaction history across all accounts of one customer, newest first.
+     */
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<Object> customerHistory(@PathVariable UUID customerId,
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) String before,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setCustomerId(customerId);
+        return history(criteria, after, before, size);
+    }
+    
+    /**
+     * Full-text search for back-office investigations over transaction number, reference
+     * number and description, newest first. The first page also carries facet counts
+     * per transaction type, channel, account and month.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Object> search(@RequestParam String q,
+                                         @RequestParam(required = false) UUID accountId,
+                                         @RequestParam(required = false) Transaction.TransactionType transactionType,
+                                         @RequestParam(required = false) Transaction.TransactionChannel channel,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(required = false) String before,
+                                         @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("q", "Search term is required");
+            return ResponseEntity.badRequest().body(error);
+        }
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setSearch(q.trim());
+        criteria.setAccountId(accountId);
+        criteria.setTransactionType(transactionType);
+        criteria.setChannel(channel);
+        criteria.setStartDate(startDate != null ? startDate.atStartOfDay() : null);
+        criteria.setEndDate(endDate != null ? endDate.atTime(23, 59, 59) : null);
+        
+        try {
+            Map<String, Object> response = toPageBody(
+                transactionQueryService.findTransactions(criteria, after, before, size));
+            if ((after == null || after.isBlank()) && (before == null || before.isBlank())) {
+                response.put("facets", transactionQueryService.findFacets(criteria));
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return cursorError(e);
+        }
+    }
+    
+    /**
+     * A teller posting, idempotent only under the client's Idempotency-Key header. Reference
+     * numbers are not unique across accounts and transaction types, so they never act as keys.
+     */
+    private static PostingRequest posting(Transaction.TransactionType type, UUID accountId, BigDecimal amount,
+                                          String description, String referenceNumber, String idempotencyKey) {
+        PostingRequest posting = new PostingRequest();
+        posting.setAccountId(accountId);
+        posting.setTransactionType(type);
+        posting.setAmount(amount);
+        posting.setDescription(description);
+        posting.setReferenceNumber(referenceNumber);
+        posting.setChannel(Transaction.TransactionChannel.TELLER);
+        posting.setIdempotencyKey(idempotencyKey);
+        return posting;
+    }
+    
+    /**
+     * Posts a single-leg movement and answers 201 with the response built from the result,
+     * or a field error: 409 on {@code idempotencyKey} for a key reused for another request.
+     * Goes through the posting sequencer when it is enabled.
+     */
+    private ResponseEntity<Object> post(PostingRequest posting, Function<PostingResult, Object> toResponse) {
+        try {
+            PostingSequencer sequencer = postingSequencer.getIfAvailable();
+            PostingResult result = sequencer != null ? sequencer.post(posting) : postingService.post(posting);
+            return created(result, toResponse.apply(result));
+        } catch (PostingRejectedException e) {
+            log.warn("Posting rejected: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            if (e.isIdempotencyKeyProblem()) {
+                error.put(IDEMPOTENCY_KEY_FIELD, e.getMessage());
+                return e.getReason() == PostingRejectedException.Reason.IDEMPOTENCY_KEY_REUSED
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).body(error)
+                    : ResponseEntity.badRequest().body(error);
+            }
+            error.put(e.isAccountProblem() ? ACCOUNT_ID_FIELD : "amount", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid transaction amount: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
@@ -233,4 +253,60 @@ public class TransactionRestController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
-}
\ No newline at end of file
+    
+    private static ResponseEntity<Object> fieldErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getFieldErrors().forEach(error -> 
+            errors.put(error.getField(), error.getDefaultMessage())
+        );
+        return ResponseEntity.badRequest().body(errors);
+    }
+    
+    private ResponseEntity<Object> created(PostingResult result, Object response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.isReplayed()) {
+            builder.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return builder.body(response);
+    }
+    
+    private ResponseEntity<Object> history(TransactionSearchCriteria criteria, String after, String before, int size) {
+        try {
+            return ResponseEntity.ok(toPageBody(transactionQueryService.findTransactions(criteria, after, before, size)));
+        } catch (IllegalArgumentException e) {
+            return cursorError(e);
+        }
+    }
+    
+    private Map<String, Object> toPageBody(KeysetPage<Transaction> page) {
+        List<Map<String, Object>> content = page.getContent().stream().map(this::toHistoryItem).toList();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", content);
+        response.put("size", page.getSize());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("previousCursor", page.getPreviousCursor());
+        return response;
+    }
+    
+    private ResponseEntity<Object> cursorError(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("cursor", e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+    
+    private Map<String, Object> toHistoryItem(Transaction transaction) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("transactionId", transaction.getId());
+        item.put("transactionNumber", transaction.getTransactionNumber());
+        item.put("transactionType", transaction.getTransactionType().name());
+        item.put("accountNumber", transaction.getAccount().getAccountNumber());
+        item.put("amount", transaction.getAmount());
+        item.put("balanceBefore", transaction.getBalanceBefore());
+        item.put("balanceAfter", transaction.getBalanceAfter());
+        item.put("description", transaction.getDescription());
+        item.put("referenceNumber", transaction.getReferenceNumber());
+        item.put("channel", transaction.getChannel() != null ? transaction.getChannel().name() : null);
+        item.put("transactionDate", transaction.getTransactionDate());
+        return item;
+    }
+}
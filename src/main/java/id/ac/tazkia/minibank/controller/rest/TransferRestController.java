@@ -0,0 +1,112 @@
+package id.ac.tazkia.minibank.controller.rest;
+
+import id.ac.tazkia.minibank.dto.BatchTransferRequest;
+import id.ac.tazkia.minibank.dto.BatchTransferResult;
+import id.ac.tazkia.minibank.service.BatchTransferService;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/transfers")
+public class TransferRestController {
+    
+    private static final String FROM_ACCOUNT_ID_FIELD = "fromAccountId";
+    private static final String BATCH_PROCESSING_FAILED = "Transfer batch processing failed";
+    
+    private final BatchTransferService batchTransferService;
+    
+    public TransferRestController(BatchTransferService batchTransferService) {
+        this.batchTransferService = batchTransferService;
+    }
+    
+    /**
+     * Posts a batch of transfers out of one account and reports the outcome of every line.
+     * Lines are refused one by one; see {@link BatchTransferService} for when the whole
+     * batch is refused instead.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasPermission('TRANSACTION', 'TRANSFER')")
+    public ResponseEntity<Object> batch(@Valid @RequestBody BatchTransferRequest request, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            Map<String, String> errors = new HashMap<>();
+            bindingResult.getFieldErrors().forEach(error -> 
+                errors.put(error.getField(), error.getDefaultMessage())
+            );
+            return ResponseEntity.badRequest().body(errors);
+        }
+        return process(request);
+    }
+    
+    /**
+     * Same as {@link #batch} with the lines uploaded as a CSV file with a header row:
+     * {@code toAccountNumber,amount,description,referenceNumber}, the last two optional.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasPermission('TRANSACTION', 'TRANSFER')")
+    public ResponseEntity<Object> batchUpload(@RequestParam UUID fromAccountId,
+                                              @RequestParam("file") MultipartFile file,
+                                              @RequestParam(required = false) String description,
+                                              @RequestParam(required = false) String referenceNumber) {
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setFromAccountId(fromAccountId);
+        if (description != null && !description.isBlank()) {
+            request.setDescription(description);
+        }
+        request.setReferenceNumber(referenceNumber);
+        
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            request.setLines(batchTransferService.readCsv(reader));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid transfer batch file {}: {}", file.getOriginalFilename(), e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("file", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (IOException | UncheckedIOException e) {
+            log.error(BATCH_PROCESSING_FAILED, e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", BATCH_PROCESSING_FAILED);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+        return process(request);
+    }
+    
+    private ResponseEntity<Object> process(BatchTransferRequest request) {
+        try {
+            BatchTransferResult result = batchTransferService.process(request);
+            return ResponseEntity.ok(result);
+        } catch (PostingRejectedException e) {
+            log.warn("Transfer batch rejected: {}", e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put(e.getReason() == PostingRejectedException.Reason.INVALID_REQUEST ? "lines" : FROM_ACCOUNT_ID_FIELD,
+                e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (RuntimeException e) {
+            log.error(BATCH_PROCESSING_FAILED, e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", BATCH_PROCESSING_FAILED);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import id.ac.tazkia.minibank.entity.Branch;
 import id.ac.tazkia.minibank.repository.UserRepository;
 import id.ac.tazkia.minibank.repository.UserPasswordRepository;
 import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -36,15 +37,18 @@ public class UserRestController {
     private final UserPasswordRepository userPasswordRepository;
     private final BranchRepository branchRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     public UserRestController(UserRepository userRepository, 
                              UserPasswordRepository userPasswordRepository,
                              BranchRepository branchRepository,
-                             PasswordEncoder passwordEncoder) {
+                             PasswordEncoder passwordEncoder,
+                             CacheInvalidationBus cacheInvalidationBus) {
         this.userRepository = userRepository;
         this.userPasswordRepository = userPasswordRepository;
         this.branchRepository = branchRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     @PostMapping
@@ -176,6 +180,7 @@ public class UserRestController {
                     // AuditorAware will automatically set updatedBy
                     
                     User updatedUser = userRepository.save(user);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                     return ResponseEntity.ok(new UserResponse(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -188,6 +193,7 @@ public class UserRestController {
                     user.setIsActive(true);
                     // AuditorAware will automatically set updatedBy
                     User updatedUser = userRepository.save(user);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                     return ResponseEntity.ok(new UserResponse(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -200,6 +206,7 @@ public class UserRestController {
                     user.setIsActive(false);
                     // AuditorAware will automatically set updatedBy
                     User updatedUser = userRepository.save(user);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                     return ResponseEntity.ok(new UserResponse(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -213,6 +220,7 @@ public class UserRestController {
                     user.setIsLocked(false);
                     // AuditorAware will automatically set updatedBy
                     User updatedUser = userRepository.save(user);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                     return ResponseEntity.ok(new UserResponse(updatedUser));
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -243,6 +251,7 @@ public class UserRestController {
                     userPassword.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
                     // AuditorAware will automatically set createdBy
                     userPasswordRepository.save(userPassword);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
 
                     Map<String, String> response = new HashMap<>();
                     response.put("message", "Password changed successfully");
@@ -256,6 +265,7 @@ public class UserRestController {
         return userRepository.findById(id)
                 .map(user -> {
                     userRepository.delete(user);
+                    cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                     Map<String, String> response = new HashMap<>();
                     response.put("message", "User deleted successfully");
                     return ResponseEntity.ok(response);
@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.controller.web;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -10,9 +12,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -30,14 +32,17 @@ import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.entity.PersonalCustomer;
 import id.ac.tazkia.minibank.entity.CorporateCustomer;
 import id.ac.tazkia.minibank.entity.Product;
-import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.CustomerRepository;
 import id.ac.tazkia.minibank.repository.ProductRepository;
 import id.ac.tazkia.minibank.service.AccountService;
-import id.ac.tazkia.minibank.service.AccountStatementService;
 import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.DashboardStatisticsService;
+import id.ac.tazkia.minibank.service.CustomerSearchService;
 import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.StripedBalanceService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -55,14 +60,18 @@ public class AccountController {
     private static final String SUCCESS_MESSAGE_ATTR = "successMessage";
     private static final String CUSTOMER_NOT_FOUND_MSG = "Customer not found";
     private static final String PRODUCT_NOT_FOUND_MSG = "Product not found";
+    private static final int CUSTOMER_PICKER_LIMIT = 50;
     
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final AccountRepository accountRepository;
     private final AccountService accountService;
-    private final AccountStatementService accountStatementService;
     private final AccountStatementPdfService accountStatementPdfService;
     private final SequenceNumberService sequenceNumberService;
+    private final CustomerSearchService customerSearchService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DashboardStatisticsService dashboardStatisticsService;
+    private final StripedBalanceService stripedBalanceService;
     
     @GetMapping("/list")
     public String accountList(
@@ -89,6 +98,7 @@ public class AccountController {
         }
 
         model.addAttribute("accounts", accounts);
+        model.addAttribute("visibleBalances", stripedBalanceService.visibleBalances(accounts));
         model.addAttribute("search", search);
         model.addAttribute("status", status);
         model.addAttribute("accountStatuses", Account.AccountStatus.values());
@@ -110,10 +120,7 @@ public class AccountController {
         
         List<Customer> customers;
         if (search != null && !search.trim().isEmpty()) {
-            customers = customerRepository.findByCustomerNumberContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                search.trim(), search.trim()).stream()
-                .filter(customer -> customer.getStatus() == Customer.CustomerStatus.ACTIVE)
-                .toList();
+            customers = customerSearchService.searchActive(search, null, CUSTOMER_PICKER_LIMIT);
         } else {
             customers = customerRepository.findByStatus(Customer.CustomerStatus.ACTIVE);
         }
@@ -208,11 +215,8 @@ public class AccountController {
         
         List<Customer> corporateCustomers;
         if (search != null && !search.trim().isEmpty()) {
-            corporateCustomers = customerRepository.findByCustomerNumberContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                search.trim(), search.trim()).stream()
-                .filter(customer -> customer.getStatus() == Customer.CustomerStatus.ACTIVE)
-                .filter(customer -> customer.getCustomerType() == Customer.CustomerType.CORPORATE)
-                .toList();
+            corporateCustomers = customerSearchService.searchActive(
+                search, Customer.CustomerType.CORPORATE, CUSTOMER_PICKER_LIMIT);
         } else {
             corporateCustomers = customerRepository.findByStatus(Customer.CustomerStatus.ACTIVE).stream()
                 .filter(customer -> customer.getCustomerType() == Customer.CustomerType.CORPORATE)
@@ -296,7 +300,7 @@ public class AccountController {
     
     @GetMapping("/{accountId}/statement")
     public String accountStatementForm(@PathVariable UUID accountId, Model model, RedirectAttributes redirectAttributes) {
-        Optional<Account> accountOpt = accountRepository.findById(accountId);
+        Optional<Account> accountOpt = accountRepository.findWithSummaryById(accountId);
         if (accountOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "Account not found");
             return ACCOUNT_LIST_REDIRECT;
@@ -304,6 +308,7 @@ public class AccountController {
         
         Account account = accountOpt.get();
         model.addAttribute("account", account);
+        model.addAttribute("visibleBalance", stripedBalanceService.visibleBalance(account));
         
         // Set default date range (last 3 months)
         LocalDate endDate = LocalDate.now();
@@ -315,57 +320,56 @@ public class AccountController {
     }
     
     @PostMapping("/{accountId}/statement/pdf")
-    public ResponseEntity<byte[]> generateAccountStatementPdf(@PathVariable UUID accountId,
-                                                             @RequestParam String startDate,
-                                                             @RequestParam String endDate,
-                                                             RedirectAttributes redirectAttributes) {
+    public void generateAccountStatementPdf(@PathVariable UUID accountId,
+                                           @RequestParam String startDate,
+                                           @RequestParam String endDate,
+                                           HttpServletResponse response) throws IOException {
+        Optional<Account> accountOpt = accountRepository.findById(accountId);
+        if (accountOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        Account account = accountOpt.get();
+        LocalDate start;
+        LocalDate end;
         try {
-            Optional<Account> accountOpt = accountRepository.findById(accountId);
-            if (accountOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            Account account = accountOpt.get();
-            LocalDate start = LocalDate.parse(startDate);
-            LocalDate end = LocalDate.parse(endDate);
-            
-            // Validate date range
-            if (start.isAfter(end)) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            // Get transactions for the period
-            List<Transaction> transactions = accountStatementService.getTransactionsByAccountAndDateRange(
-                account.getId(), start, end
-            );
-            
-            // Generate PDF
-            byte[] pdfBytes = accountStatementPdfService.generateAccountStatementPdf(
-                account, transactions, start, end
-            );
-            
-            // Build filename
-            String filename = String.format("statement_%s_%s_to_%s.pdf", 
-                account.getAccountNumber(), startDate, endDate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setContentLength(pdfBytes.length);
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
-                
-        } catch (Exception e) {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        
+        // Validate date range
+        if (start.isAfter(end)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        
+        // Build filename
+        String filename = String.format("statement_%s_%s_to_%s.pdf", 
+            account.getAccountNumber(), startDate, endDate);
+        
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.formData().name("attachment").filename(filename).build().toString());
+        
+        // The PDF goes straight to the client as it is written; no length is known up front
+        try {
+            accountStatementPdfService.writeAccountStatementPdf(account, start, end, response.getOutputStream());
+        } catch (RuntimeException e) {
             log.error("Failed to generate account statement PDF for account: {}", accountId, e);
-            return ResponseEntity.internalServerError().build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
     
     @GetMapping("/{accountId}/close")
     public String closeAccountForm(@PathVariable UUID accountId, Model model, RedirectAttributes redirectAttributes) {
-        Optional<Account> accountOpt = accountRepository.findById(accountId);
+        Optional<Account> accountOpt = accountRepository.findWithSummaryById(accountId);
         if (accountOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, "Account not found");
             return ACCOUNT_LIST_REDIRECT;
@@ -379,6 +383,7 @@ public class AccountController {
         }
         
         model.addAttribute("account", account);
+        model.addAttribute("visibleBalance", stripedBalanceService.visibleBalance(account));
         return "account/close-form";
     }
     
@@ -394,8 +399,19 @@ public class AccountController {
             }
             
             Account account = accountOpt.get();
+            // Credits still on the stripes are not in the balance closeAccount() checks
+            if (stripedBalanceService.hasStripes(accountId)) {
+                redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR,
+                    "Remove the balance stripes of account " + account.getAccountNumber() + " before closing it");
+                return ACCOUNT_LIST_REDIRECT;
+            }
+            boolean wasActive = account.isActive();
             account.closeAccount();
             accountRepository.save(account);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, account.getId());
+            if (wasActive) {
+                dashboardStatisticsService.accountDeactivated(account.getBranch(), account.getProduct());
+            }
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 "Account " + account.getAccountNumber() + " has been closed successfully");
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import id.ac.tazkia.minibank.dto.ApprovalQueueRow;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.ApprovalRequest;
 import id.ac.tazkia.minibank.entity.Customer;
@@ -33,7 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 @Controller
 @RequestMapping("/approval")
 @RequiredArgsConstructor
-@PreAuthorize("hasAuthority('APPROVAL_VIEW')")
+@PreAuthorize("hasPermission('APPROVAL', 'VIEW')")
 public class ApprovalController {
 
     private static final String APPROVAL_QUEUE_VIEW = "approval/queue";
@@ -54,15 +55,15 @@ public class ApprovalController {
     public String queue(@RequestParam(required = false) String filterType, Model model) {
         log.info("Displaying approval queue");
 
-        List<ApprovalRequest> pendingApprovals;
+        List<ApprovalQueueRow> pendingApprovals;
 
         if (filterType != null && !filterType.trim().isEmpty()) {
             // Filter by request type
             ApprovalRequest.RequestType requestType = ApprovalRequest.RequestType.valueOf(filterType);
-            pendingApprovals = approvalService.getPendingApprovalsByType(requestType);
+            pendingApprovals = approvalService.getPendingQueueByType(requestType);
         } else {
             // Get all pending approvals
-            pendingApprovals = approvalService.getAllPendingApprovals();
+            pendingApprovals = approvalService.getPendingQueue();
         }
 
         model.addAttribute("pendingApprovals", pendingApprovals);
@@ -116,7 +117,7 @@ public class ApprovalController {
      * Requires CUSTOMER_APPROVE permission
      */
     @PostMapping("/approve/customer/{id}")
-    @PreAuthorize("hasAuthority('CUSTOMER_APPROVE')")
+    @PreAuthorize("hasPermission('CUSTOMER', 'APPROVE')")
     public String approveCustomer(@PathVariable UUID id,
                                   @RequestParam(required = false) String reviewNotes,
                                   RedirectAttributes redirectAttributes) {
@@ -149,7 +150,7 @@ public class ApprovalController {
      * Requires CUSTOMER_APPROVE permission
      */
     @PostMapping("/reject/customer/{id}")
-    @PreAuthorize("hasAuthority('CUSTOMER_APPROVE')")
+    @PreAuthorize("hasPermission('CUSTOMER', 'APPROVE')")
     public String rejectCustomer(@PathVariable UUID id,
                                  @RequestParam String rejectionReason,
                                  @RequestParam(required = false) String reviewNotes,
@@ -191,7 +192,7 @@ public class ApprovalController {
      * Requires ACCOUNT_APPROVE permission
      */
     @PostMapping("/approve/account/{id}")
-    @PreAuthorize("hasAuthority('ACCOUNT_APPROVE')")
+    @PreAuthorize("hasPermission('ACCOUNT', 'APPROVE')")
     public String approveAccount(@PathVariable UUID id,
                                 @RequestParam(required = false) String reviewNotes,
                                 RedirectAttributes redirectAttributes) {
@@ -224,7 +225,7 @@ public class ApprovalController {
      * Requires ACCOUNT_APPROVE permission
      */
     @PostMapping("/reject/account/{id}")
-    @PreAuthorize("hasAuthority('ACCOUNT_APPROVE')")
+    @PreAuthorize("hasPermission('ACCOUNT', 'APPROVE')")
     public String rejectAccount(@PathVariable UUID id,
                                @RequestParam String rejectionReason,
                                @RequestParam(required = false) String reviewNotes,
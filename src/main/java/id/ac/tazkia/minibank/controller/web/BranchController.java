@@ -20,6 +20,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import id.ac.tazkia.minibank.entity.Branch;
 import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +40,7 @@ public class BranchController {
     private static final String BRANCH_NOT_FOUND_MSG = "Branch not found";
     
     private final BranchRepository branchRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     @GetMapping("/list")
     public String branchList(
@@ -117,6 +119,7 @@ public class BranchController {
         try {
             // AuditorAware will automatically set createdBy
             branchRepository.save(branch);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.BRANCH, branch.getId());
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Branch created successfully");
             return REDIRECT_BRANCH_LIST;
         } catch (Exception e) {
@@ -170,6 +173,7 @@ public class BranchController {
             branch.setId(id); // Ensure ID is set
             // AuditorAware will automatically set updatedBy
             branchRepository.save(branch);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.BRANCH, branch.getId());
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Branch updated successfully");
             return REDIRECT_BRANCH_LIST;
         } catch (Exception e) {
@@ -208,6 +212,7 @@ public class BranchController {
                 branch.setStatus(Branch.BranchStatus.INACTIVE);
                 // AuditorAware will automatically set updatedBy
                 branchRepository.save(branch);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.BRANCH, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Branch deactivated successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, BRANCH_NOT_FOUND_MSG);
@@ -228,6 +233,7 @@ public class BranchController {
                 branch.setStatus(Branch.BranchStatus.ACTIVE);
                 // AuditorAware will automatically set updatedBy
                 branchRepository.save(branch);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.BRANCH, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Branch activated successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, BRANCH_NOT_FOUND_MSG);
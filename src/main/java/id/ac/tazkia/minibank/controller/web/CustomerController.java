@@ -34,6 +34,7 @@ import id.ac.tazkia.minibank.repository.CustomerRepository;
 import id.ac.tazkia.minibank.repository.PersonalCustomerRepository;
 import id.ac.tazkia.minibank.service.SequenceNumberService;
 import id.ac.tazkia.minibank.service.ApprovalService;
+import id.ac.tazkia.minibank.service.CustomerSearchService;
 import id.ac.tazkia.minibank.dto.PersonalCustomerCreateDto;
 import id.ac.tazkia.minibank.dto.CorporateCustomerCreateDto;
 import jakarta.validation.Valid;
@@ -65,19 +66,22 @@ public class CustomerController {
     private final BranchRepository branchRepository;
     private final SequenceNumberService sequenceNumberService;
     private final ApprovalService approvalService;
+    private final CustomerSearchService customerSearchService;
 
     public CustomerController(CustomerRepository customerRepository,
                              PersonalCustomerRepository personalCustomerRepository,
                              CorporateCustomerRepository corporateCustomerRepository,
                              BranchRepository branchRepository,
                              SequenceNumberService sequenceNumberService,
-                             ApprovalService approvalService) {
+                             ApprovalService approvalService,
+                             CustomerSearchService customerSearchService) {
         this.customerRepository = customerRepository;
         this.personalCustomerRepository = personalCustomerRepository;
         this.corporateCustomerRepository = corporateCustomerRepository;
         this.branchRepository = branchRepository;
         this.sequenceNumberService = sequenceNumberService;
         this.approvalService = approvalService;
+        this.customerSearchService = customerSearchService;
     }
 
     @GetMapping("/list")
@@ -92,9 +96,10 @@ public class CustomerController {
         Page<Customer> customers;
 
         if (search != null && !search.trim().isEmpty()) {
-            // For now, use simple search by customer number or email
-            // This works for all customer types without complex JPQL
-            customers = customerRepository.findBySearchTerm(search.trim(), pageable);
+            // Ranked by relevance rather than creation date
+            Customer.CustomerType type = customerType != null && !customerType.trim().isEmpty()
+                ? Customer.CustomerType.valueOf(customerType) : null;
+            customers = customerSearchService.search(search, type, PageRequest.of(page, size));
         } else if (customerType != null && !customerType.trim().isEmpty()) {
             customers = customerRepository.findByCustomerType(
                 Customer.CustomerType.valueOf(customerType), pageable);
@@ -373,7 +378,7 @@ public class CustomerController {
         }
     }
 
-    @PreAuthorize("hasAuthority('CUSTOMER_ACTIVATE')")
+    @PreAuthorize("hasPermission('CUSTOMER', 'ACTIVATE')")
     @PostMapping("/activate/{id}")
     public String activate(@PathVariable UUID id, RedirectAttributes redirectAttributes) {
         Optional<Customer> customer = customerRepository.findById(id);
@@ -388,7 +393,7 @@ public class CustomerController {
         return CUSTOMER_LIST_REDIRECT;
     }
 
-    @PreAuthorize("hasAuthority('CUSTOMER_ACTIVATE')")
+    @PreAuthorize("hasPermission('CUSTOMER', 'ACTIVATE')")
     @PostMapping("/deactivate/{id}")
     public String deactivate(@PathVariable UUID id, RedirectAttributes redirectAttributes) {
         Optional<Customer> customer = customerRepository.findById(id);
@@ -127,13 +127,8 @@ public class PassbookController {
             transactions = transactionRepository.findByAccount(account, pageable);
         }
         
-        // Calculate running balance for display
-        // Note: In a real implementation, you might want to optimize this
-        List<Transaction> allPreviousTransactions = transactionRepository.findByAccountOrderByTransactionDateAsc(account);
-        
         model.addAttribute("account", account);
         model.addAttribute("transactions", transactions);
-        model.addAttribute("allTransactions", allPreviousTransactions);
         model.addAttribute("fromDate", fromDate);
         model.addAttribute("toDate", toDate);
         model.addAttribute("printDate", LocalDate.now());
@@ -198,12 +193,10 @@ public class PassbookController {
         // Get or create passbook for the account
         Passbook passbook = passbookPrintService.getOrCreatePassbook(accountId);
 
-        // Get unprinted transactions count
-        List<Transaction> unprintedTransactions = passbookPrintService.getUnprintedTransactions(accountId);
 
         model.addAttribute("account", account);
         model.addAttribute("passbook", passbook);
-        model.addAttribute("unprintedCount", unprintedTransactions.size());
+        model.addAttribute("unprintedCount", passbookPrintService.countUnprintedTransactions(accountId));
         model.addAttribute("bankLogoPath", bankLogoPath);
         model.addAttribute("bankName", bankName);
         model.addAttribute("bankAddress", bankAddress);
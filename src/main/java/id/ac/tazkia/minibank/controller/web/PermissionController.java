@@ -4,6 +4,7 @@ import id.ac.tazkia.minibank.entity.Permission;
 import id.ac.tazkia.minibank.entity.RolePermission;
 import id.ac.tazkia.minibank.repository.PermissionRepository;
 import id.ac.tazkia.minibank.repository.RolePermissionRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -37,6 +38,7 @@ public class PermissionController {
     
     private final PermissionRepository permissionRepository;
     private final RolePermissionRepository rolePermissionRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     @GetMapping("/list")
     public String permissionList(
@@ -100,6 +102,7 @@ public class PermissionController {
         try {
             permission.setCreatedBy("system");
             permissionRepository.save(permission);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PERMISSION, permission.getId());
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission created successfully");
             return REDIRECT_PERMISSIONS_LIST;
         } catch (Exception e) {
@@ -158,6 +161,7 @@ public class PermissionController {
             existing.setDescription(permission.getDescription());
             
             permissionRepository.save(existing);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PERMISSION, id);
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission updated successfully");
             return REDIRECT_PERMISSIONS_LIST;
         } catch (Exception e) {
@@ -190,6 +194,7 @@ public class PermissionController {
             Optional<Permission> permissionOpt = permissionRepository.findById(id);
             if (permissionOpt.isPresent()) {
                 permissionRepository.deleteById(id);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PERMISSION, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Permission deleted successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, PERMISSION_NOT_FOUND_MSG);
@@ -6,6 +6,7 @@ import id.ac.tazkia.minibank.entity.RolePermission;
 import id.ac.tazkia.minibank.repository.RoleRepository;
 import id.ac.tazkia.minibank.repository.PermissionRepository;
 import id.ac.tazkia.minibank.repository.RolePermissionRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,6 +33,7 @@ public class RoleController {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RolePermissionRepository rolePermissionRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     @GetMapping("/list")
     public String roleList(
@@ -82,6 +84,7 @@ public class RoleController {
             role.setCreatedBy("system");
             role.setUpdatedBy("system");
             roleRepository.save(role);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, role.getId());
             redirectAttributes.addFlashAttribute("successMessage", "Role created successfully");
             return "redirect:/rbac/roles/list";
         } catch (Exception e) {
@@ -135,6 +138,7 @@ public class RoleController {
             existing.setUpdatedBy("system");
             
             roleRepository.save(existing);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
             redirectAttributes.addFlashAttribute("successMessage", "Role updated successfully");
             return "redirect:/rbac/roles/list";
         } catch (Exception e) {
@@ -199,6 +203,7 @@ public class RoleController {
             rolePermission.setPermission(permission);
             rolePermission.setGrantedBy("system");
             rolePermissionRepository.save(rolePermission);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
             
             redirectAttributes.addFlashAttribute("successMessage", "Permission assigned successfully");
         } catch (Exception e) {
@@ -215,6 +220,7 @@ public class RoleController {
                            RedirectAttributes redirectAttributes) {
         try {
             rolePermissionRepository.deleteById(rolePermissionId);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
             redirectAttributes.addFlashAttribute("successMessage", "Permission removed successfully");
         } catch (Exception e) {
             log.error("Error removing permission from role", e);
@@ -233,6 +239,7 @@ public class RoleController {
                 role.setIsActive(true);
                 role.setUpdatedBy("system");
                 roleRepository.save(role);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
                 redirectAttributes.addFlashAttribute("successMessage", "Role activated successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
@@ -253,6 +260,7 @@ public class RoleController {
                 role.setIsActive(false);
                 role.setUpdatedBy("system");
                 roleRepository.save(role);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
                 redirectAttributes.addFlashAttribute("successMessage", "Role deactivated successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
@@ -270,6 +278,7 @@ public class RoleController {
             Optional<Role> roleOpt = roleRepository.findById(id);
             if (roleOpt.isPresent()) {
                 roleRepository.deleteById(id);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, id);
                 redirectAttributes.addFlashAttribute("successMessage", "Role deleted successfully");
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Role not found");
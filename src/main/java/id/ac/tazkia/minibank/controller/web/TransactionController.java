@@ -1,15 +1,11 @@
 package id.ac.tazkia.minibank.controller.web;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -22,13 +18,19 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import id.ac.tazkia.minibank.dto.DepositRequest;
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
 import id.ac.tazkia.minibank.dto.WithdrawalRequest;
 import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
-import id.ac.tazkia.minibank.service.SequenceNumberService;
+import id.ac.tazkia.minibank.service.PostingSequencer;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.TransactionQueryService;
 import id.ac.tazkia.minibank.service.TransferService;
 import id.ac.tazkia.minibank.service.TransactionReceiptPdfService;
 import jakarta.validation.Valid;
@@ -59,30 +61,36 @@ public class TransactionController {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
+    private final PostingService postingService;
+    private final TransactionQueryService transactionQueryService;
     private final TransferService transferService;
     private final TransactionReceiptPdfService receiptPdfService;
     private final AuditorAware<String> auditorAware;
+    private final ObjectProvider<PostingSequencer> postingSequencer;
     
     @GetMapping("/list")
     public String transactionList(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String transactionType,
             Model model) {
         
-        Pageable pageable = PageRequest.of(page, size, Sort.by("transactionDate").descending());
-        Page<Transaction> transactions;
-        
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
         if (search != null && !search.trim().isEmpty()) {
-            transactions = transactionRepository.findByTransactionNumberContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                search.trim(), search.trim(), pageable);
+            criteria.setSearch(search.trim());
         } else if (transactionType != null && !transactionType.trim().isEmpty()) {
-            transactions = transactionRepository.findByTransactionType(
-                Transaction.TransactionType.valueOf(transactionType), pageable);
-        } else {
-            transactions = transactionRepository.findAll(pageable);
+            criteria.setTransactionType(Transaction.TransactionType.valueOf(transactionType));
+        }
+        
+        KeysetPage<Transaction> transactions;
+        try {
+            transactions = transactionQueryService.findTransactions(criteria, after, before, size);
+        } catch (IllegalArgumentException e) {
+            // Stale or tampered cursor: start again from the newest transactions
+            model.addAttribute(ERROR_MESSAGE_ATTR, "Halaman tidak valid, menampilkan transaksi terbaru");
+            transactions = transactionQueryService.findTransactions(criteria, null, null, size);
         }
         
         model.addAttribute("transactions", transactions);
@@ -154,51 +162,20 @@ public class TransactionController {
         }
         
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(depositRequest.getAccountId());
-            if (accountOpt.isEmpty()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, ACCOUNT_NOT_FOUND_MSG);
-                return prepareDepositFormWithErrors(depositRequest, model, null);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, "Account is not active");
-                return prepareDepositFormWithErrors(depositRequest, model, null);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.DEPOSIT);
-            transaction.setAmount(depositRequest.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(depositRequest.getDescription() != null ?
+            PostingRequest posting = new PostingRequest();
+            posting.setAccountId(depositRequest.getAccountId());
+            posting.setTransactionType(Transaction.TransactionType.DEPOSIT);
+            posting.setAmount(depositRequest.getAmount());
+            posting.setDescription(depositRequest.getDescription() != null ?
                 depositRequest.getDescription() : "Setoran Tunai");
-            transaction.setReferenceNumber(depositRequest.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process deposit using business method
-            account.deposit(depositRequest.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
+            posting.setReferenceNumber(depositRequest.getReferenceNumber());
+            posting.setChannel(Transaction.TransactionChannel.TELLER);
             
-            // Save transaction and account
-            transactionRepository.save(transaction);
-            accountRepository.save(account);
+            PostingResult result = post(posting);
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 String.format("Setoran tunai berhasil diproses. Nomor Transaksi: %s, Saldo Baru: %,.2f", 
-                    transactionNumber, account.getBalance()));
+                    result.getTransactionNumber(), result.getBalanceAfter()));
             return TRANSACTION_LIST_REDIRECT;
             
         } catch (IllegalArgumentException e) {
@@ -285,51 +262,20 @@ public class TransactionController {
         }
         
         try {
-            // Validate account exists and is active
-            Optional<Account> accountOpt = accountRepository.findById(withdrawalRequest.getAccountId());
-            if (accountOpt.isEmpty()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, ACCOUNT_NOT_FOUND_MSG);
-                return prepareWithdrawalFormWithErrors(withdrawalRequest, model, null);
-            }
-            
-            Account account = accountOpt.get();
-            if (!account.isActive()) {
-                model.addAttribute(ERROR_MESSAGE_ATTR, "Account is not active");
-                return prepareWithdrawalFormWithErrors(withdrawalRequest, model, null);
-            }
-            
-            // Record balance before transaction
-            BigDecimal balanceBefore = account.getBalance();
-            
-            // Generate transaction number
-            String transactionNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-            
-            // Create transaction record
-            Transaction transaction = new Transaction();
-            transaction.setAccount(account);
-            transaction.setTransactionNumber(transactionNumber);
-            transaction.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
-            transaction.setAmount(withdrawalRequest.getAmount());
-            transaction.setBalanceBefore(balanceBefore);
-            transaction.setDescription(withdrawalRequest.getDescription() != null ?
+            PostingRequest posting = new PostingRequest();
+            posting.setAccountId(withdrawalRequest.getAccountId());
+            posting.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
+            posting.setAmount(withdrawalRequest.getAmount());
+            posting.setDescription(withdrawalRequest.getDescription() != null ?
                 withdrawalRequest.getDescription() : "Penarikan Tunai");
-            transaction.setReferenceNumber(withdrawalRequest.getReferenceNumber());
-            transaction.setChannel(Transaction.TransactionChannel.TELLER);
-            transaction.setTransactionDate(LocalDateTime.now());
-            transaction.setProcessedDate(LocalDateTime.now());
-            // createdBy will be set automatically by JPA auditing
-
-            // Process withdrawal using business method
-            account.withdraw(withdrawalRequest.getAmount());
-            transaction.setBalanceAfter(account.getBalance());
+            posting.setReferenceNumber(withdrawalRequest.getReferenceNumber());
+            posting.setChannel(Transaction.TransactionChannel.TELLER);
             
-            // Save transaction and account
-            transactionRepository.save(transaction);
-            accountRepository.save(account);
+            PostingResult result = post(posting);
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 String.format("Penarikan tunai berhasil diproses. Nomor Transaksi: %s, Saldo Baru: %,.2f", 
-                    transactionNumber, account.getBalance()));
+                    result.getTransactionNumber(), result.getBalanceAfter()));
             return TRANSACTION_LIST_REDIRECT;
             
         } catch (IllegalArgumentException e) {
@@ -343,6 +289,12 @@ public class TransactionController {
         }
     }
     
+    /** Posts a cash movement, through the posting sequencer when it is enabled. */
+    private PostingResult post(PostingRequest posting) {
+        PostingSequencer sequencer = postingSequencer.getIfAvailable();
+        return sequencer != null ? sequencer.post(posting) : postingService.post(posting);
+    }
+    
     private String prepareDepositFormWithErrors(DepositRequest depositRequest, Model model, BindingResult bindingResult) {
         Optional<Account> accountOpt = accountRepository.findById(depositRequest.getAccountId());
         if (accountOpt.isPresent()) {
@@ -430,11 +382,11 @@ public class TransactionController {
                 transferRequest.setReferenceNumber("TRF" + System.currentTimeMillis());
             }
             
-            // Validate transfer and populate destination account info
-            TransferRequest validatedRequest = transferService.validateTransfer(transferRequest);
+            // Source account is loaded once, for both validation and display
+            Account sourceAccount = transferService.getAccountById(transferRequest.getFromAccountId());
             
-            // Get source account for display
-            Account sourceAccount = transferService.getAccountById(validatedRequest.getFromAccountId());
+            // Validate transfer and populate destination account info
+            TransferRequest validatedRequest = transferService.validateTransfer(transferRequest, sourceAccount);
             
             model.addAttribute(TRANSFER_REQUEST_ATTR, validatedRequest);
             model.addAttribute("sourceAccount", sourceAccount);
@@ -458,13 +410,13 @@ public class TransactionController {
         
         try {
             // Process the transfer
-            transferService.processTransfer(transferRequest);
+            List<PostingResult> results = transferService.processTransfer(transferRequest);
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, 
                 String.format("Transfer berhasil diproses. Referensi: %s, Jumlah: %,.2f dari %s ke %s", 
                     transferRequest.getReferenceNumber(), 
                     transferRequest.getAmount(),
-                    transferService.getAccountById(transferRequest.getFromAccountId()).getAccountNumber(),
+                    results.get(0).getAccountNumber(),
                     transferRequest.getToAccountNumber()));
             return TRANSACTION_LIST_REDIRECT;
             
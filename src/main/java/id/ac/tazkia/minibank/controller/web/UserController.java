@@ -8,6 +8,7 @@ import id.ac.tazkia.minibank.repository.RoleRepository;
 import id.ac.tazkia.minibank.repository.UserRoleRepository;
 import id.ac.tazkia.minibank.repository.UserPasswordRepository;
 import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -46,6 +47,7 @@ public class UserController {
     private final UserPasswordRepository userPasswordRepository;
     private final BranchRepository branchRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     @GetMapping("/list")
     public String userList(
@@ -175,6 +177,7 @@ public class UserController {
             // AuditorAware will automatically set updatedBy
             
             userRepository.save(existing);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "User updated successfully");
             return REDIRECT_USERS_LIST;
         } catch (Exception e) {
@@ -240,6 +243,7 @@ public class UserController {
             userRole.setRole(role);
             // AuditorAware will automatically set assignedBy
             userRoleRepository.save(userRole);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
             
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Role assigned successfully");
         } catch (Exception e) {
@@ -256,6 +260,7 @@ public class UserController {
                            RedirectAttributes redirectAttributes) {
         try {
             userRoleRepository.deleteById(userRoleId);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Role removed successfully");
         } catch (Exception e) {
             log.error("Error removing role from user", e);
@@ -274,6 +279,7 @@ public class UserController {
                 user.setIsActive(true);
                 // AuditorAware will automatically set updatedBy
                 userRepository.save(user);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "User activated successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, USER_NOT_FOUND_MSG);
@@ -294,6 +300,7 @@ public class UserController {
                 user.setIsActive(false);
                 // AuditorAware will automatically set updatedBy
                 userRepository.save(user);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "User deactivated successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, USER_NOT_FOUND_MSG);
@@ -311,6 +318,7 @@ public class UserController {
             Optional<User> userOpt = userRepository.findById(id);
             if (userOpt.isPresent()) {
                 userRepository.deleteById(id);
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
                 redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "User deleted successfully");
             } else {
                 redirectAttributes.addFlashAttribute(ERROR_MESSAGE_ATTR, USER_NOT_FOUND_MSG);
@@ -380,6 +388,7 @@ public class UserController {
                 userPasswordRepository.save(userPassword);
             }
             
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, id);
             redirectAttributes.addFlashAttribute(SUCCESS_MESSAGE_ATTR, "Password updated successfully");
             return "redirect:/rbac/users/view/" + id;
         } catch (Exception e) {
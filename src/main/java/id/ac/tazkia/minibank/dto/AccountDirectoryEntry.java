@@ -0,0 +1,27 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Account;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * What a transfer needs to know about an account before posting to it:
+ * who it belongs to and whether it can receive money. Never holds the balance.
+ */
+@Data
+@NoArgsConstructor
+public class AccountDirectoryEntry {
+
+    private UUID accountId;
+    private String accountNumber;
+    private String accountName;
+    private Account.AccountStatus status;
+    private UUID customerId;
+    private String customerDisplayName;
+
+    public boolean isActive() {
+        return status == Account.AccountStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,25 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.ApprovalRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row of the approval queue page: only the columns the queue shows, read in one
+ * query without loading ApprovalRequest entities or their branch.
+ */
+public interface ApprovalQueueRow {
+
+    UUID getId();
+
+    ApprovalRequest.RequestType getRequestType();
+
+    ApprovalRequest.EntityType getEntityType();
+
+    String getRequestedBy();
+
+    LocalDateTime getRequestedDate();
+
+    String getRequestNotes();
+}
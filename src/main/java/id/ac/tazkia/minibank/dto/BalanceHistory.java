@@ -0,0 +1,27 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Day-by-day balances of an account over a period, one entry per calendar day.
+ * The average daily balance is the mean of the closing balances.
+ */
+@Data
+@NoArgsConstructor
+public class BalanceHistory {
+
+    private UUID accountId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal averageDailyBalance;
+    private List<DailyBalance> days = new ArrayList<>();
+}
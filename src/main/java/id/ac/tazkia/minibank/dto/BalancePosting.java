@@ -0,0 +1,23 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Result of an atomic balance update: the account identity plus the
+ * balance immediately before and after the delta was applied.
+ */
+@Data
+@NoArgsConstructor
+public class BalancePosting {
+    
+    private UUID accountId;
+    private String accountNumber;
+    private String accountName;
+    private UUID branchId;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+}
@@ -0,0 +1,43 @@
+package id.ac.tazkia.minibank.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transfers out of one account in one request, such as a payroll or a bulk disbursement.
+ * Lines are checked one by one when the batch is processed, so they carry no constraints.
+ */
+@Data
+@NoArgsConstructor
+public class BatchTransferRequest {
+    
+    @NotNull(message = "Source account ID is required")
+    private UUID fromAccountId;
+    
+    // Used for lines without their own description or reference number
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description = "Transfer Dana";
+    
+    @Size(max = 100, message = "Reference number cannot exceed 100 characters")
+    private String referenceNumber;
+    
+    @NotEmpty(message = "At least one transfer line is required")
+    private List<Line> lines = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    public static class Line {
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private String description;
+        private String referenceNumber;
+    }
+}
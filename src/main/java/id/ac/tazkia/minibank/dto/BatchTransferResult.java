@@ -0,0 +1,46 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Report of a processed transfer batch, with one result per request line in line order.
+ */
+@Data
+@NoArgsConstructor
+public class BatchTransferResult {
+    
+    private UUID fromAccountId;
+    private String fromAccountNumber;
+    private int lineCount;
+    private int postedCount;
+    private int rejectedCount;
+    private BigDecimal postedAmount = BigDecimal.ZERO;
+    
+    // Source balance after the batch, null when no line was posted
+    private BigDecimal balanceAfter;
+    
+    private List<LineResult> lines = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    public static class LineResult {
+        // 1-based position in the request
+        private int line;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private LineStatus status;
+        private String message;
+        private String debitTransactionNumber;
+        private String creditTransactionNumber;
+    }
+    
+    public enum LineStatus {
+        POSTED, REJECTED
+    }
+}
@@ -0,0 +1,79 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Everything a teller sees about one customer at once: profile, accounts with their
+ * passbook, the latest transactions across all accounts and what is awaiting approval.
+ */
+@Data
+@NoArgsConstructor
+public class CustomerOverview {
+
+    private UUID customerId;
+    private String customerNumber;
+    private String customerType;
+    private String displayName;
+    private String status;
+    private String approvalStatus;
+    private String email;
+    private String phoneNumber;
+    private String branchCode;
+    private String branchName;
+    private BigDecimal totalBalance = BigDecimal.ZERO;
+    private List<AccountSummary> accounts = new ArrayList<>();
+    private List<RecentTransaction> recentTransactions = new ArrayList<>();
+    private List<PendingApproval> pendingApprovals = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class AccountSummary {
+        private UUID accountId;
+        private String accountNumber;
+        private String accountName;
+        private String productCode;
+        private String productName;
+        private String productType;
+        private BigDecimal balance;
+        private String status;
+        private String approvalStatus;
+        private LocalDate openedDate;
+        private String passbookNumber;
+        private String passbookStatus;
+        private LocalDateTime lastPrintDate;
+        private boolean unprintedTransactions;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class RecentTransaction {
+        private UUID transactionId;
+        private String transactionNumber;
+        private String accountNumber;
+        private String transactionType;
+        private BigDecimal amount;
+        private BigDecimal balanceAfter;
+        private String description;
+        private String channel;
+        private LocalDateTime transactionDate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class PendingApproval {
+        private UUID approvalRequestId;
+        private String requestType;
+        private String entityType;
+        private UUID entityId;
+        private String requestedBy;
+        private LocalDateTime requestedDate;
+    }
+}
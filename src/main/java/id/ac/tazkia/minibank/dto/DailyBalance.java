@@ -0,0 +1,33 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Opening and closing balance of an account on one day, with the day's movements.
+ */
+@Data
+@NoArgsConstructor
+public class DailyBalance {
+
+    private LocalDate balanceDate;
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private BigDecimal totalDebit = BigDecimal.ZERO;
+    private BigDecimal totalCredit = BigDecimal.ZERO;
+    private int transactionCount;
+
+    /**
+     * A day without postings: the balance is carried over unchanged.
+     */
+    public static DailyBalance carried(LocalDate balanceDate, BigDecimal balance) {
+        DailyBalance day = new DailyBalance();
+        day.setBalanceDate(balanceDate);
+        day.setOpeningBalance(balance);
+        day.setClosingBalance(balance);
+        return day;
+    }
+}
@@ -0,0 +1,49 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Product;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dashboard figures for today, bank-wide and per branch. Activity counts include
+ * postings made on other application nodes up to their last flush.
+ */
+@Data
+@NoArgsConstructor
+public class DashboardStatistics {
+
+    private LocalDate date;
+    private LocalDateTime generatedAt;
+    private BranchStatistics bank = new BranchStatistics();
+    private List<BranchStatistics> branches = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class BranchStatistics {
+        private UUID branchId;
+        private String branchCode;
+        private String branchName;
+        private ActivityTotals deposits = new ActivityTotals();
+        private ActivityTotals withdrawals = new ActivityTotals();
+        private ActivityTotals transfers = new ActivityTotals();
+        private Map<Product.ProductType, Long> activeAccounts = new EnumMap<>(Product.ProductType.class);
+        private long activeAccountTotal;
+        private long pendingApprovals;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ActivityTotals {
+        private long count;
+        private BigDecimal volume = BigDecimal.ZERO;
+    }
+}
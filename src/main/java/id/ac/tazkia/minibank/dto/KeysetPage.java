@@ -0,0 +1,38 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated list. Instead of page numbers it carries the cursors
+ * of the neighbouring pages, and instead of an exact total an estimate (null when unknown).
+ */
+@Data
+@NoArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private String nextCursor;
+    private String previousCursor;
+    private Long approximateTotal;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+
+    public int getNumberOfElements() {
+        return content.size();
+    }
+}
@@ -0,0 +1,33 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A single balance movement to be posted by PostingService.
+ * Amount is always positive; the transaction type decides debit or credit.
+ */
+@Data
+@NoArgsConstructor
+public class PostingRequest {
+    
+    private UUID accountId;
+    private Transaction.TransactionType transactionType;
+    private BigDecimal amount;
+    private String description;
+    private String referenceNumber;
+    private Transaction.TransactionChannel channel = Transaction.TransactionChannel.TELLER;
+    
+    // Other side of a transfer leg, stored as id_accounts_destination
+    private UUID counterpartyAccountId;
+    
+    // Falls back to the current auditor when not set
+    private String createdBy;
+    
+    // Single-leg postings only: a repeat with the same key returns the original result
+    private String idempotencyKey;
+}
@@ -0,0 +1,40 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Journaled outcome of a posting: the transaction row that was written
+ * together with the account balance before and after it.
+ */
+@Data
+@NoArgsConstructor
+public class PostingResult {
+    
+    private UUID transactionId;
+    private String transactionNumber;
+    private Transaction.TransactionType transactionType;
+    private UUID accountId;
+    private String accountNumber;
+    private String accountName;
+    private UUID branchId;
+    private BigDecimal amount;
+    private BigDecimal balanceBefore;
+    private BigDecimal balanceAfter;
+    private String description;
+    private String referenceNumber;
+    private String currency = "IDR";
+    private Transaction.TransactionChannel channel;
+    private LocalDateTime transactionDate;
+    private LocalDateTime processedDate;
+    // When a credit taken on a balance stripe was accepted; transactionDate is its fold
+    private LocalDateTime acceptedDate;
+    
+    // True when the request repeated an idempotency key and this is the original posting
+    private boolean replayed;
+}
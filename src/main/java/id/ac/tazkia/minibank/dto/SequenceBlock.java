@@ -0,0 +1,18 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A contiguous range of sequence numbers reserved for one application node,
+ * {@code firstNumber} to {@code lastNumber} inclusive.
+ */
+@Data
+@NoArgsConstructor
+public class SequenceBlock {
+
+    private String sequenceName;
+    private String prefix;
+    private long firstNumber;
+    private long lastNumber;
+}
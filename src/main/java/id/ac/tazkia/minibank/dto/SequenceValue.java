@@ -0,0 +1,22 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One allocated sequence number together with the prefix stored on its sequence.
+ */
+@Data
+@NoArgsConstructor
+public class SequenceValue {
+
+    private String prefix;
+    private long number;
+
+    public static SequenceValue of(String prefix, long number) {
+        SequenceValue value = new SequenceValue();
+        value.setPrefix(prefix);
+        value.setNumber(number);
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of an account statement, accumulated while its rows are written,
+ * with the balances at the start and end of the period.
+ */
+@Data
+@NoArgsConstructor
+public class StatementSummary {
+
+    private BigDecimal openingBalance;
+    private BigDecimal closingBalance;
+    private long transactionCount;
+    private BigDecimal totalDebit = BigDecimal.ZERO;
+    private BigDecimal totalCredit = BigDecimal.ZERO;
+
+    public void add(Transaction transaction) {
+        transactionCount++;
+        if (transaction.isDebitTransaction()) {
+            totalDebit = totalDebit.add(transaction.getAmount());
+        } else {
+            totalCredit = totalCredit.add(transaction.getAmount());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package id.ac.tazkia.minibank.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Match counts of a transaction search per filter value, largest first. Each dimension
+ * is counted with its own filter left out, so it shows what picking another value would give.
+ */
+@Data
+@NoArgsConstructor
+public class TransactionFacets {
+
+    private Map<String, Long> transactionTypes = new LinkedHashMap<>();
+    private Map<String, Long> channels = new LinkedHashMap<>();
+    private Map<String, Long> accounts = new LinkedHashMap<>();
+    private Map<String, Long> months = new LinkedHashMap<>();
+    private boolean indexComplete;
+}
@@ -0,0 +1,33 @@
+package id.ac.tazkia.minibank.dto;
+
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filters for the transaction list; null fields do not filter.
+ */
+@Data
+@NoArgsConstructor
+public class TransactionSearchCriteria {
+
+    private UUID accountId;
+    private UUID customerId;
+    private Transaction.TransactionType transactionType;
+    private Transaction.TransactionChannel channel;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String search;
+
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+
+    public boolean isUnfiltered() {
+        return accountId == null && customerId == null && transactionType == null
+            && channel == null && startDate == null && endDate == null && !hasSearch();
+    }
+}
@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -17,11 +19,20 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "accounts")
-@Data
+@NamedEntityGraph(name = Account.SUMMARY_GRAPH, attributeNodes = {
+    @NamedAttributeNode("customer"),
+    @NamedAttributeNode("product")
+})
+@Getter
+@Setter
+@ToString(exclude = {"customer", "product", "branch", "transactions"})
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Account {
     
+    /** Fetch plan of the account list rows and account forms: customer and product in the same query */
+    public static final String SUMMARY_GRAPH = "Account.summary";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -44,7 +55,9 @@ public class Account {
     @Column(name = "account_name", nullable = false, length = 200)
     private String accountName;
     
-    @Column(name = "balance", precision = 20, scale = 2)
+    // Written only by PostingService; JPA updates never touch it, so a stale
+    // entity saved elsewhere cannot overwrite a concurrent posting
+    @Column(name = "balance", precision = 20, scale = 2, updatable = false)
     private BigDecimal balance = BigDecimal.ZERO;
     
     @Enumerated(EnumType.STRING)
@@ -84,29 +97,6 @@ public class Account {
     private List<Transaction> transactions;
     
     // Business methods
-    public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Deposit amount must be positive");
-        }
-        if (this.status == AccountStatus.CLOSED) {
-            throw new IllegalStateException("Cannot deposit to a closed account");
-        }
-        this.balance = this.balance.add(amount);
-    }
-    
-    public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Withdrawal amount must be positive");
-        }
-        if (this.status == AccountStatus.CLOSED) {
-            throw new IllegalStateException("Cannot withdraw from a closed account");
-        }
-        if (this.balance.compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Insufficient balance");
-        }
-        this.balance = this.balance.subtract(amount);
-    }
-    
     public boolean isActive() {
         return AccountStatus.ACTIVE.equals(this.status);
     }
@@ -126,35 +116,6 @@ public class Account {
         this.closedDate = LocalDate.now();
     }
     
-    public void transferOut(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Transfer amount must be positive");
-        }
-        if (this.status == AccountStatus.CLOSED) {
-            throw new IllegalStateException("Cannot transfer from a closed account");
-        }
-        if (!this.isActive()) {
-            throw new IllegalStateException("Account must be active to transfer funds");
-        }
-        if (this.balance.compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Insufficient balance for transfer");
-        }
-        this.balance = this.balance.subtract(amount);
-    }
-    
-    public void transferIn(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Transfer amount must be positive");
-        }
-        if (this.status == AccountStatus.CLOSED) {
-            throw new IllegalStateException("Cannot transfer to a closed account");
-        }
-        if (!this.isActive()) {
-            throw new IllegalStateException("Account must be active to receive transfers");
-        }
-        this.balance = this.balance.add(amount);
-    }
-    
     // Enums
     public enum AccountStatus {
         ACTIVE, INACTIVE, CLOSED, FROZEN
@@ -3,7 +3,9 @@ package id.ac.tazkia.minibank.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -25,7 +27,9 @@ import java.util.UUID;
     @Index(name = "idx_approval_requests_branch_status", columnList = "branch_id, approval_status"),
     @Index(name = "idx_approval_requests_status_date", columnList = "approval_status, requested_date")
 })
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"branch"})
 @NoArgsConstructor
 public class ApprovalRequest {
 
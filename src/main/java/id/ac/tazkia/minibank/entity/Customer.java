@@ -2,7 +2,9 @@ package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -15,7 +17,9 @@ import java.util.UUID;
 @Table(name = "customers")
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "customer_type", discriminatorType = DiscriminatorType.STRING)
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"branch", "accounts"})
 @NoArgsConstructor
 public abstract class Customer {
     
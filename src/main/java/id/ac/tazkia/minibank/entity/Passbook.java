@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -15,7 +17,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "passbooks")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"account", "lastPrintedTransaction"})
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Passbook {
@@ -46,6 +50,10 @@ public class Passbook {
     @JoinColumn(name = "id_last_printed_transaction")
     private Transaction lastPrintedTransaction;
 
+    // Date of the last printed transaction; with its id, the watermark unprinted rows are read after
+    @Column(name = "last_printed_transaction_date")
+    private LocalDateTime lastPrintedTransactionDate;
+
     @Column(name = "last_print_date")
     private LocalDateTime lastPrintDate;
 
@@ -76,6 +84,15 @@ public class Passbook {
 
     // Business methods
 
+    /**
+     * Set the last printed transaction, moving the print watermark with it
+     */
+    public void setLastPrintedTransaction(Transaction lastPrintedTransaction) {
+        this.lastPrintedTransaction = lastPrintedTransaction;
+        this.lastPrintedTransactionDate = lastPrintedTransaction != null
+                ? lastPrintedTransaction.getTransactionDate() : null;
+    }
+
     /**
      * Check if passbook can accept more prints on current page
      */
@@ -103,7 +120,7 @@ public class Passbook {
      */
     public void updateAfterPrint(int linesPrinted, Transaction lastTransaction) {
         this.lastPrintedLine += linesPrinted;
-        this.lastPrintedTransaction = lastTransaction;
+        setLastPrintedTransaction(lastTransaction);
         this.lastPrintDate = LocalDateTime.now();
 
         // Auto-advance if page is full
@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
@@ -9,7 +11,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "passbook_print_history")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"passbook", "firstTransaction", "lastTransaction"})
 @NoArgsConstructor
 public class PassbookPrintHistory {
 
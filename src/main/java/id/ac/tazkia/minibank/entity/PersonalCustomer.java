@@ -2,8 +2,9 @@ package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import lombok.Data;
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
@@ -15,8 +16,9 @@ import java.time.Period;
     @Index(name = "idx_personal_customers_identity_number_unique", columnList = "identity_number", unique = true)
 })
 @DiscriminatorValue("PERSONAL")
-@Data
-@EqualsAndHashCode(callSuper = true)
+@Getter
+@Setter
+@ToString(callSuper = true)
 @NoArgsConstructor
 public class PersonalCustomer extends Customer {
 
@@ -1,7 +1,9 @@
 package id.ac.tazkia.minibank.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -12,7 +14,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "transactions")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"account", "destinationAccount"})
 @NoArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction {
@@ -61,12 +65,16 @@ public class Transaction {
     private Account destinationAccount;
 
     // Audit fields
-    @Column(name = "transaction_date")
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate = LocalDateTime.now();
 
     @Column(name = "processed_date")
     private LocalDateTime processedDate = LocalDateTime.now();
 
+    // Set on credits taken on a balance stripe: when the credit was accepted, before its fold
+    @Column(name = "accepted_date")
+    private LocalDateTime acceptedDate;
+
     @CreatedBy
     @Column(name = "created_by", length = 100)
     private String createdBy;
@@ -3,7 +3,9 @@ package id.ac.tazkia.minibank.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
@@ -12,7 +14,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "user_passwords")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"user", "passwordHash"})
 @NoArgsConstructor
 public class UserPassword {
     
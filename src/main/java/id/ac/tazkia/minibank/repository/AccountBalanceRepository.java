@@ -0,0 +1,295 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.BalancePosting;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC repository for balance postings, used only by PostingService.
+ * Each posting is one data-modifying statement: the conditional balance UPDATE
+ * and the journal INSERT travel to PostgreSQL together and succeed or fail as a unit.
+ * The same statement rolls the posting into the account's daily balance snapshot;
+ * the row lock taken by the UPDATE keeps the snapshot's closing balance in posting order.
+ * Transfer batches and sequenced posting groups use the set-based statements below
+ * instead: one lock statement, one balance update per chunk of accounts, and batched
+ * journal and snapshot inserts.
+ */
+@Repository
+public class AccountBalanceRepository {
+    
+    private static final String APPLY_POSTING_SQL = 
+        "WITH posted AS (" +
+        "  UPDATE accounts SET balance = balance + ?, updated_date = CURRENT_TIMESTAMP " +
+        "  WHERE id = ? AND status = 'ACTIVE' AND balance + ? >= 0 " +
+        "  RETURNING id, account_number, account_name, balance, id_branches" +
+        "), journal AS (" +
+        "  INSERT INTO transactions (id, id_accounts, id_accounts_destination, transaction_number, " +
+        "    transaction_type, amount, balance_before, balance_after, description, reference_number, " +
+        "    channel, transaction_date, processed_date, created_by) " +
+        "  SELECT CAST(? AS UUID), posted.id, CAST(? AS UUID), CAST(? AS VARCHAR), " +
+        "    CAST(? AS VARCHAR), CAST(? AS NUMERIC), posted.balance - ?, posted.balance, CAST(? AS TEXT), CAST(? AS VARCHAR), " +
+        "    CAST(? AS VARCHAR), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS VARCHAR) " +
+        "  FROM posted" +
+        "), daily AS (" +
+        "  INSERT INTO account_daily_balances (id_accounts, balance_date, opening_balance, closing_balance, " +
+        "    total_debit, total_credit, transaction_count) " +
+        "  SELECT posted.id, CAST(? AS DATE), posted.balance - ?, posted.balance, " +
+        "    GREATEST(-CAST(? AS NUMERIC), 0), GREATEST(CAST(? AS NUMERIC), 0), 1 " +
+        "  FROM posted " +
+        "  ON CONFLICT (id_accounts, balance_date) DO UPDATE SET " +
+        "    closing_balance = EXCLUDED.closing_balance, " +
+        "    total_debit = account_daily_balances.total_debit + EXCLUDED.total_debit, " +
+        "    total_credit = account_daily_balances.total_credit + EXCLUDED.total_credit, " +
+        "    transaction_count = account_daily_balances.transaction_count + 1, " +
+        "    updated_date = CURRENT_TIMESTAMP" +
+        ") " +
+        "SELECT id, account_number, account_name, balance, id_branches FROM posted";
+    
+    // Locks in the order of the given array, so callers decide the lock order
+    private static final String LOCK_ACTIVE_ACCOUNTS_SQL =
+        "SELECT a.id, a.account_number, a.account_name, a.balance, a.id_branches " +
+        "FROM unnest(CAST(? AS UUID[])) WITH ORDINALITY AS v(id, position) " +
+        "JOIN accounts a ON a.id = v.id " +
+        "WHERE a.status = 'ACTIVE' " +
+        "ORDER BY v.position " +
+        "FOR UPDATE OF a";
+    
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE accounts SET balance = balance + ?, updated_date = CURRENT_TIMESTAMP " +
+        "WHERE id = ? AND status = 'ACTIVE' AND balance + ? >= 0 " +
+        "RETURNING id, account_number, account_name, balance, id_branches";
+    
+    private static final String APPLY_DELTAS_SQL =
+        "UPDATE accounts a SET balance = a.balance + v.delta, updated_date = CURRENT_TIMESTAMP " +
+        "FROM unnest(CAST(? AS UUID[]), CAST(? AS NUMERIC[])) AS v(id, delta) " +
+        "WHERE a.id = v.id AND a.status = 'ACTIVE' " +
+        "RETURNING a.id, a.account_number, a.account_name, a.balance, a.id_branches, v.delta";
+    
+    private static final String INSERT_JOURNAL_SQL =
+        "INSERT INTO transactions (id, id_accounts, id_accounts_destination, transaction_number, " +
+        "  transaction_type, amount, balance_before, balance_after, description, reference_number, " +
+        "  channel, transaction_date, processed_date, created_by, accepted_date) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String ROLL_DAILY_BALANCE_SQL =
+        "INSERT INTO account_daily_balances (id_accounts, balance_date, opening_balance, closing_balance, " +
+        "  total_debit, total_credit, transaction_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (id_accounts, balance_date) DO UPDATE SET " +
+        "  closing_balance = EXCLUDED.closing_balance, " +
+        "  total_debit = account_daily_balances.total_debit + EXCLUDED.total_debit, " +
+        "  total_credit = account_daily_balances.total_credit + EXCLUDED.total_credit, " +
+        "  transaction_count = account_daily_balances.transaction_count + EXCLUDED.transaction_count, " +
+        "  updated_date = CURRENT_TIMESTAMP";
+    
+    // A new snapshot opens at the close of the day before, or the opening of the day after
+    private static final String ROLL_BACKDATED_CREDIT_SQL =
+        "INSERT INTO account_daily_balances (id_accounts, balance_date, opening_balance, closing_balance, " +
+        "  total_debit, total_credit, transaction_count) " +
+        "SELECT CAST(? AS UUID), CAST(? AS DATE), o.balance, o.balance + CAST(? AS NUMERIC), 0, CAST(? AS NUMERIC), CAST(? AS INTEGER) " +
+        "FROM (SELECT COALESCE(" +
+        "  (SELECT closing_balance FROM account_daily_balances WHERE id_accounts = ? AND balance_date < ? " +
+        "   ORDER BY balance_date DESC LIMIT 1), " +
+        "  (SELECT opening_balance FROM account_daily_balances WHERE id_accounts = ? AND balance_date > ? " +
+        "   ORDER BY balance_date LIMIT 1), " +
+        "  CAST(? AS NUMERIC)) AS balance) o " +
+        "ON CONFLICT (id_accounts, balance_date) DO UPDATE SET " +
+        "  closing_balance = account_daily_balances.closing_balance + EXCLUDED.total_credit, " +
+        "  total_credit = account_daily_balances.total_credit + EXCLUDED.total_credit, " +
+        "  transaction_count = account_daily_balances.transaction_count + EXCLUDED.transaction_count, " +
+        "  updated_date = CURRENT_TIMESTAMP";
+    
+    private static final String SHIFT_LATER_DAILY_BALANCES_SQL =
+        "UPDATE account_daily_balances SET opening_balance = opening_balance + ?, " +
+        "  closing_balance = closing_balance + ?, updated_date = CURRENT_TIMESTAMP " +
+        "WHERE id_accounts = ? AND balance_date > ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public AccountBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Adds {@code delta} (negative for debits) to the account balance and journals
+     * the movement as transaction {@code transactionId}, updating the daily balance
+     * snapshot of the posting day.
+     *
+     * @return the posting with before/after balances, or empty when the account
+     *         does not exist, is not active, or would go below zero (nothing is written)
+     */
+    public Optional<BalancePosting> applyPosting(UUID transactionId, String transactionNumber, 
+                                                 PostingRequest request, BigDecimal delta,
+                                                 LocalDateTime postedAt, String createdBy) {
+        return jdbcTemplate.query(APPLY_POSTING_SQL, balancePostingMapper(delta),
+            delta, request.getAccountId(), delta,
+            transactionId, request.getCounterpartyAccountId(), transactionNumber,
+            request.getTransactionType().name(), request.getAmount(), delta,
+            request.getDescription(), request.getReferenceNumber(),
+            request.getChannel().name(), postedAt, postedAt, createdBy,
+            postedAt.toLocalDate(), delta, delta, delta
+        ).stream().findFirst();
+    }
+    
+    /**
+     * Locks the rows of the active accounts among {@code accountIds}, in the given order.
+     * Inactive and unknown accounts are skipped and stay unlocked.
+     *
+     * @return the locked accounts by id, with their current balance as both balances
+     */
+    public Map<UUID, BalancePosting> lockActiveAccounts(List<UUID> accountIds) {
+        Map<UUID, BalancePosting> locked = new HashMap<>();
+        RowMapper<BalancePosting> mapper = balancePostingMapper(BigDecimal.ZERO);
+        jdbcTemplate.query(LOCK_ACTIVE_ACCOUNTS_SQL,
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", accountIds.toArray())),
+            rs -> {
+                BalancePosting account = mapper.mapRow(rs, 0);
+                locked.put(account.getAccountId(), account);
+            });
+        return locked;
+    }
+    
+    /**
+     * Locks the account row whatever the account's status.
+     *
+     * @return the current balance, or empty when the account does not exist
+     */
+    public Optional<BigDecimal> lockBalance(UUID accountId) {
+        return jdbcTemplate.queryForList("SELECT balance FROM accounts WHERE id = ? FOR UPDATE", BigDecimal.class, accountId)
+            .stream().findFirst();
+    }
+    
+    /**
+     * Adds credits taken on the account's balance stripes to its balance.
+     *
+     * @return false when the account is no longer active (nothing is written)
+     */
+    public boolean foldStripeCredits(UUID accountId, BigDecimal amount) {
+        return jdbcTemplate.update(
+            "UPDATE accounts SET balance = balance + ?, updated_date = CURRENT_TIMESTAMP WHERE id = ? AND status = 'ACTIVE'",
+            amount, accountId) == 1;
+    }
+    
+    /**
+     * Adds {@code delta} (negative for debits) to the balance of an active account
+     * without journaling it; the caller journals the movement with {@link #insertJournal}.
+     *
+     * @return the balances before and after, or empty when the account does not exist,
+     *         is not active, or would go below zero (nothing is written)
+     */
+    public Optional<BalancePosting> applyDelta(UUID accountId, BigDecimal delta) {
+        return jdbcTemplate.query(APPLY_DELTA_SQL, balancePostingMapper(delta), delta, accountId, delta)
+            .stream().findFirst();
+    }
+    
+    /**
+     * Adds to each active account in {@code accountIds} the delta at the same position
+     * (negative for debits) in one statement, without journaling. Accounts must be
+     * distinct; the caller has checked that no balance goes below zero.
+     *
+     * @return the balances of the updated accounts; inactive accounts are left out
+     */
+    public List<BalancePosting> applyDeltas(List<UUID> accountIds, List<BigDecimal> deltas) {
+        return jdbcTemplate.query(APPLY_DELTAS_SQL,
+            ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("uuid", accountIds.toArray()));
+                ps.setArray(2, ps.getConnection().createArrayOf("numeric", deltas.toArray()));
+            },
+            (rs, rowNum) -> balancePostingMapper(rs.getBigDecimal("delta")).mapRow(rs, rowNum));
+    }
+    
+    /** Journals balance movements already applied, {@code batchSize} rows per JDBC batch. */
+    public void insertJournal(List<JournalEntry> entries, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_JOURNAL_SQL, entries, batchSize, (ps, entry) -> {
+            PostingResult result = entry.getResult();
+            ps.setObject(1, result.getTransactionId());
+            ps.setObject(2, result.getAccountId());
+            ps.setObject(3, entry.getCounterpartyAccountId());
+            ps.setString(4, result.getTransactionNumber());
+            ps.setString(5, result.getTransactionType().name());
+            ps.setBigDecimal(6, result.getAmount());
+            ps.setBigDecimal(7, result.getBalanceBefore());
+            ps.setBigDecimal(8, result.getBalanceAfter());
+            ps.setString(9, result.getDescription());
+            ps.setString(10, result.getReferenceNumber());
+            ps.setString(11, result.getChannel().name());
+            ps.setTimestamp(12, Timestamp.valueOf(result.getTransactionDate()));
+            ps.setTimestamp(13, Timestamp.valueOf(result.getProcessedDate()));
+            ps.setString(14, entry.getCreatedBy());
+            ps.setTimestamp(15, result.getAcceptedDate() != null ? Timestamp.valueOf(result.getAcceptedDate()) : null);
+        });
+    }
+    
+    /** Rolls the movements of each account into its daily balance snapshot of {@code balanceDate}. */
+    public void rollIntoDailyBalances(LocalDate balanceDate, List<DailyMovement> movements, int batchSize) {
+        jdbcTemplate.batchUpdate(ROLL_DAILY_BALANCE_SQL, movements, batchSize, (ps, movement) -> {
+            ps.setObject(1, movement.getAccountId());
+            ps.setDate(2, Date.valueOf(balanceDate));
+            ps.setBigDecimal(3, movement.getOpeningBalance());
+            ps.setBigDecimal(4, movement.getClosingBalance());
+            ps.setBigDecimal(5, movement.getTotalDebit());
+            ps.setBigDecimal(6, movement.getTotalCredit());
+            ps.setInt(7, movement.getTransactionCount());
+        });
+    }
+    
+    /**
+     * Books credits accepted on an earlier day than they are applied on into the snapshot of
+     * the day they were accepted, and carries them into the snapshots of the days after it.
+     *
+     * @param fallbackOpening opening balance of the day when the account has no snapshots at all
+     */
+    public void rollBackdatedCredits(UUID accountId, LocalDate balanceDate, BigDecimal totalCredit,
+                                     int transactionCount, BigDecimal fallbackOpening) {
+        Date day = Date.valueOf(balanceDate);
+        jdbcTemplate.update(ROLL_BACKDATED_CREDIT_SQL, accountId, day, totalCredit, totalCredit, transactionCount,
+            accountId, day, accountId, day, fallbackOpening);
+        jdbcTemplate.update(SHIFT_LATER_DAILY_BALANCES_SQL, totalCredit, totalCredit, accountId, day);
+    }
+    
+    private static RowMapper<BalancePosting> balancePostingMapper(BigDecimal delta) {
+        return (rs, rowNum) -> {
+            BalancePosting posting = new BalancePosting();
+            posting.setAccountId(rs.getObject("id", UUID.class));
+            posting.setAccountNumber(rs.getString("account_number"));
+            posting.setAccountName(rs.getString("account_name"));
+            posting.setBranchId(rs.getObject("id_branches", UUID.class));
+            posting.setBalanceAfter(rs.getBigDecimal("balance"));
+            posting.setBalanceBefore(posting.getBalanceAfter().subtract(delta));
+            return posting;
+        };
+    }
+    
+    /** A journal row: the posted leg, the other account of the transfer, and who posted it. */
+    @lombok.Value
+    public static class JournalEntry {
+        PostingResult result;
+        UUID counterpartyAccountId;
+        String createdBy;
+    }
+    
+    /** Everything posted to one account on one day by a batch or group. */
+    @lombok.Value
+    public static class DailyMovement {
+        UUID accountId;
+        BigDecimal openingBalance;
+        BigDecimal closingBalance;
+        BigDecimal totalDebit;
+        BigDecimal totalCredit;
+        int transactionCount;
+    }
+}
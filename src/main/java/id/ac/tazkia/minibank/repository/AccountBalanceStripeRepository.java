@@ -0,0 +1,161 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.BalancePosting;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC repository for striped balances, used by PostingService and BalanceStripeRegistry.
+ * A stripe credit is one statement: the stripe UPDATE and the credit INSERT succeed or
+ * fail as a unit, and the accounts row is only read, never locked.
+ */
+@Repository
+public class AccountBalanceStripeRepository {
+
+    private static final String CREDIT_STRIPE_SQL =
+        "WITH credited AS (" +
+        "  UPDATE account_balance_stripes s SET balance = s.balance + ?, updated_date = CURRENT_TIMESTAMP " +
+        "  FROM accounts a " +
+        "  WHERE s.id_accounts = ? AND s.stripe = ? AND a.id = s.id_accounts AND a.status = 'ACTIVE' " +
+        "  RETURNING s.id_accounts, s.stripe, a.account_number, a.account_name, a.id_branches" +
+        "), recorded AS (" +
+        "  INSERT INTO account_stripe_credits (id, id_accounts, stripe, transaction_number, transaction_type, " +
+        "    amount, description, reference_number, channel, id_accounts_destination, transaction_date, created_by) " +
+        "  SELECT CAST(? AS UUID), credited.id_accounts, credited.stripe, CAST(? AS VARCHAR), CAST(? AS VARCHAR), " +
+        "    CAST(? AS NUMERIC), CAST(? AS TEXT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS UUID), " +
+        "    CAST(? AS TIMESTAMP), CAST(? AS VARCHAR) " +
+        "  FROM credited" +
+        ") " +
+        "SELECT id_accounts AS id, account_number, account_name, id_branches FROM credited";
+
+    private static final String FIND_CREDITS_SQL =
+        "SELECT id, id_accounts, transaction_number, transaction_type, amount, description, reference_number, " +
+        "  channel, id_accounts_destination, transaction_date, created_by " +
+        "FROM account_stripe_credits WHERE id_accounts = ? " +
+        "ORDER BY transaction_date, transaction_number";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountBalanceStripeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Number of stripes of every striped account. */
+    public Map<UUID, Integer> findStripeCounts() {
+        Map<UUID, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT id_accounts, COUNT(*) AS stripes FROM account_balance_stripes GROUP BY id_accounts",
+            rs -> {
+                counts.put(rs.getObject("id_accounts", UUID.class), rs.getInt("stripes"));
+            });
+        return counts;
+    }
+
+    /**
+     * Adds the credit leg's amount to stripe {@code stripe} of its account and records the
+     * credit for the next fold as transaction {@code transactionId}.
+     *
+     * @return the credited account, without balances; empty when the account is not
+     *         active or has no such stripe (nothing is written)
+     */
+    public Optional<BalancePosting> credit(UUID transactionId, String transactionNumber, PostingRequest request,
+                                           int stripe, LocalDateTime postedAt, String createdBy) {
+        return jdbcTemplate.query(CREDIT_STRIPE_SQL, (rs, rowNum) -> {
+                BalancePosting posting = new BalancePosting();
+                posting.setAccountId(rs.getObject("id", UUID.class));
+                posting.setAccountNumber(rs.getString("account_number"));
+                posting.setAccountName(rs.getString("account_name"));
+                posting.setBranchId(rs.getObject("id_branches", UUID.class));
+                return posting;
+            },
+            request.getAmount(), request.getAccountId(), stripe,
+            transactionId, transactionNumber, request.getTransactionType().name(),
+            request.getAmount(), request.getDescription(), request.getReferenceNumber(),
+            request.getChannel().name(), request.getCounterpartyAccountId(), postedAt, createdBy
+        ).stream().findFirst();
+    }
+
+    /**
+     * Locks the stripes of the account, waiting for credits still in flight on them.
+     * Must run after the accounts row is locked.
+     *
+     * @return the total on the stripes
+     */
+    public BigDecimal lockStripes(UUID accountId) {
+        // FOR UPDATE cannot be combined with an aggregate
+        return jdbcTemplate.queryForList(
+                "SELECT balance FROM account_balance_stripes WHERE id_accounts = ? ORDER BY stripe FOR UPDATE",
+                BigDecimal.class, accountId)
+            .stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * The recorded credits of the account in posting order, as journal rows still
+     * without balances.
+     */
+    public List<AccountBalanceRepository.JournalEntry> findCredits(UUID accountId) {
+        return jdbcTemplate.query(FIND_CREDITS_SQL, (rs, rowNum) -> {
+            PostingResult result = new PostingResult();
+            result.setTransactionId(rs.getObject("id", UUID.class));
+            result.setAccountId(rs.getObject("id_accounts", UUID.class));
+            result.setTransactionNumber(rs.getString("transaction_number"));
+            result.setTransactionType(Transaction.TransactionType.valueOf(rs.getString("transaction_type")));
+            result.setAmount(rs.getBigDecimal("amount"));
+            result.setDescription(rs.getString("description"));
+            result.setReferenceNumber(rs.getString("reference_number"));
+            result.setChannel(Transaction.TransactionChannel.valueOf(rs.getString("channel")));
+            result.setTransactionDate(rs.getTimestamp("transaction_date").toLocalDateTime());
+            return new AccountBalanceRepository.JournalEntry(result, rs.getObject("id_accounts_destination", UUID.class),
+                rs.getString("created_by"));
+        }, accountId);
+    }
+
+    /** Empties the stripes of the account and forgets its recorded credits, once they are folded. */
+    public void clear(UUID accountId) {
+        jdbcTemplate.update("DELETE FROM account_stripe_credits WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update(
+            "UPDATE account_balance_stripes SET balance = 0, updated_date = CURRENT_TIMESTAMP " +
+            "WHERE id_accounts = ? AND balance > 0", accountId);
+    }
+
+    /** Gives the account {@code stripes} empty stripes; zero removes them. The stripes must be empty. */
+    public void replaceStripes(UUID accountId, int stripes) {
+        jdbcTemplate.update("DELETE FROM account_balance_stripes WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update(
+            "INSERT INTO account_balance_stripes (id_accounts, stripe) " +
+            "SELECT CAST(? AS UUID), n FROM generate_series(0, CAST(? AS INTEGER) - 1) AS n",
+            accountId, stripes);
+    }
+
+    /** Active accounts with credits waiting on their stripes. */
+    public List<UUID> findAccountsToFold() {
+        return jdbcTemplate.queryForList(
+            "SELECT DISTINCT s.id_accounts FROM account_balance_stripes s JOIN accounts a ON a.id = s.id_accounts " +
+            "WHERE s.balance > 0 AND a.status = 'ACTIVE'", UUID.class);
+    }
+
+    /** True when the account has balance stripes, empty or not. */
+    public boolean hasStripes(UUID accountId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM account_balance_stripes WHERE id_accounts = ?)", Boolean.class, accountId));
+    }
+
+    /** Balance of the account including the credits still on its stripes. */
+    public Optional<BigDecimal> findVisibleBalance(UUID accountId) {
+        return jdbcTemplate.queryForList(
+            "SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_stripes s " +
+            "  WHERE s.id_accounts = a.id), 0) " +
+            "FROM accounts a WHERE a.id = ?",
+            BigDecimal.class, accountId).stream().findFirst();
+    }
+}
@@ -0,0 +1,105 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.DailyBalance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC repository for the {@code account_daily_balances} snapshots, which are written
+ * by the posting statement in AccountBalanceRepository. Every lookup here is served
+ * by the (id_accounts, balance_date) primary key or the (id_accounts, booking date)
+ * index of transactions, so its cost does not depend on the length of the history.
+ */
+@Repository
+public class AccountDailyBalanceRepository {
+
+    private static final String COLUMNS =
+        "balance_date, opening_balance, closing_balance, total_debit, total_credit, transaction_count";
+
+    // Signed movement of a transaction: debits reduce the balance
+    private static final String SIGNED_AMOUNT =
+        "CASE WHEN transaction_type IN ('WITHDRAWAL', 'TRANSFER_OUT', 'FEE') THEN -amount ELSE amount END";
+
+    // Stripe credits count from when they were accepted, not when they were folded
+    private static final String BOOKING_DATE = "COALESCE(accepted_date, transaction_date)";
+
+    private static final RowMapper<DailyBalance> DAILY_BALANCE_MAPPER = (rs, rowNum) -> {
+        DailyBalance day = new DailyBalance();
+        day.setBalanceDate(rs.getDate("balance_date").toLocalDate());
+        day.setOpeningBalance(rs.getBigDecimal("opening_balance"));
+        day.setClosingBalance(rs.getBigDecimal("closing_balance"));
+        day.setTotalDebit(rs.getBigDecimal("total_debit"));
+        day.setTotalCredit(rs.getBigDecimal("total_credit"));
+        day.setTransactionCount(rs.getInt("transaction_count"));
+        return day;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountDailyBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The last snapshot strictly before {@code date}.
+     */
+    public Optional<DailyBalance> findLatestBefore(UUID accountId, LocalDate date) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM account_daily_balances WHERE id_accounts = ? AND balance_date < ? " +
+            "ORDER BY balance_date DESC LIMIT 1",
+            DAILY_BALANCE_MAPPER, accountId, Date.valueOf(date)).stream().findFirst();
+    }
+
+    /**
+     * The first snapshot on or after {@code date}.
+     */
+    public Optional<DailyBalance> findEarliestFrom(UUID accountId, LocalDate date) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM account_daily_balances WHERE id_accounts = ? AND balance_date >= ? " +
+            "ORDER BY balance_date LIMIT 1",
+            DAILY_BALANCE_MAPPER, accountId, Date.valueOf(date)).stream().findFirst();
+    }
+
+    /**
+     * Snapshots of the days with postings between the two dates, both inclusive, oldest first.
+     */
+    public List<DailyBalance> findBetween(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM account_daily_balances " +
+            "WHERE id_accounts = ? AND balance_date BETWEEN ? AND ? ORDER BY balance_date",
+            DAILY_BALANCE_MAPPER, accountId, Date.valueOf(startDate), Date.valueOf(endDate));
+    }
+
+    /**
+     * Net movement of the transactions booked at or after {@code from} and before {@code to}.
+     *
+     * @param to exclusive upper bound, null for no bound
+     */
+    public BigDecimal sumMovements(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        BigDecimal sum = to == null
+            ? jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM transactions " +
+                "WHERE id_accounts = ? AND " + BOOKING_DATE + " >= ?",
+                BigDecimal.class, accountId, Timestamp.valueOf(from))
+            : jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(" + SIGNED_AMOUNT + "), 0) FROM transactions " +
+                "WHERE id_accounts = ? AND " + BOOKING_DATE + " >= ? AND " + BOOKING_DATE + " < ?",
+                BigDecimal.class, accountId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return sum != null ? sum : BigDecimal.ZERO;
+    }
+
+    public Optional<BigDecimal> findCurrentBalance(UUID accountId) {
+        return jdbcTemplate.queryForList("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId)
+            .stream().findFirst();
+    }
+}
@@ -0,0 +1,78 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.AccountDirectoryEntry;
+import id.ac.tazkia.minibank.entity.Account;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC reads behind the AccountDirectory. The customer display name comes from
+ * {@code customer_search}, which already holds it for personal and corporate customers.
+ */
+@Repository
+public class AccountDirectoryRepository {
+
+    private static final String SELECT_ENTRY =
+        "SELECT a.id, a.account_number, a.account_name, a.status, a.id_customers, cs.display_name " +
+        "FROM accounts a LEFT JOIN customer_search cs ON cs.id_customers = a.id_customers ";
+
+    private static final RowMapper<AccountDirectoryEntry> ENTRY_MAPPER = (rs, rowNum) -> {
+        AccountDirectoryEntry entry = new AccountDirectoryEntry();
+        entry.setAccountId(rs.getObject("id", UUID.class));
+        entry.setAccountNumber(rs.getString("account_number"));
+        entry.setAccountName(rs.getString("account_name"));
+        entry.setStatus(Account.AccountStatus.valueOf(rs.getString("status")));
+        entry.setCustomerId(rs.getObject("id_customers", UUID.class));
+        entry.setCustomerDisplayName(rs.getString("display_name"));
+        return entry;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountDirectoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<AccountDirectoryEntry> findByAccountNumber(String accountNumber) {
+        return jdbcTemplate.query(SELECT_ENTRY + "WHERE a.account_number = ?", ENTRY_MAPPER, accountNumber)
+            .stream().findFirst();
+    }
+
+    /** The accounts among {@code accountNumbers} that exist, in one query. */
+    public List<AccountDirectoryEntry> findByAccountNumbers(Collection<String> accountNumbers) {
+        return jdbcTemplate.query(SELECT_ENTRY + "WHERE a.account_number = ANY(?)",
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", accountNumbers.toArray())),
+            ENTRY_MAPPER);
+    }
+
+    public Optional<AccountDirectoryEntry> findById(UUID accountId) {
+        return jdbcTemplate.query(SELECT_ENTRY + "WHERE a.id = ?", ENTRY_MAPPER, accountId)
+            .stream().findFirst();
+    }
+
+    public Optional<String> findAccountNumberById(UUID accountId) {
+        return jdbcTemplate.queryForList("SELECT account_number FROM accounts WHERE id = ?", String.class, accountId)
+            .stream().findFirst();
+    }
+
+    public int countAccounts() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Hands every account number to {@code consumer}, row by row.
+     */
+    public void forEachAccountNumber(Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT account_number FROM accounts",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+}
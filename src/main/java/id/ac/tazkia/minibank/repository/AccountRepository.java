@@ -5,11 +5,14 @@ import id.ac.tazkia.minibank.entity.Customer;
 import id.ac.tazkia.minibank.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +23,22 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     
     Optional<Account> findByAccountNumber(String accountNumber);
     
+    @EntityGraph(Account.SUMMARY_GRAPH)
+    Optional<Account> findWithSummaryById(UUID id);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdWithLock(@Param("id") UUID id);
+    
+    @Query("SELECT a.id FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<UUID> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+    
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.id = :id")
+    Optional<String> findAccountNumberById(@Param("id") UUID id);
+    
+    @Query("SELECT a.branch.branchCode FROM Account a WHERE a.id = :id")
+    Optional<String> findBranchCodeById(@Param("id") UUID id);
+    
     List<Account> findByCustomer(Customer customer);
     
     List<Account> findByCustomerId(UUID customerId);
@@ -75,11 +94,14 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("SELECT a FROM Account a JOIN FETCH a.product WHERE a.customer = :customer")
     List<Account> findByCustomerWithProduct(@Param("customer") Customer customer);
     
+    // Account list rows show customer and product: fetched with the page, not per row
+    @EntityGraph(Account.SUMMARY_GRAPH)
     Page<Account> findByAccountNumberContainingIgnoreCaseOrAccountNameContainingIgnoreCase(
         String accountNumber, String accountName, Pageable pageable);
     
     List<Account> findByAccountNumberContainingIgnoreCaseOrAccountNameContainingIgnoreCase(
         String accountNumber, String accountName);
     
+    @EntityGraph(Account.SUMMARY_GRAPH)
     Page<Account> findByStatus(Account.AccountStatus status, Pageable pageable);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package id.ac.tazkia.minibank.repository;
 
+import id.ac.tazkia.minibank.dto.ApprovalQueueRow;
 import id.ac.tazkia.minibank.entity.ApprovalRequest;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.ApprovalStatus;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
@@ -25,6 +26,17 @@ public interface ApprovalRequestRepository extends JpaRepository<ApprovalRequest
      */
     List<ApprovalRequest> findByApprovalStatusOrderByRequestedDateDesc(ApprovalStatus status);
 
+    /**
+     * Approval queue rows by status, newest first
+     */
+    List<ApprovalQueueRow> findQueueByApprovalStatusOrderByRequestedDateDesc(ApprovalStatus status);
+
+    /**
+     * Approval queue rows by request type and status, newest first
+     */
+    List<ApprovalQueueRow> findQueueByRequestTypeAndApprovalStatusOrderByRequestedDateDesc(
+        RequestType requestType, ApprovalStatus status);
+
     /**
      * Find all approval requests by branch and status
      */
@@ -1,10 +1,14 @@
 package id.ac.tazkia.minibank.repository;
 
 import id.ac.tazkia.minibank.entity.Branch;
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,10 +19,22 @@ import java.util.UUID;
 @Repository
 public interface BranchRepository extends JpaRepository<Branch, UUID> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.BRANCH_QUERY_REGION)
+    })
     Optional<Branch> findByBranchCode(String branchCode);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.BRANCH_QUERY_REGION)
+    })
     List<Branch> findByStatusOrderByBranchCodeAsc(Branch.BranchStatus status);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.BRANCH_QUERY_REGION)
+    })
     List<Branch> findAllByOrderByBranchCodeAsc();
     
     @Query("SELECT b FROM Branch b WHERE " +
@@ -52,6 +68,10 @@ public interface BranchRepository extends JpaRepository<Branch, UUID> {
     List<Branch> findByCityIgnoreCaseOrderByBranchCodeAsc(String city);
     
     // Find active branches for dropdowns
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.BRANCH_QUERY_REGION)
+    })
     @Query("SELECT b FROM Branch b WHERE b.status = 'ACTIVE' ORDER BY b.branchCode ASC")
     List<Branch> findActiveBranches();
 }
\ No newline at end of file
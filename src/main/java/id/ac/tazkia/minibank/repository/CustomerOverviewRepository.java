@@ -0,0 +1,150 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.CustomerOverview;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC reads behind the customer overview. Each part of the overview is one query
+ * whatever the number of accounts: the accounts come with their product and passbook
+ * joined in, and the latest transactions are taken per account from
+ * idx_transactions_account_date_id before being merged, so no account history is scanned.
+ */
+@Repository
+public class CustomerOverviewRepository {
+
+    private static final String PROFILE_SQL =
+        "SELECT c.id, c.customer_number, c.customer_type, cs.display_name, c.status, c.approval_status, " +
+        "  c.email, c.phone_number, b.branch_code, b.branch_name " +
+        "FROM customers c " +
+        "JOIN branches b ON b.id = c.id_branches " +
+        "LEFT JOIN customer_search cs ON cs.id_customers = c.id " +
+        "WHERE c.id = ?";
+
+    // A passbook has unprinted lines when a transaction sorts after its print watermark
+    private static final String ACCOUNTS_SQL =
+        "SELECT a.id, a.account_number, a.account_name, p.product_code, p.product_name, p.product_type, " +
+        "  a.balance, a.status, a.approval_status, a.opened_date, " +
+        "  pb.passbook_number, pb.status AS passbook_status, pb.last_print_date, " +
+        "  (pb.id IS NOT NULL AND EXISTS (SELECT 1 FROM transactions t WHERE t.id_accounts = a.id " +
+        "    AND (pb.last_printed_transaction_date IS NULL " +
+        "      OR (t.transaction_date, t.id) > (pb.last_printed_transaction_date, pb.id_last_printed_transaction)))) " +
+        "    AS unprinted_transactions " +
+        "FROM accounts a " +
+        "JOIN products p ON p.id = a.id_products " +
+        "LEFT JOIN passbooks pb ON pb.id_accounts = a.id " +
+        "WHERE a.id_customers = ? " +
+        "ORDER BY a.opened_date, a.account_number";
+
+    private static final String RECENT_TRANSACTIONS_SQL =
+        "SELECT t.id, t.transaction_number, a.account_number, t.transaction_type, t.amount, t.balance_after, " +
+        "  t.description, t.channel, t.transaction_date " +
+        "FROM accounts a " +
+        "CROSS JOIN LATERAL (" +
+        "  SELECT * FROM transactions tx WHERE tx.id_accounts = a.id " +
+        "  ORDER BY tx.transaction_date DESC, tx.id DESC LIMIT ?" +
+        ") t " +
+        "WHERE a.id_customers = ? " +
+        "ORDER BY t.transaction_date DESC, t.id DESC LIMIT ?";
+
+    private static final String PENDING_APPROVALS_SQL =
+        "SELECT id, request_type, entity_type, entity_id, requested_by, requested_date " +
+        "FROM approval_requests " +
+        "WHERE approval_status = 'PENDING' AND (" +
+        "  (entity_type = 'CUSTOMER' AND entity_id = ?) " +
+        "  OR (entity_type = 'ACCOUNT' AND entity_id IN (SELECT id FROM accounts WHERE id_customers = ?))) " +
+        "ORDER BY requested_date DESC";
+
+    private static final RowMapper<CustomerOverview> PROFILE_MAPPER = (rs, rowNum) -> {
+        CustomerOverview overview = new CustomerOverview();
+        overview.setCustomerId(rs.getObject("id", UUID.class));
+        overview.setCustomerNumber(rs.getString("customer_number"));
+        overview.setCustomerType(rs.getString("customer_type"));
+        overview.setDisplayName(rs.getString("display_name"));
+        overview.setStatus(rs.getString("status"));
+        overview.setApprovalStatus(rs.getString("approval_status"));
+        overview.setEmail(rs.getString("email"));
+        overview.setPhoneNumber(rs.getString("phone_number"));
+        overview.setBranchCode(rs.getString("branch_code"));
+        overview.setBranchName(rs.getString("branch_name"));
+        return overview;
+    };
+
+    private static final RowMapper<CustomerOverview.AccountSummary> ACCOUNT_MAPPER = (rs, rowNum) -> {
+        CustomerOverview.AccountSummary account = new CustomerOverview.AccountSummary();
+        account.setAccountId(rs.getObject("id", UUID.class));
+        account.setAccountNumber(rs.getString("account_number"));
+        account.setAccountName(rs.getString("account_name"));
+        account.setProductCode(rs.getString("product_code"));
+        account.setProductName(rs.getString("product_name"));
+        account.setProductType(rs.getString("product_type"));
+        account.setBalance(rs.getBigDecimal("balance"));
+        account.setStatus(rs.getString("status"));
+        account.setApprovalStatus(rs.getString("approval_status"));
+        Date openedDate = rs.getDate("opened_date");
+        account.setOpenedDate(openedDate == null ? null : openedDate.toLocalDate());
+        account.setPassbookNumber(rs.getString("passbook_number"));
+        account.setPassbookStatus(rs.getString("passbook_status"));
+        Timestamp lastPrintDate = rs.getTimestamp("last_print_date");
+        account.setLastPrintDate(lastPrintDate == null ? null : lastPrintDate.toLocalDateTime());
+        account.setUnprintedTransactions(rs.getBoolean("unprinted_transactions"));
+        return account;
+    };
+
+    private static final RowMapper<CustomerOverview.RecentTransaction> TRANSACTION_MAPPER = (rs, rowNum) -> {
+        CustomerOverview.RecentTransaction transaction = new CustomerOverview.RecentTransaction();
+        transaction.setTransactionId(rs.getObject("id", UUID.class));
+        transaction.setTransactionNumber(rs.getString("transaction_number"));
+        transaction.setAccountNumber(rs.getString("account_number"));
+        transaction.setTransactionType(rs.getString("transaction_type"));
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setBalanceAfter(rs.getBigDecimal("balance_after"));
+        transaction.setDescription(rs.getString("description"));
+        transaction.setChannel(rs.getString("channel"));
+        transaction.setTransactionDate(rs.getTimestamp("transaction_date").toLocalDateTime());
+        return transaction;
+    };
+
+    private static final RowMapper<CustomerOverview.PendingApproval> APPROVAL_MAPPER = (rs, rowNum) -> {
+        CustomerOverview.PendingApproval approval = new CustomerOverview.PendingApproval();
+        approval.setApprovalRequestId(rs.getObject("id", UUID.class));
+        approval.setRequestType(rs.getString("request_type"));
+        approval.setEntityType(rs.getString("entity_type"));
+        approval.setEntityId(rs.getObject("entity_id", UUID.class));
+        approval.setRequestedBy(rs.getString("requested_by"));
+        approval.setRequestedDate(rs.getTimestamp("requested_date").toLocalDateTime());
+        return approval;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerOverviewRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<CustomerOverview> findProfile(UUID customerId) {
+        return jdbcTemplate.query(PROFILE_SQL, PROFILE_MAPPER, customerId).stream().findFirst();
+    }
+
+    public List<CustomerOverview.AccountSummary> findAccounts(UUID customerId) {
+        return jdbcTemplate.query(ACCOUNTS_SQL, ACCOUNT_MAPPER, customerId);
+    }
+
+    /**
+     * The {@code limit} latest transactions over all accounts of the customer, newest first.
+     */
+    public List<CustomerOverview.RecentTransaction> findRecentTransactions(UUID customerId, int limit) {
+        return jdbcTemplate.query(RECENT_TRANSACTIONS_SQL, TRANSACTION_MAPPER, limit, customerId, limit);
+    }
+
+    public List<CustomerOverview.PendingApproval> findPendingApprovals(UUID customerId) {
+        return jdbcTemplate.query(PENDING_APPROVALS_SQL, APPROVAL_MAPPER, customerId, customerId);
+    }
+}
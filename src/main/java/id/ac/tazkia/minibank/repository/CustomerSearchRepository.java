@@ -0,0 +1,94 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.entity.Customer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Ranked customer search over the trigger-maintained {@code customer_search} table.
+ * Substring matches are served by the trigram GIN index on {@code search_text};
+ * terms of three or more characters also match by word similarity, so small typos
+ * in a name still find the customer.
+ */
+@Repository
+public class CustomerSearchRepository {
+
+    private static final int FUZZY_MIN_LENGTH = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the ids of matching customers, best match first: exact customer number,
+     * then names starting with the term, then by trigram word similarity.
+     *
+     * @param customerType optional filter, null for all types
+     * @param status optional filter, null for all statuses
+     */
+    public List<UUID> searchIds(String term, Customer.CustomerType customerType,
+                                Customer.CustomerStatus status, long offset, int limit) {
+        String normalized = normalize(term);
+        List<Object> args = new ArrayList<>();
+        String where = whereClause(normalized, customerType, status, args);
+        args.add(normalized);
+        args.add(escapeLike(normalized) + "%");
+        args.add(normalized);
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.queryForList(
+            "SELECT id_customers FROM customer_search" + where +
+            " ORDER BY (lower(customer_number) = ?) DESC," +
+            " COALESCE(lower(display_name) LIKE ? ESCAPE '!', FALSE) DESC," +
+            " word_similarity(?, search_text) DESC, created_date DESC NULLS LAST, id_customers" +
+            " LIMIT ? OFFSET ?",
+            UUID.class, args.toArray());
+    }
+
+    public long count(String term, Customer.CustomerType customerType, Customer.CustomerStatus status) {
+        List<Object> args = new ArrayList<>();
+        String where = whereClause(normalize(term), customerType, status, args);
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customer_search" + where, Long.class, args.toArray());
+        return count != null ? count : 0L;
+    }
+
+    private String whereClause(String normalized, Customer.CustomerType customerType,
+                               Customer.CustomerStatus status, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE (search_text LIKE ? ESCAPE '!'");
+        args.add("%" + escapeLike(normalized) + "%");
+        if (normalized.length() >= FUZZY_MIN_LENGTH) {
+            where.append(" OR ? <% search_text");
+            args.add(normalized);
+        }
+        where.append(")");
+        if (customerType != null) {
+            where.append(" AND customer_type = ?");
+            args.add(customerType.name());
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            args.add(status.name());
+        }
+        return where.toString();
+    }
+
+    /** Same normalization as {@code search_text}: lower case, single spaces. */
+    static String normalize(String term) {
+        if (term == null || term.isBlank()) {
+            throw new IllegalArgumentException("Search term is required");
+        }
+        return term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,95 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.entity.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access for DashboardStatisticsService: today's activity counters, which nodes
+ * add to, and the grouped counts used to correct the in-memory account and approval
+ * figures now and then.
+ */
+@Repository
+public class DashboardCounterRepository {
+
+    private static final String ADD_COUNTS_SQL =
+        "INSERT INTO dashboard_daily_counters (counter_date, id_branches, activity, event_count, volume) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (counter_date, id_branches, activity) DO UPDATE SET " +
+        "  event_count = dashboard_daily_counters.event_count + EXCLUDED.event_count, " +
+        "  volume = dashboard_daily_counters.volume + EXCLUDED.volume, " +
+        "  updated_date = CURRENT_TIMESTAMP";
+
+    /** Per-branch activity total of one day. */
+    public interface CounterRow {
+        void accept(UUID branchId, String activity, long count, BigDecimal volume);
+    }
+
+    /** Count of one branch, optionally split further by product type. */
+    public interface GroupedCount {
+        void accept(UUID branchId, Product.ProductType productType, long count);
+    }
+
+    /** Increment of one counter, as collected by a node since its last flush. */
+    public static class CounterDelta {
+        private final UUID branchId;
+        private final String activity;
+        private final long count;
+        private final BigDecimal volume;
+
+        public CounterDelta(UUID branchId, String activity, long count, BigDecimal volume) {
+            this.branchId = branchId;
+            this.activity = activity;
+            this.count = count;
+            this.volume = volume;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DashboardCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void addCounts(LocalDate date, List<CounterDelta> deltas) {
+        jdbcTemplate.batchUpdate(ADD_COUNTS_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setDate(1, Date.valueOf(date));
+            ps.setObject(2, delta.branchId);
+            ps.setString(3, delta.activity);
+            ps.setLong(4, delta.count);
+            ps.setBigDecimal(5, delta.volume);
+        });
+    }
+
+    public void findCounts(LocalDate date, CounterRow consumer) {
+        jdbcTemplate.query(
+            "SELECT id_branches, activity, event_count, volume FROM dashboard_daily_counters WHERE counter_date = ?",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getObject("id_branches", UUID.class),
+                rs.getString("activity"), rs.getLong("event_count"), rs.getBigDecimal("volume")),
+            Date.valueOf(date));
+    }
+
+    public void countActiveAccounts(GroupedCount consumer) {
+        jdbcTemplate.query(
+            "SELECT a.id_branches, p.product_type, COUNT(*) AS account_count " +
+            "FROM accounts a JOIN products p ON p.id = a.id_products " +
+            "WHERE a.status = 'ACTIVE' GROUP BY a.id_branches, p.product_type",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getObject("id_branches", UUID.class),
+                Product.ProductType.valueOf(rs.getString("product_type")), rs.getLong("account_count")));
+    }
+
+    public void countPendingApprovals(GroupedCount consumer) {
+        jdbcTemplate.query(
+            "SELECT branch_id, COUNT(*) AS request_count FROM approval_requests " +
+            "WHERE approval_status = 'PENDING' AND branch_id IS NOT NULL GROUP BY branch_id",
+            (RowCallbackHandler) rs -> consumer.accept(rs.getObject("branch_id", UUID.class),
+                null, rs.getLong("request_count")));
+    }
+}
@@ -0,0 +1,79 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC repository for idempotency keys, used by PostingService and IdempotencyKeyStore.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+    
+    private static final String FIND_POSTING_SQL =
+        "SELECT t.id, t.transaction_number, t.transaction_type, t.amount, t.currency, " +
+        "  t.balance_before, t.balance_after, t.description, t.reference_number, t.channel, " +
+        "  t.transaction_date, t.processed_date, " +
+        "  a.id AS account_id, a.account_number, a.account_name, a.id_branches " +
+        "FROM idempotency_keys k " +
+        "JOIN transactions t ON t.id = k.id_transactions " +
+        "JOIN accounts a ON a.id = t.id_accounts " +
+        "WHERE k.idempotency_key = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Claims {@code idempotencyKey} for transaction {@code transactionId}. Must run in the
+     * posting's transaction: while another transaction holds an uncommitted claim on the
+     * same key this waits for it, and returns false once that claim has committed.
+     *
+     * @return true if the key was free and is now claimed
+     */
+    public boolean claim(String idempotencyKey, UUID transactionId) {
+        return jdbcTemplate.update(
+            "INSERT INTO idempotency_keys (idempotency_key, id_transactions) VALUES (?, ?) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING",
+            idempotencyKey, transactionId) == 1;
+    }
+    
+    /**
+     * Gives back a key claimed in this transaction by a posting that was then refused, so
+     * the transaction can commit without it.
+     */
+    public void release(String idempotencyKey) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", idempotencyKey);
+    }
+    
+    /** The posting made under {@code idempotencyKey}, as journaled. */
+    public Optional<PostingResult> findPosting(String idempotencyKey) {
+        return jdbcTemplate.query(FIND_POSTING_SQL, (rs, rowNum) -> {
+            PostingResult result = new PostingResult();
+            result.setTransactionId(rs.getObject("id", UUID.class));
+            result.setTransactionNumber(rs.getString("transaction_number"));
+            result.setTransactionType(Transaction.TransactionType.valueOf(rs.getString("transaction_type")));
+            result.setAccountId(rs.getObject("account_id", UUID.class));
+            result.setAccountNumber(rs.getString("account_number"));
+            result.setAccountName(rs.getString("account_name"));
+            result.setBranchId(rs.getObject("id_branches", UUID.class));
+            result.setAmount(rs.getBigDecimal("amount"));
+            result.setBalanceBefore(rs.getBigDecimal("balance_before"));
+            result.setBalanceAfter(rs.getBigDecimal("balance_after"));
+            result.setDescription(rs.getString("description"));
+            result.setReferenceNumber(rs.getString("reference_number"));
+            result.setCurrency(rs.getString("currency"));
+            result.setChannel(Transaction.TransactionChannel.valueOf(rs.getString("channel")));
+            result.setTransactionDate(rs.getTimestamp("transaction_date").toLocalDateTime());
+            result.setProcessedDate(rs.getTimestamp("processed_date").toLocalDateTime());
+            result.setReplayed(true);
+            return result;
+        }, idempotencyKey).stream().findFirst();
+    }
+}
@@ -0,0 +1,88 @@
+package id.ac.tazkia.minibank.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.regex.Pattern;
+
+/**
+ * JDBC repository for sequences backed by PostgreSQL {@code SEQUENCE} objects.
+ * Each named sequence {@code FOO_BAR} maps to the database sequence {@code seq_foo_bar};
+ * its prefix stays on the {@code sequence_numbers} row.
+ * <p>
+ * {@code nextval} never blocks and is not rolled back, so numbers are unique but not
+ * gap-free. With CACHE greater than 1 every connection pre-allocates its own range,
+ * so numbers are also not ordered by allocation time.
+ */
+@Repository
+public class NativeSequenceRepository {
+
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("[A-Z][A-Z0-9_]{0,45}");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NativeSequenceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long nextValue(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+            "SELECT nextval(CAST(? AS regclass))", Long.class, databaseSequence(sequenceName));
+    }
+
+    /**
+     * Last value handed out by any session, or 0 when the sequence has never been used.
+     */
+    public long currentValue(String sequenceName) {
+        return jdbcTemplate.queryForObject(
+            "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM " + databaseSequence(sequenceName),
+            Long.class);
+    }
+
+    /**
+     * Makes the next {@code nextval} return {@code lastNumber + 1}.
+     */
+    public void reset(String sequenceName, long lastNumber) {
+        jdbcTemplate.queryForObject("SELECT setval(CAST(? AS regclass), ?, ?)", Long.class,
+            databaseSequence(sequenceName), Math.max(lastNumber, 1), lastNumber > 0);
+    }
+
+    /**
+     * Creates the database sequence when missing, applies the requested CACHE size and
+     * moves it past the {@code sequence_numbers} row, so a sequence previously served
+     * from the table continues without reusing numbers.
+     */
+    public void ensureSequence(String sequenceName, String prefix, int cacheSize) {
+        String databaseSequence = databaseSequence(sequenceName);
+        jdbcTemplate.update(
+            "INSERT INTO sequence_numbers (sequence_name, last_number, prefix) VALUES (?, 0, ?) " +
+            "ON CONFLICT (sequence_name) DO NOTHING", sequenceName, prefix);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + databaseSequence + " CACHE " + cacheSize);
+
+        Long currentCache = jdbcTemplate.queryForObject(
+            "SELECT cache_size FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+            Long.class, databaseSequence);
+        if (currentCache == null || currentCache != cacheSize) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + databaseSequence + " CACHE " + cacheSize);
+        }
+
+        Long tableNumber = jdbcTemplate.queryForObject(
+            "SELECT last_number FROM sequence_numbers WHERE sequence_name = ?", Long.class, sequenceName);
+        if (tableNumber > currentValue(sequenceName)) {
+            reset(sequenceName, tableNumber);
+        }
+    }
+
+    public String findPrefix(String sequenceName) {
+        return jdbcTemplate.query("SELECT prefix FROM sequence_numbers WHERE sequence_name = ?",
+            (rs, rowNum) -> rs.getString("prefix"), sequenceName).stream().findFirst().orElse(null);
+    }
+
+    private String databaseSequence(String sequenceName) {
+        // Sequence names end up in DDL, so only plain identifiers are accepted
+        if (sequenceName == null || !SEQUENCE_NAME.matcher(sequenceName).matches()) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequenceName);
+        }
+        return "seq_" + sequenceName.toLowerCase();
+    }
+}
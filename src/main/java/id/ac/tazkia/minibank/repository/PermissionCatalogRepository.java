@@ -0,0 +1,40 @@
+package id.ac.tazkia.minibank.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC reads behind the PermissionRegistry: every permission code, and the permission
+ * codes granted to each active role.
+ */
+@Repository
+public class PermissionCatalogRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PermissionCatalogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<String> findPermissionCodes() {
+        return jdbcTemplate.queryForList(
+            "SELECT permission_code FROM permissions WHERE permission_code IS NOT NULL ORDER BY permission_code",
+            String.class);
+    }
+
+    /** Calls {@code consumer} with (role code, permission code) for every grant of an active role. */
+    public void forEachActiveRolePermission(BiConsumer<String, String> consumer) {
+        jdbcTemplate.query(
+            "SELECT r.role_code, p.permission_code " +
+            "FROM roles r " +
+            "JOIN role_permissions rp ON rp.id_roles = r.id " +
+            "JOIN permissions p ON p.id = rp.id_permissions " +
+            "WHERE r.is_active = true AND p.permission_code IS NOT NULL",
+            rs -> {
+                consumer.accept(rs.getString("role_code"), rs.getString("permission_code"));
+            });
+    }
+}
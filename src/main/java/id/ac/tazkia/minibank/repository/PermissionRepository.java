@@ -1,10 +1,14 @@
 package id.ac.tazkia.minibank.repository;
 
 import id.ac.tazkia.minibank.entity.Permission;
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,8 +19,16 @@ import java.util.UUID;
 @Repository
 public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     Optional<Permission> findByPermissionCode(String permissionCode);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     @Query("SELECT p FROM Permission p WHERE p.permissionCategory = :category")
     List<Permission> findByCategory(@Param("category") String category);
     
@@ -24,8 +36,19 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     @Query("SELECT p FROM Permission p WHERE p.permissionCategory = :category")
     Page<Permission> findByCategoryPage(@Param("category") String category, Pageable pageable);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     @Query("SELECT DISTINCT p.permissionCategory FROM Permission p ORDER BY p.permissionCategory")
     List<String> findDistinctCategories();
     
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
+    List<Permission> findAll();
+    
     boolean existsByPermissionCode(String permissionCode);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package id.ac.tazkia.minibank.repository;
 
 import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,18 +19,38 @@ import java.util.UUID;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     Optional<Product> findByProductCode(String productCode);
     
     List<Product> findByProductType(Product.ProductType productType);
     
     List<Product> findByProductCategory(String productCategory);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     List<Product> findByIsActiveTrue();
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     List<Product> findByIsActiveTrueAndProductType(Product.ProductType productType);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     Optional<Product> findByIsActiveTrueAndIsDefaultTrue();
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     Optional<Product> findByIsActiveTrueAndIsDefaultTrueAndProductType(Product.ProductType productType);
     
     @Query("SELECT p FROM Product p WHERE " +
@@ -55,6 +79,10 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT COUNT(p) FROM Product p WHERE p.isActive = true AND p.productType = :productType")
     Long countActiveByProductType(@Param("productType") Product.ProductType productType);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.PRODUCT_QUERY_REGION)
+    })
     @Query("SELECT DISTINCT p.productCategory FROM Product p WHERE p.isActive = true ORDER BY p.productCategory")
     List<String> findDistinctActiveCategories();
     
@@ -3,8 +3,12 @@ package id.ac.tazkia.minibank.repository;
 import id.ac.tazkia.minibank.entity.Role;
 import id.ac.tazkia.minibank.entity.Permission;
 import id.ac.tazkia.minibank.entity.RolePermission;
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,15 +19,31 @@ import java.util.UUID;
 @Repository
 public interface RolePermissionRepository extends JpaRepository<RolePermission, UUID> {
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     List<RolePermission> findByRole(Role role);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     List<RolePermission> findByPermission(Permission permission);
     
     Optional<RolePermission> findByRoleAndPermission(Role role, Permission permission);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     @Query("SELECT rp FROM RolePermission rp WHERE rp.role.roleCode = :roleCode")
     List<RolePermission> findByRoleCode(@Param("roleCode") String roleCode);
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceDataCache.RBAC_QUERY_REGION)
+    })
     @Query("SELECT rp FROM RolePermission rp WHERE rp.permission.permissionCode = :permissionCode")
     List<RolePermission> findByPermissionCode(@Param("permissionCode") String permissionCode);
     
@@ -0,0 +1,56 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.SequenceBlock;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * JDBC repository that reserves blocks of sequence numbers, used only by SequenceBlockAllocator.
+ * A block is claimed by a single atomic UPDATE, so two nodes can never receive overlapping ranges.
+ */
+@Repository
+public class SequenceBlockRepository {
+
+    private static final String LEASE_BLOCK_SQL =
+        "UPDATE sequence_numbers SET last_number = last_number + ?, updated_date = CURRENT_TIMESTAMP " +
+        "WHERE sequence_name = ? " +
+        "RETURNING last_number, prefix";
+
+    private static final String CREATE_SEQUENCE_SQL =
+        "INSERT INTO sequence_numbers (sequence_name, last_number, prefix) VALUES (?, 0, ?) " +
+        "ON CONFLICT (sequence_name) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceBlockRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Advances the sequence by {@code blockSize} and returns the numbers skipped over.
+     * The sequence row is created with {@code prefix} when it does not exist yet;
+     * an existing row keeps its own prefix.
+     */
+    public SequenceBlock leaseBlock(String sequenceName, String prefix, int blockSize) {
+        Optional<SequenceBlock> block = tryLease(sequenceName, blockSize);
+        if (block.isPresent()) {
+            return block.get();
+        }
+        jdbcTemplate.update(CREATE_SEQUENCE_SQL, sequenceName, prefix);
+        return tryLease(sequenceName, blockSize)
+            .orElseThrow(() -> new IllegalStateException("Sequence not found: " + sequenceName));
+    }
+
+    private Optional<SequenceBlock> tryLease(String sequenceName, int blockSize) {
+        return jdbcTemplate.query(LEASE_BLOCK_SQL, (rs, rowNum) -> {
+            SequenceBlock block = new SequenceBlock();
+            block.setSequenceName(sequenceName);
+            block.setPrefix(rs.getString("prefix"));
+            block.setLastNumber(rs.getLong("last_number"));
+            block.setFirstNumber(block.getLastNumber() - blockSize + 1);
+            return block;
+        }, blockSize, sequenceName).stream().findFirst();
+    }
+}
@@ -0,0 +1,118 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.TransactionCursor;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import id.ac.tazkia.minibank.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keyset (seek) pagination over transactions ordered by {@code (transaction_date, id)}.
+ * Each page starts from the cursor through the composite indexes instead of skipping
+ * OFFSET rows, so a deep page costs the same as the first one.
+ */
+@Repository
+public class TransactionPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Loads up to {@code limit} transactions after {@code cursor}, with their accounts.
+     * Filters on everything in {@code criteria} except the text search.
+     *
+     * @param towardsNewer false walks to older transactions (newest first), true walks to
+     *        newer transactions and returns them oldest first
+     */
+    public List<Transaction> findPage(TransactionSearchCriteria criteria, TransactionCursor cursor,
+                                      boolean towardsNewer, int limit) {
+        if (criteria.hasSearch()) {
+            throw new IllegalArgumentException("Text search is served by TransactionSearchRepository");
+        }
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Transaction t JOIN FETCH t.account a WHERE 1 = 1");
+        if (criteria.getAccountId() != null) {
+            jpql.append(" AND a.id = :accountId");
+        }
+        if (criteria.getCustomerId() != null) {
+            jpql.append(" AND a.customer.id = :customerId");
+        }
+        if (criteria.getTransactionType() != null) {
+            jpql.append(" AND t.transactionType = :transactionType");
+        }
+        if (criteria.getChannel() != null) {
+            jpql.append(" AND t.channel = :channel");
+        }
+        if (criteria.getStartDate() != null) {
+            jpql.append(" AND t.transactionDate >= :startDate");
+        }
+        if (criteria.getEndDate() != null) {
+            jpql.append(" AND t.transactionDate <= :endDate");
+        }
+        if (cursor != null) {
+            // The plain range predicate gives the index a start key; the OR breaks ties on id
+            jpql.append(towardsNewer
+                ? " AND t.transactionDate >= :cursorDate AND (t.transactionDate > :cursorDate OR t.id > :cursorId)"
+                : " AND t.transactionDate <= :cursorDate AND (t.transactionDate < :cursorDate OR t.id < :cursorId)");
+        }
+        jpql.append(towardsNewer
+            ? " ORDER BY t.transactionDate ASC, t.id ASC"
+            : " ORDER BY t.transactionDate DESC, t.id DESC");
+
+        TypedQuery<Transaction> query = entityManager.createQuery(jpql.toString(), Transaction.class);
+        if (criteria.getAccountId() != null) {
+            query.setParameter("accountId", criteria.getAccountId());
+        }
+        if (criteria.getCustomerId() != null) {
+            query.setParameter("customerId", criteria.getCustomerId());
+        }
+        if (criteria.getTransactionType() != null) {
+            query.setParameter("transactionType", criteria.getTransactionType());
+        }
+        if (criteria.getChannel() != null) {
+            query.setParameter("channel", criteria.getChannel());
+        }
+        if (criteria.getStartDate() != null) {
+            query.setParameter("startDate", criteria.getStartDate());
+        }
+        if (criteria.getEndDate() != null) {
+            query.setParameter("endDate", criteria.getEndDate());
+        }
+        if (cursor != null) {
+            query.setParameter("cursorDate", cursor.getTransactionDate());
+            query.setParameter("cursorId", cursor.getId());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Loads the given transactions with their accounts, in no particular order.
+     */
+    public List<Transaction> findAllWithAccount(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                "SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.id IN :ids", Transaction.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    }
+
+    /**
+     * Planner estimate of the number of transactions, refreshed by ANALYZE/autovacuum.
+     * Empty when the table has not been analyzed yet.
+     */
+    public Optional<Long> estimateTotalCount() {
+        Number estimate = (Number) entityManager.createNativeQuery(
+                "SELECT reltuples FROM pg_class WHERE oid = CAST('transactions' AS regclass)")
+            .getSingleResult();
+        long total = Math.round(estimate.doubleValue());
+        return total >= 0 ? Optional.of(total) : Optional.empty();
+    }
+}
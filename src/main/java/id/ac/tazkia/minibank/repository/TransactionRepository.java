@@ -2,11 +2,14 @@ package id.ac.tazkia.minibank.repository;
 
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +18,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
@@ -25,8 +29,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     
     List<Transaction> findByAccountId(UUID accountId);
     
-    Page<Transaction> findByAccountIdOrderByTransactionDateDesc(UUID accountId, Pageable pageable);
-    
     List<Transaction> findByAccountIdAndTransactionType(UUID accountId, Transaction.TransactionType transactionType);
     
     @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
@@ -44,24 +46,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
                                                 @Param("endDate") LocalDateTime endDate,
                                                 Pageable pageable);
     
-    @Query("SELECT t FROM Transaction t WHERE " +
-           "(:accountId IS NULL OR t.account.id = :accountId) AND " +
-           "(:transactionType IS NULL OR t.transactionType = :transactionType) AND " +
-           "(:channel IS NULL OR t.channel = :channel) AND " +
-           "(:startDate IS NULL OR t.transactionDate >= :startDate) AND " +
-           "(:endDate IS NULL OR t.transactionDate <= :endDate) AND " +
-           "(:searchTerm IS NULL OR " +
-           "LOWER(t.transactionNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(t.referenceNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "ORDER BY t.transactionDate DESC")
-    Page<Transaction> findTransactionsWithFilters(@Param("accountId") UUID accountId,
-                                                @Param("transactionType") Transaction.TransactionType transactionType,
-                                                @Param("channel") Transaction.TransactionChannel channel,
-                                                @Param("startDate") LocalDateTime startDate,
-                                                @Param("endDate") LocalDateTime endDate,
-                                                @Param("searchTerm") String searchTerm,
-                                                Pageable pageable);
+    // Text search with filters and facets: see TransactionSearchRepository
     
     @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.account.id = :accountId " +
            "AND t.transactionType = :transactionType " +
@@ -77,10 +62,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
                                               @Param("startDate") LocalDateTime startDate,
                                               @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT t FROM Transaction t WHERE t.account.customer.id = :customerId " +
-           "ORDER BY t.transactionDate DESC")
-    Page<Transaction> findByCustomerIdOrderByTransactionDateDesc(@Param("customerId") UUID customerId, Pageable pageable);
-    
     @Query("SELECT t FROM Transaction t WHERE t.referenceNumber = :referenceNumber")
     List<Transaction> findByReferenceNumber(@Param("referenceNumber") String referenceNumber);
     
@@ -93,17 +74,32 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId ORDER BY t.transactionDate DESC LIMIT 1")
     Optional<Transaction> findLastTransactionByAccountId(@Param("accountId") UUID accountId);
     
-    // Search methods for transaction list
-    Page<Transaction> findByTransactionNumberContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-        String transactionNumber, String description, Pageable pageable);
-    
-    Page<Transaction> findByTransactionType(Transaction.TransactionType transactionType, Pageable pageable);
+    // Transaction list and history pages use cursor pagination, see TransactionPageRepository
     
     // Passbook printing methods
     Page<Transaction> findByAccount(Account account, Pageable pageable);
     
     List<Transaction> findByAccountOrderByTransactionDateAsc(Account account);
     
+    // Unprinted rows: the first page of an account, or the rows after the print watermark
+    List<Transaction> findByAccountIdOrderByTransactionDateAscIdAsc(UUID accountId, Pageable pageable);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.transactionDate >= :afterDate AND (t.transactionDate > :afterDate OR t.id > :afterId) " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findByAccountIdAfter(@Param("accountId") UUID accountId,
+                                           @Param("afterDate") LocalDateTime afterDate,
+                                           @Param("afterId") UUID afterId,
+                                           Pageable pageable);
+    
+    long countByAccountId(UUID accountId);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.transactionDate >= :afterDate AND (t.transactionDate > :afterDate OR t.id > :afterId)")
+    long countByAccountIdAfter(@Param("accountId") UUID accountId,
+                               @Param("afterDate") LocalDateTime afterDate,
+                               @Param("afterId") UUID afterId);
+    
     Page<Transaction> findByAccountAndTransactionDateBetween(Account account, 
                                                            LocalDateTime startDate, 
                                                            LocalDateTime endDate, 
@@ -118,10 +114,31 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
                                                             Pageable pageable);
     
     // Methods for account statement generation
-    List<Transaction> findByAccountIdAndTransactionDateBetween(UUID accountId, 
-                                                             LocalDateTime startDate, 
-                                                             LocalDateTime endDate, 
-                                                             Sort sort);
+    
+    /**
+     * Statement rows in posting order, read in fetch-size chunks from a server-side cursor.
+     * A stripe credit is on the statement of the day it was accepted. Must be consumed and
+     * closed inside a read-only transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND COALESCE(t.acceptedDate, t.transactionDate) BETWEEN :startDate AND :endDate " +
+           "ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<Transaction> streamByAccountIdAndDateRange(@Param("accountId") UUID accountId,
+                                                      @Param("startDate") LocalDateTime startDate,
+                                                      @Param("endDate") LocalDateTime endDate);
+    
+    /** Statement rows of the period; a stripe credit is on the statement of the day it was accepted. */
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND COALESCE(t.acceptedDate, t.transactionDate) BETWEEN :startDate AND :endDate")
+    List<Transaction> findByAccountIdAndBookingDateBetween(@Param("accountId") UUID accountId,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("endDate") LocalDateTime endDate,
+                                                          Sort sort);
     
     List<Transaction> findByAccountIdOrderByTransactionDateDesc(UUID accountId);
 }
\ No newline at end of file
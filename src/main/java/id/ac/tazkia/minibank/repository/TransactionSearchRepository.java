@@ -0,0 +1,195 @@
+package id.ac.tazkia.minibank.repository;
+
+import id.ac.tazkia.minibank.dto.TransactionCursor;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text transaction search over {@code transactions.search_vector} (GIN indexed).
+ * Every word of the search term must match the start of a word in the transaction
+ * number, reference number or description; the whole term also matches a transaction
+ * or reference number exactly through their B-tree indexes.
+ * <p>
+ * While the backfill is still running, rows without a vector are matched with the
+ * old substring LIKE instead, reached through the pending-rows partial index.
+ */
+@Repository
+public class TransactionSearchRepository {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final int FACET_LIMIT = 20;
+
+    /** Facet dimensions, each counted over the matches with its own filter left out. */
+    public enum Facet {
+        TRANSACTION_TYPE("t.transaction_type"),
+        CHANNEL("t.channel"),
+        ACCOUNT("a.account_number"),
+        MONTH("to_char(t.transaction_date, 'YYYY-MM')");
+
+        private final String expression;
+
+        Facet(String expression) {
+            this.expression = expression;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids of up to {@code limit} matching transactions after {@code cursor}, in the same
+     * {@code (transaction_date, id)} order as {@link TransactionPageRepository#findPage}.
+     *
+     * @param includeUnindexed also match rows the backfill has not reached yet
+     */
+    public List<UUID> findPageIds(TransactionSearchCriteria criteria, TransactionCursor cursor,
+                                  boolean towardsNewer, int limit, boolean includeUnindexed) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT t.id FROM transactions t")
+            .append(from(criteria))
+            .append(where(criteria, null, includeUnindexed, args));
+        if (cursor != null) {
+            sql.append(towardsNewer
+                ? " AND t.transaction_date >= ? AND (t.transaction_date > ? OR t.id > ?)"
+                : " AND t.transaction_date <= ? AND (t.transaction_date < ? OR t.id < ?)");
+            Timestamp cursorDate = Timestamp.valueOf(cursor.getTransactionDate());
+            args.add(cursorDate);
+            args.add(cursorDate);
+            args.add(cursor.getId());
+        }
+        sql.append(towardsNewer
+            ? " ORDER BY t.transaction_date ASC, t.id ASC"
+            : " ORDER BY t.transaction_date DESC, t.id DESC");
+        sql.append(" LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray());
+    }
+
+    /**
+     * Match counts per value of {@code facet}, largest first, at most {@value #FACET_LIMIT} values.
+     */
+    public Map<String, Long> countByFacet(TransactionSearchCriteria criteria, Facet facet, boolean includeUnindexed) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT " + facet.expression + " AS facet_value, COUNT(*) AS matches FROM transactions t" +
+            (facet == Facet.ACCOUNT ? " JOIN accounts a ON a.id = t.id_accounts" : from(criteria)) +
+            where(criteria, facet, includeUnindexed, args) +
+            " GROUP BY 1 ORDER BY 2 DESC, 1 LIMIT " + FACET_LIMIT;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString("facet_value"), rs.getLong("matches"));
+        }, args.toArray());
+        return counts;
+    }
+
+    public boolean hasUnindexedRows() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM transactions WHERE search_vector IS NULL)", Boolean.class));
+    }
+
+    /**
+     * Fills the vector of up to {@code batchSize} unindexed transactions with an id
+     * after {@code afterId} and commits them as one statement.
+     *
+     * @return the highest id filled, empty when no unindexed rows are left after {@code afterId}
+     */
+    public Optional<UUID> indexBatch(UUID afterId, int batchSize) {
+        List<UUID> last = jdbcTemplate.queryForList(
+            "WITH batch AS (" +
+            "  SELECT id FROM transactions WHERE search_vector IS NULL AND id > ? ORDER BY id LIMIT ?" +
+            "), indexed AS (" +
+            "  UPDATE transactions t SET search_vector = " +
+            "    transaction_search_vector(t.transaction_number, t.description, t.reference_number) " +
+            "  FROM batch WHERE t.id = batch.id RETURNING t.id" +
+            ") " +
+            "SELECT id FROM indexed ORDER BY id DESC LIMIT 1",
+            UUID.class, afterId != null ? afterId : MIN_ID, batchSize);
+        return last.stream().findFirst();
+    }
+
+    private String from(TransactionSearchCriteria criteria) {
+        return criteria.getCustomerId() != null ? " JOIN accounts a ON a.id = t.id_accounts" : "";
+    }
+
+    private String where(TransactionSearchCriteria criteria, Facet excluded,
+                         boolean includeUnindexed, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE ").append(textPredicate(criteria.getSearch(), includeUnindexed, args));
+        if (criteria.getAccountId() != null && excluded != Facet.ACCOUNT) {
+            where.append(" AND t.id_accounts = ?");
+            args.add(criteria.getAccountId());
+        }
+        if (criteria.getCustomerId() != null) {
+            where.append(" AND a.id_customers = ?");
+            args.add(criteria.getCustomerId());
+        }
+        if (criteria.getTransactionType() != null && excluded != Facet.TRANSACTION_TYPE) {
+            where.append(" AND t.transaction_type = ?");
+            args.add(criteria.getTransactionType().name());
+        }
+        if (criteria.getChannel() != null && excluded != Facet.CHANNEL) {
+            where.append(" AND t.channel = ?");
+            args.add(criteria.getChannel().name());
+        }
+        if (criteria.getStartDate() != null && excluded != Facet.MONTH) {
+            where.append(" AND t.transaction_date >= ?");
+            args.add(Timestamp.valueOf(criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null && excluded != Facet.MONTH) {
+            where.append(" AND t.transaction_date <= ?");
+            args.add(Timestamp.valueOf(criteria.getEndDate()));
+        }
+        return where.toString();
+    }
+
+    private String textPredicate(String search, boolean includeUnindexed, List<Object> args) {
+        String term = search.trim();
+        StringBuilder predicate = new StringBuilder("(t.transaction_number = ? OR t.reference_number = ?");
+        args.add(term.toUpperCase(Locale.ROOT));
+        args.add(term);
+        String prefixQuery = toPrefixQuery(term);
+        if (prefixQuery != null) {
+            predicate.append(" OR t.search_vector @@ to_tsquery('simple', ?)");
+            args.add(prefixQuery);
+        }
+        if (includeUnindexed) {
+            String pattern = "%" + escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+            predicate.append(" OR (t.search_vector IS NULL AND (lower(t.transaction_number) LIKE ? ESCAPE '!'")
+                .append(" OR lower(t.description) LIKE ? ESCAPE '!' OR lower(t.reference_number) LIKE ? ESCAPE '!'))");
+            args.add(pattern);
+            args.add(pattern);
+            args.add(pattern);
+        }
+        return predicate.append(")").toString();
+    }
+
+    /**
+     * Turns free text into a tsquery where every word is a prefix match, e.g.
+     * {@code "REF-2025 zakat"} becomes {@code ref:* & 2025:* & zakat:*}.
+     * Null when the text has no letters or digits.
+     */
+    static String toPrefixQuery(String term) {
+        String query = Arrays.stream(term.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+            .filter(word -> !word.isEmpty())
+            .map(word -> word + ":*")
+            .collect(Collectors.joining(" & "));
+        return query.isEmpty() ? null : query;
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
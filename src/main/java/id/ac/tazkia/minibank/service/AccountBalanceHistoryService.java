@@ -0,0 +1,130 @@
+package id.ac.tazkia.minibank.service;
+
+import id.ac.tazkia.minibank.dto.BalanceHistory;
+import id.ac.tazkia.minibank.dto.DailyBalance;
+import id.ac.tazkia.minibank.repository.AccountDailyBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Historical balances from the daily balance snapshots. A balance at a point in time is
+ * the nearest snapshot plus the transactions of at most one day, so statements, balance
+ * charts and average balances never scan the transaction history of the account.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountBalanceHistoryService {
+
+    /** Longest period a balance history may cover, about five years. */
+    public static final int MAX_HISTORY_DAYS = 1830;
+
+    private final AccountDailyBalanceRepository accountDailyBalanceRepository;
+
+    /**
+     * The balance of the account just before {@code asOf}: transactions posted at
+     * exactly {@code asOf} are not included.
+     *
+     * @throws IllegalArgumentException if the account does not exist
+     */
+    public BigDecimal getBalanceAsOf(UUID accountId, LocalDateTime asOf) {
+        LocalDate day = asOf.toLocalDate();
+        LocalDateTime dayStart = day.atStartOfDay();
+
+        // Close of the last day with postings before this one, plus today's postings so far
+        Optional<DailyBalance> before = accountDailyBalanceRepository.findLatestBefore(accountId, day);
+        if (before.isPresent()) {
+            return before.get().getClosingBalance()
+                .add(accountDailyBalanceRepository.sumMovements(accountId, dayStart, asOf));
+        }
+
+        // Nothing posted before this day: start from the opening of the first day with postings
+        Optional<DailyBalance> after = accountDailyBalanceRepository.findEarliestFrom(accountId, day);
+        if (after.isPresent()) {
+            BigDecimal opening = after.get().getOpeningBalance();
+            return after.get().getBalanceDate().equals(day)
+                ? opening.add(accountDailyBalanceRepository.sumMovements(accountId, dayStart, asOf))
+                : opening;
+        }
+
+        // No snapshots at all: take back whatever was posted since from the current balance
+        BigDecimal current = accountDailyBalanceRepository.findCurrentBalance(accountId)
+            .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        return current.subtract(accountDailyBalanceRepository.sumMovements(accountId, asOf, null));
+    }
+
+    /**
+     * Balance at the start of {@code date}.
+     */
+    public BigDecimal getOpeningBalance(UUID accountId, LocalDate date) {
+        return getBalanceAsOf(accountId, date.atStartOfDay());
+    }
+
+    /**
+     * Balance at the end of {@code date}.
+     */
+    public BigDecimal getClosingBalance(UUID accountId, LocalDate date) {
+        return getBalanceAsOf(accountId, date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * One entry per day of the period, both dates inclusive; days without postings
+     * carry the previous closing balance.
+     *
+     * @throws IllegalArgumentException if the period is reversed, longer than
+     *         {@value #MAX_HISTORY_DAYS} days, or the account does not exist
+     */
+    public BalanceHistory getBalanceHistory(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        long dayCount = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (dayCount > MAX_HISTORY_DAYS) {
+            throw new IllegalArgumentException("Balance history cannot exceed " + MAX_HISTORY_DAYS + " days");
+        }
+
+        BigDecimal balance = getOpeningBalance(accountId, startDate);
+        Map<LocalDate, DailyBalance> snapshots = accountDailyBalanceRepository
+            .findBetween(accountId, startDate, endDate).stream()
+            .collect(Collectors.toMap(DailyBalance::getBalanceDate, Function.identity()));
+
+        BalanceHistory history = new BalanceHistory();
+        history.setAccountId(accountId);
+        history.setStartDate(startDate);
+        history.setEndDate(endDate);
+        history.setOpeningBalance(balance);
+
+        BigDecimal closingTotal = BigDecimal.ZERO;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            DailyBalance day = snapshots.getOrDefault(date, DailyBalance.carried(date, balance));
+            history.getDays().add(day);
+            balance = day.getClosingBalance();
+            closingTotal = closingTotal.add(balance);
+        }
+
+        history.setClosingBalance(balance);
+        history.setAverageDailyBalance(closingTotal.divide(BigDecimal.valueOf(dayCount), 2, RoundingMode.HALF_UP));
+        return history;
+    }
+
+    /**
+     * Mean of the end-of-day balances of the period, both dates inclusive.
+     */
+    public BigDecimal getAverageDailyBalance(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        return getBalanceHistory(accountId, startDate, endDate).getAverageDailyBalance();
+    }
+}
@@ -0,0 +1,273 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import id.ac.tazkia.minibank.dto.AccountDirectoryEntry;
+import id.ac.tazkia.minibank.repository.AccountDirectoryRepository;
+import id.ac.tazkia.minibank.util.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory directory of accounts by number for transfer validation, so a transfer does
+ * not read the destination account before posting to it. A Bloom filter over every
+ * account number rejects mistyped numbers without a query; it is only trusted while the
+ * CacheInvalidationBus is listening and no account change is still being applied, since
+ * a number missing from it would otherwise reject a transfer to a real account.
+ * Entries and the filter follow ACCOUNT and CUSTOMER events from the bus, which the
+ * opening, approval and closing paths publish on every node.
+ */
+@Slf4j
+@Service
+public class AccountDirectory implements CacheInvalidationListener {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_FILTER_CAPACITY = 10_000;
+    private static final int BULK_LOAD_SIZE = 1_000;
+
+    private final AccountDirectoryRepository accountDirectoryRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final Cache<String, AccountDirectoryEntry> entries;
+    private final ConcurrentMap<UUID, String> accountNumbersById = new ConcurrentHashMap<>();
+
+    // Filter maintenance runs on one thread, so an added number can never land in a filter being replaced
+    private final ExecutorService refresher =
+        Executors.newSingleThreadExecutor(Thread.ofVirtual().name("account-directory-refresh").factory());
+    private final AtomicInteger pendingRefreshes = new AtomicInteger();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile BloomFilter accountNumbers;
+
+    public AccountDirectory(AccountDirectoryRepository accountDirectoryRepository,
+                            CacheInvalidationBus cacheInvalidationBus,
+                            @Value("${minibank.account-directory.max-entries:100000}") long maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Account directory size must be at least 1");
+        }
+        this.accountDirectoryRepository = accountDirectoryRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .evictionListener((String number, AccountDirectoryEntry entry, RemovalCause cause) ->
+                accountNumbersById.remove(entry.getAccountId(), number))
+            .build();
+    }
+
+    /**
+     * The account with this number, from memory when possible. Numbers that cannot exist
+     * are answered without touching the database.
+     */
+    public Optional<AccountDirectoryEntry> findByAccountNumber(String accountNumber) {
+        if (accountNumber == null || accountNumber.isBlank()) {
+            return Optional.empty();
+        }
+        AccountDirectoryEntry cached = entries.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (isDefinitelyAbsent(accountNumber)) {
+            return Optional.empty();
+        }
+        long loadedAt = generation.get();
+        Optional<AccountDirectoryEntry> loaded = accountDirectoryRepository.findByAccountNumber(accountNumber);
+        loaded.ifPresent(entry -> remember(entry, loadedAt));
+        return loaded;
+    }
+
+    /**
+     * The accounts with these numbers, by number; numbers of accounts that do not exist are
+     * left out. Those not in memory are read a thousand per query, for bulk transfers.
+     */
+    public Map<String, AccountDirectoryEntry> findByAccountNumbers(Collection<String> accountNumbers) {
+        Map<String, AccountDirectoryEntry> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String accountNumber : accountNumbers) {
+            if (accountNumber == null || accountNumber.isBlank() || found.containsKey(accountNumber)) {
+                continue;
+            }
+            AccountDirectoryEntry cached = entries.getIfPresent(accountNumber);
+            if (cached != null) {
+                found.put(accountNumber, cached);
+            } else if (!isDefinitelyAbsent(accountNumber)) {
+                missing.add(accountNumber);
+            }
+        }
+        List<String> distinct = missing.stream().distinct().toList();
+        for (int from = 0; from < distinct.size(); from += BULK_LOAD_SIZE) {
+            long loadedAt = generation.get();
+            List<String> chunk = distinct.subList(from, Math.min(from + BULK_LOAD_SIZE, distinct.size()));
+            for (AccountDirectoryEntry entry : accountDirectoryRepository.findByAccountNumbers(chunk)) {
+                remember(entry, loadedAt);
+                found.put(entry.getAccountNumber(), entry);
+            }
+        }
+        return found;
+    }
+
+    public Optional<AccountDirectoryEntry> findById(UUID accountId) {
+        String accountNumber = accountNumbersById.get(accountId);
+        AccountDirectoryEntry cached = accountNumber == null ? null : entries.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<AccountDirectoryEntry> loaded = accountDirectoryRepository.findById(accountId);
+        loaded.ifPresent(entry -> remember(entry, loadedAt));
+        return loaded;
+    }
+
+    /**
+     * True once unknown numbers are answered from the filter. The bus flushes every
+     * ACCOUNT entry when it connects, which builds the filter shortly after startup.
+     */
+    public boolean isFilterReady() {
+        return accountNumbers != null && pendingRefreshes.get() == 0 && cacheInvalidationBus.isListening();
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        switch (entityType) {
+            case ACCOUNT -> {
+                if (entityId == null) {
+                    forgetAll();
+                    queueRebuild();
+                } else {
+                    forget(entityId);
+                    // A new account must be in the filter before the filter is trusted again
+                    refresh(() -> addToFilter(entityId));
+                }
+            }
+            case CUSTOMER -> {
+                if (entityId == null) {
+                    forgetAll();
+                } else {
+                    forgetCustomer(entityId);
+                }
+            }
+            default -> {
+                // Not held in the directory
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private boolean isDefinitelyAbsent(String accountNumber) {
+        BloomFilter filter = accountNumbers;
+        if (filter == null) {
+            queueRebuild();
+            return false;
+        }
+        return pendingRefreshes.get() == 0
+            && cacheInvalidationBus.isListening()
+            && !filter.mightContain(accountNumber);
+    }
+
+    // An entry read before an invalidation is dropped rather than cached over it
+    private synchronized void remember(AccountDirectoryEntry entry, long loadedAt) {
+        if (generation.get() != loadedAt) {
+            return;
+        }
+        entries.put(entry.getAccountNumber(), entry);
+        accountNumbersById.put(entry.getAccountId(), entry.getAccountNumber());
+    }
+
+    private synchronized void forget(UUID accountId) {
+        generation.incrementAndGet();
+        String accountNumber = accountNumbersById.remove(accountId);
+        if (accountNumber != null) {
+            entries.invalidate(accountNumber);
+        }
+    }
+
+    private synchronized void forgetCustomer(UUID customerId) {
+        generation.incrementAndGet();
+        entries.asMap().values().removeIf(entry -> {
+            if (customerId.equals(entry.getCustomerId())) {
+                accountNumbersById.remove(entry.getAccountId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private synchronized void forgetAll() {
+        generation.incrementAndGet();
+        entries.invalidateAll();
+        accountNumbersById.clear();
+    }
+
+    private void queueRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            refresh(() -> {
+                rebuildQueued.set(false);
+                rebuildFilter();
+            });
+        }
+    }
+
+    private void rebuildFilter() {
+        long startTime = System.currentTimeMillis();
+        int capacity = Math.max(MIN_FILTER_CAPACITY, accountDirectoryRepository.countAccounts() * 2);
+        BloomFilter filter = BloomFilter.create(capacity, FALSE_POSITIVE_RATE);
+        accountDirectoryRepository.forEachAccountNumber(filter::put);
+        accountNumbers = filter;
+        log.info("Account number filter rebuilt with {} accounts in {}ms",
+            filter.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void addToFilter(UUID accountId) {
+        BloomFilter filter = accountNumbers;
+        if (filter == null) {
+            // The next rebuild reads the number from the table
+            return;
+        }
+        accountDirectoryRepository.findAccountNumberById(accountId).ifPresent(filter::put);
+        if (filter.size() > filter.capacity()) {
+            rebuildFilter();
+        }
+    }
+
+    private void refresh(Runnable task) {
+        pendingRefreshes.incrementAndGet();
+        try {
+            refresher.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // The filter may now miss a number: stop trusting it until it is rebuilt
+                    accountNumbers = null;
+                    log.warn("Account directory refresh failed, negative lookups disabled until rebuilt", e);
+                } finally {
+                    pendingRefreshes.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.decrementAndGet();
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class AccountService {
     private final SequenceNumberService sequenceNumberService;
     private final ApprovalService approvalService;
     private final AuditorAware<String> auditorAware;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     /**
      * Opens a new account without initial deposit.
@@ -73,6 +74,7 @@ public class AccountService {
         // Save account
         account = accountRepository.save(account);
         log.info("Account created with number: {}", accountNumber);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, account.getId());
 
         // Create approval request using current authenticated user
         String requestedBy = auditorAware.getCurrentAuditor().orElse("SYSTEM");
@@ -119,6 +121,7 @@ public class AccountService {
         // Save account
         account = accountRepository.save(account);
         log.info("Corporate account created with number: {}", accountNumber);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, account.getId());
 
         // Create approval request using current authenticated user
         String requestedBy = auditorAware.getCurrentAuditor().orElse("SYSTEM");
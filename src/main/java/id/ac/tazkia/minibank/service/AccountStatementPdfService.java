@@ -4,32 +4,51 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import id.ac.tazkia.minibank.dto.StatementSummary;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.OutputStream;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class AccountStatementPdfService {
 
+    private static final int FLUSH_ROWS = 200;
+
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
     private static final DecimalFormat CURRENCY_FORMAT = new DecimalFormat("#,##0.00");
 
-    public byte[] generateAccountStatementPdf(Account account, List<Transaction> transactions, 
-                                            LocalDate startDate, LocalDate endDate) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    private final AccountStatementService accountStatementService;
+    private final AccountBalanceHistoryService accountBalanceHistoryService;
+
+    /**
+     * Writes the statement of {@code account} for the period straight to {@code out}.
+     * Transactions are streamed from the database and added to the table in chunks of
+     * {@value #FLUSH_ROWS} rows, and the totals are accumulated in the same pass, so memory
+     * use does not depend on the number of transactions. The opening and closing balances
+     * come from the daily balance snapshots. {@code out} is not closed.
+     *
+     * @return the totals printed in the summary
+     */
+    @Transactional(readOnly = true)
+    public StatementSummary writeAccountStatementPdf(Account account, LocalDate startDate, LocalDate endDate,
+                                                     OutputStream out) {
+        try {
             Document document = new Document();
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
             // Header
@@ -39,15 +58,21 @@ public class AccountStatementPdfService {
             addAccountInfo(document, account);
             
             // Transaction Table
-            addTransactionTable(document, transactions);
+            StatementSummary summary;
+            try (Stream<Transaction> transactions = accountStatementService.streamTransactions(
+                    account.getId(), startDate, endDate)) {
+                summary = addTransactionTable(document, writer, transactions);
+            }
+            summary.setOpeningBalance(accountBalanceHistoryService.getOpeningBalance(account.getId(), startDate));
+            summary.setClosingBalance(accountBalanceHistoryService.getClosingBalance(account.getId(), endDate));
             
             // Summary
-            addSummary(document, transactions, account);
+            addSummary(document, summary);
 
             document.close();
-            return baos.toByteArray();
+            return summary;
             
-        } catch (Exception e) {
+        } catch (DocumentException e) {
             log.error("Error generating PDF statement for account: {}", account.getAccountNumber(), e);
             throw new RuntimeException("Failed to generate PDF statement", e);
         }
@@ -125,24 +150,56 @@ public class AccountStatementPdfService {
         document.add(new Paragraph(" "));
     }
 
-    private void addTransactionTable(Document document, List<Transaction> transactions) throws DocumentException {
+    private StatementSummary addTransactionTable(Document document, PdfWriter writer, Stream<Transaction> transactions)
+            throws DocumentException {
         Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
         Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
-        Font boldSmallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
         
         Paragraph header = new Paragraph("MUTASI REKENING / TRANSACTION HISTORY", headerFont);
         document.add(header);
 
-        if (transactions.isEmpty()) {
+        StatementSummary summary = new StatementSummary();
+        PdfPTable table = null;
+        Iterator<Transaction> rows = transactions.iterator();
+        while (rows.hasNext()) {
+            Transaction transaction = rows.next();
+            if (table == null) {
+                table = createTransactionTable();
+            }
+            addTransactionRow(table, transaction, smallFont);
+            summary.add(transaction);
+
+            // Lay out the rows added so far and release them; completed pages go to the stream
+            if (summary.getTransactionCount() % FLUSH_ROWS == 0) {
+                document.add(table);
+                writer.flush();
+            }
+        }
+
+        if (table == null) {
             Paragraph noTransactions = new Paragraph("Tidak ada transaksi dalam periode ini.", smallFont);
             noTransactions.setAlignment(Element.ALIGN_CENTER);
             document.add(noTransactions);
-            return;
+            return summary;
         }
 
+        table.setComplete(true);
+        document.add(table);
+        document.add(new Paragraph(" "));
+        return summary;
+    }
+
+    /**
+     * A table that is added to the document in chunks; the header row repeats on every page.
+     */
+    private PdfPTable createTransactionTable() throws DocumentException {
+        Font boldSmallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.BOLD);
+
         PdfPTable table = new PdfPTable(6);
         table.setWidthPercentage(100);
         table.setWidths(new float[]{15, 15, 30, 15, 15, 15});
+        table.setComplete(false);
+        table.setHeaderRows(1);
 
         // Headers
         PdfPCell cell = new PdfPCell(new Phrase("Tanggal", boldSmallFont));
@@ -168,41 +225,39 @@ public class AccountStatementPdfService {
         cell = new PdfPCell(new Phrase("Saldo", boldSmallFont));
         cell.setHorizontalAlignment(Element.ALIGN_CENTER);
         table.addCell(cell);
+        return table;
+    }
 
-        // Transaction rows
-        for (Transaction transaction : transactions) {
-            table.addCell(new PdfPCell(new Phrase(transaction.getTransactionDate().format(DATE_TIME_FORMAT), smallFont)));
-            table.addCell(new PdfPCell(new Phrase(transaction.getTransactionNumber(), smallFont)));
-            
-            String description = buildTransactionDescription(transaction);
-            table.addCell(new PdfPCell(new Phrase(description, smallFont)));
-
-            // Debit column
-            if (transaction.isDebitTransaction()) {
-                cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(cell);
-                
-                cell = new PdfPCell(new Phrase("-", smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                table.addCell(cell);
-            } else {
-                cell = new PdfPCell(new Phrase("-", smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                table.addCell(cell);
-                
-                cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
-                cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                table.addCell(cell);
-            }
+    private void addTransactionRow(PdfPTable table, Transaction transaction, Font smallFont) {
+        table.addCell(new PdfPCell(new Phrase(transaction.getTransactionDate().format(DATE_TIME_FORMAT), smallFont)));
+        table.addCell(new PdfPCell(new Phrase(transaction.getTransactionNumber(), smallFont)));
+        
+        String description = buildTransactionDescription(transaction);
+        table.addCell(new PdfPCell(new Phrase(description, smallFont)));
 
-            cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getBalanceAfter()), smallFont));
+        PdfPCell cell;
+        // Debit column
+        if (transaction.isDebitTransaction()) {
+            cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            table.addCell(cell);
+            
+            cell = new PdfPCell(new Phrase("-", smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+        } else {
+            cell = new PdfPCell(new Phrase("-", smallFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(cell);
+            
+            cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getAmount()), smallFont));
             cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
             table.addCell(cell);
         }
 
-        document.add(table);
-        document.add(new Paragraph(" "));
+        cell = new PdfPCell(new Phrase(CURRENCY_FORMAT.format(transaction.getBalanceAfter()), smallFont));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        table.addCell(cell);
     }
 
     private String buildTransactionDescription(Transaction transaction) {
@@ -240,21 +295,11 @@ public class AccountStatementPdfService {
         };
     }
 
-    private void addSummary(Document document, List<Transaction> transactions, Account account) throws DocumentException {
+    private void addSummary(Document document, StatementSummary summary) throws DocumentException {
         Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
         Font normalFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL);
+        Font boldFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
         Font smallFont = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
-        
-        BigDecimal totalDebit = BigDecimal.ZERO;
-        BigDecimal totalCredit = BigDecimal.ZERO;
-        
-        for (Transaction transaction : transactions) {
-            if (transaction.isDebitTransaction()) {
-                totalDebit = totalDebit.add(transaction.getAmount());
-            } else {
-                totalCredit = totalCredit.add(transaction.getAmount());
-            }
-        }
 
         Paragraph summaryHeader = new Paragraph("RINGKASAN / SUMMARY", headerFont);
         document.add(summaryHeader);
@@ -263,11 +308,20 @@ public class AccountStatementPdfService {
         summaryTable.setWidthPercentage(50);
         summaryTable.setWidths(new float[]{50, 50});
 
-        PdfPCell cell1 = new PdfPCell(new Phrase("Total Debet:", normalFont));
+        PdfPCell cell1 = new PdfPCell(new Phrase("Saldo Awal:", normalFont));
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        PdfPCell cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(totalDebit), normalFont));
+        PdfPCell cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(summary.getOpeningBalance()), normalFont));
+        cell2.setBorder(Rectangle.NO_BORDER);
+        cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        summaryTable.addCell(cell2);
+
+        cell1 = new PdfPCell(new Phrase("Total Debet:", normalFont));
+        cell1.setBorder(Rectangle.NO_BORDER);
+        summaryTable.addCell(cell1);
+        
+        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(summary.getTotalDebit()), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
@@ -276,7 +330,16 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(totalCredit), normalFont));
+        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(summary.getTotalCredit()), normalFont));
+        cell2.setBorder(Rectangle.NO_BORDER);
+        cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        summaryTable.addCell(cell2);
+
+        cell1 = new PdfPCell(new Phrase("Saldo Akhir:", normalFont));
+        cell1.setBorder(Rectangle.NO_BORDER);
+        summaryTable.addCell(cell1);
+        
+        cell2 = new PdfPCell(new Phrase("IDR " + CURRENCY_FORMAT.format(summary.getClosingBalance()), boldFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
@@ -285,7 +348,7 @@ public class AccountStatementPdfService {
         cell1.setBorder(Rectangle.NO_BORDER);
         summaryTable.addCell(cell1);
         
-        cell2 = new PdfPCell(new Phrase(String.valueOf(transactions.size()), normalFont));
+        cell2 = new PdfPCell(new Phrase(String.valueOf(summary.getTransactionCount()), normalFont));
         cell2.setBorder(Rectangle.NO_BORDER);
         cell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
         summaryTable.addCell(cell2);
@@ -4,23 +4,32 @@ import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 public class AccountStatementService {
 
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public AccountStatementService(AccountRepository accountRepository, 
                                  TransactionRepository transactionRepository) {
         this.accountRepository = accountRepository;
@@ -41,12 +50,27 @@ public class AccountStatementService {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
-        return transactionRepository.findByAccountIdAndTransactionDateBetween(
+        return transactionRepository.findByAccountIdAndBookingDateBetween(
             accountId, startDateTime, endDateTime, 
-            Sort.by(Sort.Direction.ASC, "transactionDate")
+            Sort.by(Sort.Direction.ASC, "transactionDate", "id")
         );
     }
 
+    /**
+     * Transactions of the statement period in posting order, read through a database cursor.
+     * Each transaction is detached once read, so the persistence context does not grow with
+     * the statement. Must be called inside a read-only transaction; close the stream after use.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<Transaction> streamTransactions(UUID accountId, LocalDate startDate, LocalDate endDate) {
+        return transactionRepository.streamByAccountIdAndDateRange(
+                accountId, startDate.atStartOfDay(), endDate.atTime(23, 59, 59))
+            .map(transaction -> {
+                entityManager.detach(transaction);
+                return transaction;
+            });
+    }
+
     public List<Transaction> getTransactionsByAccountNumber(String accountNumber, 
                                                           LocalDate startDate, 
                                                           LocalDate endDate) {
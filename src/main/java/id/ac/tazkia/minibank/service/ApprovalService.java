@@ -1,5 +1,6 @@
 package id.ac.tazkia.minibank.service;
 
+import id.ac.tazkia.minibank.dto.ApprovalQueueRow;
 import id.ac.tazkia.minibank.entity.*;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.ApprovalStatus;
 import id.ac.tazkia.minibank.entity.ApprovalRequest.EntityType;
@@ -25,13 +26,19 @@ public class ApprovalService {
     private final ApprovalRequestRepository approvalRequestRepository;
     private final CustomerRepository customerRepository;
     private final AccountRepository accountRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DashboardStatisticsService dashboardStatisticsService;
 
     public ApprovalService(ApprovalRequestRepository approvalRequestRepository,
                           CustomerRepository customerRepository,
-                          AccountRepository accountRepository) {
+                          AccountRepository accountRepository,
+                          CacheInvalidationBus cacheInvalidationBus,
+                          DashboardStatisticsService dashboardStatisticsService) {
         this.approvalRequestRepository = approvalRequestRepository;
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.dashboardStatisticsService = dashboardStatisticsService;
     }
 
     /**
@@ -48,6 +55,7 @@ public class ApprovalService {
         request.setRequestedBy(requestedBy);
         request.setRequestNotes(notes);
         request.setBranch(customer.getBranch());
+        dashboardStatisticsService.approvalRequested(request.getBranch());
 
         return approvalRequestRepository.save(request);
     }
@@ -66,6 +74,7 @@ public class ApprovalService {
         request.setRequestedBy(requestedBy);
         request.setRequestNotes(notes);
         request.setBranch(account.getBranch());
+        dashboardStatisticsService.approvalRequested(request.getBranch());
 
         return approvalRequestRepository.save(request);
     }
@@ -86,10 +95,12 @@ public class ApprovalService {
         // Approve request
         approvalRequest.approve(reviewedBy, reviewNotes);
         approvalRequestRepository.save(approvalRequest);
+        dashboardStatisticsService.approvalReviewed(approvalRequest.getBranch());
 
         // Update customer status
         customer.setApprovalStatus(Customer.ApprovalStatus.APPROVED);
         customer.setStatus(Customer.CustomerStatus.ACTIVE);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.CUSTOMER, customer.getId());
 
         return customerRepository.save(customer);
     }
@@ -111,10 +122,12 @@ public class ApprovalService {
         // Reject request
         approvalRequest.reject(reviewedBy, rejectionReason, reviewNotes);
         approvalRequestRepository.save(approvalRequest);
+        dashboardStatisticsService.approvalReviewed(approvalRequest.getBranch());
 
         // Update customer status
         customer.setApprovalStatus(Customer.ApprovalStatus.REJECTED);
         customer.setStatus(Customer.CustomerStatus.INACTIVE);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.CUSTOMER, customer.getId());
 
         return customerRepository.save(customer);
     }
@@ -135,10 +148,13 @@ public class ApprovalService {
         // Approve request
         approvalRequest.approve(reviewedBy, reviewNotes);
         approvalRequestRepository.save(approvalRequest);
+        dashboardStatisticsService.approvalReviewed(approvalRequest.getBranch());
 
         // Update account status
         account.setApprovalStatus(Account.ApprovalStatus.APPROVED);
         account.setStatus(Account.AccountStatus.ACTIVE);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, account.getId());
+        dashboardStatisticsService.accountActivated(account.getBranch(), account.getProduct());
 
         return accountRepository.save(account);
     }
@@ -160,10 +176,12 @@ public class ApprovalService {
         // Reject request
         approvalRequest.reject(reviewedBy, rejectionReason, reviewNotes);
         approvalRequestRepository.save(approvalRequest);
+        dashboardStatisticsService.approvalReviewed(approvalRequest.getBranch());
 
         // Update account status
         account.setApprovalStatus(Account.ApprovalStatus.REJECTED);
         account.setStatus(Account.AccountStatus.CLOSED);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, account.getId());
 
         return accountRepository.save(account);
     }
@@ -176,6 +194,23 @@ public class ApprovalService {
         return approvalRequestRepository.findAllPendingApprovals();
     }
 
+    /**
+     * Get the approval queue: all pending requests as queue rows
+     */
+    @Transactional(readOnly = true)
+    public List<ApprovalQueueRow> getPendingQueue() {
+        return approvalRequestRepository.findQueueByApprovalStatusOrderByRequestedDateDesc(ApprovalStatus.PENDING);
+    }
+
+    /**
+     * Get the approval queue filtered by request type
+     */
+    @Transactional(readOnly = true)
+    public List<ApprovalQueueRow> getPendingQueueByType(RequestType requestType) {
+        return approvalRequestRepository.findQueueByRequestTypeAndApprovalStatusOrderByRequestedDateDesc(
+            requestType, ApprovalStatus.PENDING);
+    }
+
     /**
      * Get pending approvals by branch
      */
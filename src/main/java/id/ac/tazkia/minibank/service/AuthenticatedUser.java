@@ -0,0 +1,40 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.List;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Principal of a logged-in user: the JDBC user details plus the codes of the user's
+ * active roles and the role shown in the header. Immutable once built; the permissions
+ * compiled from the roles are kept by the {@link PermissionRegistry}.
+ */
+public class AuthenticatedUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> roleCodes;
+    private final String roleName;
+
+    public AuthenticatedUser(UserDetails user, List<String> roleCodes, String roleName) {
+        super(user.getUsername(), user.getPassword(), user.isEnabled(), user.isAccountNonExpired(),
+            user.isCredentialsNonExpired(), user.isAccountNonLocked(), user.getAuthorities());
+        this.roleCodes = List.copyOf(roleCodes);
+        this.roleName = roleName;
+    }
+
+    /** A copy with its own credentials, for caches that outlive the authentication. */
+    public AuthenticatedUser copy() {
+        return new AuthenticatedUser(this, roleCodes, roleName);
+    }
+
+    public List<String> getRoleCodes() {
+        return roleCodes;
+    }
+
+    /** Name of the user's first active role, or null when the user has none. */
+    public String getRoleName() {
+        return roleName;
+    }
+}
@@ -7,9 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -18,35 +16,32 @@ import java.util.Optional;
 public class AuthenticationService {
     
     private final UserRepository userRepository;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final LoginAuditWriter loginAuditWriter;
+    private final PermissionRegistry permissionRegistry;
     
-    @Transactional
+    /**
+     * Clears the failed attempts of the user; the last login time is written in the
+     * background by {@link LoginAuditWriter}.
+     */
     public void recordSuccessfulLogin(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.setLastLogin(LocalDateTime.now());
-            user.resetFailedLoginAttempts();
-            userRepository.save(user);
-            log.info("Recorded successful login for user: {}", username);
-        }
+        loginAttemptTracker.recordSuccess(username);
+        loginAuditWriter.recordSuccess(username);
+        log.info("Recorded successful login for user: {}", username);
     }
     
-    @Transactional
+    /**
+     * Counts a failed login. The user is refused on this node from the
+     * {@value LoginAttemptTracker#MAX_FAILED_ATTEMPTS}th consecutive failure, and locked in
+     * the users table by {@link LoginAuditWriter} shortly after.
+     */
     public void recordFailedLogin(String username) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.incrementFailedLoginAttempts();
-            
-            if (user.getFailedLoginAttempts() >= 5) {
-                user.lockAccount(30);
-                log.warn("User account locked due to too many failed attempts: {}", username);
-            }
-            
-            userRepository.save(user);
-            log.warn("Recorded failed login attempt for user: {} (attempt: {})", 
-                    username, user.getFailedLoginAttempts());
+        int attempts = loginAttemptTracker.recordFailure(username);
+        loginAuditWriter.recordFailure(username);
+        if (attempts == LoginAttemptTracker.MAX_FAILED_ATTEMPTS) {
+            log.warn("Login locked after too many failed attempts: {}", username);
         }
+        log.warn("Recorded failed login attempt for user: {} (attempt: {})", username, attempts);
     }
     
     public String getCurrentUsername() {
@@ -74,13 +69,6 @@ public class AuthenticationService {
     
     public boolean hasPermission(String resource, String action) {
         String permissionCode = (resource + "_" + action).toUpperCase();
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
-        }
-        
-        return authentication.getAuthorities().stream()
-            .anyMatch(authority -> authority.getAuthority().equals(permissionCode));
+        return permissionRegistry.hasPermission(SecurityContextHolder.getContext().getAuthentication(), permissionCode);
     }
-}
\ No newline at end of file
+}
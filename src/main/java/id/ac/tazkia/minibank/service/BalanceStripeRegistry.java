@@ -0,0 +1,61 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.repository.AccountBalanceStripeRepository;
+
+/**
+ * Accounts with striped balances and their number of stripes, so PostingService picks a
+ * stripe without a query. The whole view is reloaded on ACCOUNT events, which the
+ * striping changes publish. A view that is briefly stale is harmless: a stripe that no
+ * longer exists makes the credit fall back to the accounts row.
+ */
+@Service
+public class BalanceStripeRegistry implements CacheInvalidationListener {
+
+    private final AccountBalanceStripeRepository accountBalanceStripeRepository;
+
+    private volatile Map<UUID, Integer> stripeCounts;
+
+    public BalanceStripeRegistry(AccountBalanceStripeRepository accountBalanceStripeRepository) {
+        this.accountBalanceStripeRepository = accountBalanceStripeRepository;
+    }
+
+    public boolean isStriped(UUID accountId) {
+        return current().containsKey(accountId);
+    }
+
+    /** A stripe of the account chosen at random, or empty when its balance is not striped. */
+    public OptionalInt pickStripe(UUID accountId) {
+        Integer stripes = current().get(accountId);
+        return stripes == null ? OptionalInt.empty() : OptionalInt.of(ThreadLocalRandom.current().nextInt(stripes));
+    }
+
+    public void reload() {
+        stripeCounts = Map.copyOf(accountBalanceStripeRepository.findStripeCounts());
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        switch (entityType) {
+            case ACCOUNT -> reload();
+            default -> {
+                // Stripes only change with their account
+            }
+        }
+    }
+
+    private Map<UUID, Integer> current() {
+        Map<UUID, Integer> current = stripeCounts;
+        if (current == null) {
+            reload();
+            current = stripeCounts;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,285 @@
+package id.ac.tazkia.minibank.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import id.ac.tazkia.minibank.dto.AccountDirectoryEntry;
+import id.ac.tazkia.minibank.dto.BatchTransferRequest;
+import id.ac.tazkia.minibank.dto.BatchTransferResult;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transfers out of one account in bulk, such as a payroll. Every line is validated before
+ * anything is posted, then all valid lines are posted together by
+ * {@link PostingService#postTransferBatch}, which debits the source once for the total.
+ *
+ * <p>Failures are decided per line where they concern one line:
+ * <ul>
+ *   <li>a line with a missing or invalid amount, an unknown destination, a destination
+ *       that is not active or is the source account itself is REJECTED with a message,
+ *       and the other lines are still posted; so is a line whose destination is closed
+ *       between validation and posting</li>
+ *   <li>a missing or inactive source account, too many lines, or a source balance that
+ *       does not cover the total of the valid lines rejects the whole batch, and nothing
+ *       is posted</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class BatchTransferService {
+
+    private static final String DEFAULT_DESCRIPTION = "Transfer Dana";
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+    private static final int AMOUNT_SCALE = 2;
+
+    private static final String TO_ACCOUNT_NUMBER_COLUMN = "toaccountnumber";
+    private static final String AMOUNT_COLUMN = "amount";
+    private static final String DESCRIPTION_COLUMN = "description";
+    private static final String REFERENCE_NUMBER_COLUMN = "referencenumber";
+
+    private final PostingService postingService;
+    private final AccountDirectory accountDirectory;
+    private final int maxLines;
+
+    public BatchTransferService(PostingService postingService, AccountDirectory accountDirectory,
+                                @Value("${minibank.transfer.batch.max-lines:20000}") int maxLines) {
+        if (maxLines < 1) {
+            throw new IllegalArgumentException("Transfer batch line limit must be at least 1");
+        }
+        this.postingService = postingService;
+        this.accountDirectory = accountDirectory;
+        this.maxLines = maxLines;
+    }
+
+    /**
+     * Validates and posts a batch.
+     *
+     * @return one result per line, in line order
+     * @throws PostingRejectedException if the whole batch is refused; nothing is posted then
+     */
+    public BatchTransferResult process(BatchTransferRequest request) {
+        List<BatchTransferRequest.Line> lines = request.getLines();
+        if (lines == null || lines.isEmpty()) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "At least one transfer line is required");
+        }
+        if (lines.size() > maxLines) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "A transfer batch cannot have more than " + maxLines + " lines");
+        }
+        AccountDirectoryEntry source = Optional.ofNullable(request.getFromAccountId())
+            .flatMap(accountDirectory::findById)
+            .orElseThrow(() -> new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_FOUND,
+                "Source account not found"));
+        if (!source.isActive()) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE,
+                "Source account is not active");
+        }
+
+        BatchTransferResult result = new BatchTransferResult();
+        result.setFromAccountId(source.getAccountId());
+        result.setFromAccountNumber(source.getAccountNumber());
+        result.setLineCount(lines.size());
+
+        // One directory lookup for the whole batch instead of one per line
+        Map<String, AccountDirectoryEntry> destinations = accountDirectory.findByAccountNumbers(lines.stream()
+            .map(BatchTransferRequest.Line::getToAccountNumber)
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .toList());
+
+        List<BatchTransferResult.LineResult> valid = new ArrayList<>();
+        List<PostingRequest> debitLegs = new ArrayList<>();
+        List<PostingRequest> creditLegs = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            BatchTransferRequest.Line line = lines.get(i);
+            BatchTransferResult.LineResult lineResult = new BatchTransferResult.LineResult();
+            lineResult.setLine(i + 1);
+            lineResult.setToAccountNumber(line.getToAccountNumber());
+            lineResult.setAmount(line.getAmount());
+            result.getLines().add(lineResult);
+
+            try {
+                AccountDirectoryEntry destination = validateLine(line, source, destinations);
+                String description = firstNonBlank(line.getDescription(), request.getDescription(), DEFAULT_DESCRIPTION);
+                String referenceNumber = firstNonBlank(line.getReferenceNumber(), request.getReferenceNumber(), null);
+                debitLegs.add(leg(Transaction.TransactionType.TRANSFER_OUT, source, destination, line.getAmount(),
+                    String.format("Transfer to %s - %s", destination.getAccountNumber(), description), referenceNumber));
+                creditLegs.add(leg(Transaction.TransactionType.TRANSFER_IN, destination, source, line.getAmount(),
+                    String.format("Transfer from %s - %s", source.getAccountNumber(), description), referenceNumber));
+                valid.add(lineResult);
+            } catch (IllegalArgumentException e) {
+                reject(result, lineResult, e.getMessage());
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            log.info("Processing transfer batch from {}: {} of {} lines valid",
+                source.getAccountNumber(), valid.size(), lines.size());
+            List<List<PostingResult>> postings = postingService.postTransferBatch(debitLegs, creditLegs);
+            for (int i = 0; i < valid.size(); i++) {
+                BatchTransferResult.LineResult lineResult = valid.get(i);
+                List<PostingResult> legs = postings.get(i);
+                if (legs.isEmpty()) {
+                    reject(result, lineResult, "Destination account is not active");
+                    continue;
+                }
+                lineResult.setStatus(BatchTransferResult.LineStatus.POSTED);
+                lineResult.setDebitTransactionNumber(legs.get(0).getTransactionNumber());
+                lineResult.setCreditTransactionNumber(legs.get(1).getTransactionNumber());
+                result.setPostedCount(result.getPostedCount() + 1);
+                result.setPostedAmount(result.getPostedAmount().add(lineResult.getAmount()));
+                result.setBalanceAfter(legs.get(0).getBalanceAfter());
+            }
+        }
+
+        log.info("Transfer batch from {} completed: {} posted, {} rejected, total {}",
+            source.getAccountNumber(), result.getPostedCount(), result.getRejectedCount(), result.getPostedAmount());
+        return result;
+    }
+
+    /**
+     * Reads batch lines from CSV with a header row. Columns are matched by name, ignoring
+     * case: {@code toAccountNumber} and {@code amount} are required, {@code description}
+     * and {@code referenceNumber} optional. Blank rows are skipped.
+     *
+     * @throws IllegalArgumentException if the file is not well-formed CSV, a required column
+     *         is missing, or an amount is not a number; the message names the line
+     */
+    public List<BatchTransferRequest.Line> readCsv(Reader reader) {
+        try (CSVReader csv = new CSVReader(reader)) {
+            String[] header = csv.readNext();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                // A UTF-8 byte order mark from spreadsheet exports sticks to the first name
+                columns.putIfAbsent(header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey(TO_ACCOUNT_NUMBER_COLUMN) || !columns.containsKey(AMOUNT_COLUMN)) {
+                throw new IllegalArgumentException("CSV header must name the toAccountNumber and amount columns");
+            }
+
+            List<BatchTransferRequest.Line> lines = new ArrayList<>();
+            String[] row;
+            while ((row = csv.readNext()) != null) {
+                if (row.length == 1 && row[0].isBlank()) {
+                    continue;
+                }
+                if (lines.size() == maxLines) {
+                    throw new IllegalArgumentException("A transfer batch cannot have more than " + maxLines + " lines");
+                }
+                BatchTransferRequest.Line line = new BatchTransferRequest.Line();
+                line.setToAccountNumber(column(row, columns, TO_ACCOUNT_NUMBER_COLUMN));
+                line.setAmount(amount(column(row, columns, AMOUNT_COLUMN), csv.getLinesRead()));
+                line.setDescription(column(row, columns, DESCRIPTION_COLUMN));
+                line.setReferenceNumber(column(row, columns, REFERENCE_NUMBER_COLUMN));
+                lines.add(line);
+            }
+            return lines;
+        } catch (CsvValidationException e) {
+            throw new IllegalArgumentException("Line " + e.getLineNumber() + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read transfer batch", e);
+        }
+    }
+
+    private AccountDirectoryEntry validateLine(BatchTransferRequest.Line line, AccountDirectoryEntry source,
+                                               Map<String, AccountDirectoryEntry> destinations) {
+        if (line.getToAccountNumber() == null || line.getToAccountNumber().isBlank()) {
+            throw new IllegalArgumentException("Destination account number is required");
+        }
+        if (line.getAmount() == null) {
+            throw new IllegalArgumentException("Amount is required");
+        }
+        if (line.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        if (line.getAmount().stripTrailingZeros().scale() > AMOUNT_SCALE) {
+            throw new IllegalArgumentException("Amount cannot have more than " + AMOUNT_SCALE + " decimal places");
+        }
+        if (line.getDescription() != null && line.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description cannot exceed " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (line.getReferenceNumber() != null && line.getReferenceNumber().length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("Reference number cannot exceed " + MAX_REFERENCE_LENGTH + " characters");
+        }
+        AccountDirectoryEntry destination = destinations.get(line.getToAccountNumber().trim());
+        if (destination == null) {
+            throw new IllegalArgumentException("Destination account not found: " + line.getToAccountNumber());
+        }
+        if (!destination.isActive()) {
+            throw new IllegalArgumentException("Destination account is not active");
+        }
+        if (destination.getAccountId().equals(source.getAccountId())) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        return destination;
+    }
+
+    private PostingRequest leg(Transaction.TransactionType type, AccountDirectoryEntry account,
+                               AccountDirectoryEntry counterparty, BigDecimal amount,
+                               String description, String referenceNumber) {
+        PostingRequest leg = new PostingRequest();
+        leg.setAccountId(account.getAccountId());
+        leg.setCounterpartyAccountId(counterparty.getAccountId());
+        leg.setTransactionType(type);
+        leg.setAmount(amount);
+        leg.setDescription(description);
+        leg.setReferenceNumber(referenceNumber);
+        leg.setChannel(Transaction.TransactionChannel.TRANSFER);
+        return leg;
+    }
+
+    private static void reject(BatchTransferResult result, BatchTransferResult.LineResult lineResult, String message) {
+        lineResult.setStatus(BatchTransferResult.LineStatus.REJECTED);
+        lineResult.setMessage(message);
+        result.setRejectedCount(result.getRejectedCount() + 1);
+    }
+
+    private static String column(String[] row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.length || row[index].isBlank()) {
+            return null;
+        }
+        return row[index].trim();
+    }
+
+    private static BigDecimal amount(String value, long lineNumber) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": amount '" + value + "' is not a number", e);
+        }
+    }
+
+    private static String firstNonBlank(String first, String second, String fallback) {
+        if (first != null && !first.isBlank()) {
+            return first;
+        }
+        return second != null && !second.isBlank() ? second : fallback;
+    }
+}
@@ -0,0 +1,202 @@
+package id.ac.tazkia.minibank.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-JVM caches of every application node current through PostgreSQL
+ * LISTEN/NOTIFY, without a separate broker. A change is announced with {@code pg_notify}
+ * in the transaction that makes it, so other nodes only hear about committed changes;
+ * each node holds one connection outside the pool that LISTENs on the channel and hands
+ * the events to its {@link CacheInvalidationListener}s. The node making the change
+ * evicts its own caches right after commit instead of waiting for its own notification.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    public enum EntityType {
+        PRODUCT, BRANCH, ROLE, PERMISSION, CUSTOMER, ACCOUNT, USER
+    }
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final String ALL_IDS = "*";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<CacheInvalidationListener> listeners;
+    private final String channel;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                ObjectProvider<CacheInvalidationListener> listeners,
+                                @Value("${minibank.cache.invalidation.channel:minibank_cache_invalidation}") String channel,
+                                @Value("${minibank.cache.invalidation.enabled:true}") boolean enabled) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.listeners = listeners;
+        this.channel = channel;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Announces a change to one row, or to any row of the type when {@code entityId} is null.
+     * Inside a transaction nothing is delivered, locally or remotely, unless it commits.
+     */
+    public void publish(EntityType entityType, UUID entityId) {
+        if (enabled) {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel,
+                nodeId + " " + entityType + " " + (entityId == null ? ALL_IDS : entityId));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(entityType, entityId);
+                }
+            });
+        } else {
+            dispatch(entityType, entityId);
+        }
+    }
+
+    /**
+     * False while the listener connection is being opened or re-established; until then
+     * this node can miss changes made on other nodes.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listening = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openListenerConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cache invalidations on channel {} as node {}", channel, nodeId);
+
+                // Whatever was announced while this node was not listening is lost
+                for (EntityType entityType : EntityType.values()) {
+                    dispatch(entityType, null);
+                }
+                listening = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, reconnecting in {}ms",
+                    RECONNECT_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split(" ");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            EntityType entityType = EntityType.valueOf(parts[1]);
+            UUID entityId = ALL_IDS.equals(parts[2]) ? null : UUID.fromString(parts[2]);
+            dispatch(entityType, entityId);
+        } catch (IllegalArgumentException e) {
+            // Sent by a node running another version
+            log.warn("Ignoring unknown cache invalidation: {}", payload);
+        }
+    }
+
+    private void dispatch(EntityType entityType, UUID entityId) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(entityType, entityId);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation of {} {} failed in {}", entityType, entityId, listener, e);
+            }
+        });
+    }
+
+    // A LISTEN connection is never returned, so it is opened beside the pool rather than borrowed from it
+    private Connection openListenerConnection() throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+            return DriverManager.getConnection(pool.getJdbcUrl(), pool.getUsername(), pool.getPassword());
+        }
+        return dataSource.getConnection();
+    }
+}
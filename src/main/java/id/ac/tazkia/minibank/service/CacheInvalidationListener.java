@@ -0,0 +1,15 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.UUID;
+
+/**
+ * Local cache that drops entries when CacheInvalidationBus reports a committed change,
+ * whether made on this node or another one. A null id means any row of the type may have
+ * changed. Implementations must be cheap and must not block; they run on the committing
+ * thread or on the bus listener thread.
+ */
+@FunctionalInterface
+public interface CacheInvalidationListener {
+
+    void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId);
+}
@@ -0,0 +1,43 @@
+package id.ac.tazkia.minibank.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import id.ac.tazkia.minibank.dto.CustomerOverview;
+import id.ac.tazkia.minibank.repository.CustomerOverviewRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Assembles the customer overview in four queries on one read-only transaction,
+ * however many accounts the customer holds.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerOverviewService {
+
+    public static final int DEFAULT_TRANSACTION_LIMIT = 10;
+    public static final int MAX_TRANSACTION_LIMIT = 100;
+
+    private final CustomerOverviewRepository customerOverviewRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<CustomerOverview> getOverview(UUID customerId, int transactionLimit) {
+        if (transactionLimit < 1 || transactionLimit > MAX_TRANSACTION_LIMIT) {
+            throw new IllegalArgumentException("Transaction limit must be between 1 and " + MAX_TRANSACTION_LIMIT);
+        }
+        Optional<CustomerOverview> profile = customerOverviewRepository.findProfile(customerId);
+        profile.ifPresent(overview -> {
+            overview.setAccounts(customerOverviewRepository.findAccounts(customerId));
+            overview.setTotalBalance(overview.getAccounts().stream()
+                .map(CustomerOverview.AccountSummary::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+            overview.setRecentTransactions(customerOverviewRepository.findRecentTransactions(customerId, transactionLimit));
+            overview.setPendingApprovals(customerOverviewRepository.findPendingApprovals(customerId));
+        });
+        return profile;
+    }
+}
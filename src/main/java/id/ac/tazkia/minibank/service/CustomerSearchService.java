@@ -0,0 +1,68 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import id.ac.tazkia.minibank.entity.Customer;
+import id.ac.tazkia.minibank.repository.CustomerRepository;
+import id.ac.tazkia.minibank.repository.CustomerSearchRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Customer search for the customer list and the account-opening customer pickers.
+ * Matching and ranking run against the trigram-indexed {@code customer_search} table;
+ * only the customers of the requested page are then loaded as entities.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CustomerSearchService {
+
+    private final CustomerSearchRepository customerSearchRepository;
+    private final CustomerRepository customerRepository;
+
+    /**
+     * One page of customers matching {@code term}, best match first.
+     *
+     * @param customerType optional filter, null for all types
+     */
+    public Page<Customer> search(String term, Customer.CustomerType customerType, Pageable pageable) {
+        List<UUID> ids = customerSearchRepository.searchIds(term, customerType, null,
+            pageable.getOffset(), pageable.getPageSize());
+        if (ids.isEmpty() && pageable.getOffset() == 0) {
+            return Page.empty(pageable);
+        }
+        long total = customerSearchRepository.count(term, customerType, null);
+        return new PageImpl<>(loadInOrder(ids), pageable, total);
+    }
+
+    /**
+     * Up to {@code limit} active customers matching {@code term}, best match first.
+     */
+    public List<Customer> searchActive(String term, Customer.CustomerType customerType, int limit) {
+        return loadInOrder(customerSearchRepository.searchIds(term, customerType,
+            Customer.CustomerStatus.ACTIVE, 0, limit));
+    }
+
+    private List<Customer> loadInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return customerRepository.findAllById(ids).stream()
+            .sorted(Comparator.comparing(customer -> rank.get(customer.getId())))
+            .toList();
+    }
+}
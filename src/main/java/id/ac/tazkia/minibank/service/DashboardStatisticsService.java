@@ -0,0 +1,411 @@
+package id.ac.tazkia.minibank.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import id.ac.tazkia.minibank.dto.DashboardStatistics;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Branch;
+import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.repository.DashboardCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dashboard figures kept current in memory, so polling the dashboard never aggregates
+ * the journal or the account table.
+ * <ul>
+ *   <li>Today's deposits, withdrawals and transfers per branch are counted as postings
+ *       commit. Every flush interval the node adds what it counted since its last flush
+ *       to {@code dashboard_daily_counters} and reads back the day's totals, which then
+ *       include the other nodes.</li>
+ *   <li>Active accounts per product type and pending approvals per branch are adjusted
+ *       by the approval and closing paths, and recounted from the tables every
+ *       reconcile interval to correct for changes made on other nodes.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class DashboardStatisticsService implements PostingListener, SmartLifecycle {
+
+    public enum Activity {
+        DEPOSIT, WITHDRAWAL, TRANSFER
+    }
+
+    private final DashboardCounterRepository dashboardCounterRepository;
+    private final BranchRepository branchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMillis;
+    private final long reconcileIntervalMillis;
+
+    // Counted by this node since startup; each tally knows how much of it is already in the table
+    private final ConcurrentMap<CounterKey, Tally> tallies = new ConcurrentHashMap<>();
+    // Past days' tallies taken out of the map, read once more by the next flush
+    private List<Map.Entry<CounterKey, Tally>> detached = List.of();
+    private final Object flushLock = new Object();
+    private volatile Baseline baseline = new Baseline(null, Map.of(), Map.of());
+
+    private volatile ConcurrentMap<GaugeKey, AtomicLong> activeAccounts = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<GaugeKey, AtomicLong> pendingApprovals = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread flusherThread;
+
+    public DashboardStatisticsService(DashboardCounterRepository dashboardCounterRepository,
+                                      BranchRepository branchRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${minibank.dashboard.flush-interval-millis:5000}") long flushIntervalMillis,
+                                      @Value("${minibank.dashboard.reconcile-interval-millis:300000}") long reconcileIntervalMillis) {
+        if (flushIntervalMillis < 100) {
+            throw new IllegalArgumentException("Dashboard flush interval must be at least 100ms");
+        }
+        if (reconcileIntervalMillis < flushIntervalMillis) {
+            throw new IllegalArgumentException("Dashboard reconcile interval must not be shorter than the flush interval");
+        }
+        this.dashboardCounterRepository = dashboardCounterRepository;
+        this.branchRepository = branchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.reconcileIntervalMillis = reconcileIntervalMillis;
+    }
+
+    @Override
+    public void onPosted(List<PostingResult> legs) {
+        for (PostingResult leg : legs) {
+            Activity activity = switch (leg.getTransactionType()) {
+                case DEPOSIT -> Activity.DEPOSIT;
+                case WITHDRAWAL -> Activity.WITHDRAWAL;
+                // A transfer counts once, on its debit leg
+                case TRANSFER_OUT -> Activity.TRANSFER;
+                default -> null;
+            };
+            if (activity == null || leg.getBranchId() == null) {
+                continue;
+            }
+            CounterKey key = new CounterKey(leg.getTransactionDate().toLocalDate(), leg.getBranchId(), activity);
+            tallies.computeIfAbsent(key, k -> new Tally()).add(leg.getAmount());
+        }
+    }
+
+    public void approvalRequested(Branch branch) {
+        adjustAfterCommit(true, branch, null, 1);
+    }
+
+    public void approvalReviewed(Branch branch) {
+        adjustAfterCommit(true, branch, null, -1);
+    }
+
+    public void accountActivated(Branch branch, Product product) {
+        adjustAfterCommit(false, branch, product == null ? null : product.getProductType(), 1);
+    }
+
+    public void accountDeactivated(Branch branch, Product product) {
+        adjustAfterCommit(false, branch, product == null ? null : product.getProductType(), -1);
+    }
+
+    /**
+     * Today's figures for every branch, or only for {@code branchId} when given; the
+     * bank-wide totals always cover all branches.
+     */
+    public DashboardStatistics getStatistics(UUID branchId) {
+        LocalDate today = LocalDate.now();
+        List<Branch> allBranches = branchRepository.findAllByOrderByBranchCodeAsc();
+        Map<UUID, DashboardStatistics.BranchStatistics> byBranch = new HashMap<>();
+        for (Branch branch : allBranches) {
+            DashboardStatistics.BranchStatistics stats = new DashboardStatistics.BranchStatistics();
+            stats.setBranchId(branch.getId());
+            stats.setBranchCode(branch.getBranchCode());
+            stats.setBranchName(branch.getBranchName());
+            byBranch.put(branch.getId(), stats);
+        }
+
+        Map<BranchActivity, long[]> activity = todaysActivity(today);
+        activity.forEach((key, totals) -> {
+            DashboardStatistics.BranchStatistics stats = byBranch.get(key.getBranchId());
+            if (stats != null) {
+                DashboardStatistics.ActivityTotals target = totalsFor(stats, key.getActivity());
+                target.setCount(totals[0]);
+                target.setVolume(BigDecimal.valueOf(totals[1], 2));
+            }
+        });
+        activeAccounts.forEach((key, count) -> {
+            DashboardStatistics.BranchStatistics stats = byBranch.get(key.getBranchId());
+            if (stats != null && key.getProductType() != null) {
+                stats.getActiveAccounts().merge(key.getProductType(), count.get(), Long::sum);
+                stats.setActiveAccountTotal(stats.getActiveAccountTotal() + count.get());
+            }
+        });
+        pendingApprovals.forEach((key, count) -> {
+            DashboardStatistics.BranchStatistics stats = byBranch.get(key.getBranchId());
+            if (stats != null) {
+                stats.setPendingApprovals(stats.getPendingApprovals() + count.get());
+            }
+        });
+
+        DashboardStatistics statistics = new DashboardStatistics();
+        statistics.setDate(today);
+        statistics.setGeneratedAt(LocalDateTime.now());
+        DashboardStatistics.BranchStatistics bank = statistics.getBank();
+        for (Branch branch : allBranches) {
+            DashboardStatistics.BranchStatistics stats = byBranch.get(branch.getId());
+            addTo(bank, stats);
+            if (branchId == null || branchId.equals(branch.getId())) {
+                statistics.getBranches().add(stats);
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Adds this node's counts since the last flush to the table and reloads today's totals.
+     * A failed write leaves the counts to be added by the next flush.
+     * <p>
+     * Past days are complete in the table once flushed, so their tallies are taken out of
+     * the map before they are read: a late posting of that day starts a new tally instead
+     * of adding to one already read. A posting that picked up a tally just before it was
+     * taken out is caught by the next flush, which reads the detached tallies once more.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            LocalDate today = LocalDate.now();
+            List<Map.Entry<CounterKey, Tally>> toFlush = new ArrayList<>(detached);
+            List<Map.Entry<CounterKey, Tally>> nowDetached = new ArrayList<>();
+            for (CounterKey key : tallies.keySet()) {
+                boolean pastDay = key.getDate().isBefore(today);
+                Tally tally = pastDay ? tallies.remove(key) : tallies.get(key);
+                if (tally != null) {
+                    toFlush.add(Map.entry(key, tally));
+                    if (pastDay) {
+                        nowDetached.add(Map.entry(key, tally));
+                    }
+                }
+            }
+            // Kept for a retry until the write below succeeds
+            detached = toFlush.stream().filter(entry -> entry.getKey().getDate().isBefore(today)).toList();
+
+            Map<Tally, long[]> sums = new HashMap<>();
+            Map<LocalDate, List<DashboardCounterRepository.CounterDelta>> deltas = new HashMap<>();
+            for (Map.Entry<CounterKey, Tally> entry : toFlush) {
+                CounterKey key = entry.getKey();
+                Tally tally = entry.getValue();
+                long[] sum = {tally.count.sum(), tally.volumeCents.sum()};
+                sums.put(tally, sum);
+                if (sum[0] != tally.flushedCount || sum[1] != tally.flushedCents) {
+                    deltas.computeIfAbsent(key.getDate(), d -> new ArrayList<>())
+                        .add(new DashboardCounterRepository.CounterDelta(key.getBranchId(), key.getActivity().name(),
+                            sum[0] - tally.flushedCount, BigDecimal.valueOf(sum[1] - tally.flushedCents, 2)));
+                }
+            }
+            if (!deltas.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach(dashboardCounterRepository::addCounts));
+            }
+            sums.forEach((tally, sum) -> {
+                tally.flushedCount = sum[0];
+                tally.flushedCents = sum[1];
+            });
+            detached = nowDetached;
+
+            Map<BranchActivity, long[]> persisted = new HashMap<>();
+            dashboardCounterRepository.findCounts(today, (branchId, activity, count, volume) ->
+                persisted.put(new BranchActivity(branchId, Activity.valueOf(activity)),
+                    new long[]{count, toCents(volume)}));
+            Map<CounterKey, long[]> flushedToday = new HashMap<>();
+            tallies.forEach((key, tally) -> {
+                if (today.equals(key.getDate())) {
+                    flushedToday.put(key, new long[]{tally.flushedCount, tally.flushedCents});
+                }
+            });
+            baseline = new Baseline(today, persisted, flushedToday);
+        }
+    }
+
+    /**
+     * Recounts active accounts and pending approvals from the tables.
+     */
+    public void reconcile() {
+        ConcurrentMap<GaugeKey, AtomicLong> accounts = new ConcurrentHashMap<>();
+        dashboardCounterRepository.countActiveAccounts((branchId, productType, count) ->
+            accounts.put(new GaugeKey(branchId, productType), new AtomicLong(count)));
+        ConcurrentMap<GaugeKey, AtomicLong> approvals = new ConcurrentHashMap<>();
+        dashboardCounterRepository.countPendingApprovals((branchId, productType, count) ->
+            approvals.put(new GaugeKey(branchId, null), new AtomicLong(count)));
+        activeAccounts = accounts;
+        pendingApprovals = approvals;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            reconcile();
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("Dashboard statistics could not be loaded, retrying in the background", e);
+        }
+        flusherThread = Thread.ofVirtual().name("dashboard-statistics-flusher").start(this::runFlusher);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            flusherThread = null;
+        }
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("Dashboard counts of this node since the last flush are lost", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runFlusher() {
+        long nextReconcile = System.currentTimeMillis() + reconcileIntervalMillis;
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                flush();
+                if (System.currentTimeMillis() >= nextReconcile) {
+                    reconcile();
+                    nextReconcile = System.currentTimeMillis() + reconcileIntervalMillis;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Dashboard statistics flush failed, retrying in {}ms", flushIntervalMillis, e);
+            }
+        }
+    }
+
+    // Table totals as of the last flush, plus what this node counted since
+    private Map<BranchActivity, long[]> todaysActivity(LocalDate today) {
+        Baseline current = baseline;
+        Map<BranchActivity, long[]> totals = new HashMap<>();
+        if (today.equals(current.getDate())) {
+            current.getPersisted().forEach((key, value) -> totals.put(key, value.clone()));
+        }
+        tallies.forEach((key, tally) -> {
+            if (!today.equals(key.getDate())) {
+                return;
+            }
+            long[] done = today.equals(current.getDate())
+                ? current.getFlushed().getOrDefault(key, new long[2]) : new long[2];
+            long[] total = totals.computeIfAbsent(new BranchActivity(key.getBranchId(), key.getActivity()), k -> new long[2]);
+            total[0] += tally.count.sum() - done[0];
+            total[1] += tally.volumeCents.sum() - done[1];
+        });
+        return totals;
+    }
+
+    // Only committed changes count; the gauge map is looked up late since reconcile replaces it
+    private void adjustAfterCommit(boolean approvals, Branch branch, Product.ProductType productType, long delta) {
+        if (branch == null) {
+            return;
+        }
+        GaugeKey key = new GaugeKey(branch.getId(), productType);
+        Runnable adjust = () -> (approvals ? pendingApprovals : activeAccounts)
+            .computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust.run();
+                }
+            });
+        } else {
+            adjust.run();
+        }
+    }
+
+    private static DashboardStatistics.ActivityTotals totalsFor(DashboardStatistics.BranchStatistics stats,
+                                                                Activity activity) {
+        return switch (activity) {
+            case DEPOSIT -> stats.getDeposits();
+            case WITHDRAWAL -> stats.getWithdrawals();
+            case TRANSFER -> stats.getTransfers();
+        };
+    }
+
+    private static void addTo(DashboardStatistics.BranchStatistics bank, DashboardStatistics.BranchStatistics branch) {
+        for (Activity activity : Activity.values()) {
+            DashboardStatistics.ActivityTotals target = totalsFor(bank, activity);
+            DashboardStatistics.ActivityTotals source = totalsFor(branch, activity);
+            target.setCount(target.getCount() + source.getCount());
+            target.setVolume(target.getVolume().add(source.getVolume()));
+        }
+        branch.getActiveAccounts().forEach((type, count) -> bank.getActiveAccounts().merge(type, count, Long::sum));
+        bank.setActiveAccountTotal(bank.getActiveAccountTotal() + branch.getActiveAccountTotal());
+        bank.setPendingApprovals(bank.getPendingApprovals() + branch.getPendingApprovals());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Tally {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder volumeCents = new LongAdder();
+        // Already in the table; only touched under the flush lock
+        private long flushedCount;
+        private long flushedCents;
+
+        void add(BigDecimal amount) {
+            count.increment();
+            volumeCents.add(toCents(amount));
+        }
+    }
+
+    @lombok.Value
+    private static class Baseline {
+        LocalDate date;
+        Map<BranchActivity, long[]> persisted;
+        Map<CounterKey, long[]> flushed;
+    }
+
+    @lombok.Value
+    private static class CounterKey {
+        LocalDate date;
+        UUID branchId;
+        Activity activity;
+    }
+
+    @lombok.Value
+    private static class BranchActivity {
+        UUID branchId;
+        Activity activity;
+    }
+
+    @lombok.Value
+    private static class GaugeKey {
+        UUID branchId;
+        Product.ProductType productType;
+    }
+}
@@ -0,0 +1,112 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.repository.IdempotencyKeyRepository;
+
+/**
+ * Idempotency keys of postings, so a client that retries after a timeout gets the
+ * original result instead of a second posting. The {@code idempotency_keys} table is
+ * the record; the most recently posted keys are also kept in memory, so the usual
+ * retry, which follows within seconds, is answered without opening a transaction.
+ * Postings never change once committed, so the memory needs no invalidation.
+ *
+ * <p>A key replays only a request for the same account, transaction type and amount;
+ * reusing it for anything else is rejected.
+ */
+@Service
+public class IdempotencyKeyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Cache<String, PostingResult> recent;
+
+    public IdempotencyKeyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                               @Value("${minibank.posting.idempotency.cache-max-entries:10000}") long maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Idempotency key cache size must be at least 1");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.recent = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .build();
+    }
+
+    /** The original posting of the request's key if it was posted recently, from memory only. */
+    public Optional<PostingResult> findRecent(PostingRequest request) {
+        PostingResult original = recent.getIfPresent(request.getIdempotencyKey());
+        return original == null ? Optional.empty() : Optional.of(replayOf(request, original));
+    }
+
+    /** The original posting of the request's key, from memory or the table. */
+    public Optional<PostingResult> find(PostingRequest request) {
+        Optional<PostingResult> original = findRecent(request);
+        if (original.isPresent()) {
+            return original;
+        }
+        return idempotencyKeyRepository.findPosting(request.getIdempotencyKey()).map(posting -> {
+            recent.put(request.getIdempotencyKey(), posting);
+            return replayOf(request, posting);
+        });
+    }
+
+    /**
+     * Claims the key for a posting, in the posting's transaction.
+     *
+     * @return false if the key already belongs to a committed posting
+     */
+    public boolean claim(String idempotencyKey, UUID transactionId) {
+        return idempotencyKeyRepository.claim(idempotencyKey, transactionId);
+    }
+
+    /** Gives back a key claimed in the current transaction by a posting that was refused. */
+    public void release(String idempotencyKey) {
+        idempotencyKeyRepository.release(idempotencyKey);
+    }
+
+    /** Remembers a committed posting for replays on this node. */
+    public void remember(PostingRequest request, PostingResult result) {
+        recent.put(request.getIdempotencyKey(), copyOf(result));
+    }
+
+    private static PostingResult replayOf(PostingRequest request, PostingResult original) {
+        if (!original.getAccountId().equals(request.getAccountId())
+                || original.getTransactionType() != request.getTransactionType()
+                || original.getAmount().compareTo(request.getAmount()) != 0) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.IDEMPOTENCY_KEY_REUSED,
+                "Idempotency key " + request.getIdempotencyKey() + " was already used for a different request");
+        }
+        return copyOf(original);
+    }
+
+    // Cached results are never handed out, so a caller changing its copy cannot alter later replays
+    private static PostingResult copyOf(PostingResult result) {
+        PostingResult copy = new PostingResult();
+        copy.setTransactionId(result.getTransactionId());
+        copy.setTransactionNumber(result.getTransactionNumber());
+        copy.setTransactionType(result.getTransactionType());
+        copy.setAccountId(result.getAccountId());
+        copy.setAccountNumber(result.getAccountNumber());
+        copy.setAccountName(result.getAccountName());
+        copy.setBranchId(result.getBranchId());
+        copy.setAmount(result.getAmount());
+        copy.setBalanceBefore(result.getBalanceBefore());
+        copy.setBalanceAfter(result.getBalanceAfter());
+        copy.setDescription(result.getDescription());
+        copy.setReferenceNumber(result.getReferenceNumber());
+        copy.setCurrency(result.getCurrency());
+        copy.setChannel(result.getChannel());
+        copy.setTransactionDate(result.getTransactionDate());
+        copy.setProcessedDate(result.getProcessedDate());
+        copy.setReplayed(true);
+        return copy;
+    }
+}
@@ -0,0 +1,104 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Consecutive failed logins per username, kept in memory so a locked user is refused
+ * before the password is checked and without reading the users table. The counts are
+ * split over independently locked stripes, so a burst of logins at shift start does not
+ * queue on one lock, and each stripe keeps only its most recently used usernames.
+ *
+ * <p>The users table stays authoritative: {@link LoginAuditWriter} records the same
+ * failures there shortly after, which locks the user on every node. Any USER change,
+ * such as an administrator unlocking a user, clears what this node remembers.
+ */
+@Service
+public class LoginAttemptTracker implements CacheInvalidationListener {
+
+    public static final int MAX_FAILED_ATTEMPTS = 5;
+    public static final int LOCK_MINUTES = 30;
+
+    private static final int STRIPE_COUNT = 64;
+    private static final int MAX_USERNAMES_PER_STRIPE = 1024;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public LoginAttemptTracker() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public boolean isLocked(String username) {
+        Stripe stripe = stripeFor(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.attempts.get(username);
+            return attempts != null && attempts.lockedUntil > System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Counts a failed login and locks the username for {@value #LOCK_MINUTES} minutes from
+     * the {@value #MAX_FAILED_ATTEMPTS}th consecutive failure on.
+     *
+     * @return consecutive failures so far
+     */
+    public int recordFailure(String username) {
+        Stripe stripe = stripeFor(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.attempts.computeIfAbsent(username, k -> new Attempts());
+            attempts.failures++;
+            if (attempts.failures >= MAX_FAILED_ATTEMPTS) {
+                attempts.lockedUntil = System.currentTimeMillis() + LOCK_MINUTES * 60_000L;
+            }
+            return attempts.failures;
+        }
+    }
+
+    public void recordSuccess(String username) {
+        Stripe stripe = stripeFor(username);
+        synchronized (stripe) {
+            stripe.attempts.remove(username);
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.attempts.clear();
+            }
+        }
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        if (entityType == CacheInvalidationBus.EntityType.USER) {
+            clear();
+        }
+    }
+
+    private Stripe stripeFor(String username) {
+        int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final Map<String, Attempts> attempts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                return size() > MAX_USERNAMES_PER_STRIPE;
+            }
+        };
+    }
+
+    private static final class Attempts {
+
+        private int failures;
+        private long lockedUntil;
+    }
+}
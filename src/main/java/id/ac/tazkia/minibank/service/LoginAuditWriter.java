@@ -0,0 +1,187 @@
+package id.ac.tazkia.minibank.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import id.ac.tazkia.minibank.entity.User;
+import id.ac.tazkia.minibank.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the login bookkeeping of the users table (last login, failed attempts and the
+ * lock after too many failures) in the background, so a login does not wait for it.
+ * Logins are collected per username and written every flush interval in one
+ * transaction: a burst of logins costs one read of the affected users and one batch of
+ * updates. A user locked by a flush is announced as a USER change, so every node drops
+ * its cached details and reads the lock.
+ */
+@Slf4j
+@Service
+public class LoginAuditWriter implements SmartLifecycle {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final long flushIntervalMillis;
+
+    private final ConcurrentMap<String, PendingLogins> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private volatile boolean running;
+    private Thread flusherThread;
+
+    public LoginAuditWriter(UserRepository userRepository,
+                            TransactionTemplate transactionTemplate,
+                            CacheInvalidationBus cacheInvalidationBus,
+                            @Value("${minibank.login.audit-flush-interval-millis:1000}") long flushIntervalMillis) {
+        if (flushIntervalMillis < 10) {
+            throw new IllegalArgumentException("Login audit flush interval must be at least 10ms");
+        }
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void recordSuccess(String username) {
+        LocalDateTime at = LocalDateTime.now();
+        pending.merge(username, PendingLogins.succeeded(at), PendingLogins::then);
+    }
+
+    public void recordFailure(String username) {
+        pending.merge(username, PendingLogins.failed(), PendingLogins::then);
+    }
+
+    /**
+     * Writes the logins collected so far. Logins that cannot be written are kept for the
+     * next flush.
+     *
+     * @return number of users updated
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            Map<String, PendingLogins> batch = new HashMap<>();
+            for (String username : pending.keySet()) {
+                PendingLogins logins = pending.remove(username);
+                if (logins != null) {
+                    batch.put(username, logins);
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                Integer updated = transactionTemplate.execute(status -> write(batch));
+                return updated == null ? 0 : updated;
+            } catch (RuntimeException e) {
+                // Anything recorded meanwhile happened after the batch
+                batch.forEach((username, logins) -> pending.merge(username, logins, PendingLogins::then));
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusherThread = Thread.ofVirtual().name("login-audit-writer").start(this::runFlusher);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusherThread != null) {
+            flusherThread.interrupt();
+            flusherThread = null;
+        }
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("Login audit of {} user(s) since the last flush is lost", pending.size(), e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private int write(Map<String, PendingLogins> batch) {
+        List<User> users = userRepository.findByUsernameIn(batch.keySet());
+        for (User user : users) {
+            PendingLogins logins = batch.get(user.getUsername());
+            if (logins.applyTo(user)) {
+                log.warn("User account locked due to too many failed attempts: {}", user.getUsername());
+                cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, user.getId());
+            }
+        }
+        userRepository.saveAll(users);
+        log.debug("Recorded logins of {} user(s)", users.size());
+        return users.size();
+    }
+
+    private void runFlusher() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                flush();
+            } catch (DataAccessException e) {
+                log.warn("Login audit flush failed, retrying in {}ms", flushIntervalMillis, e);
+            }
+        }
+    }
+
+    /** Logins of one username since the last flush: the last success and the failures after it. */
+    @lombok.Value
+    private static class PendingLogins {
+
+        LocalDateTime lastLogin;
+        int failuresSinceLastLogin;
+
+        static PendingLogins succeeded(LocalDateTime at) {
+            return new PendingLogins(at, 0);
+        }
+
+        static PendingLogins failed() {
+            return new PendingLogins(null, 1);
+        }
+
+        PendingLogins then(PendingLogins later) {
+            // A success resets the failures before it
+            return later.lastLogin != null
+                ? later
+                : new PendingLogins(lastLogin, failuresSinceLastLogin + later.failuresSinceLastLogin);
+        }
+
+        /** Returns true when the failures locked the user. */
+        boolean applyTo(User user) {
+            if (lastLogin != null) {
+                user.setLastLogin(lastLogin);
+                user.resetFailedLoginAttempts();
+            }
+            for (int i = 0; i < failuresSinceLastLogin; i++) {
+                user.incrementFailedLoginAttempts();
+            }
+            if (failuresSinceLastLogin > 0 && user.getFailedLoginAttempts() >= LoginAttemptTracker.MAX_FAILED_ATTEMPTS) {
+                user.lockAccount(LoginAttemptTracker.LOCK_MINUTES);
+                return true;
+            }
+            return false;
+        }
+    }
+}
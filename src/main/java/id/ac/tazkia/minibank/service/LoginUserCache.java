@@ -0,0 +1,76 @@
+package id.ac.tazkia.minibank.service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * User details loaded for authentication, so HTTP Basic API calls and repeated logins do
+ * not run the user and authority queries every time. A cached user whose password does
+ * not match is reloaded once before the login is refused, so a new password works at
+ * once; the old one stops working when the change is announced. Every USER, ROLE and
+ * PERMISSION change announced on the {@link CacheInvalidationBus} empties the cache on
+ * all nodes, and entries expire after the configured time, which bounds how long a
+ * lapsed lock or an expired password is remembered.
+ */
+@Service
+public class LoginUserCache implements UserCache, CacheInvalidationListener {
+
+    private final Cache<String, UserDetails> users;
+
+    public LoginUserCache(@Value("${minibank.login.user-cache.max-entries:10000}") long maxEntries,
+                          @Value("${minibank.login.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Login user cache size must be at least 1");
+        }
+        if (ttlSeconds < 1) {
+            throw new IllegalArgumentException("Login user cache TTL must be at least 1 second");
+        }
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    // Copies in both directions: the authenticated principal has its password erased afterwards
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = users.getIfPresent(username);
+        return cached == null ? null : copyOf(cached);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), copyOf(user));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        switch (entityType) {
+            // A user id does not give the username, and role changes reach many users
+            case USER, ROLE, PERMISSION -> users.invalidateAll();
+            default -> {
+                // Not part of user details
+            }
+        }
+    }
+
+    private static UserDetails copyOf(UserDetails user) {
+        return user instanceof AuthenticatedUser authenticated
+            ? authenticated.copy()
+            : User.withUserDetails(user).build();
+    }
+}
@@ -0,0 +1,65 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import id.ac.tazkia.minibank.dto.SequenceValue;
+import id.ac.tazkia.minibank.repository.NativeSequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serves sequence numbers from PostgreSQL {@code SEQUENCE} objects via {@code nextval}.
+ * The database sequence is prepared (created, CACHE applied, moved past the table value)
+ * the first time this node uses it; after that every number is a single lock-free call.
+ */
+@Slf4j
+@Service
+public class NativeSequenceAllocator {
+
+    private final NativeSequenceRepository nativeSequenceRepository;
+    private final TransactionTemplate prepareTransaction;
+    private final int cacheSize;
+    private final ConcurrentMap<String, Optional<String>> preparedPrefixes = new ConcurrentHashMap<>();
+
+    public NativeSequenceAllocator(NativeSequenceRepository nativeSequenceRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${minibank.sequence.native-cache:20}") int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Sequence cache size must be at least 1");
+        }
+        this.nativeSequenceRepository = nativeSequenceRepository;
+        this.cacheSize = cacheSize;
+        this.prepareTransaction = new TransactionTemplate(transactionManager);
+        this.prepareTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public SequenceValue next(String sequenceName, String prefix) {
+        Optional<String> storedPrefix = preparedPrefixes.computeIfAbsent(sequenceName, name -> prepare(name, prefix));
+        return SequenceValue.of(storedPrefix.orElse(null), nativeSequenceRepository.nextValue(sequenceName));
+    }
+
+    public long currentValue(String sequenceName) {
+        preparedPrefixes.computeIfAbsent(sequenceName, name -> prepare(name, null));
+        return nativeSequenceRepository.currentValue(sequenceName);
+    }
+
+    public void reset(String sequenceName, long lastNumber) {
+        preparedPrefixes.computeIfAbsent(sequenceName, name -> prepare(name, null));
+        nativeSequenceRepository.reset(sequenceName, lastNumber);
+    }
+
+    private Optional<String> prepare(String sequenceName, String prefix) {
+        return prepareTransaction.execute(status -> {
+            nativeSequenceRepository.ensureSequence(sequenceName, prefix, cacheSize);
+            log.info("Sequence {} served by database sequence with cache {}", sequenceName, cacheSize);
+            return Optional.ofNullable(nativeSequenceRepository.findPrefix(sequenceName));
+        });
+    }
+}
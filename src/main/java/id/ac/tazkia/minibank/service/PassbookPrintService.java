@@ -10,11 +10,15 @@ import id.ac.tazkia.minibank.repository.PassbookRepository;
 import id.ac.tazkia.minibank.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -66,37 +70,43 @@ public class PassbookPrintService {
     }
 
     /**
-     * Get unprinted transactions for a passbook
+     * Get the next unprinted transactions of an account, oldest first, at most {@code limit}.
+     * Reads forward from the print watermark, so the cost does not grow with the account history.
      */
     @Transactional(readOnly = true)
-    public List<Transaction> getUnprintedTransactions(UUID accountId) {
-        Optional<Passbook> passbookOpt = passbookRepository.findActiveByAccountId(accountId);
-
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
-
-        List<Transaction> allTransactions = transactionRepository.findByAccountOrderByTransactionDateAsc(account);
+    public List<Transaction> getUnprintedTransactions(UUID accountId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
 
-        if (passbookOpt.isEmpty() || passbookOpt.get().getLastPrintedTransaction() == null) {
-            // No passbook or no previous print - return all transactions
-            return allTransactions;
+        Pageable firstRows = PageRequest.of(0, limit);
+        Optional<Passbook> passbookOpt = passbookRepository.findActiveByAccountId(accountId);
+        if (passbookOpt.isEmpty() || !hasWatermark(passbookOpt.get())) {
+            // No passbook or no previous print - start from the first transaction
+            return transactionRepository.findByAccountIdOrderByTransactionDateAscIdAsc(accountId, firstRows);
         }
 
         Passbook passbook = passbookOpt.get();
-        Transaction lastPrinted = passbook.getLastPrintedTransaction();
-
-        // Find transactions after the last printed one
-        boolean foundLast = false;
-        List<Transaction> unprinted = new java.util.ArrayList<>();
-        for (Transaction tx : allTransactions) {
-            if (foundLast) {
-                unprinted.add(tx);
-            } else if (tx.getId().equals(lastPrinted.getId())) {
-                foundLast = true;
-            }
+        return transactionRepository.findByAccountIdAfter(accountId, passbook.getLastPrintedTransactionDate(),
+                passbook.getLastPrintedTransaction().getId(), firstRows);
+    }
+
+    /**
+     * Count the transactions of an account that are not printed yet
+     */
+    @Transactional(readOnly = true)
+    public long countUnprintedTransactions(UUID accountId) {
+        Optional<Passbook> passbookOpt = passbookRepository.findActiveByAccountId(accountId);
+        if (passbookOpt.isEmpty() || !hasWatermark(passbookOpt.get())) {
+            return transactionRepository.countByAccountId(accountId);
         }
 
-        return unprinted;
+        Passbook passbook = passbookOpt.get();
+        return transactionRepository.countByAccountIdAfter(accountId, passbook.getLastPrintedTransactionDate(),
+                passbook.getLastPrintedTransaction().getId());
     }
 
     /**
@@ -105,18 +115,9 @@ public class PassbookPrintService {
     @Transactional(readOnly = true)
     public List<Transaction> getTransactionsForCurrentPage(UUID accountId) {
         Passbook passbook = getOrCreatePassbook(accountId);
-        List<Transaction> unprinted = getUnprintedTransactions(accountId);
-
-        int remainingLines = passbook.getRemainingLines();
-        if (remainingLines <= 0) {
-            // Need to advance to next page first
-            return Collections.emptyList();
-        }
 
-        // Return only transactions that fit on current page
-        return unprinted.stream()
-                .limit(remainingLines)
-                .toList();
+        // Empty when the page is full: need to advance to next page first
+        return getUnprintedTransactions(accountId, passbook.getRemainingLines());
     }
 
     /**
@@ -210,6 +211,24 @@ public class PassbookPrintService {
         return passbookRepository.save(newPassbook);
     }
 
+    /**
+     * Sort printed transactions into passbook order: by transaction date, then by id
+     * compared the way PostgreSQL orders UUIDs (unsigned, byte by byte)
+     */
+    public static List<Transaction> sortInPrintOrder(List<Transaction> transactions) {
+        List<Transaction> sorted = new ArrayList<>(transactions);
+        sorted.sort(Comparator.comparing(Transaction::getTransactionDate)
+                .thenComparing(Transaction::getId, (a, b) -> {
+                    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                    return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+                }));
+        return sorted;
+    }
+
+    private boolean hasWatermark(Passbook passbook) {
+        return passbook.getLastPrintedTransaction() != null && passbook.getLastPrintedTransactionDate() != null;
+    }
+
     /**
      * Get print history for a passbook
      */
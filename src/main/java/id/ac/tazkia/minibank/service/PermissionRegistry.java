@@ -0,0 +1,179 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.repository.PermissionCatalogRepository;
+import id.ac.tazkia.minibank.util.PermissionSet;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Permissions compiled for constant-time checks. Every permission code is interned to a
+ * small integer id, and the grants of each active role are compiled into an immutable
+ * {@link PermissionSet}. The union over a user's roles is compiled on the user's first
+ * check and kept here, keyed by username and roles, together with the matching granted
+ * authorities, so a check is a map lookup and a bit test.
+ *
+ * <p>ROLE and PERMISSION changes rebuild the whole snapshot, swap it in at once and drop
+ * every compiled user, so a check never sees half of a change. Ids are kept across
+ * rebuilds. Changed grants apply to users who are already logged in: checks here see them
+ * at once, and {@link id.ac.tazkia.minibank.config.PermissionRefreshFilter} replaces the
+ * authorities of their authentication on their next request.
+ */
+@Slf4j
+@Service
+public class PermissionRegistry implements CacheInvalidationListener {
+
+    private final PermissionCatalogRepository permissionCatalogRepository;
+
+    private volatile Snapshot snapshot;
+    private final ConcurrentMap<UserKey, UserPermissions> users = new ConcurrentHashMap<>();
+
+    public PermissionRegistry(PermissionCatalogRepository permissionCatalogRepository) {
+        this.permissionCatalogRepository = permissionCatalogRepository;
+    }
+
+    /** Id of the permission code, or -1 when there is no such permission. */
+    public int idOf(String permissionCode) {
+        Integer id = current().getPermissionIds().get(permissionCode);
+        return id == null ? -1 : id;
+    }
+
+    /** Union of the permissions of the active roles of the user. */
+    public PermissionSet permissionsOf(AuthenticatedUser user) {
+        return compiled(user).getPermissions();
+    }
+
+    /**
+     * The user's permission codes as granted authorities, the same set instance until
+     * the grants change.
+     */
+    public Set<GrantedAuthority> authoritiesOf(AuthenticatedUser user) {
+        return compiled(user).getAuthorities();
+    }
+
+    /**
+     * Whether the authenticated user holds the permission. Principals not created by the
+     * login, such as mock users in tests, are checked against their authorities.
+     */
+    public boolean hasPermission(Authentication authentication, String permissionCode) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            int id = idOf(permissionCode);
+            return id >= 0 && permissionsOf(user).contains(id);
+        }
+        return authentication.getAuthorities().stream()
+            .anyMatch(authority -> permissionCode.equals(authority.getAuthority()));
+    }
+
+    /** Reloads permissions and role grants and replaces the snapshot in one step. */
+    public synchronized void rebuild() {
+        Snapshot previous = snapshot;
+        Map<String, Integer> permissionIds = previous == null
+            ? new HashMap<>() : new HashMap<>(previous.getPermissionIds());
+        for (String code : permissionCatalogRepository.findPermissionCodes()) {
+            permissionIds.putIfAbsent(code, permissionIds.size());
+        }
+
+        Map<String, List<Integer>> grants = new HashMap<>();
+        permissionCatalogRepository.forEachActiveRolePermission((roleCode, permissionCode) -> {
+            Integer id = permissionIds.get(permissionCode);
+            if (id != null) {
+                grants.computeIfAbsent(roleCode, k -> new ArrayList<>()).add(id);
+            }
+        });
+        Map<String, PermissionSet> rolePermissions = new HashMap<>();
+        grants.forEach((roleCode, ids) -> rolePermissions.put(roleCode, PermissionSet.of(ids)));
+
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        snapshot = new Snapshot(version, Map.copyOf(permissionIds), Map.copyOf(rolePermissions));
+        users.clear();
+        log.debug("Permission snapshot {} compiled: {} permissions, {} active roles",
+            version, permissionIds.size(), rolePermissions.size());
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        switch (entityType) {
+            case ROLE, PERMISSION -> rebuild();
+            default -> {
+                // Role grants do not depend on other entities
+            }
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    // A user compiled against an older snapshot, by a check racing a rebuild, is compiled again
+    private UserPermissions compiled(AuthenticatedUser user) {
+        Snapshot current = current();
+        UserKey key = new UserKey(user.getUsername(), user.getRoleCodes());
+        UserPermissions compiled = users.get(key);
+        if (compiled == null || compiled.getVersion() != current.getVersion()) {
+            compiled = compile(current, user.getRoleCodes());
+            users.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    private static UserPermissions compile(Snapshot snapshot, Collection<String> roleCodes) {
+        PermissionSet permissions = PermissionSet.EMPTY;
+        for (String roleCode : roleCodes) {
+            PermissionSet granted = snapshot.getRolePermissions().get(roleCode);
+            if (granted != null) {
+                permissions = permissions.union(granted);
+            }
+        }
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        PermissionSet granted = permissions;
+        snapshot.getPermissionIds().forEach((code, id) -> {
+            if (granted.contains(id)) {
+                authorities.add(new SimpleGrantedAuthority(code));
+            }
+        });
+        return new UserPermissions(snapshot.getVersion(), permissions, Set.copyOf(authorities));
+    }
+
+    @lombok.Value
+    private static class UserKey {
+        String username;
+        List<String> roleCodes;
+    }
+
+    /** Permissions of a user and the snapshot they were compiled against. */
+    @lombok.Value
+    private static class UserPermissions {
+        long version;
+        PermissionSet permissions;
+        Set<GrantedAuthority> authorities;
+    }
+
+    @lombok.Value
+    private static class Snapshot {
+        long version;
+        Map<String, Integer> permissionIds;
+        Map<String, PermissionSet> rolePermissions;
+    }
+}
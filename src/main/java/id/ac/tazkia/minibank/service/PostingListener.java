@@ -0,0 +1,15 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.List;
+
+import id.ac.tazkia.minibank.dto.PostingResult;
+
+/**
+ * Hook invoked by PostingService once a posting has committed, with all of its legs.
+ * Implementations must be cheap; they run on the posting thread.
+ */
+@FunctionalInterface
+public interface PostingListener {
+    
+    void onPosted(List<PostingResult> legs);
+}
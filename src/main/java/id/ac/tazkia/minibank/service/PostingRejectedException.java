@@ -0,0 +1,33 @@
+package id.ac.tazkia.minibank.service;
+
+/**
+ * Thrown when a posting is refused for a business reason.
+ * Extends IllegalArgumentException so existing validation handlers keep working;
+ * the reason lets REST callers map the failure to the right request field.
+ */
+public class PostingRejectedException extends IllegalArgumentException {
+    
+    private final Reason reason;
+    
+    public PostingRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+    
+    public Reason getReason() {
+        return reason;
+    }
+    
+    public boolean isAccountProblem() {
+        return reason == Reason.ACCOUNT_NOT_FOUND || reason == Reason.ACCOUNT_NOT_ACTIVE;
+    }
+    
+    public boolean isIdempotencyKeyProblem() {
+        return reason == Reason.INVALID_IDEMPOTENCY_KEY || reason == Reason.IDEMPOTENCY_KEY_REUSED;
+    }
+    
+    public enum Reason {
+        INVALID_REQUEST, ACCOUNT_NOT_FOUND, ACCOUNT_NOT_ACTIVE, INSUFFICIENT_BALANCE,
+        INVALID_IDEMPOTENCY_KEY, IDEMPOTENCY_KEY_REUSED
+    }
+}
@@ -0,0 +1,199 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single writer per account for hot accounts, enabled with
+ * {@code minibank.posting.sequencer.enabled=true}. Single-leg postings are hashed by
+ * account id onto a fixed set of partitions; each partition is drained by one virtual
+ * thread that takes whatever has queued up, at most {@code max-group-size} requests,
+ * and posts it with {@link PostingService#postGroup}. A burst on one account then costs
+ * one row lock and one balance update per group instead of one per posting, and its
+ * postings are applied in the order they were submitted.
+ *
+ * <p>Futures are completed on the partition thread after the group has committed, so
+ * callers should not chain slow work onto them without an executor of their own.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "minibank.posting.sequencer", name = "enabled", havingValue = "true")
+public class PostingSequencer implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final PostingService postingService;
+    private final AuditorAware<String> auditorAware;
+    private final int maxGroupSize;
+    private final List<BlockingQueue<PendingPosting>> partitions;
+    private final List<Thread> drainerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public PostingSequencer(PostingService postingService,
+                            AuditorAware<String> auditorAware,
+                            @Value("${minibank.posting.sequencer.partitions:8}") int partitionCount,
+                            @Value("${minibank.posting.sequencer.max-group-size:500}") int maxGroupSize,
+                            @Value("${minibank.posting.sequencer.queue-capacity:10000}") int queueCapacity) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Posting sequencer needs at least one partition");
+        }
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException("Posting sequencer group size must be at least 1");
+        }
+        if (queueCapacity < maxGroupSize) {
+            throw new IllegalArgumentException("Posting sequencer queue capacity must be at least the group size");
+        }
+        this.postingService = postingService;
+        this.auditorAware = auditorAware;
+        this.maxGroupSize = maxGroupSize;
+        this.partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new LinkedBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    /**
+     * Queues a single-leg posting behind the earlier postings of its account.
+     *
+     * @return completed with the posting once its group has committed, or exceptionally
+     *         with the PostingRejectedException {@link PostingService#post} would have
+     *         thrown; a RejectedExecutionException when the partition is full
+     */
+    public CompletableFuture<PostingResult> submit(PostingRequest request) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Posting sequencer is not running"));
+        }
+        if (request.getAccountId() == null) {
+            return CompletableFuture.failedFuture(new PostingRejectedException(
+                PostingRejectedException.Reason.INVALID_REQUEST, "Account ID is required"));
+        }
+        if (request.getCreatedBy() == null) {
+            // The partition thread has no security context of its own
+            request.setCreatedBy(auditorAware.getCurrentAuditor().orElse(null));
+        }
+        int partition = Math.floorMod(request.getAccountId().hashCode(), partitions.size());
+        PendingPosting pending = new PendingPosting(request, new CompletableFuture<>());
+        if (!partitions.get(partition).offer(pending)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                "Posting partition " + partition + " is full"));
+        }
+        return pending.getResult();
+    }
+
+    /**
+     * Submits the posting and waits for its group to commit, for callers that answer a
+     * request with the result.
+     *
+     * @throws PostingRejectedException as {@link PostingService#post} would
+     */
+    public PostingResult post(PostingRequest request) {
+        try {
+            return submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<PendingPosting> queue = partitions.get(i);
+            drainerThreads.add(Thread.ofVirtual().name("posting-sequencer-" + i).start(() -> drain(queue)));
+        }
+        log.info("Posting sequencer started with {} partition(s)", partitions.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Drainers finish what is queued before they exit
+        for (Thread thread : drainerThreads) {
+            try {
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        drainerThreads.clear();
+        // Submitted while stopping, or left behind by a drainer that did not finish in time
+        for (BlockingQueue<PendingPosting> queue : partitions) {
+            List<PendingPosting> left = new ArrayList<>();
+            queue.drainTo(left);
+            left.forEach(pending -> pending.getResult().completeExceptionally(
+                new IllegalStateException("Posting sequencer stopped before the posting was applied")));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain(BlockingQueue<PendingPosting> queue) {
+        List<PendingPosting> group = new ArrayList<>(maxGroupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPosting first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(group, maxGroupSize - 1);
+            post(group);
+            group.clear();
+        }
+    }
+
+    private void post(List<PendingPosting> group) {
+        List<PostingService.PostingOutcome> outcomes;
+        try {
+            outcomes = postingService.postGroup(group.stream().map(PendingPosting::getRequest).toList());
+        } catch (RuntimeException e) {
+            // Nothing of the group was posted
+            log.warn("Posting group of {} request(s) failed", group.size(), e);
+            group.forEach(pending -> pending.getResult().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            PostingService.PostingOutcome outcome = outcomes.get(i);
+            if (outcome.getFailure() != null) {
+                group.get(i).getResult().completeExceptionally(outcome.getFailure());
+            } else {
+                group.get(i).getResult().complete(outcome.getResult());
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class PendingPosting {
+        PostingRequest request;
+        CompletableFuture<PostingResult> result;
+    }
+}
@@ -0,0 +1,870 @@
+package id.ac.tazkia.minibank.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import id.ac.tazkia.minibank.dto.BalancePosting;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.AccountBalanceRepository;
+import id.ac.tazkia.minibank.repository.AccountBalanceStripeRepository;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Posting engine: the only component that writes {@code accounts.balance}.
+ * A posting request goes through three stages:
+ * <ol>
+ *   <li>VALIDATE - request shape checks, no database access</li>
+ *   <li>NUMBER - transaction numbers allocated in their own short transaction; with
+ *       {@code minibank.posting.transaction-numbering=BRANCH} each leg is numbered from
+ *       the partition of its account's branch</li>
+ *   <li>APPLY - conditional balance update plus journal insert per leg, in one
+ *       database transaction, legs applied in ascending account-id order</li>
+ * </ol>
+ * Each stage reports its duration to the registered {@link PostingStageListener}s, and
+ * every committed posting is handed to the registered {@link PostingListener}s.
+ *
+ * <p>A single-leg posting may carry an idempotency key. The key is claimed in the APPLY
+ * transaction before the balance update, so a repeat of a committed posting, or one
+ * racing it, returns the original result from the {@link IdempotencyKeyStore} without
+ * touching the account; replays are not handed to the listeners.
+ *
+ * <p>Single-leg postings may also arrive as a group from the {@link PostingSequencer};
+ * a group goes through the same stages once, and each of its requests ends exactly as
+ * it would have through {@link #post} in group order.
+ *
+ * <p>A TRANSFER_IN to an account with striped balances is added to one of the account's
+ * stripes instead of its row, see {@link StripedBalanceService}; its result carries no
+ * balances, which are only known once the credit is folded into the account and
+ * journaled. A debit that the account row cannot cover folds the stripes first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostingService {
+
+    private static final String TRANSACTION_SEQUENCE = "TRANSACTION_NUMBER";
+    private static final String TRANSACTION_PREFIX = "TXN";
+    private static final int MAX_POSTING_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 20;
+    private static final long MAX_BACKOFF_MILLIS = 500;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int MAX_BALANCE_STRIPES = 64;
+    // Marks a group leg whose idempotency key turned out to be posted already
+    private static final PostingOutcome KEY_TAKEN = new PostingOutcome(null, null);
+    private static final Fold NOTHING_FOLDED = new Fold(BigDecimal.ZERO, null);
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final SequenceNumberService sequenceNumberService;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final AccountBalanceStripeRepository accountBalanceStripeRepository;
+    private final BalanceStripeRegistry balanceStripeRegistry;
+    private final List<PostingStageListener> stageListeners;
+    private final List<PostingListener> postingListeners;
+
+    @Value("${minibank.posting.transaction-numbering:GLOBAL}")
+    private TransactionNumbering transactionNumbering = TransactionNumbering.GLOBAL;
+
+    @Value("${minibank.posting.batch-chunk-size:1000}")
+    private int batchChunkSize = 1000;
+
+    /**
+     * Posts a single-leg movement (deposit, withdrawal, fee).
+     *
+     * @return the new posting, or the original one marked as replayed when the
+     *         request's idempotency key has already been posted
+     * @throws PostingRejectedException if the request is invalid, the account is
+     *         missing or inactive, a debit would overdraw the account, or the
+     *         idempotency key was posted for a different request
+     */
+    public PostingResult post(PostingRequest request) {
+        long stageStart = System.nanoTime();
+        validate(request);
+        if (isTransferLeg(request.getTransactionType())) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Transfer legs must be posted together");
+        }
+        boolean idempotent = request.getIdempotencyKey() != null;
+        if (idempotent) {
+            Optional<PostingResult> replay = idempotencyKeyStore.findRecent(request);
+            if (replay.isPresent()) {
+                return replay.get();
+            }
+        }
+        stageStart = stageCompleted(Stage.VALIDATE, 1, stageStart);
+
+        List<String> numbers = allocateNumbers(List.of(request));
+        stageStart = stageCompleted(Stage.NUMBER, 1, stageStart);
+
+        List<PostingResult> results;
+        try {
+            results = applyWithRetry(List.of(request), numbers);
+        } catch (IdempotencyKeyTakenException e) {
+            // Posted by another node, an evicted entry, or an attempt that committed while this one waited
+            log.debug("Idempotency key {} already posted, replaying", request.getIdempotencyKey());
+            return idempotencyKeyStore.find(request).orElseThrow(() -> new IllegalStateException(
+                "Idempotency key " + request.getIdempotencyKey() + " is claimed but has no posting"));
+        }
+        stageCompleted(Stage.APPLY, 1, stageStart);
+        if (idempotent) {
+            idempotencyKeyStore.remember(request, results.get(0));
+        }
+        posted(results);
+        return results.get(0);
+    }
+
+    /**
+     * Posts both legs of a transfer atomically.
+     * Rows are locked in ascending account-id order regardless of transfer direction,
+     * so concurrent A-to-B and B-to-A transfers queue instead of deadlocking.
+     *
+     * @return the debit and credit results, in that order
+     */
+    public List<PostingResult> postTransfer(PostingRequest debitLeg, PostingRequest creditLeg) {
+        long stageStart = System.nanoTime();
+        validateTransfer(debitLeg, creditLeg);
+        stageStart = stageCompleted(Stage.VALIDATE, 2, stageStart);
+
+        List<String> numbers = allocateNumbers(List.of(debitLeg, creditLeg));
+        stageStart = stageCompleted(Stage.NUMBER, 2, stageStart);
+
+        List<PostingResult> results = applyWithRetry(List.of(debitLeg, creditLeg), numbers);
+        stageCompleted(Stage.APPLY, 2, stageStart);
+        posted(results);
+        return results;
+    }
+
+    /**
+     * Posts many transfers out of one account, such as a payroll, in one database
+     * transaction. Every account involved is locked up front in the same order as
+     * {@link #postTransfer}; the source is debited once for the total, destinations are
+     * credited a chunk of accounts per statement, and the journal and daily snapshots are
+     * written with batched inserts. Each transfer is still journaled as its own
+     * TRANSFER_OUT and TRANSFER_IN pair, with running balances in input order.
+     *
+     * @param debitLegs TRANSFER_OUT legs, all from the same account
+     * @param creditLegs TRANSFER_IN legs, paired with the debit legs by position
+     * @return the debit and credit results of each transfer by position; empty for a
+     *         transfer refused because its destination is missing or not active
+     * @throws PostingRejectedException if a leg is invalid, or the source account is
+     *         missing, inactive or cannot cover the total; nothing is posted then
+     */
+    public List<List<PostingResult>> postTransferBatch(List<PostingRequest> debitLegs, List<PostingRequest> creditLegs) {
+        long stageStart = System.nanoTime();
+        if (debitLegs.isEmpty() || debitLegs.size() != creditLegs.size()) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Transfer batch requires one credit leg per debit leg");
+        }
+        UUID sourceAccountId = debitLegs.get(0).getAccountId();
+        for (int i = 0; i < debitLegs.size(); i++) {
+            validateTransfer(debitLegs.get(i), creditLegs.get(i));
+            if (!sourceAccountId.equals(debitLegs.get(i).getAccountId())) {
+                throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                    "All transfers of a batch must come from the same account");
+            }
+        }
+        int legs = debitLegs.size() * 2;
+        stageStart = stageCompleted(Stage.VALIDATE, legs, stageStart);
+
+        List<String> debitNumbers = allocateNumbers(debitLegs);
+        List<String> creditNumbers = allocateNumbers(creditLegs);
+        stageStart = stageCompleted(Stage.NUMBER, legs, stageStart);
+
+        List<List<PostingResult>> results = withRetry(
+            "batch of " + debitLegs.size() + " transfers from " + sourceAccountId,
+            () -> applyBatch(debitLegs, creditLegs, debitNumbers, creditNumbers));
+        stageCompleted(Stage.APPLY, legs, stageStart);
+        for (List<PostingResult> transfer : results) {
+            if (!transfer.isEmpty()) {
+                posted(transfer);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Posts a group of single-leg movements in one database transaction, with the outcome
+     * each would have had through {@link #post} in list order. Every account of the group
+     * is locked once, each leg is checked against the running balance left by the legs
+     * before it, each account's balance is updated once for the whole group, and the
+     * journal and daily snapshots are written with batched inserts. A rejected leg does
+     * not affect the others.
+     *
+     * @return the outcome of each request by position
+     */
+    public List<PostingOutcome> postGroup(List<PostingRequest> requests) {
+        long stageStart = System.nanoTime();
+        PostingOutcome[] outcomes = new PostingOutcome[requests.size()];
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            PostingRequest request = requests.get(i);
+            try {
+                validate(request);
+                if (isTransferLeg(request.getTransactionType())) {
+                    throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                        "Transfer legs must be posted together");
+                }
+                Optional<PostingResult> replay = request.getIdempotencyKey() != null
+                    ? idempotencyKeyStore.findRecent(request) : Optional.empty();
+                if (replay.isPresent()) {
+                    outcomes[i] = PostingOutcome.posted(replay.get());
+                } else {
+                    positions.add(i);
+                }
+            } catch (PostingRejectedException e) {
+                outcomes[i] = PostingOutcome.failed(e);
+            }
+        }
+        if (positions.isEmpty()) {
+            return Arrays.asList(outcomes);
+        }
+        List<PostingRequest> legs = positions.stream().map(requests::get).toList();
+        stageStart = stageCompleted(Stage.VALIDATE, legs.size(), stageStart);
+
+        List<String> numbers = allocateNumbers(legs);
+        stageStart = stageCompleted(Stage.NUMBER, legs.size(), stageStart);
+
+        List<PostingOutcome> applied = withRetry("group of " + legs.size() + " postings",
+            () -> applyGroup(legs, numbers));
+        stageCompleted(Stage.APPLY, legs.size(), stageStart);
+        List<PostingResult> results = new ArrayList<>(legs.size());
+        for (int j = 0; j < legs.size(); j++) {
+            PostingRequest leg = legs.get(j);
+            PostingOutcome outcome = applied.get(j);
+            if (outcome == KEY_TAKEN) {
+                outcome = replayOf(leg);
+            } else if (outcome.getResult() != null) {
+                if (leg.getIdempotencyKey() != null) {
+                    idempotencyKeyStore.remember(leg, outcome.getResult());
+                }
+                results.add(outcome.getResult());
+            }
+            outcomes[positions.get(j)] = outcome;
+        }
+        for (PostingResult result : results) {
+            posted(List.of(result));
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Folds the credits on the account's balance stripes into its balance and journals
+     * them, with the running balances at the fold.
+     *
+     * @return the amount folded, zero when the stripes were empty
+     */
+    public BigDecimal foldStripes(UUID accountId) {
+        return withRetry("fold of " + accountId, () -> accountBalanceRepository.lockBalance(accountId)
+            .map(balance -> fold(accountId, balance).getAmount())
+            .orElse(BigDecimal.ZERO));
+    }
+
+    /**
+     * Gives an active account {@code stripes} balance stripes, or takes them away with zero,
+     * after folding what is on its current stripes. The caller announces the change.
+     */
+    public void setBalanceStripes(UUID accountId, int stripes) {
+        if (stripes < 0 || stripes > MAX_BALANCE_STRIPES) {
+            throw new IllegalArgumentException("Balance stripes must be between 0 and " + MAX_BALANCE_STRIPES);
+        }
+        withRetry("restriping of " + accountId, () -> {
+            BalancePosting account = accountBalanceRepository.lockActiveAccounts(List.of(accountId)).get(accountId);
+            if (account == null) {
+                throw new IllegalArgumentException(accountRepository.existsById(accountId)
+                    ? "Account is not active: " + accountId : "Account not found: " + accountId);
+            }
+            fold(accountId, account.getBalanceBefore());
+            accountBalanceStripeRepository.replaceStripes(accountId, stripes);
+            return null;
+        });
+        log.info("Account {} now has {} balance stripe(s)", accountId, stripes);
+    }
+
+    private void validateTransfer(PostingRequest debitLeg, PostingRequest creditLeg) {
+        validate(debitLeg);
+        validate(creditLeg);
+        if (debitLeg.getTransactionType() != Transaction.TransactionType.TRANSFER_OUT
+                || creditLeg.getTransactionType() != Transaction.TransactionType.TRANSFER_IN) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Transfer requires a TRANSFER_OUT and a TRANSFER_IN leg");
+        }
+        if (debitLeg.getAmount().compareTo(creditLeg.getAmount()) != 0) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Transfer legs must have the same amount");
+        }
+        if (debitLeg.getAccountId().equals(creditLeg.getAccountId())) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Cannot transfer to the same account");
+        }
+        if (debitLeg.getIdempotencyKey() != null || creditLeg.getIdempotencyKey() != null) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Idempotency keys are only supported for single-leg postings");
+        }
+    }
+
+    private void validate(PostingRequest request) {
+        if (request.getAccountId() == null) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST, "Account ID is required");
+        }
+        if (request.getTransactionType() == null) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST, "Transaction type is required");
+        }
+        if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_REQUEST,
+                "Amount must be greater than zero");
+        }
+        String idempotencyKey = request.getIdempotencyKey();
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new PostingRejectedException(PostingRejectedException.Reason.INVALID_IDEMPOTENCY_KEY,
+                "Idempotency key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
+
+    private List<String> allocateNumbers(List<PostingRequest> legs) {
+        // Outside the APPLY transaction so the sequence row is never held while account rows are locked
+        Map<UUID, Optional<String>> branchCodes = new HashMap<>();
+        return legs.stream().map(leg -> allocateNumber(leg, branchCodes)).toList();
+    }
+
+    private String allocateNumber(PostingRequest leg, Map<UUID, Optional<String>> branchCodes) {
+        if (transactionNumbering == TransactionNumbering.BRANCH) {
+            Optional<String> branchCode = branchCodes.computeIfAbsent(
+                leg.getAccountId(), accountRepository::findBranchCodeById);
+            if (branchCode.isPresent()) {
+                return sequenceNumberService.generateNextSequenceForBranch(
+                    TRANSACTION_SEQUENCE, TRANSACTION_PREFIX, branchCode.get());
+            }
+            // Unknown account: APPLY rejects it, the global number is simply skipped
+        }
+        return sequenceNumberService.generateNextSequence(TRANSACTION_SEQUENCE, TRANSACTION_PREFIX);
+    }
+
+    private List<PostingResult> applyWithRetry(List<PostingRequest> legs, List<String> numbers) {
+        return withRetry(numbers, () -> applyLegs(legs, numbers));
+    }
+
+    private <T> T withRetry(Object posting, Supplier<T> apply) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> apply.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_POSTING_ATTEMPTS) {
+                    log.error("Posting {} failed after {} attempts", posting, attempt, e);
+                    throw e;
+                }
+                long backoff = backoffMillis(attempt);
+                log.warn("Posting {} hit lock contention (attempt {}), retrying in {}ms: {}",
+                    posting, attempt, backoff, e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    private List<PostingResult> applyLegs(List<PostingRequest> legs, List<String> numbers) {
+        LocalDateTime postedAt = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        PostingResult[] results = new PostingResult[legs.size()];
+
+        // Deterministic lock order across every multi-leg posting
+        List<Integer> applyOrder = IntStream.range(0, legs.size()).boxed()
+            .sorted(Comparator.comparing(i -> legs.get(i).getAccountId()))
+            .toList();
+
+        for (int i : applyOrder) {
+            PostingRequest leg = legs.get(i);
+            UUID transactionId = UUID.randomUUID();
+            String createdBy = leg.getCreatedBy() != null ? leg.getCreatedBy() : auditor;
+            BigDecimal delta = isDebit(leg.getTransactionType()) ? leg.getAmount().negate() : leg.getAmount();
+
+            // Before the balance update, so a repeat never locks the account row
+            if (leg.getIdempotencyKey() != null && !idempotencyKeyStore.claim(leg.getIdempotencyKey(), transactionId)) {
+                throw new IdempotencyKeyTakenException();
+            }
+
+            if (leg.getTransactionType() == Transaction.TransactionType.TRANSFER_IN) {
+                OptionalInt stripe = balanceStripeRegistry.pickStripe(leg.getAccountId());
+                Optional<BalancePosting> credited = stripe.isPresent()
+                    ? accountBalanceStripeRepository.credit(transactionId, numbers.get(i), leg, stripe.getAsInt(),
+                        postedAt, createdBy)
+                    : Optional.empty();
+                if (credited.isPresent()) {
+                    results[i] = toResult(transactionId, numbers.get(i), leg, credited.get(), postedAt);
+                    continue;
+                }
+                // Not striped, not active, or restriped meanwhile: the account row decides
+            }
+
+            Optional<BalancePosting> posting = accountBalanceRepository.applyPosting(
+                transactionId, numbers.get(i), leg, delta, postedAt, createdBy);
+            Fold fold = posting.isEmpty() && delta.signum() < 0 ? foldBeforeDebit(leg.getAccountId()) : NOTHING_FOLDED;
+            if (fold.getAmount().signum() > 0) {
+                postedAt = fold.getNextPostingDate();
+                posting = accountBalanceRepository.applyPosting(
+                    transactionId, numbers.get(i), leg, delta, postedAt, createdBy);
+            }
+            if (posting.isEmpty()) {
+                // Throwing rolls back any leg already applied in this transaction
+                throw rejectionFor(leg);
+            }
+            results[i] = toResult(transactionId, numbers.get(i), leg, posting.get(), postedAt);
+        }
+
+        log.debug("Posted {} leg(s): {}", legs.size(), numbers);
+        return Arrays.asList(results);
+    }
+
+    private List<List<PostingResult>> applyBatch(List<PostingRequest> debitLegs, List<PostingRequest> creditLegs,
+                                                 List<String> debitNumbers, List<String> creditNumbers) {
+        LocalDateTime postedAt = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        PostingRequest firstDebit = debitLegs.get(0);
+        UUID sourceAccountId = firstDebit.getAccountId();
+
+        // Ascending account-id order, as in applyLegs, so batches and single postings queue instead of deadlocking
+        List<UUID> accountIds = Stream.concat(Stream.of(sourceAccountId), creditLegs.stream().map(PostingRequest::getAccountId))
+            .distinct().sorted().toList();
+        Map<UUID, BalancePosting> active = accountBalanceRepository.lockActiveAccounts(accountIds);
+        if (!active.containsKey(sourceAccountId)) {
+            throw rejectionFor(firstDebit);
+        }
+
+        // Total per destination, credited in ascending id order
+        Map<UUID, BigDecimal> credits = new TreeMap<>();
+        for (PostingRequest credit : creditLegs) {
+            if (active.containsKey(credit.getAccountId())) {
+                credits.merge(credit.getAccountId(), credit.getAmount(), BigDecimal::add);
+            }
+        }
+        if (credits.isEmpty()) {
+            return creditLegs.stream().<List<PostingResult>>map(credit -> List.of()).toList();
+        }
+        BigDecimal total = credits.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        Optional<BalancePosting> debited = accountBalanceRepository.applyDelta(sourceAccountId, total.negate());
+        Fold fold = debited.isEmpty() ? foldBeforeDebit(sourceAccountId) : NOTHING_FOLDED;
+        if (fold.getAmount().signum() > 0) {
+            postedAt = fold.getNextPostingDate();
+            debited = accountBalanceRepository.applyDelta(sourceAccountId, total.negate());
+        }
+        BalancePosting source = debited.orElseThrow(() -> rejectionFor(firstDebit));
+        Map<UUID, BalancePosting> destinations = new HashMap<>();
+        List<UUID> chunkIds = new ArrayList<>(batchChunkSize);
+        List<BigDecimal> chunkAmounts = new ArrayList<>(batchChunkSize);
+        for (Map.Entry<UUID, BigDecimal> credit : credits.entrySet()) {
+            chunkIds.add(credit.getKey());
+            chunkAmounts.add(credit.getValue());
+            if (chunkIds.size() == batchChunkSize) {
+                applyCredits(chunkIds, chunkAmounts, destinations);
+            }
+        }
+        applyCredits(chunkIds, chunkAmounts, destinations);
+
+        // Running balances in input order: each account starts from its balance before the batch
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        balances.put(sourceAccountId, source.getBalanceBefore());
+        destinations.forEach((accountId, posting) -> balances.put(accountId, posting.getBalanceBefore()));
+        Map<UUID, Integer> postingCounts = new HashMap<>();
+        List<List<PostingResult>> results = new ArrayList<>(debitLegs.size());
+        List<AccountBalanceRepository.JournalEntry> journal = new ArrayList<>();
+        for (int i = 0; i < debitLegs.size(); i++) {
+            PostingRequest debit = debitLegs.get(i);
+            PostingRequest credit = creditLegs.get(i);
+            if (!destinations.containsKey(credit.getAccountId())) {
+                results.add(List.of());
+                continue;
+            }
+            PostingResult debitResult = toResult(UUID.randomUUID(), debitNumbers.get(i), debit,
+                step(source, balances, debit.getAmount().negate()), postedAt);
+            PostingResult creditResult = toResult(UUID.randomUUID(), creditNumbers.get(i), credit,
+                step(destinations.get(credit.getAccountId()), balances, credit.getAmount()), postedAt);
+            journal.add(new AccountBalanceRepository.JournalEntry(debitResult, debit.getCounterpartyAccountId(),
+                debit.getCreatedBy() != null ? debit.getCreatedBy() : auditor));
+            journal.add(new AccountBalanceRepository.JournalEntry(creditResult, credit.getCounterpartyAccountId(),
+                credit.getCreatedBy() != null ? credit.getCreatedBy() : auditor));
+            postingCounts.merge(sourceAccountId, 1, Integer::sum);
+            postingCounts.merge(credit.getAccountId(), 1, Integer::sum);
+            results.add(List.of(debitResult, creditResult));
+        }
+        accountBalanceRepository.insertJournal(journal, batchChunkSize);
+
+        List<AccountBalanceRepository.DailyMovement> movements = new ArrayList<>();
+        movements.add(new AccountBalanceRepository.DailyMovement(sourceAccountId, source.getBalanceBefore(),
+            source.getBalanceAfter(), total, BigDecimal.ZERO, postingCounts.get(sourceAccountId)));
+        destinations.forEach((accountId, posting) -> movements.add(new AccountBalanceRepository.DailyMovement(
+            accountId, posting.getBalanceBefore(), posting.getBalanceAfter(), BigDecimal.ZERO,
+            credits.get(accountId), postingCounts.get(accountId))));
+        accountBalanceRepository.rollIntoDailyBalances(postedAt.toLocalDate(), movements, batchChunkSize);
+
+        log.debug("Posted batch of {} transfer(s) from {}: {} refused", debitLegs.size(), source.getAccountNumber(),
+            debitLegs.size() - postingCounts.get(sourceAccountId));
+        return results;
+    }
+
+    private List<PostingOutcome> applyGroup(List<PostingRequest> legs, List<String> numbers) {
+        LocalDateTime postedAt = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse("SYSTEM");
+        Map<UUID, BalancePosting> accounts = accountBalanceRepository.lockActiveAccounts(
+            legs.stream().map(PostingRequest::getAccountId).distinct().sorted().toList());
+
+        // Running balances in list order: each account starts from its balance before the group
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        accounts.forEach((accountId, account) -> balances.put(accountId, account.getBalanceBefore()));
+        // Balance of each account row before the group's update, moved by stripes folded on the way
+        Map<UUID, BigDecimal> rowBalances = new HashMap<>(balances);
+        Set<UUID> folded = new HashSet<>();
+        Map<UUID, BigDecimal> debits = new HashMap<>();
+        Map<UUID, BigDecimal> credits = new HashMap<>();
+        Map<UUID, Integer> postingCounts = new HashMap<>();
+        List<PostingOutcome> outcomes = new ArrayList<>(legs.size());
+        List<AccountBalanceRepository.JournalEntry> journal = new ArrayList<>();
+        for (int i = 0; i < legs.size(); i++) {
+            PostingRequest leg = legs.get(i);
+            UUID transactionId = UUID.randomUUID();
+            // Before the checks, so a retry replays even when the balance has moved since
+            if (leg.getIdempotencyKey() != null && !idempotencyKeyStore.claim(leg.getIdempotencyKey(), transactionId)) {
+                outcomes.add(KEY_TAKEN);
+                continue;
+            }
+            BalancePosting account = accounts.get(leg.getAccountId());
+            if (account == null) {
+                outcomes.add(refused(leg, rejectionFor(leg)));
+                continue;
+            }
+            boolean debit = isDebit(leg.getTransactionType());
+            BigDecimal available = balances.get(leg.getAccountId());
+            BigDecimal delta = debit ? leg.getAmount().negate() : leg.getAmount();
+            if (available.add(delta).signum() < 0 && balanceStripeRegistry.isStriped(leg.getAccountId())
+                    && folded.add(leg.getAccountId())) {
+                // The row is already locked; the folded credits continue the group's running balance
+                Fold fold = fold(leg.getAccountId(), available);
+                BigDecimal foldedCredits = fold.getAmount();
+                if (foldedCredits.signum() > 0) {
+                    // Later legs come after the folded credits in the journal
+                    postedAt = fold.getNextPostingDate();
+                }
+                available = available.add(foldedCredits);
+                balances.put(leg.getAccountId(), available);
+                rowBalances.merge(leg.getAccountId(), foldedCredits, BigDecimal::add);
+            }
+            if (available.add(delta).signum() < 0) {
+                outcomes.add(refused(leg, new PostingRejectedException(
+                    PostingRejectedException.Reason.INSUFFICIENT_BALANCE, "Insufficient balance. Available: " + available)));
+                continue;
+            }
+            PostingResult result = toResult(transactionId, numbers.get(i), leg, step(account, balances, delta), postedAt);
+            journal.add(new AccountBalanceRepository.JournalEntry(result, leg.getCounterpartyAccountId(),
+                leg.getCreatedBy() != null ? leg.getCreatedBy() : auditor));
+            (debit ? debits : credits).merge(leg.getAccountId(), leg.getAmount(), BigDecimal::add);
+            postingCounts.merge(leg.getAccountId(), 1, Integer::sum);
+            outcomes.add(PostingOutcome.posted(result));
+        }
+        if (journal.isEmpty()) {
+            return outcomes;
+        }
+
+        // One update per account for the net movement; the rows are locked, so the checks above still hold
+        List<UUID> accountIds = new ArrayList<>(postingCounts.keySet());
+        List<BigDecimal> deltas = accountIds.stream()
+            .map(accountId -> balances.get(accountId).subtract(rowBalances.get(accountId)))
+            .toList();
+        accountBalanceRepository.applyDeltas(accountIds, deltas);
+        accountBalanceRepository.insertJournal(journal, batchChunkSize);
+
+        List<AccountBalanceRepository.DailyMovement> movements = accountIds.stream()
+            .map(accountId -> new AccountBalanceRepository.DailyMovement(accountId,
+                rowBalances.get(accountId), balances.get(accountId),
+                debits.getOrDefault(accountId, BigDecimal.ZERO), credits.getOrDefault(accountId, BigDecimal.ZERO),
+                postingCounts.get(accountId)))
+            .toList();
+        accountBalanceRepository.rollIntoDailyBalances(postedAt.toLocalDate(), movements, batchChunkSize);
+
+        log.debug("Posted group of {} leg(s) on {} account(s), {} not posted",
+            journal.size(), accountIds.size(), legs.size() - journal.size());
+        return outcomes;
+    }
+
+    /** Folds the stripes of a striped account before a debit its row could not cover. */
+    private Fold foldBeforeDebit(UUID accountId) {
+        if (!balanceStripeRegistry.isStriped(accountId)) {
+            return NOTHING_FOLDED;
+        }
+        return accountBalanceRepository.lockBalance(accountId)
+            .map(balance -> fold(accountId, balance))
+            .orElse(NOTHING_FOLDED);
+    }
+
+    /**
+     * Moves the credits on the account's stripes into its row and journals them in posting
+     * order, continuing from {@code runningBalance}. The caller holds the account row lock;
+     * the stripes are locked after it, so credits still in flight commit first.
+     *
+     * <p>The credits are journaled as of the fold, a microsecond apart, so statements and
+     * the passbook read them in the order their running balances chain and after anything
+     * already printed; the time each credit was accepted is kept in {@code accepted_date}.
+     * They count toward the daily balances of the day they were accepted, so a credit
+     * accepted before midnight and folded after it is in that day's closing balance.
+     */
+    private Fold fold(UUID accountId, BigDecimal runningBalance) {
+        BigDecimal striped = accountBalanceStripeRepository.lockStripes(accountId);
+        if (striped.signum() == 0) {
+            return NOTHING_FOLDED;
+        }
+        List<AccountBalanceRepository.JournalEntry> credits = accountBalanceStripeRepository.findCredits(accountId);
+        // Microseconds are what a TIMESTAMP column keeps
+        LocalDateTime foldedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime creditDate = foldedAt;
+        BigDecimal balance = runningBalance;
+        for (AccountBalanceRepository.JournalEntry credit : credits) {
+            PostingResult result = credit.getResult();
+            result.setAcceptedDate(result.getTransactionDate());
+            result.setTransactionDate(creditDate);
+            result.setProcessedDate(foldedAt);
+            result.setBalanceBefore(balance);
+            balance = balance.add(result.getAmount());
+            result.setBalanceAfter(balance);
+            creditDate = creditDate.plus(1, ChronoUnit.MICROS);
+        }
+        BigDecimal total = balance.subtract(runningBalance);
+        if (total.compareTo(striped) != 0) {
+            throw new IllegalStateException("Stripes of account " + accountId + " hold " + striped
+                + " but their recorded credits total " + total);
+        }
+
+        if (!accountBalanceRepository.foldStripeCredits(accountId, total)) {
+            // Frozen or closed since: the credits wait on the stripes until it is active again
+            log.warn("Not folding {} on the stripes of account {}: it is not active", total, accountId);
+            return NOTHING_FOLDED;
+        }
+        accountBalanceRepository.insertJournal(credits, batchChunkSize);
+        // Credits accepted before the day of the fold belong to the balances of the day they were accepted
+        LocalDate foldDate = foldedAt.toLocalDate();
+        Map<LocalDate, List<PostingResult>> earlier = credits.stream()
+            .map(AccountBalanceRepository.JournalEntry::getResult)
+            .filter(result -> result.getAcceptedDate().toLocalDate().isBefore(foldDate))
+            .collect(Collectors.groupingBy(result -> result.getAcceptedDate().toLocalDate(), TreeMap::new,
+                Collectors.toList()));
+        BigDecimal carried = BigDecimal.ZERO;
+        int carriedCount = 0;
+        for (Map.Entry<LocalDate, List<PostingResult>> day : earlier.entrySet()) {
+            BigDecimal dayTotal = day.getValue().stream()
+                .map(PostingResult::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            accountBalanceRepository.rollBackdatedCredits(accountId, day.getKey(), dayTotal, day.getValue().size(),
+                runningBalance.add(carried));
+            carried = carried.add(dayTotal);
+            carriedCount += day.getValue().size();
+        }
+        if (carriedCount < credits.size()) {
+            accountBalanceRepository.rollIntoDailyBalances(foldDate, List.of(
+                new AccountBalanceRepository.DailyMovement(accountId, runningBalance.add(carried), balance,
+                    BigDecimal.ZERO, total.subtract(carried), credits.size() - carriedCount)), batchChunkSize);
+        }
+        accountBalanceStripeRepository.clear(accountId);
+        log.debug("Folded {} stripe credit(s) totalling {} into account {}", credits.size(), total, accountId);
+        return new Fold(total, creditDate);
+    }
+
+    /** A group leg that was refused; its key is given back, as the rest of the group commits. */
+    private PostingOutcome refused(PostingRequest leg, PostingRejectedException e) {
+        if (leg.getIdempotencyKey() != null) {
+            idempotencyKeyStore.release(leg.getIdempotencyKey());
+        }
+        return PostingOutcome.failed(e);
+    }
+
+    /** The original posting of a group leg whose idempotency key was already posted. */
+    private PostingOutcome replayOf(PostingRequest leg) {
+        try {
+            return PostingOutcome.posted(idempotencyKeyStore.find(leg).orElseThrow(() -> new IllegalStateException(
+                "Idempotency key " + leg.getIdempotencyKey() + " is claimed but has no posting")));
+        } catch (RuntimeException e) {
+            // The rest of the group has committed; only this leg fails
+            return PostingOutcome.failed(e);
+        }
+    }
+
+    private void applyCredits(List<UUID> accountIds, List<BigDecimal> amounts, Map<UUID, BalancePosting> destinations) {
+        if (accountIds.isEmpty()) {
+            return;
+        }
+        for (BalancePosting posting : accountBalanceRepository.applyDeltas(accountIds, amounts)) {
+            destinations.put(posting.getAccountId(), posting);
+        }
+        accountIds.clear();
+        amounts.clear();
+    }
+
+    /** The next leg on {@code account} within a batch, moving its running balance by {@code delta}. */
+    private BalancePosting step(BalancePosting account, Map<UUID, BigDecimal> balances, BigDecimal delta) {
+        BalancePosting leg = new BalancePosting();
+        leg.setAccountId(account.getAccountId());
+        leg.setAccountNumber(account.getAccountNumber());
+        leg.setAccountName(account.getAccountName());
+        leg.setBranchId(account.getBranchId());
+        leg.setBalanceBefore(balances.get(account.getAccountId()));
+        leg.setBalanceAfter(leg.getBalanceBefore().add(delta));
+        balances.put(account.getAccountId(), leg.getBalanceAfter());
+        return leg;
+    }
+
+    /**
+     * Explains why the conditional update matched no row.
+     * Only runs on the rejection path, so successful postings never pay for this read.
+     */
+    private PostingRejectedException rejectionFor(PostingRequest leg) {
+        Optional<Account> accountOpt = accountRepository.findById(leg.getAccountId());
+        if (accountOpt.isEmpty()) {
+            return new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_FOUND, "Account not found");
+        }
+        Account account = accountOpt.get();
+        if (!account.isActive()) {
+            return new PostingRejectedException(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE,
+                "Account " + account.getAccountNumber() + " is not active");
+        }
+        return new PostingRejectedException(PostingRejectedException.Reason.INSUFFICIENT_BALANCE,
+            "Insufficient balance. Available: " + account.getBalance());
+    }
+
+    private PostingResult toResult(UUID transactionId, String transactionNumber, PostingRequest leg,
+                                   BalancePosting posting, LocalDateTime postedAt) {
+        PostingResult result = new PostingResult();
+        result.setTransactionId(transactionId);
+        result.setTransactionNumber(transactionNumber);
+        result.setTransactionType(leg.getTransactionType());
+        result.setAccountId(posting.getAccountId());
+        result.setAccountNumber(posting.getAccountNumber());
+        result.setAccountName(posting.getAccountName());
+        result.setBranchId(posting.getBranchId());
+        result.setAmount(leg.getAmount());
+        result.setBalanceBefore(posting.getBalanceBefore());
+        result.setBalanceAfter(posting.getBalanceAfter());
+        result.setDescription(leg.getDescription());
+        result.setReferenceNumber(leg.getReferenceNumber());
+        result.setChannel(leg.getChannel());
+        result.setTransactionDate(postedAt);
+        result.setProcessedDate(postedAt);
+        return result;
+    }
+
+    private boolean isDebit(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.WITHDRAWAL
+            || type == Transaction.TransactionType.TRANSFER_OUT
+            || type == Transaction.TransactionType.FEE;
+    }
+
+    private boolean isTransferLeg(Transaction.TransactionType type) {
+        return type == Transaction.TransactionType.TRANSFER_OUT || type == Transaction.TransactionType.TRANSFER_IN;
+    }
+
+    private long stageCompleted(Stage stage, int legs, long stageStart) {
+        long now = System.nanoTime();
+        for (PostingStageListener listener : stageListeners) {
+            listener.onStage(stage, legs, now - stageStart);
+        }
+        return now;
+    }
+
+    // The posting has committed by now; a failing listener must not make it look rejected
+    private void posted(List<PostingResult> results) {
+        for (PostingListener listener : postingListeners) {
+            try {
+                listener.onPosted(results);
+            } catch (RuntimeException e) {
+                log.warn("Posting listener {} failed for {}", listener, results, e);
+            }
+        }
+    }
+
+    private long backoffMillis(int attempt) {
+        long exponential = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1));
+        // Full jitter keeps retrying tellers from colliding again in lockstep
+        return ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS, exponential + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying posting", e);
+        }
+    }
+
+    /** Rolls back the APPLY transaction of a posting whose idempotency key is already posted. */
+    private static final class IdempotencyKeyTakenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        IdempotencyKeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /** What became of one request of a group: its posting, or why it was not posted. */
+    @lombok.Value
+    public static class PostingOutcome {
+        /** The posting, or the original one marked as replayed; null when the request failed */
+        PostingResult result;
+        /** Usually a PostingRejectedException; null when the request was posted */
+        RuntimeException failure;
+
+        static PostingOutcome posted(PostingResult result) {
+            return new PostingOutcome(result, null);
+        }
+
+        static PostingOutcome failed(RuntimeException failure) {
+            return new PostingOutcome(null, failure);
+        }
+    }
+
+    /** Stripe credits moved into an account row by a fold. */
+    @lombok.Value
+    private static class Fold {
+        BigDecimal amount;
+        /** Just after the last folded credit in the journal; null when nothing was folded */
+        LocalDateTime nextPostingDate;
+    }
+
+    public enum Stage {
+        VALIDATE, NUMBER, APPLY
+    }
+
+    public enum TransactionNumbering {
+        /** One counter for the whole bank, e.g. T3000001 */
+        GLOBAL,
+        /** One counter per branch, branch code embedded, e.g. TJKT01-0000001 */
+        BRANCH
+    }
+}
@@ -0,0 +1,11 @@
+package id.ac.tazkia.minibank.service;
+
+/**
+ * Timing hook invoked by PostingService after each stage of a posting.
+ * Implementations must be cheap and must not throw; they run on the posting thread.
+ */
+@FunctionalInterface
+public interface PostingStageListener {
+    
+    void onStage(PostingService.Stage stage, int legs, long elapsedNanos);
+}
@@ -18,6 +18,7 @@ import java.util.UUID;
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
     
     public Page<Product> findAll(Pageable pageable) {
         return productRepository.findAll(pageable);
@@ -58,7 +59,9 @@ public class ProductService {
     @Transactional
     public Product save(Product product) {
         validateProduct(product);
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, saved.getId());
+        return saved;
     }
     
     @Transactional
@@ -70,12 +73,15 @@ public class ProductService {
         if (!productRepository.existsById(product.getId())) {
             throw new IllegalArgumentException("Product with ID " + product.getId() + " not found for update");
         }
-        return productRepository.save(product);
+        Product updated = productRepository.save(product);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, updated.getId());
+        return updated;
     }
     
     @Transactional
     public void deleteById(UUID id) {
         productRepository.deleteById(id);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, id);
     }
     
     @Transactional
@@ -85,6 +91,7 @@ public class ProductService {
             Product p = product.get();
             p.setIsActive(false);
             productRepository.save(p);
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, id);
         }
     }
     
@@ -0,0 +1,72 @@
+package id.ac.tazkia.minibank.service;
+
+import id.ac.tazkia.minibank.entity.Branch;
+import id.ac.tazkia.minibank.entity.Permission;
+import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.entity.Role;
+import id.ac.tazkia.minibank.entity.RolePermission;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Eviction of the second-level cache regions holding reference data. Hibernate keeps the
+ * entity regions current for writes it performs itself on this node, but not for writes
+ * made by other nodes, nor the inverse {@code rolePermissions} collections when a
+ * {@link RolePermission} is saved or deleted on its own. Changes to reference data are
+ * published on the CacheInvalidationBus, which drops the whole group here once they commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReferenceDataCache implements CacheInvalidationListener {
+
+    public static final String PRODUCT_QUERY_REGION = "minibank.query.products";
+    public static final String BRANCH_QUERY_REGION = "minibank.query.branches";
+    public static final String RBAC_QUERY_REGION = "minibank.query.rbac";
+
+    /** Query result regions, which Hibernate only creates when a cached query first runs. */
+    public static final List<String> QUERY_REGIONS = List.of(PRODUCT_QUERY_REGION, BRANCH_QUERY_REGION, RBAC_QUERY_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onInvalidation(CacheInvalidationBus.EntityType entityType, UUID entityId) {
+        switch (entityType) {
+            case PRODUCT -> evictProducts();
+            case BRANCH -> evictBranches();
+            case ROLE, PERMISSION -> evictRolesAndPermissions();
+            default -> {
+                // Not reference data
+            }
+        }
+    }
+
+    public void evictProducts() {
+        evict(PRODUCT_QUERY_REGION, List.of(Product.class), List.of());
+    }
+
+    public void evictBranches() {
+        evict(BRANCH_QUERY_REGION, List.of(Branch.class), List.of());
+    }
+
+    public void evictRolesAndPermissions() {
+        evict(RBAC_QUERY_REGION,
+            List.of(Role.class, Permission.class, RolePermission.class),
+            List.of(Role.class.getName() + ".rolePermissions", Permission.class.getName() + ".rolePermissions"));
+    }
+
+    private void evict(String queryRegion, List<Class<?>> entities, List<String> collections) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        entities.forEach(cache::evictEntityData);
+        collections.forEach(cache::evictCollectionData);
+        cache.evictQueryRegion(queryRegion);
+        log.debug("Evicted cached reference data: {} {}", entities, queryRegion);
+    }
+}
@@ -0,0 +1,101 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import id.ac.tazkia.minibank.dto.SequenceBlock;
+import id.ac.tazkia.minibank.dto.SequenceValue;
+import id.ac.tazkia.minibank.repository.SequenceBlockRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hi/lo allocator for high-volume sequences. Each node leases a block of numbers
+ * with one UPDATE and hands them out from memory; the database is only touched
+ * again when the block runs out.
+ * <p>
+ * Numbers are unique across nodes but not gap-free (an unused block is lost on
+ * restart) and only increasing within a node.
+ */
+@Slf4j
+@Service
+public class SequenceBlockAllocator {
+
+    private final SequenceBlockRepository sequenceBlockRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final int blockSize;
+    private final ConcurrentMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> refillLocks = new ConcurrentHashMap<>();
+
+    public SequenceBlockAllocator(SequenceBlockRepository sequenceBlockRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${minibank.sequence.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Sequence block size must be at least 1");
+        }
+        this.sequenceBlockRepository = sequenceBlockRepository;
+        this.blockSize = blockSize;
+        // A lease must commit on its own: if it rolled back with the caller, another
+        // node could lease the same range while this node is still handing it out
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Drops this node's unused numbers so the next call leases from the current row value.
+     * Other nodes keep their blocks until they are exhausted.
+     */
+    public void release(String sequenceName) {
+        synchronized (refillLock(sequenceName)) {
+            leases.remove(sequenceName);
+        }
+    }
+
+    public SequenceValue next(String sequenceName, String prefix) {
+        while (true) {
+            Lease lease = leases.get(sequenceName);
+            if (lease != null) {
+                long value = lease.cursor.getAndIncrement();
+                if (value <= lease.lastNumber) {
+                    return SequenceValue.of(lease.prefix, value);
+                }
+            }
+            refill(sequenceName, prefix, lease);
+        }
+    }
+
+    private void refill(String sequenceName, String prefix, Lease exhausted) {
+        synchronized (refillLock(sequenceName)) {
+            if (leases.get(sequenceName) != exhausted) {
+                // Another thread already replaced the block while we waited
+                return;
+            }
+            SequenceBlock block = leaseTransaction.execute(
+                status -> sequenceBlockRepository.leaseBlock(sequenceName, prefix, blockSize));
+            leases.put(sequenceName, new Lease(block));
+            log.debug("Leased {} numbers {}-{}", sequenceName, block.getFirstNumber(), block.getLastNumber());
+        }
+    }
+
+    private Object refillLock(String sequenceName) {
+        return refillLocks.computeIfAbsent(sequenceName, name -> new Object());
+    }
+
+    private static final class Lease {
+        private final String prefix;
+        private final long lastNumber;
+        private final AtomicLong cursor;
+
+        private Lease(SequenceBlock block) {
+            this.prefix = block.getPrefix();
+            this.lastNumber = block.getLastNumber();
+            this.cursor = new AtomicLong(block.getFirstNumber());
+        }
+    }
+}
@@ -1,45 +1,119 @@
 package id.ac.tazkia.minibank.service;
 
+import java.time.LocalDate;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import id.ac.tazkia.minibank.dto.SequenceValue;
 import id.ac.tazkia.minibank.entity.SequenceNumber;
 import id.ac.tazkia.minibank.repository.SequenceNumberRepository;
+import id.ac.tazkia.minibank.util.SequenceNumberFormat;
 
+/**
+ * Business number generator. Each sequence is served by one engine:
+ * <ul>
+ *   <li>TABLE - the {@code sequence_numbers} row, incremented under a row lock, gap-free</li>
+ *   <li>LEASED - blocks leased by {@link SequenceBlockAllocator} ({@code minibank.sequence.leased}),
+ *       unique but with gaps where a node restarts before using up its block; opt-in</li>
+ *   <li>NATIVE - a PostgreSQL sequence via {@link NativeSequenceAllocator} ({@code minibank.sequence.native})</li>
+ * </ul>
+ * Numbers are rendered with the template in {@code minibank.sequence.format.<SEQUENCE_NAME>},
+ * falling back to {@link SequenceNumberFormat#DEFAULT_TEMPLATE}.
+ * <p>
+ * A sequence can also be partitioned by branch: each branch counts in its own row
+ * ({@code <SEQUENCE_NAME>_<BRANCH_CODE>}, same engine as the parent sequence) and the
+ * branch code is part of the number, so branches never contend with each other.
+ */
 @Service
 @Transactional
 public class SequenceNumberService {
-    
+
+    private static final String FORMAT_PROPERTY_PREFIX = "minibank.sequence.format.";
+    private static final String BRANCH_FORMAT_SUFFIX = ".branch";
+    private static final String DEFAULT_BRANCH_TEMPLATE = "{prefix}{branch}-{number:7}";
+
     private final SequenceNumberRepository sequenceNumberRepository;
-    
-    public SequenceNumberService(SequenceNumberRepository sequenceNumberRepository) {
+    private final SequenceBlockAllocator sequenceBlockAllocator;
+    private final NativeSequenceAllocator nativeSequenceAllocator;
+    private final Environment environment;
+    private final Set<String> leasedSequences;
+    private final Set<String> nativeSequences;
+    private final ConcurrentMap<String, SequenceNumberFormat> formats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Optional<String>> parentPrefixes = new ConcurrentHashMap<>();
+
+    public SequenceNumberService(SequenceNumberRepository sequenceNumberRepository,
+                                 SequenceBlockAllocator sequenceBlockAllocator,
+                                 NativeSequenceAllocator nativeSequenceAllocator,
+                                 Environment environment,
+                                 @Value("${minibank.sequence.leased:}") Set<String> leasedSequences,
+                                 @Value("${minibank.sequence.native:}") Set<String> nativeSequences) {
         this.sequenceNumberRepository = sequenceNumberRepository;
+        this.sequenceBlockAllocator = sequenceBlockAllocator;
+        this.nativeSequenceAllocator = nativeSequenceAllocator;
+        this.environment = environment;
+        this.leasedSequences = Set.copyOf(leasedSequences);
+        this.nativeSequences = Set.copyOf(nativeSequences);
+        for (String sequenceName : this.nativeSequences) {
+            if (this.leasedSequences.contains(sequenceName)) {
+                throw new IllegalStateException("Sequence " + sequenceName + " cannot be both leased and native");
+            }
+        }
     }
-    
+
     public String generateNextSequence(String sequenceName, String prefix) {
-        SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
-        String result = sequence.generateNextSequence();
-        sequenceNumberRepository.save(sequence);
-        return result;
+        return generateNextSequence(sequenceName, prefix, null);
     }
-    
+
     public String generateNextSequence(String sequenceName) {
         return generateNextSequence(sequenceName, null);
     }
-    
+
+    /**
+     * Generates the next number, filling the {@code {branch}} segment of the
+     * sequence's template with {@code branchCode}.
+     */
+    public String generateNextSequence(String sequenceName, String prefix, String branchCode) {
+        SequenceValue value = allocate(sequenceName, sequenceName, prefix);
+        return formatFor(sequenceName, SequenceNumberFormat.DEFAULT_TEMPLATE)
+            .format(value.getPrefix(), branchCode, LocalDate.now(), value.getNumber());
+    }
+
+    /**
+     * Generates the next number from the branch's own partition of {@code sequenceName}.
+     * Rendered with {@code minibank.sequence.format.<SEQUENCE_NAME>.branch}, which must
+     * contain {@code {branch}} for numbers to stay unique across branches.
+     */
+    public String generateNextSequenceForBranch(String sequenceName, String prefix, String branchCode) {
+        if (branchCode == null || branchCode.isBlank()) {
+            throw new IllegalArgumentException("Branch code is required for branch sequence " + sequenceName);
+        }
+        // New partitions inherit the parent's stored prefix rather than the caller's default
+        String partitionPrefix = parentPrefixes.computeIfAbsent(sequenceName, name ->
+            sequenceNumberRepository.findBySequenceName(name).map(SequenceNumber::getPrefix)).orElse(prefix);
+        SequenceValue value = allocate(branchPartition(sequenceName, branchCode), sequenceName, partitionPrefix);
+        return formatFor(sequenceName + BRANCH_FORMAT_SUFFIX, DEFAULT_BRANCH_TEMPLATE)
+            .format(value.getPrefix(), branchCode, LocalDate.now(), value.getNumber());
+    }
+
+    public static String branchPartition(String sequenceName, String branchCode) {
+        return sequenceName + "_" + branchCode.toUpperCase().replaceAll("[^A-Z0-9]", "_");
+    }
+
     public Long getNextNumber(String sequenceName, String prefix) {
-        SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
-        Long result = sequence.getNextNumber();
-        sequenceNumberRepository.save(sequence);
-        return result;
+        return allocate(sequenceName, sequenceName, prefix).getNumber();
     }
-    
+
     public Long getNextNumber(String sequenceName) {
         return getNextNumber(sequenceName, null);
     }
-    
+
     public void resetSequence(String sequenceName, Long startNumber) {
         Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
         if (sequenceOpt.isPresent()) {
@@ -47,16 +121,50 @@ public class SequenceNumberService {
             sequence.resetSequence(startNumber);
             sequenceNumberRepository.save(sequence);
         }
+        if (nativeSequences.contains(sequenceName)) {
+            nativeSequenceAllocator.reset(sequenceName, startNumber);
+        }
+        sequenceBlockAllocator.release(sequenceName);
     }
-    
+
+    /**
+     * Last number handed out. For leased sequences this is the end of the highest block
+     * leased by any node; for native sequences the last value taken from the database sequence.
+     */
     public Long getCurrentNumber(String sequenceName) {
+        if (nativeSequences.contains(sequenceName)) {
+            return nativeSequenceAllocator.currentValue(sequenceName);
+        }
         Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
         return sequenceOpt.map(SequenceNumber::getLastNumber).orElse(0L);
     }
-    
+
+    /**
+     * @param engineSequence the configured sequence whose engine serves {@code sequenceName};
+     *        differs from it only for branch partitions
+     */
+    private SequenceValue allocate(String sequenceName, String engineSequence, String prefix) {
+        if (nativeSequences.contains(engineSequence)) {
+            return nativeSequenceAllocator.next(sequenceName, prefix);
+        }
+        if (leasedSequences.contains(engineSequence)) {
+            return sequenceBlockAllocator.next(sequenceName, prefix);
+        }
+        SequenceNumber sequence = getOrCreateSequence(sequenceName, prefix);
+        Long number = sequence.getNextNumber();
+        sequenceNumberRepository.save(sequence);
+        return SequenceValue.of(sequence.getPrefix(), number);
+    }
+
+    private SequenceNumberFormat formatFor(String formatKey, String defaultTemplate) {
+        return formats.computeIfAbsent(formatKey, key -> SequenceNumberFormat.compile(
+            environment.getProperty(FORMAT_PROPERTY_PREFIX + key, defaultTemplate)));
+    }
+
     private SequenceNumber getOrCreateSequence(String sequenceName, String prefix) {
-        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceName(sequenceName);
-        
+        // Row lock prevents two concurrent postings from reading the same last number
+        Optional<SequenceNumber> sequenceOpt = sequenceNumberRepository.findBySequenceNameWithLock(sequenceName);
+
         if (sequenceOpt.isPresent()) {
             return sequenceOpt.get();
         } else {
@@ -67,4 +175,4 @@ public class SequenceNumberService {
             return sequenceNumberRepository.save(sequence);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package id.ac.tazkia.minibank.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.repository.AccountBalanceStripeRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Striped balances for very hot accounts, such as corporate collection accounts that
+ * receive hundreds of transfers a second. An account opted in with {@link #setStripes},
+ * which {@code PUT /api/accounts/{id}/balance-stripes} calls, gets K stripe rows; each
+ * incoming transfer is added to one of them at random, so concurrent credits wait on
+ * K rows instead of one. The stripes are folded into {@code accounts.balance} every
+ * fold interval, and at once when a debit needs them, so the account balance trails
+ * the credits by at most the interval. The account views show {@link #visibleBalance},
+ * which includes the stripes and is cached for the interval.
+ *
+ * <p>Folding journals the credits, so their transactions appear in statements once
+ * folded. They are dated at the fold, which keeps statements and passbooks in running
+ * balance order; the time each credit was accepted is kept as its accepted date.
+ */
+@Slf4j
+@Service
+public class StripedBalanceService implements SmartLifecycle {
+
+    private final PostingService postingService;
+    private final AccountBalanceStripeRepository accountBalanceStripeRepository;
+    private final BalanceStripeRegistry balanceStripeRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final long foldIntervalMillis;
+    private final Cache<UUID, BigDecimal> visibleBalances;
+
+    private volatile boolean running;
+    private Thread folderThread;
+
+    public StripedBalanceService(PostingService postingService,
+                                 AccountBalanceStripeRepository accountBalanceStripeRepository,
+                                 BalanceStripeRegistry balanceStripeRegistry,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 @Value("${minibank.posting.stripes.fold-interval-millis:1000}") long foldIntervalMillis) {
+        if (foldIntervalMillis < 10) {
+            throw new IllegalArgumentException("Stripe fold interval must be at least 10ms");
+        }
+        this.postingService = postingService;
+        this.accountBalanceStripeRepository = accountBalanceStripeRepository;
+        this.balanceStripeRegistry = balanceStripeRegistry;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.foldIntervalMillis = foldIntervalMillis;
+        this.visibleBalances = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(foldIntervalMillis))
+            .maximumSize(10_000)
+            .build();
+    }
+
+    /**
+     * Gives the account {@code stripes} balance stripes, 1 to 64, or none with zero.
+     * Whatever is on the current stripes is folded first.
+     */
+    public void setStripes(UUID accountId, int stripes) {
+        postingService.setBalanceStripes(accountId, stripes);
+        visibleBalances.invalidate(accountId);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, accountId);
+    }
+
+    /**
+     * True when the account takes credits on balance stripes. Such an account cannot be
+     * closed: its stripes are removed first, which folds what is on them.
+     */
+    public boolean hasStripes(UUID accountId) {
+        return accountBalanceStripeRepository.hasStripes(accountId);
+    }
+
+    /**
+     * Balance of the account including the credits not folded yet; at most one fold
+     * interval old.
+     */
+    public BigDecimal visibleBalance(UUID accountId) {
+        return visibleBalances.get(accountId, id -> accountBalanceStripeRepository.findVisibleBalance(id)
+            .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id)));
+    }
+
+    /** Balance to show for a loaded account: its own unless its balance is striped. */
+    public BigDecimal visibleBalance(Account account) {
+        return balanceStripeRegistry.isStriped(account.getId()) ? visibleBalance(account.getId()) : account.getBalance();
+    }
+
+    /** Balances to show for a page of accounts, by id; only striped accounts cost a lookup. */
+    public Map<UUID, BigDecimal> visibleBalances(Iterable<Account> accounts) {
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        for (Account account : accounts) {
+            balances.put(account.getId(), visibleBalance(account));
+        }
+        return balances;
+    }
+
+    /**
+     * Folds the stripes of every account with credits on them.
+     *
+     * @return number of accounts folded
+     */
+    public int foldAll() {
+        int folded = 0;
+        for (UUID accountId : accountBalanceStripeRepository.findAccountsToFold()) {
+            if (postingService.foldStripes(accountId).signum() > 0) {
+                folded++;
+            }
+        }
+        return folded;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        folderThread = Thread.ofVirtual().name("balance-stripe-folder").start(this::runFolder);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (folderThread != null) {
+            folderThread.interrupt();
+            folderThread = null;
+        }
+        // Credits left on the stripes are recorded and folded after the restart
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runFolder() {
+        while (running) {
+            try {
+                Thread.sleep(foldIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                int folded = foldAll();
+                if (folded > 0) {
+                    log.debug("Folded the balance stripes of {} account(s)", folded);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Balance stripe fold failed, retrying in {}ms", foldIntervalMillis, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.TransactionCursor;
+import id.ac.tazkia.minibank.dto.TransactionFacets;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.TransactionPageRepository;
+import id.ac.tazkia.minibank.repository.TransactionSearchRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read side of the transaction list and transaction history, paginated by cursor.
+ * Text searches go through the full-text index ({@link TransactionSearchRepository}).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TransactionQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TransactionPageRepository transactionPageRepository;
+    private final TransactionSearchRepository transactionSearchRepository;
+    private final TransactionSearchIndexer transactionSearchIndexer;
+
+    /**
+     * Returns the page of transactions, newest first, that follows {@code after}
+     * or precedes {@code before}; the first page when both are null.
+     *
+     * @throws IllegalArgumentException if a cursor is malformed
+     */
+    public KeysetPage<Transaction> findTransactions(TransactionSearchCriteria criteria,
+                                                    String after, String before, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        boolean backwards = before != null && !before.isBlank();
+        TransactionCursor cursor = backwards ? TransactionCursor.decode(before)
+            : after != null && !after.isBlank() ? TransactionCursor.decode(after) : null;
+
+        // One extra row tells whether another page exists in the walking direction
+        List<Transaction> found = criteria.hasSearch()
+            ? search(criteria, cursor, backwards, pageSize + 1)
+            : transactionPageRepository.findPage(criteria, cursor, backwards, pageSize + 1);
+        List<Transaction> rows = new ArrayList<>(found);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+        if (backwards) {
+            Collections.reverse(rows);
+        }
+
+        KeysetPage<Transaction> page = new KeysetPage<>();
+        page.setContent(rows);
+        page.setSize(pageSize);
+        if (!rows.isEmpty()) {
+            boolean hasNext = backwards || hasMore;
+            boolean hasPrevious = backwards ? hasMore : cursor != null;
+            if (hasNext) {
+                page.setNextCursor(cursorOf(rows.get(rows.size() - 1)));
+            }
+            if (hasPrevious) {
+                page.setPreviousCursor(cursorOf(rows.get(0)));
+            }
+        }
+        if (criteria.isUnfiltered()) {
+            page.setApproximateTotal(transactionPageRepository.estimateTotalCount().orElse(null));
+        }
+        return page;
+    }
+
+    /**
+     * Match counts per transaction type, channel, account and month for a text search.
+     */
+    public TransactionFacets findFacets(TransactionSearchCriteria criteria) {
+        if (!criteria.hasSearch()) {
+            throw new IllegalArgumentException("Facets require a search term");
+        }
+        boolean includeUnindexed = !transactionSearchIndexer.isIndexComplete();
+        TransactionFacets facets = new TransactionFacets();
+        facets.setTransactionTypes(transactionSearchRepository.countByFacet(
+            criteria, TransactionSearchRepository.Facet.TRANSACTION_TYPE, includeUnindexed));
+        facets.setChannels(transactionSearchRepository.countByFacet(
+            criteria, TransactionSearchRepository.Facet.CHANNEL, includeUnindexed));
+        facets.setAccounts(transactionSearchRepository.countByFacet(
+            criteria, TransactionSearchRepository.Facet.ACCOUNT, includeUnindexed));
+        facets.setMonths(transactionSearchRepository.countByFacet(
+            criteria, TransactionSearchRepository.Facet.MONTH, includeUnindexed));
+        facets.setIndexComplete(!includeUnindexed);
+        return facets;
+    }
+
+    /**
+     * Finds the matching ids through the full-text index, then loads just those rows.
+     */
+    private List<Transaction> search(TransactionSearchCriteria criteria, TransactionCursor cursor,
+                                     boolean backwards, int limit) {
+        List<UUID> ids = transactionSearchRepository.findPageIds(criteria, cursor, backwards, limit,
+            !transactionSearchIndexer.isIndexComplete());
+        Map<UUID, Transaction> loaded = new HashMap<>();
+        for (Transaction transaction : transactionPageRepository.findAllWithAccount(ids)) {
+            loaded.put(transaction.getId(), transaction);
+        }
+        return ids.stream().map(loaded::get).filter(Objects::nonNull).toList();
+    }
+
+    private String cursorOf(Transaction transaction) {
+        return TransactionCursor.of(transaction.getTransactionDate(), transaction.getId()).encode();
+    }
+}
@@ -0,0 +1,76 @@
+package id.ac.tazkia.minibank.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import id.ac.tazkia.minibank.repository.TransactionSearchRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills the full-text vector of transactions posted before the search index existed.
+ * New postings are indexed by the database trigger; this only works through the
+ * backlog, in small committed batches so it never holds long locks. Until it has
+ * finished, searches also match unindexed rows the slow way.
+ */
+@Slf4j
+@Service
+public class TransactionSearchIndexer {
+
+    private final TransactionSearchRepository transactionSearchRepository;
+    private final int batchSize;
+    private volatile boolean indexComplete;
+
+    public TransactionSearchIndexer(TransactionSearchRepository transactionSearchRepository,
+                                    @Value("${minibank.search.index-batch-size:5000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Index batch size must be at least 1");
+        }
+        this.transactionSearchRepository = transactionSearchRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!transactionSearchRepository.hasUnindexedRows()) {
+            indexComplete = true;
+            return;
+        }
+        Thread.ofVirtual().name("transaction-search-backfill").start(this::backfill);
+    }
+
+    /**
+     * False while transactions without a vector may exist; searches then add the LIKE fallback.
+     */
+    public boolean isIndexComplete() {
+        return indexComplete;
+    }
+
+    /**
+     * Indexes every transaction that has no vector yet.
+     */
+    public void backfill() {
+        indexComplete = false;
+        int batches = 0;
+        long startTime = System.currentTimeMillis();
+        log.info("Transaction search backfill started, batch size {}", batchSize);
+        try {
+            UUID afterId = null;
+            Optional<UUID> last;
+            while ((last = transactionSearchRepository.indexBatch(afterId, batchSize)).isPresent()) {
+                afterId = last.get();
+                batches++;
+            }
+            indexComplete = !transactionSearchRepository.hasUnindexedRows();
+            log.info("Transaction search backfill finished - {} batches in {}ms, complete: {}",
+                batches, System.currentTimeMillis() - startTime, indexComplete);
+        } catch (DataAccessException e) {
+            log.error("Transaction search backfill stopped after {} batches; searches keep using the fallback", batches, e);
+        }
+    }
+}
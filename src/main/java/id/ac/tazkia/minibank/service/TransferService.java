@@ -1,18 +1,19 @@
 package id.ac.tazkia.minibank.service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import id.ac.tazkia.minibank.dto.AccountDirectoryEntry;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
 import id.ac.tazkia.minibank.dto.TransferRequest;
 import id.ac.tazkia.minibank.entity.Account;
 import id.ac.tazkia.minibank.entity.Transaction;
 import id.ac.tazkia.minibank.repository.AccountRepository;
-import id.ac.tazkia.minibank.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,138 +23,116 @@ import lombok.extern.slf4j.Slf4j;
 public class TransferService {
     
     private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
-    private final SequenceNumberService sequenceNumberService;
+    private final PostingService postingService;
+    private final AccountDirectory accountDirectory;
     
     /**
      * Validates transfer request and populates destination account information
      */
     public TransferRequest validateTransfer(TransferRequest transferRequest) {
-        // Validate source account
-        Optional<Account> fromAccountOpt = accountRepository.findById(transferRequest.getFromAccountId());
-        if (fromAccountOpt.isEmpty()) {
-            throw new IllegalArgumentException("Source account not found");
-        }
+        Account fromAccount = accountRepository.findWithSummaryById(transferRequest.getFromAccountId())
+            .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
+        return validateTransfer(transferRequest, fromAccount);
+    }
+    
+    /**
+     * Validates a transfer from a source account the caller has already loaded. The
+     * destination comes from the AccountDirectory, so a mistyped number is usually
+     * rejected without a query and a known one without reading the account row.
+     */
+    public TransferRequest validateTransfer(TransferRequest transferRequest, Account fromAccount) {
+        AccountDirectoryEntry toAccount = accountDirectory.findByAccountNumber(transferRequest.getToAccountNumber())
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Destination account not found: " + transferRequest.getToAccountNumber()));
+        validateAccounts(fromAccount, toAccount, transferRequest.getAmount());
+        
+        // Populate destination account information for confirmation
+        transferRequest.setToAccountId(toAccount.getAccountId());
+        transferRequest.setDestinationAccountName(toAccount.getAccountName());
+        transferRequest.setDestinationCustomerName(toAccount.getCustomerDisplayName());
+        
+        return transferRequest;
+    }
+    
+    /**
+     * Processes the transfer between accounts.
+     * Both legs are posted atomically by PostingService, which re-checks status and
+     * balance under lock and orders row locks by account ID to avoid deadlocks; that
+     * locked update is the only read of either account row here.
+     */
+    public List<PostingResult> processTransfer(TransferRequest transferRequest) {
+        UUID fromAccountId = transferRequest.getFromAccountId();
+        String fromAccountNumber = accountDirectory.findById(fromAccountId)
+            .map(AccountDirectoryEntry::getAccountNumber)
+            .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
+        UUID toAccountId = accountDirectory.findByAccountNumber(transferRequest.getToAccountNumber())
+            .map(AccountDirectoryEntry::getAccountId)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Destination account not found: " + transferRequest.getToAccountNumber()));
+        transferRequest.setToAccountId(toAccountId);
         
-        Account fromAccount = fromAccountOpt.get();
+        log.info("Processing transfer: {} from {} to {} amount: {}", 
+            transferRequest.getReferenceNumber(), fromAccountNumber, 
+            transferRequest.getToAccountNumber(), transferRequest.getAmount());
+        
+        PostingRequest transferOut = new PostingRequest();
+        transferOut.setAccountId(fromAccountId);
+        transferOut.setCounterpartyAccountId(toAccountId);
+        transferOut.setTransactionType(Transaction.TransactionType.TRANSFER_OUT);
+        transferOut.setAmount(transferRequest.getAmount());
+        transferOut.setDescription(String.format("Transfer to %s - %s", 
+            transferRequest.getToAccountNumber(), transferRequest.getDescription()));
+        transferOut.setReferenceNumber(transferRequest.getReferenceNumber());
+        transferOut.setChannel(Transaction.TransactionChannel.TRANSFER);
+        transferOut.setCreatedBy(transferRequest.getCreatedBy());
+        
+        PostingRequest transferIn = new PostingRequest();
+        transferIn.setAccountId(toAccountId);
+        transferIn.setCounterpartyAccountId(fromAccountId);
+        transferIn.setTransactionType(Transaction.TransactionType.TRANSFER_IN);
+        transferIn.setAmount(transferRequest.getAmount());
+        transferIn.setDescription(String.format("Transfer from %s - %s", 
+            fromAccountNumber, transferRequest.getDescription()));
+        transferIn.setReferenceNumber(transferRequest.getReferenceNumber());
+        transferIn.setChannel(Transaction.TransactionChannel.TRANSFER);
+        transferIn.setCreatedBy(transferRequest.getCreatedBy());
+        
+        List<PostingResult> results = postingService.postTransfer(transferOut, transferIn);
+        
+        log.info("Transfer completed successfully. TXN OUT: {}, TXN IN: {}", 
+            results.get(0).getTransactionNumber(), results.get(1).getTransactionNumber());
+        return results;
+    }
+    
+    private void validateAccounts(Account fromAccount, AccountDirectoryEntry toAccount, BigDecimal amount) {
         if (!fromAccount.isActive()) {
             throw new IllegalArgumentException("Source account is not active");
         }
         
-        // Validate destination account
-        Optional<Account> toAccountOpt = accountRepository.findByAccountNumber(transferRequest.getToAccountNumber());
-        if (toAccountOpt.isEmpty()) {
-            throw new IllegalArgumentException("Destination account not found: " + transferRequest.getToAccountNumber());
-        }
-        
-        Account toAccount = toAccountOpt.get();
         if (!toAccount.isActive()) {
             throw new IllegalArgumentException("Destination account is not active");
         }
         
         // Check for self-transfer
-        if (fromAccount.getId().equals(toAccount.getId())) {
+        if (fromAccount.getId().equals(toAccount.getAccountId())) {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
         
         // Validate amount
-        if (transferRequest.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Transfer amount must be greater than zero");
         }
         
-        if (fromAccount.getBalance().compareTo(transferRequest.getAmount()) < 0) {
+        if (fromAccount.getBalance().compareTo(amount) < 0) {
             throw new IllegalArgumentException("Insufficient balance. Available: " + fromAccount.getBalance());
         }
-        
-        // Populate destination account information for confirmation
-        transferRequest.setToAccountId(toAccount.getId());
-        transferRequest.setDestinationAccountName(toAccount.getAccountName());
-        transferRequest.setDestinationCustomerName(toAccount.getCustomer().getDisplayName());
-        
-        return transferRequest;
-    }
-    
-    /**
-     * Processes the transfer between accounts
-     */
-    @Transactional
-    public void processTransfer(TransferRequest transferRequest) {
-        // Re-validate accounts (in case status changed between validation and processing)
-        validateTransfer(transferRequest);
-        
-        // Get accounts
-        Account fromAccount = accountRepository.findById(transferRequest.getFromAccountId())
-            .orElseThrow(() -> new IllegalArgumentException("Source account not found"));
-        Account toAccount = accountRepository.findById(transferRequest.getToAccountId())
-            .orElseThrow(() -> new IllegalArgumentException("Destination account not found"));
-        
-        log.info("Processing transfer: {} from {} to {} amount: {}", 
-            transferRequest.getReferenceNumber(), fromAccount.getAccountNumber(), 
-            toAccount.getAccountNumber(), transferRequest.getAmount());
-        
-        // Record balances before transfer
-        BigDecimal fromBalanceBefore = fromAccount.getBalance();
-        BigDecimal toBalanceBefore = toAccount.getBalance();
-        
-        // Generate transaction numbers
-        String transferOutTxnNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-        String transferInTxnNumber = sequenceNumberService.generateNextSequence("TRANSACTION_NUMBER", "TXN");
-        
-        // Process transfer using entity business methods
-        fromAccount.transferOut(transferRequest.getAmount());
-        toAccount.transferIn(transferRequest.getAmount());
-        
-        // Create transfer out transaction
-        Transaction transferOutTransaction = new Transaction();
-        transferOutTransaction.setAccount(fromAccount);
-        transferOutTransaction.setDestinationAccount(toAccount);
-        transferOutTransaction.setTransactionNumber(transferOutTxnNumber);
-        transferOutTransaction.setTransactionType(Transaction.TransactionType.TRANSFER_OUT);
-        transferOutTransaction.setAmount(transferRequest.getAmount());
-        transferOutTransaction.setBalanceBefore(fromBalanceBefore);
-        transferOutTransaction.setBalanceAfter(fromAccount.getBalance());
-        transferOutTransaction.setDescription(String.format("Transfer to %s - %s", 
-            toAccount.getAccountNumber(), transferRequest.getDescription()));
-        transferOutTransaction.setReferenceNumber(transferRequest.getReferenceNumber());
-        transferOutTransaction.setChannel(Transaction.TransactionChannel.TRANSFER);
-        transferOutTransaction.setTransactionDate(LocalDateTime.now());
-        transferOutTransaction.setProcessedDate(LocalDateTime.now());
-        transferOutTransaction.setCreatedBy(transferRequest.getCreatedBy() != null ? 
-            transferRequest.getCreatedBy() : "SYSTEM");
-        
-        // Create transfer in transaction
-        Transaction transferInTransaction = new Transaction();
-        transferInTransaction.setAccount(toAccount);
-        transferInTransaction.setDestinationAccount(fromAccount);
-        transferInTransaction.setTransactionNumber(transferInTxnNumber);
-        transferInTransaction.setTransactionType(Transaction.TransactionType.TRANSFER_IN);
-        transferInTransaction.setAmount(transferRequest.getAmount());
-        transferInTransaction.setBalanceBefore(toBalanceBefore);
-        transferInTransaction.setBalanceAfter(toAccount.getBalance());
-        transferInTransaction.setDescription(String.format("Transfer from %s - %s", 
-            fromAccount.getAccountNumber(), transferRequest.getDescription()));
-        transferInTransaction.setReferenceNumber(transferRequest.getReferenceNumber());
-        transferInTransaction.setChannel(Transaction.TransactionChannel.TRANSFER);
-        transferInTransaction.setTransactionDate(LocalDateTime.now());
-        transferInTransaction.setProcessedDate(LocalDateTime.now());
-        transferInTransaction.setCreatedBy(transferRequest.getCreatedBy() != null ? 
-            transferRequest.getCreatedBy() : "SYSTEM");
-        
-        // Save all entities
-        transactionRepository.save(transferOutTransaction);
-        transactionRepository.save(transferInTransaction);
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
-        
-        log.info("Transfer completed successfully. TXN OUT: {}, TXN IN: {}", 
-            transferOutTxnNumber, transferInTxnNumber);
     }
     
     /**
      * Gets account information for display
      */
     public Account getAccountById(UUID accountId) {
-        return accountRepository.findById(accountId)
+        return accountRepository.findWithSummaryById(accountId)
             .orElseThrow(() -> new IllegalArgumentException("Account not found"));
     }
     
@@ -0,0 +1,61 @@
+package id.ac.tazkia.minibank.util;
+
+import java.util.Collection;
+
+/**
+ * Immutable set of permission ids as a bitset, so a membership test is one array read.
+ * Ids are small dense integers handed out by a registry; the set is sized by the largest
+ * id it holds.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public static PermissionSet of(Collection<Integer> permissionIds) {
+        int maxId = -1;
+        for (int id : permissionIds) {
+            if (id < 0) {
+                throw new IllegalArgumentException("Permission id must not be negative: " + id);
+            }
+            maxId = Math.max(maxId, id);
+        }
+        if (maxId < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(maxId >>> 6) + 1];
+        for (int id : permissionIds) {
+            words[id >>> 6] |= 1L << id;
+        }
+        return new PermissionSet(words);
+    }
+
+    public boolean contains(int permissionId) {
+        int word = permissionId >>> 6;
+        return permissionId >= 0 && word < words.length && (words[word] & (1L << permissionId)) != 0;
+    }
+
+    public PermissionSet union(PermissionSet other) {
+        if (other.words.length > words.length) {
+            return other.union(this);
+        }
+        long[] merged = words.clone();
+        for (int i = 0; i < other.words.length; i++) {
+            merged[i] |= other.words[i];
+        }
+        return new PermissionSet(merged);
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,132 @@
+package id.ac.tazkia.minibank.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled template for rendering business numbers.
+ * Supported segments:
+ * <ul>
+ *   <li>{@code {prefix}} - sequence prefix, empty when none</li>
+ *   <li>{@code {branch}} - branch code, empty when none is given</li>
+ *   <li>{@code {date}} or {@code {date:pattern}} - posting date, default pattern yyMMdd</li>
+ *   <li>{@code {number}} or {@code {number:width}} - zero-padded counter, default width 7</li>
+ * </ul>
+ * Any other text is copied as-is. Example: {@code {prefix}{branch}{date}{number:6}} gives
+ * numbers such as {@code TJKT01250101000042}.
+ */
+public final class SequenceNumberFormat {
+
+    public static final String DEFAULT_TEMPLATE = "{prefix}{number:7}";
+
+    private static final int DEFAULT_NUMBER_WIDTH = 7;
+    private static final String DEFAULT_DATE_PATTERN = "yyMMdd";
+
+    private final String template;
+    private final List<Segment> segments;
+
+    private SequenceNumberFormat(String template, List<Segment> segments) {
+        this.template = template;
+        this.segments = segments;
+    }
+
+    public static SequenceNumberFormat compile(String template) {
+        if (template == null || template.isBlank()) {
+            throw new IllegalArgumentException("Sequence number template is required");
+        }
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        boolean hasNumber = false;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            if (open < 0) {
+                segments.add(literal(template.substring(position)));
+                break;
+            }
+            if (open > position) {
+                segments.add(literal(template.substring(position, open)));
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed segment in sequence number template: " + template);
+            }
+            String token = template.substring(open + 1, close);
+            hasNumber |= token.equals("number") || token.startsWith("number:");
+            segments.add(segment(token, template));
+            position = close + 1;
+        }
+        if (!hasNumber) {
+            throw new IllegalArgumentException("Sequence number template must contain {number}: " + template);
+        }
+        return new SequenceNumberFormat(template, List.copyOf(segments));
+    }
+
+    public String format(String prefix, String branchCode, LocalDate date, long number) {
+        StringBuilder result = new StringBuilder(24);
+        for (Segment segment : segments) {
+            segment.append(result, prefix, branchCode, date, number);
+        }
+        return result.toString();
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    private static Segment literal(String text) {
+        return (out, prefix, branchCode, date, number) -> out.append(text);
+    }
+
+    private static Segment segment(String token, String template) {
+        String name = token;
+        String argument = null;
+        int colon = token.indexOf(':');
+        if (colon >= 0) {
+            name = token.substring(0, colon);
+            argument = token.substring(colon + 1);
+        }
+        switch (name) {
+            case "prefix":
+                return (out, prefix, branchCode, date, number) -> {
+                    if (prefix != null) {
+                        out.append(prefix);
+                    }
+                };
+            case "branch":
+                return (out, prefix, branchCode, date, number) -> {
+                    if (branchCode != null) {
+                        out.append(branchCode);
+                    }
+                };
+            case "date":
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(
+                    argument != null ? argument : DEFAULT_DATE_PATTERN);
+                return (out, prefix, branchCode, date, number) -> out.append(formatter.format(date));
+            case "number":
+                int width = argument != null ? parseWidth(argument, template) : DEFAULT_NUMBER_WIDTH;
+                String pattern = "%0" + width + "d";
+                return (out, prefix, branchCode, date, number) -> out.append(String.format(pattern, number));
+            default:
+                throw new IllegalArgumentException("Unknown segment {" + token + "} in sequence number template: " + template);
+        }
+    }
+
+    private static int parseWidth(String argument, String template) {
+        try {
+            int width = Integer.parseInt(argument);
+            if (width < 1 || width > 19) {
+                throw new IllegalArgumentException("Number width must be between 1 and 19: " + template);
+            }
+            return width;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number width in sequence number template: " + template, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Segment {
+        void append(StringBuilder out, String prefix, String branchCode, LocalDate date, long number);
+    }
+}
@@ -0,0 +1,20 @@
+-- PostgreSQL sequences backing the native sequence engine (minibank.sequence.native).
+-- Each sequence continues from the current sequence_numbers row, so switching a
+-- sequence to the native engine does not reuse any number already issued.
+
+CREATE SEQUENCE IF NOT EXISTS seq_transaction_number CACHE 1;
+CREATE SEQUENCE IF NOT EXISTS seq_account_number CACHE 1;
+CREATE SEQUENCE IF NOT EXISTS seq_corporate_account_number CACHE 1;
+CREATE SEQUENCE IF NOT EXISTS seq_passbook CACHE 1;
+
+SELECT setval('seq_transaction_number', GREATEST(last_number, 1), last_number > 0)
+FROM sequence_numbers WHERE sequence_name = 'TRANSACTION_NUMBER';
+
+SELECT setval('seq_account_number', GREATEST(last_number, 1), last_number > 0)
+FROM sequence_numbers WHERE sequence_name = 'ACCOUNT_NUMBER';
+
+SELECT setval('seq_corporate_account_number', GREATEST(last_number, 1), last_number > 0)
+FROM sequence_numbers WHERE sequence_name = 'CORPORATE_ACCOUNT_NUMBER';
+
+SELECT setval('seq_passbook', GREATEST(last_number, 1), last_number > 0)
+FROM sequence_numbers WHERE sequence_name = 'PASSBOOK';
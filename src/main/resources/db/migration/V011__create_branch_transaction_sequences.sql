@@ -0,0 +1,14 @@
+-- Per-branch transaction number partitions (minibank.posting.transaction-numbering=BRANCH).
+-- Each branch counts in its own sequence_numbers row TRANSACTION_NUMBER_<branch_code>,
+-- starting at 0 with the prefix of the global TRANSACTION_NUMBER sequence.
+-- Existing transaction numbers (T3000001, ...) keep their format; branch numbers embed
+-- the branch code (TJKT01-0000001, ...), so the two schemes can never collide and the
+-- global sequence keeps counting if numbering is switched back.
+-- Branches created later get their partition on first use.
+
+INSERT INTO sequence_numbers (sequence_name, last_number, prefix)
+SELECT 'TRANSACTION_NUMBER_' || regexp_replace(upper(b.branch_code), '[^A-Z0-9]', '_', 'g'),
+       0,
+       (SELECT prefix FROM sequence_numbers WHERE sequence_name = 'TRANSACTION_NUMBER')
+FROM branches b
+ON CONFLICT (sequence_name) DO NOTHING;
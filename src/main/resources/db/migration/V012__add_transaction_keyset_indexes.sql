@@ -0,0 +1,19 @@
+-- Keyset pagination indexes for the transaction list and history APIs.
+-- Pages are read in (transaction_date, id) order starting from a cursor, so every
+-- list filter needs an index ending in (transaction_date, id).
+
+-- The cursor needs a total order: backfill rows without a transaction date
+UPDATE transactions
+SET transaction_date = COALESCE(processed_date, CURRENT_TIMESTAMP)
+WHERE transaction_date IS NULL;
+
+ALTER TABLE transactions ALTER COLUMN transaction_date SET NOT NULL;
+
+CREATE INDEX idx_transactions_date_id ON transactions(transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_account_date_id ON transactions(id_accounts, transaction_date DESC, id DESC);
+CREATE INDEX idx_transactions_type_date_id ON transactions(transaction_type, transaction_date DESC, id DESC);
+
+-- Superseded by the composite indexes above (same leading column)
+DROP INDEX IF EXISTS idx_transactions_transaction_date;
+DROP INDEX IF EXISTS idx_transactions_account;
+DROP INDEX IF EXISTS idx_transactions_transaction_type;
@@ -0,0 +1,81 @@
+-- Customer search backed by pg_trgm.
+-- Personal and corporate names live in separate tables (joined inheritance), so a
+-- search over them needs LEFT JOINs and leading-wildcard LIKEs that no B-tree can
+-- serve. customer_search keeps one normalized row per customer, maintained by
+-- triggers, with a trigram GIN index over the searchable text.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE customer_search (
+    id_customers UUID PRIMARY KEY,
+    customer_number VARCHAR(50) NOT NULL,
+    customer_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20),
+    display_name VARCHAR(300),
+    email VARCHAR(100),
+    identity_number VARCHAR(100),
+    search_text TEXT NOT NULL,
+    created_date TIMESTAMP,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_customer_search_customers FOREIGN KEY (id_customers) REFERENCES customers(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_customer_search_text_trgm ON customer_search USING GIN (search_text gin_trgm_ops);
+CREATE INDEX idx_customer_search_type_status ON customer_search(customer_type, status);
+
+-- Rebuilds the search row of one customer from the base and subtype tables
+CREATE OR REPLACE FUNCTION refresh_customer_search(p_customer_id UUID) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO customer_search (id_customers, customer_number, customer_type, status,
+        display_name, email, identity_number, search_text, created_date, updated_date)
+    SELECT c.id, c.customer_number, c.customer_type, c.status,
+        s.display_name, c.email, s.identity_number,
+        lower(regexp_replace(concat_ws(' ', c.customer_number, s.display_name, c.alias_name,
+            c.email, s.identity_number), '\s+', ' ', 'g')),
+        c.created_date, CURRENT_TIMESTAMP
+    FROM customers c
+    LEFT JOIN personal_customers pc ON pc.id = c.id
+    LEFT JOIN corporate_customers cc ON cc.id = c.id
+    CROSS JOIN LATERAL (SELECT
+        COALESCE(cc.company_name, trim(concat_ws(' ', pc.first_name, pc.last_name))) AS display_name,
+        COALESCE(pc.identity_number, cc.company_registration_number) AS identity_number) s
+    WHERE c.id = p_customer_id
+    ON CONFLICT (id_customers) DO UPDATE SET
+        customer_number = EXCLUDED.customer_number,
+        customer_type = EXCLUDED.customer_type,
+        status = EXCLUDED.status,
+        display_name = EXCLUDED.display_name,
+        email = EXCLUDED.email,
+        identity_number = EXCLUDED.identity_number,
+        search_text = EXCLUDED.search_text,
+        created_date = EXCLUDED.created_date,
+        updated_date = EXCLUDED.updated_date;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION customer_search_sync() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_customer_search(NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- The base row is inserted before its subtype row; the subtype trigger fills in the name
+CREATE TRIGGER trg_customers_search
+    AFTER INSERT OR UPDATE ON customers
+    FOR EACH ROW EXECUTE FUNCTION customer_search_sync();
+
+CREATE TRIGGER trg_personal_customers_search
+    AFTER INSERT OR UPDATE ON personal_customers
+    FOR EACH ROW EXECUTE FUNCTION customer_search_sync();
+
+CREATE TRIGGER trg_corporate_customers_search
+    AFTER INSERT OR UPDATE ON corporate_customers
+    FOR EACH ROW EXECUTE FUNCTION customer_search_sync();
+
+-- Backfill existing customers
+SELECT refresh_customer_search(id) FROM customers;
+
+COMMENT ON TABLE customer_search IS 'Denormalized customer search rows, maintained by triggers on customers/personal_customers/corporate_customers';
+COMMENT ON COLUMN customer_search.search_text IS 'Lower-cased customer number, name, alias, email and identity number; trigram indexed';
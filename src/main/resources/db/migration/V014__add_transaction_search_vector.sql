@@ -0,0 +1,33 @@
+-- Full-text index for transaction search (transaction number, reference number, description).
+-- The vector is a plain nullable column so adding it does not rewrite the table. New and
+-- edited rows get their vector from the trigger as they are posted; rows that existed
+-- before this migration are filled in batches by TransactionSearchIndexer, and searches
+-- fall back to LIKE for rows still waiting (search_vector IS NULL) until it finishes.
+
+CREATE OR REPLACE FUNCTION transaction_search_vector(
+    p_transaction_number VARCHAR, p_description TEXT, p_reference_number VARCHAR)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', COALESCE(p_transaction_number, '')), 'A')
+        || setweight(to_tsvector('simple', COALESCE(p_reference_number, '')), 'A')
+        || setweight(to_tsvector('simple', COALESCE(p_description, '')), 'B');
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE transactions ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION transactions_search_vector_sync() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector := transaction_search_vector(NEW.transaction_number, NEW.description, NEW.reference_number);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_search_vector
+    BEFORE INSERT OR UPDATE OF transaction_number, description, reference_number ON transactions
+    FOR EACH ROW EXECUTE FUNCTION transactions_search_vector_sync();
+
+CREATE INDEX idx_transactions_search_vector ON transactions USING GIN (search_vector);
+
+-- Rows still to be indexed; empty once the backfill has run
+CREATE INDEX idx_transactions_search_pending ON transactions(id) WHERE search_vector IS NULL;
+
+COMMENT ON COLUMN transactions.search_vector IS 'Full-text vector of transaction number, reference number and description; NULL until backfilled';
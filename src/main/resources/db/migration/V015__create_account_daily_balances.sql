@@ -0,0 +1,39 @@
+-- End-of-day balance snapshots, one row per account per day with postings.
+-- The posting statement upserts the row of the posting day in the same statement
+-- that moves the balance, so a balance at any point in time is the nearest
+-- snapshot plus the transactions of a single day, instead of a scan of history.
+
+CREATE TABLE account_daily_balances (
+    id_accounts UUID NOT NULL,
+    balance_date DATE NOT NULL,
+    opening_balance DECIMAL(20,2) NOT NULL,
+    closing_balance DECIMAL(20,2) NOT NULL,
+    total_debit DECIMAL(20,2) NOT NULL DEFAULT 0.00,
+    total_credit DECIMAL(20,2) NOT NULL DEFAULT 0.00,
+    transaction_count INTEGER NOT NULL DEFAULT 0,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_account_daily_balances PRIMARY KEY (id_accounts, balance_date),
+    CONSTRAINT fk_account_daily_balances_accounts FOREIGN KEY (id_accounts) REFERENCES accounts(id) ON DELETE CASCADE
+);
+
+-- Snapshots for the transactions already posted: the first balance before and
+-- the last balance after of each day, in posting order
+INSERT INTO account_daily_balances (id_accounts, balance_date, opening_balance, closing_balance,
+                                    total_debit, total_credit, transaction_count)
+SELECT id_accounts, balance_date,
+       MAX(opening_balance), MAX(closing_balance),
+       SUM(CASE WHEN transaction_type IN ('WITHDRAWAL', 'TRANSFER_OUT', 'FEE') THEN amount ELSE 0 END),
+       SUM(CASE WHEN transaction_type IN ('WITHDRAWAL', 'TRANSFER_OUT', 'FEE') THEN 0 ELSE amount END),
+       COUNT(*)
+FROM (
+    SELECT id_accounts, transaction_type, amount,
+           CAST(transaction_date AS DATE) AS balance_date,
+           FIRST_VALUE(balance_before) OVER day_order AS opening_balance,
+           LAST_VALUE(balance_after) OVER day_order AS closing_balance
+    FROM transactions
+    WINDOW day_order AS (PARTITION BY id_accounts, CAST(transaction_date AS DATE)
+                         ORDER BY transaction_date, id
+                         ROWS BETWEEN UNBOUNDED PRECEDING AND UNBOUNDED FOLLOWING)
+) days
+GROUP BY id_accounts, balance_date;
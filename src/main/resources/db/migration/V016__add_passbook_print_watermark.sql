@@ -0,0 +1,11 @@
+-- Passbook print watermark.
+-- Unprinted transactions are those after the last printed one in (transaction_date, id)
+-- order. Keeping its date next to its id lets the printer seek straight to them on
+-- idx_transactions_account_date_id instead of reading the whole account history.
+
+ALTER TABLE passbooks ADD COLUMN last_printed_transaction_date TIMESTAMP;
+
+UPDATE passbooks p
+SET last_printed_transaction_date = t.transaction_date
+FROM transactions t
+WHERE t.id = p.id_last_printed_transaction;
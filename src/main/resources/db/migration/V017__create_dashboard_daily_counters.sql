@@ -0,0 +1,28 @@
+-- Today's activity per branch for the dashboard, one row per day, branch and activity.
+-- Application nodes count postings in memory and add what they counted since their
+-- last flush every few seconds, so the dashboard never aggregates the journal.
+
+CREATE TABLE dashboard_daily_counters (
+    counter_date DATE NOT NULL,
+    id_branches UUID NOT NULL,
+    activity VARCHAR(20) NOT NULL CHECK (activity IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER')),
+    event_count BIGINT NOT NULL DEFAULT 0,
+    volume DECIMAL(20,2) NOT NULL DEFAULT 0.00,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_dashboard_daily_counters PRIMARY KEY (counter_date, id_branches, activity),
+    CONSTRAINT fk_dashboard_daily_counters_branches FOREIGN KEY (id_branches) REFERENCES branches(id)
+);
+
+-- Counters for the transactions already posted; a transfer counts once, on its debit leg
+INSERT INTO dashboard_daily_counters (counter_date, id_branches, activity, event_count, volume)
+SELECT CAST(t.transaction_date AS DATE),
+       a.id_branches,
+       CASE t.transaction_type WHEN 'TRANSFER_OUT' THEN 'TRANSFER' ELSE t.transaction_type END,
+       COUNT(*),
+       SUM(t.amount)
+FROM transactions t
+JOIN accounts a ON a.id = t.id_accounts
+WHERE t.transaction_type IN ('DEPOSIT', 'WITHDRAWAL', 'TRANSFER_OUT')
+GROUP BY CAST(t.transaction_date AS DATE), a.id_branches,
+         CASE t.transaction_type WHEN 'TRANSFER_OUT' THEN 'TRANSFER' ELSE t.transaction_type END;
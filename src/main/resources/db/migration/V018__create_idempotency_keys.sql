@@ -0,0 +1,15 @@
+-- Idempotency keys of postings made through the deposit and withdrawal APIs.
+-- The key is claimed in the same database transaction as the posting and before the
+-- account row is touched, so a retried request waits for the first attempt and then
+-- finds its key instead of posting again. The transaction row is written after the
+-- claim in that same transaction, hence the deferred foreign key.
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    id_transactions UUID NOT NULL,
+    created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key),
+    CONSTRAINT fk_idempotency_keys_transactions FOREIGN KEY (id_transactions)
+        REFERENCES transactions(id) DEFERRABLE INITIALLY DEFERRED
+);
@@ -0,0 +1,40 @@
+-- Striped balances for very hot accounts, opted into per account.
+-- A TRANSFER_IN to a striped account adds its amount to one of the account's stripe
+-- rows, chosen at random, and records the credit in account_stripe_credits instead of
+-- updating the accounts row, so concurrent credits spread over K rows. A fold moves
+-- the stripes into accounts.balance and journals the recorded credits in transactions,
+-- with the transaction ids and numbers they were posted under. Folds run periodically
+-- and whenever a debit needs the credited money.
+
+CREATE TABLE account_balance_stripes (
+    id_accounts UUID NOT NULL,
+    stripe SMALLINT NOT NULL,
+    balance DECIMAL(20,2) NOT NULL DEFAULT 0,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_account_balance_stripes PRIMARY KEY (id_accounts, stripe),
+    CONSTRAINT fk_account_balance_stripes_accounts FOREIGN KEY (id_accounts) REFERENCES accounts(id),
+    CONSTRAINT chk_stripe_balance_non_negative CHECK (balance >= 0)
+);
+
+CREATE TABLE account_stripe_credits (
+    id UUID NOT NULL,
+    id_accounts UUID NOT NULL,
+    stripe SMALLINT NOT NULL,
+    transaction_number VARCHAR(50) NOT NULL,
+    transaction_type VARCHAR(20) NOT NULL,
+    amount DECIMAL(20,2) NOT NULL,
+    description TEXT,
+    reference_number VARCHAR(100),
+    channel VARCHAR(50) NOT NULL,
+    id_accounts_destination UUID,
+    transaction_date TIMESTAMP NOT NULL,
+    created_by VARCHAR(100),
+
+    CONSTRAINT pk_account_stripe_credits PRIMARY KEY (id),
+    CONSTRAINT fk_account_stripe_credits_stripes FOREIGN KEY (id_accounts, stripe)
+        REFERENCES account_balance_stripes(id_accounts, stripe),
+    CONSTRAINT chk_stripe_credit_amount_positive CHECK (amount > 0)
+);
+
+CREATE INDEX idx_account_stripe_credits_account ON account_stripe_credits(id_accounts, transaction_date);
@@ -0,0 +1,6 @@
+-- Credits taken on a balance stripe are journaled when they are folded, with the fold
+-- as their transaction_date, so the passbook watermark, keyset cursors and running
+-- balances keep their (transaction_date, id) order. The time the credit was accepted
+-- on the stripe is kept here; it is NULL for everything posted to the account row.
+
+ALTER TABLE transactions ADD COLUMN accepted_date TIMESTAMP;
@@ -0,0 +1,6 @@
+-- Statements, balance histories and daily balances put a transaction on the day it was
+-- booked: the day a stripe credit was accepted, or the transaction date of everything
+-- else. A credit accepted before midnight and folded after it belongs to the day before.
+
+CREATE INDEX idx_transactions_account_booking_date
+    ON transactions(id_accounts, (COALESCE(accepted_date, transaction_date)));
@@ -0,0 +1,38 @@
+package id.ac.tazkia.minibank.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails a test when a block of work runs more SQL statements than its budget.
+ * Counts every statement Hibernate prepares, including lazy loads triggered while the
+ * block walks associations the way a template would, so an N+1 query pattern shows up
+ * as a budget overrun. Statements issued through JdbcTemplate are not counted.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static void assertMaxQueries(EntityManagerFactory entityManagerFactory, long maxStatements, Runnable block) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            block.run();
+            long executed = statistics.getPrepareStatementCount();
+            if (executed > maxStatements) {
+                fail(String.format(
+                    "Query budget exceeded: %d statements executed, budget is %d " +
+                    "(entity loads: %d, collection loads: %d)",
+                    executed, maxStatements, statistics.getEntityFetchCount(), statistics.getCollectionFetchCount()));
+            }
+        } finally {
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+}
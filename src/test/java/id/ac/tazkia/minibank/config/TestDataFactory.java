@@ -1,11 +1,16 @@
 package id.ac.tazkia.minibank.config;
 
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.entity.Transaction;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Locale;
+import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -298,4 +303,39 @@ public class TestDataFactory {
         return channels[ThreadLocalRandom.current().nextInt(channels.length)];
     }
     
+    // === POSTING HELPERS ===
+    
+    /**
+     * Looks up the id of an account, e.g. one of the seeded A2000001 to A2000006
+     */
+    public static UUID accountId(JdbcTemplate jdbcTemplate, String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber);
+    }
+    
+    /**
+     * Reads the balance of the account row
+     */
+    public static BigDecimal balanceOf(JdbcTemplate jdbcTemplate, UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+    
+    /**
+     * Builds a single-leg posting request for PostingService
+     */
+    public static PostingRequest posting(UUID accountId, Transaction.TransactionType type, BigDecimal amount) {
+        PostingRequest request = new PostingRequest();
+        request.setAccountId(accountId);
+        request.setTransactionType(type);
+        request.setAmount(amount);
+        request.setDescription("Test posting");
+        return request;
+    }
+    
+    /**
+     * Builds a single-leg posting request for PostingService
+     */
+    public static PostingRequest posting(UUID accountId, Transaction.TransactionType type, String amount) {
+        return posting(accountId, type, new BigDecimal(amount));
+    }
+    
 }
\ No newline at end of file
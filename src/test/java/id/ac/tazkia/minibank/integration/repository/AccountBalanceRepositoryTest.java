@@ -0,0 +1,115 @@
+package id.ac.tazkia.minibank.integration.repository;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.BalancePosting;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.AccountBalanceRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountBalanceRepository Integration Tests")
+class AccountBalanceRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @Test
+    @DisplayName("Should apply a delta that keeps an active account at or above zero")
+    void shouldApplyAcceptedDelta() {
+        UUID accountId = createAccount("ABR0001", "100.00");
+
+        Optional<BalancePosting> debit = accountBalanceRepository.applyDelta(accountId, new BigDecimal("-100.00"));
+
+        assertTrue(debit.isPresent());
+        assertEquals("ABR0001", debit.get().getAccountNumber());
+        assertEquals(0, new BigDecimal("100.00").compareTo(debit.get().getBalanceBefore()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(debit.get().getBalanceAfter()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(accountId)));
+
+        Optional<BalancePosting> credit = accountBalanceRepository.applyDelta(accountId, new BigDecimal("25.50"));
+
+        assertTrue(credit.isPresent());
+        assertEquals(0, BigDecimal.ZERO.compareTo(credit.get().getBalanceBefore()));
+        assertEquals(0, new BigDecimal("25.50").compareTo(credit.get().getBalanceAfter()));
+        assertEquals(0, new BigDecimal("25.50").compareTo(balanceOf(accountId)));
+    }
+
+    @Test
+    @DisplayName("Should match no row for an unknown account")
+    void shouldRejectUnknownAccount() {
+        assertTrue(accountBalanceRepository.applyDelta(UUID.randomUUID(), new BigDecimal("10.00")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave an inactive account untouched")
+    void shouldRejectInactiveAccount() {
+        UUID accountId = createAccount("ABR0002", "100.00");
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", accountId);
+
+        assertTrue(accountBalanceRepository.applyDelta(accountId, new BigDecimal("10.00")).isEmpty());
+        assertTrue(accountBalanceRepository.applyDelta(accountId, new BigDecimal("-10.00")).isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOf(accountId)));
+    }
+
+    @Test
+    @DisplayName("Should leave the balance untouched when a debit would take it below zero")
+    void shouldRejectInsufficientBalance() {
+        UUID accountId = createAccount("ABR0003", "100.00");
+
+        assertTrue(accountBalanceRepository.applyDelta(accountId, new BigDecimal("-100.01")).isEmpty());
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOf(accountId)));
+    }
+
+    @Test
+    @DisplayName("Should journal an accepted posting and write nothing for a rejected one")
+    void shouldJournalOnlyAcceptedPosting() {
+        UUID accountId = createAccount("ABR0004", "50.00");
+        PostingRequest withdrawal = new PostingRequest();
+        withdrawal.setAccountId(accountId);
+        withdrawal.setTransactionType(Transaction.TransactionType.WITHDRAWAL);
+        withdrawal.setAmount(new BigDecimal("60.00"));
+        withdrawal.setDescription("Conditional update test");
+
+        assertTrue(accountBalanceRepository.applyPosting(UUID.randomUUID(), "TXNABR01", withdrawal,
+            new BigDecimal("-60.00"), LocalDateTime.now(), "TEST").isEmpty());
+        assertEquals(0, transactionCount(accountId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM account_daily_balances WHERE id_accounts = ?", Integer.class, accountId));
+
+        withdrawal.setAmount(new BigDecimal("20.00"));
+        UUID transactionId = UUID.randomUUID();
+        Optional<BalancePosting> posted = accountBalanceRepository.applyPosting(transactionId, "TXNABR02", withdrawal,
+            new BigDecimal("-20.00"), LocalDateTime.now(), "TEST");
+
+        assertTrue(posted.isPresent());
+        assertEquals(0, new BigDecimal("30.00").compareTo(balanceOf(accountId)));
+        assertEquals(1, transactionCount(accountId));
+        assertEquals(0, new BigDecimal("30.00").compareTo(jdbcTemplate.queryForObject(
+            "SELECT balance_after FROM transactions WHERE id = ?", BigDecimal.class, transactionId)));
+    }
+
+    private UUID createAccount(String accountNumber, String balance) {
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT id_customers, id_products, id_branches, ?, ?, ?, 'TEST' FROM accounts WHERE account_number = 'A2000001'",
+            accountNumber, "Balance " + accountNumber, new BigDecimal(balance));
+        return jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber);
+    }
+
+    private BigDecimal balanceOf(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    private int transactionCount(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id_accounts = ?", Integer.class, accountId);
+    }
+}
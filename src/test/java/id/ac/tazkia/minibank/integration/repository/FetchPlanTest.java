@@ -0,0 +1,147 @@
+package id.ac.tazkia.minibank.integration.repository;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.ApprovalQueueRow;
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.entity.Customer;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import id.ac.tazkia.minibank.repository.CustomerRepository;
+import id.ac.tazkia.minibank.service.ApprovalService;
+import id.ac.tazkia.minibank.service.TransactionQueryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.QueryBudget.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each block loads a screen's data and walks it the way its template does, inside one
+ * transaction like a request with open-session-in-view.
+ */
+@DisplayName("Fetch Plan Integration Tests")
+class FetchPlanTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Account list rows should load customer and product with the page")
+    void accountListShouldStayWithinBudget() {
+        transactionTemplate.executeWithoutResult(status -> assertMaxQueries(entityManagerFactory, 2, () -> {
+            Page<Account> page = accountRepository.findByStatus(Account.AccountStatus.ACTIVE,
+                PageRequest.of(0, 10, Sort.by("createdDate").descending()));
+            assertTrue(page.getNumberOfElements() > 1);
+            page.forEach(account -> {
+                assertNotNull(account.getCustomer().getDisplayName());
+                assertNotNull(account.getCustomer().getCustomerNumber());
+                assertNotNull(account.getProduct().getProductName());
+            });
+        }));
+    }
+
+    @Test
+    @DisplayName("Transaction list rows should load their accounts with the page")
+    void transactionListShouldStayWithinBudget() {
+        List<UUID> accountIds = jdbcTemplate.queryForList(
+            "SELECT id FROM accounts WHERE account_number IN ('A2000001', 'A2000002', 'A2000003')", UUID.class);
+        LocalDateTime base = LocalDateTime.of(2025, 4, 1, 8, 0);
+        for (int i = 0; i < 9; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+                "balance_before, balance_after, description, transaction_date) " +
+                "VALUES (?, ?, 'DEPOSIT', 1000, 0, 1000, 'Fetch plan test', ?)",
+                accountIds.get(i % accountIds.size()), String.format("FPT%04d", i), Timestamp.valueOf(base.plusHours(i)));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> assertMaxQueries(entityManagerFactory, 2, () -> {
+            KeysetPage<Transaction> page = transactionQueryService.findTransactions(
+                new TransactionSearchCriteria(), null, null, 20);
+            assertTrue(page.getNumberOfElements() >= 9);
+            page.getContent().forEach(transaction -> {
+                assertNotNull(transaction.getAccount().getAccountNumber());
+                assertNotNull(transaction.getAccount().getAccountName());
+            });
+        }));
+    }
+
+    @Test
+    @DisplayName("Approval queue should be read as rows in a single query")
+    void approvalQueueShouldStayWithinBudget() {
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by, request_notes) " +
+                "VALUES ('CUSTOMER_CREATION', 'CUSTOMER', ?, 'cs1', 'Fetch plan test')", UUID.randomUUID());
+        }
+
+        assertMaxQueries(entityManagerFactory, 1, () -> {
+            List<ApprovalQueueRow> queue = approvalService.getPendingQueue();
+            assertTrue(queue.size() >= 3);
+            queue.forEach(row -> {
+                assertNotNull(row.getId());
+                assertNotNull(row.getRequestType());
+                assertNotNull(row.getRequestedDate());
+            });
+        });
+    }
+
+    @Test
+    @DisplayName("toString, equals and hashCode should not initialize lazy associations")
+    void objectMethodsShouldNotLoadAssociations() {
+        UUID accountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000001'", UUID.class);
+        UUID customerId = jdbcTemplate.queryForObject(
+            "SELECT id_customers FROM accounts WHERE id = ?", UUID.class, accountId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findById(accountId).orElseThrow();
+            Account other = accountRepository.findById(
+                jdbcTemplate.queryForObject("SELECT id FROM accounts WHERE account_number = 'A2000002'", UUID.class))
+                .orElseThrow();
+            Customer customer = customerRepository.findById(customerId).orElseThrow();
+            Transaction transaction = new Transaction();
+            transaction.setAccount(account);
+
+            assertMaxQueries(entityManagerFactory, 0, () -> {
+                assertTrue(account.toString().contains(account.getAccountNumber()));
+                assertNotEquals(account, other);
+                assertEquals(account.hashCode(), account.hashCode());
+                assertNotNull(customer.toString());
+                assertNotNull(transaction.toString());
+            });
+            assertFalse(Hibernate.isInitialized(account.getProduct()));
+            assertFalse(Hibernate.isInitialized(account.getBranch()));
+            assertFalse(Hibernate.isInitialized(account.getTransactions()));
+            assertFalse(Hibernate.isInitialized(customer.getAccounts()));
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package id.ac.tazkia.minibank.integration.repository;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.SequenceValue;
+import id.ac.tazkia.minibank.repository.NativeSequenceRepository;
+import id.ac.tazkia.minibank.service.NativeSequenceAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NativeSequenceAllocator Integration Tests")
+class NativeSequenceAllocatorTest extends BaseIntegrationTest {
+
+    @Autowired
+    private NativeSequenceRepository nativeSequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should continue after the table value and keep the stored prefix")
+    void shouldContinueFromTableValue() {
+        jdbcTemplate.update(
+            "INSERT INTO sequence_numbers (sequence_name, last_number, prefix) VALUES ('TEST_NATIVE', 500, 'N') " +
+            "ON CONFLICT (sequence_name) DO UPDATE SET last_number = 500, prefix = 'N'");
+        NativeSequenceAllocator allocator = new NativeSequenceAllocator(nativeSequenceRepository, transactionManager, 1);
+
+        SequenceValue first = allocator.next("TEST_NATIVE", "X");
+        assertEquals("N", first.getPrefix());
+        assertEquals(501, first.getNumber());
+        assertEquals(502, allocator.next("TEST_NATIVE", "X").getNumber());
+        assertEquals(502, allocator.currentValue("TEST_NATIVE"));
+
+        allocator.reset("TEST_NATIVE", 0);
+        assertEquals(1, allocator.next("TEST_NATIVE", "X").getNumber());
+    }
+
+    @Test
+    @DisplayName("Should create sequences from the migration continuing the seeded account number")
+    void shouldContinueSeededAccountNumber() {
+        Long tableValue = jdbcTemplate.queryForObject(
+            "SELECT last_number FROM sequence_numbers WHERE sequence_name = 'ACCOUNT_NUMBER'", Long.class);
+        NativeSequenceAllocator allocator = new NativeSequenceAllocator(nativeSequenceRepository, transactionManager, 5);
+
+        long next = allocator.next("ACCOUNT_NUMBER", "ACC").getNumber();
+
+        assertTrue(next > tableValue, "Native sequence must not reuse numbers issued from the table");
+        Long cacheSize = jdbcTemplate.queryForObject(
+            "SELECT cache_size FROM pg_sequences WHERE sequencename = 'seq_account_number'", Long.class);
+        assertEquals(5L, cacheSize);
+    }
+}
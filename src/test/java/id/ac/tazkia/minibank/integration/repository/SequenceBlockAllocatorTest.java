@@ -0,0 +1,88 @@
+package id.ac.tazkia.minibank.integration.repository;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.SequenceValue;
+import id.ac.tazkia.minibank.repository.SequenceBlockRepository;
+import id.ac.tazkia.minibank.service.SequenceBlockAllocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SequenceBlockAllocator Integration Tests")
+class SequenceBlockAllocatorTest extends BaseIntegrationTest {
+
+    private static final int THREADS_PER_NODE = 8;
+    private static final int NUMBERS_PER_THREAD = 250;
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should never hand out the same number twice across threads and nodes")
+    void shouldHandOutUniqueNumbersAcrossNodes() throws Exception {
+        // Two allocators stand in for two application nodes sharing one database
+        SequenceBlockAllocator nodeA = new SequenceBlockAllocator(sequenceBlockRepository, transactionManager, 7);
+        SequenceBlockAllocator nodeB = new SequenceBlockAllocator(sequenceBlockRepository, transactionManager, 13);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_PER_NODE * 2);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS_PER_NODE * 2; i++) {
+            SequenceBlockAllocator node = i % 2 == 0 ? nodeA : nodeB;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                List<Long> numbers = new ArrayList<>();
+                for (int n = 0; n < NUMBERS_PER_THREAD; n++) {
+                    numbers.add(node.next("TEST_LEASE", "L").getNumber());
+                }
+                return numbers;
+            }));
+        }
+        startGate.countDown();
+
+        Set<Long> unique = ConcurrentHashMap.newKeySet();
+        int total = 0;
+        for (Future<List<Long>> future : futures) {
+            List<Long> numbers = future.get(60, TimeUnit.SECONDS);
+            total += numbers.size();
+            unique.addAll(numbers);
+        }
+        executor.shutdown();
+
+        assertEquals(THREADS_PER_NODE * 2 * NUMBERS_PER_THREAD, total);
+        assertEquals(total, unique.size(), "Every allocated number must be unique");
+
+        Long leasedUpTo = jdbcTemplate.queryForObject(
+            "SELECT last_number FROM sequence_numbers WHERE sequence_name = 'TEST_LEASE'", Long.class);
+        assertTrue(leasedUpTo >= total, "Database high-water mark must cover every number handed out");
+    }
+
+    @Test
+    @DisplayName("Should keep the prefix stored on an existing sequence row")
+    void shouldKeepExistingPrefix() {
+        jdbcTemplate.update(
+            "INSERT INTO sequence_numbers (sequence_name, last_number, prefix) VALUES ('TEST_PREFIX', 41, 'T') " +
+            "ON CONFLICT (sequence_name) DO UPDATE SET last_number = 41, prefix = 'T'");
+        SequenceBlockAllocator allocator = new SequenceBlockAllocator(sequenceBlockRepository, transactionManager, 10);
+
+        SequenceValue first = allocator.next("TEST_PREFIX", "TXN");
+        assertEquals("T", first.getPrefix());
+        assertEquals(42, first.getNumber());
+        assertEquals(43, allocator.next("TEST_PREFIX", "TXN").getNumber());
+
+        allocator.release("TEST_PREFIX");
+        assertEquals(52, allocator.next("TEST_PREFIX", "TXN").getNumber(),
+            "A released block is abandoned, the next lease starts after it");
+    }
+}
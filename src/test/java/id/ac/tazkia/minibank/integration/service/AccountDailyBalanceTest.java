@@ -0,0 +1,147 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.BalanceHistory;
+import id.ac.tazkia.minibank.dto.DailyBalance;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.AccountBalanceHistoryService;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Account Daily Balance Snapshot Integration Tests")
+class AccountDailyBalanceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private AccountBalanceHistoryService accountBalanceHistoryService;
+
+    @Test
+    @DisplayName("Should roll postings into the snapshot of the posting day")
+    void shouldMaintainSnapshotOnPosting() {
+        UUID accountId = accountId(jdbcTemplate, "A2000005");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+
+        postingService.post(posting(accountId, Transaction.TransactionType.DEPOSIT, "500.00"));
+        postingService.post(posting(accountId, Transaction.TransactionType.WITHDRAWAL, "200.00"));
+
+        Map<String, Object> snapshot = jdbcTemplate.queryForMap(
+            "SELECT * FROM account_daily_balances WHERE id_accounts = ? AND balance_date = ?",
+            accountId, Date.valueOf(LocalDate.now()));
+        assertEquals(0, initial.compareTo((BigDecimal) snapshot.get("opening_balance")));
+        assertEquals(0, initial.add(new BigDecimal("300.00")).compareTo((BigDecimal) snapshot.get("closing_balance")));
+        assertEquals(0, new BigDecimal("200.00").compareTo((BigDecimal) snapshot.get("total_debit")));
+        assertEquals(0, new BigDecimal("500.00").compareTo((BigDecimal) snapshot.get("total_credit")));
+        assertEquals(2, ((Number) snapshot.get("transaction_count")).intValue());
+
+        assertEquals(0, initial.compareTo(accountBalanceHistoryService.getOpeningBalance(accountId, LocalDate.now())));
+        assertEquals(0, initial.add(new BigDecimal("300.00")).compareTo(
+            accountBalanceHistoryService.getClosingBalance(accountId, LocalDate.now())));
+    }
+
+    @Test
+    @DisplayName("Should combine the nearest snapshot with the movements of the same day")
+    void shouldResolveBalanceAsOf() {
+        UUID accountId = prepareHistory("A2000006");
+
+        assertBalance("1000.00", accountBalanceHistoryService.getBalanceAsOf(accountId, LocalDateTime.of(2025, 1, 9, 12, 0)));
+        assertBalance("1500.00", accountBalanceHistoryService.getBalanceAsOf(accountId, LocalDateTime.of(2025, 1, 11, 12, 0)));
+        // Exclusive of transactions posted at exactly the requested time
+        assertBalance("1500.00", accountBalanceHistoryService.getBalanceAsOf(accountId, LocalDateTime.of(2025, 1, 12, 10, 0)));
+        assertBalance("1800.00", accountBalanceHistoryService.getBalanceAsOf(accountId, LocalDateTime.of(2025, 1, 12, 12, 0)));
+        assertBalance("1700.00", accountBalanceHistoryService.getClosingBalance(accountId, LocalDate.of(2025, 1, 12)));
+    }
+
+    @Test
+    @DisplayName("Should carry balances over days without postings and average the closing balances")
+    void shouldBuildBalanceHistory() {
+        UUID accountId = prepareHistory("A2000002");
+
+        BalanceHistory history = accountBalanceHistoryService.getBalanceHistory(
+            accountId, LocalDate.of(2025, 1, 9), LocalDate.of(2025, 1, 13));
+
+        List<BigDecimal> closings = history.getDays().stream().map(DailyBalance::getClosingBalance).toList();
+        assertEquals(5, closings.size());
+        assertBalance("1000.00", closings.get(0));
+        assertBalance("1500.00", closings.get(1));
+        assertBalance("1500.00", closings.get(2));
+        assertBalance("1700.00", closings.get(3));
+        assertBalance("1700.00", closings.get(4));
+        assertEquals(0, history.getDays().get(2).getTransactionCount());
+        assertBalance("1000.00", history.getOpeningBalance());
+        assertBalance("1700.00", history.getClosingBalance());
+        assertBalance("1480.00", history.getAverageDailyBalance());
+
+        assertThrows(IllegalArgumentException.class, () -> accountBalanceHistoryService.getBalanceHistory(
+            accountId, LocalDate.of(2025, 1, 13), LocalDate.of(2025, 1, 9)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the current balance for accounts without snapshots")
+    void shouldFallBackToCurrentBalance() {
+        UUID accountId = accountId(jdbcTemplate, "A2000001");
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+        BigDecimal current = balanceOf(jdbcTemplate, accountId);
+
+        assertEquals(0, current.compareTo(accountBalanceHistoryService.getBalanceAsOf(accountId, LocalDateTime.now().minusDays(1))));
+        assertThrows(IllegalArgumentException.class,
+            () -> accountBalanceHistoryService.getBalanceAsOf(UUID.randomUUID(), LocalDateTime.now()));
+    }
+
+    /**
+     * 1000 until 10 Jan, a credit of 500 on 10 Jan, then on 12 Jan a credit of 300 at 10:00
+     * and a debit of 100 at 15:00.
+     */
+    private UUID prepareHistory(String accountNumber) {
+        UUID accountId = accountId(jdbcTemplate, accountNumber);
+        jdbcTemplate.update("DELETE FROM account_daily_balances WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+
+        insertTransaction(accountId, accountNumber + "-1", "DEPOSIT", "500.00", "1000.00", "1500.00", LocalDateTime.of(2025, 1, 10, 9, 0));
+        insertTransaction(accountId, accountNumber + "-2", "DEPOSIT", "300.00", "1500.00", "1800.00", LocalDateTime.of(2025, 1, 12, 10, 0));
+        insertTransaction(accountId, accountNumber + "-3", "WITHDRAWAL", "100.00", "1800.00", "1700.00", LocalDateTime.of(2025, 1, 12, 15, 0));
+        insertSnapshot(accountId, LocalDate.of(2025, 1, 10), "1000.00", "1500.00", "0.00", "500.00", 1);
+        insertSnapshot(accountId, LocalDate.of(2025, 1, 12), "1500.00", "1700.00", "100.00", "300.00", 2);
+        return accountId;
+    }
+
+    private void insertTransaction(UUID accountId, String number, String type, String amount,
+                                   String before, String after, LocalDateTime date) {
+        jdbcTemplate.update(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+            "balance_before, balance_after, description, transaction_date) VALUES (?, ?, ?, ?, ?, ?, 'Balance test', ?)",
+            accountId, number, type, new BigDecimal(amount), new BigDecimal(before), new BigDecimal(after),
+            Timestamp.valueOf(date));
+    }
+
+    private void insertSnapshot(UUID accountId, LocalDate date, String opening, String closing,
+                                String debit, String credit, int count) {
+        jdbcTemplate.update(
+            "INSERT INTO account_daily_balances (id_accounts, balance_date, opening_balance, closing_balance, " +
+            "total_debit, total_credit, transaction_count) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            accountId, Date.valueOf(date), new BigDecimal(opening), new BigDecimal(closing),
+            new BigDecimal(debit), new BigDecimal(credit), count);
+    }
+
+    private void assertBalance(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,168 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.AccountDirectoryEntry;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.repository.AccountDirectoryRepository;
+import id.ac.tazkia.minibank.service.AccountDirectory;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Account Directory Integration Tests")
+class AccountDirectoryTest extends BaseIntegrationTest {
+
+    private static final long READY_TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    private AccountDirectory accountDirectory;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private TransferService transferService;
+
+    @MockitoSpyBean
+    private AccountDirectoryRepository accountDirectoryRepository;
+
+    @BeforeEach
+    void awaitFilter() throws InterruptedException {
+        // The filter is built once the invalidation listener has connected
+        long deadline = System.currentTimeMillis() + READY_TIMEOUT_MILLIS;
+        while (!accountDirectory.isFilterReady()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Account number filter was not built");
+            Thread.sleep(50);
+        }
+        clearInvocations(accountDirectoryRepository);
+    }
+
+    @Test
+    @DisplayName("Should look up many account numbers with one query")
+    void shouldLookUpAccountNumbersInBulk() {
+        // Numbers no other test here looks up, so none is in memory yet
+        Map<String, AccountDirectoryEntry> found = accountDirectory.findByAccountNumbers(
+            List.of("A2000005", "A2000006", "A2000005", "NOSUCHACCT", " "));
+
+        assertEquals(Set.of("A2000005", "A2000006"), found.keySet());
+        assertEquals("A2000006", found.get("A2000006").getAccountNumber());
+        verify(accountDirectoryRepository, times(1)).findByAccountNumbers(any());
+
+        // Now answered from memory
+        assertEquals(1, accountDirectory.findByAccountNumbers(List.of("A2000005")).size());
+        assertTrue(accountDirectory.findByAccountNumber("A2000006").isPresent());
+        verify(accountDirectoryRepository, times(1)).findByAccountNumbers(any());
+        verify(accountDirectoryRepository, never()).findByAccountNumber(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown account number without a query")
+    void shouldRejectUnknownNumberWithoutQuery() {
+        // A handful of numbers, since one in a hundred may be a false positive
+        for (int i = 0; i < 5; i++) {
+            assertTrue(accountDirectory.findByAccountNumber("X999999" + i).isEmpty());
+        }
+        verify(accountDirectoryRepository, atMost(1)).findByAccountNumber(anyString());
+
+        TransferRequest request = transferRequest("A2000001", "NOSUCHACCT", "1000");
+        UUID sourceId = request.getFromAccountId();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> transferService.validateTransfer(request, transferService.getAccountById(sourceId)));
+        assertEquals("Destination account not found: NOSUCHACCT", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups from memory")
+    void shouldCacheLookups() {
+        AccountDirectoryEntry entry = accountDirectory.findByAccountNumber("A2000002").orElseThrow();
+        assertEquals(entry, accountDirectory.findByAccountNumber("A2000002").orElseThrow());
+        assertEquals(entry, accountDirectory.findById(entry.getAccountId()).orElseThrow());
+
+        verify(accountDirectoryRepository, times(1)).findByAccountNumber("A2000002");
+        verify(accountDirectoryRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should see a status change once the account change is published")
+    void shouldFollowPublishedStatusChange() {
+        AccountDirectoryEntry entry = accountDirectory.findByAccountNumber("A2000004").orElseThrow();
+        assertTrue(entry.isActive());
+
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", entry.getAccountId());
+        assertTrue(accountDirectory.findByAccountNumber("A2000004").orElseThrow().isActive());
+
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, entry.getAccountId());
+        assertFalse(accountDirectory.findByAccountNumber("A2000004").orElseThrow().isActive());
+
+        TransferRequest request = transferRequest("A2000001", "A2000004", "1000");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> transferService.validateTransfer(request));
+        assertEquals("Destination account is not active", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should find an account opened after the filter was built")
+    void shouldFindNewlyPublishedAccount() throws InterruptedException {
+        UUID accountId = UUID.randomUUID();
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id, id_customers, id_products, id_branches,
+                account_number, account_name, balance, status, opened_date, created_by)
+            SELECT ?, id_customers, id_products, id_branches,
+                'ADIR0001', 'Directory Test Account', 0, 'ACTIVE', CURRENT_DATE, 'TEST_SYSTEM'
+            FROM accounts WHERE account_number = 'A2000001'
+            """, accountId);
+
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, accountId);
+        // Until the filter holds the new number it is not trusted, so the lookup goes to the table
+        AccountDirectoryEntry entry = accountDirectory.findByAccountNumber("ADIR0001").orElseThrow();
+        assertEquals(accountId, entry.getAccountId());
+
+        awaitFilter();
+        accountDirectory.onInvalidation(CacheInvalidationBus.EntityType.CUSTOMER, entry.getCustomerId());
+        assertEquals(accountId, accountDirectory.findByAccountNumber("ADIR0001").orElseThrow().getAccountId());
+    }
+
+    @Test
+    @DisplayName("Should validate and process a transfer through the directory")
+    void shouldTransferThroughDirectory() {
+        TransferRequest request = transferRequest("A2000001", "A2000003", "1000");
+        transferService.validateTransfer(request);
+
+        UUID destinationId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000003'", UUID.class);
+        assertEquals(destinationId, request.getToAccountId());
+        assertNotNull(request.getDestinationAccountName());
+        assertNotNull(request.getDestinationCustomerName());
+
+        List<PostingResult> results = transferService.processTransfer(request);
+        assertEquals("A2000001", results.get(0).getAccountNumber());
+        assertEquals("A2000003", results.get(1).getAccountNumber());
+    }
+
+    private TransferRequest transferRequest(String from, String to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = ?", UUID.class, from));
+        request.setToAccountNumber(to);
+        request.setAmount(new BigDecimal(amount));
+        request.setReferenceNumber("DIR" + System.nanoTime());
+        request.setCreatedBy("TEST_SYSTEM");
+        return request;
+    }
+}
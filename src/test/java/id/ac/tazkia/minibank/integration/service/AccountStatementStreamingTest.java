@@ -0,0 +1,125 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.StatementSummary;
+import id.ac.tazkia.minibank.entity.Account;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import id.ac.tazkia.minibank.service.AccountStatementPdfService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Streaming Account Statement Integration Tests")
+class AccountStatementStreamingTest extends BaseIntegrationTest {
+
+    private static final int TRANSACTION_COUNT = 1500;
+
+    @Autowired
+    private AccountStatementPdfService accountStatementPdfService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000005'", UUID.class);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+
+        // Every third transaction is a withdrawal; one transaction per hour from 1 Jan 2025
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            rows.add(new Object[]{accountId, String.format("STMT%05d", i), i % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT",
+                BigDecimal.valueOf(1000 + i), Timestamp.valueOf(base.plusHours(i))});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+            "balance_before, balance_after, description, transaction_date) VALUES (?, ?, ?, ?, 0, 0, 'Statement test', ?)",
+            rows);
+    }
+
+    @Test
+    @DisplayName("Should stream a long statement with totals matching the database")
+    void shouldStreamLongStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        StatementSummary summary = transactionTemplate.execute(status -> {
+            Account account = accountRepository.findById(accountId).orElseThrow();
+            StatementSummary written = accountStatementPdfService.writeAccountStatementPdf(account, start, end, out);
+            // Rows are detached as they are read: only the account and its associations remain managed
+            int managed = entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+            assertTrue(managed < 10, "Statement rows must not accumulate in the persistence context: " + managed);
+            return written;
+        });
+
+        assertNotNull(summary);
+        assertEquals(TRANSACTION_COUNT, summary.getTransactionCount());
+        assertEquals(0, summary.getTotalDebit().compareTo(sum("WITHDRAWAL")));
+        assertEquals(0, summary.getTotalCredit().compareTo(sum("DEPOSIT")));
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            assertTrue(reader.getNumberOfPages() > 10, "1500 rows span many pages");
+            String firstPage = PdfTextExtractor.getTextFromPage(reader, 1);
+            assertTrue(firstPage.contains("STMT00000"), "Rows are in posting order");
+            int pages = reader.getNumberOfPages();
+            String lastPages = PdfTextExtractor.getTextFromPage(reader, pages - 1) + PdfTextExtractor.getTextFromPage(reader, pages);
+            assertTrue(lastPages.contains("STMT01499"), "The last row is at the end");
+            assertTrue(lastPages.contains("Jumlah Transaksi"), "The summary follows the table");
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write an empty statement when the period has no transactions")
+    void shouldWriteEmptyStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementSummary summary = transactionTemplate.execute(status -> accountStatementPdfService.writeAccountStatementPdf(
+            accountRepository.findById(accountId).orElseThrow(), LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31), out));
+
+        assertNotNull(summary);
+        assertEquals(0, summary.getTransactionCount());
+        PdfReader reader = new PdfReader(out.toByteArray());
+        try {
+            assertTrue(PdfTextExtractor.getTextFromPage(reader, 1).contains("Tidak ada transaksi"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    private BigDecimal sum(String transactionType) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE id_accounts = ? AND transaction_type = ?",
+            BigDecimal.class, accountId, transactionType);
+    }
+}
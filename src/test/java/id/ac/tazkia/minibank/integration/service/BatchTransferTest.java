@@ -0,0 +1,190 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.BatchTransferRequest;
+import id.ac.tazkia.minibank.dto.BatchTransferResult;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.BatchTransferService;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Batch Transfer Integration Tests")
+class BatchTransferTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should post the valid lines and report the invalid ones")
+    void shouldPostValidLinesAndRejectInvalidOnes() {
+        UUID sourceId = accountId(jdbcTemplate, "A2000005");
+        BigDecimal source = balanceOf(jdbcTemplate, sourceId);
+        BigDecimal first = balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000001"));
+        BigDecimal second = balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000002"));
+        int sourceRowsBefore = transactionCount(sourceId);
+
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setFromAccountId(sourceId);
+        request.setDescription("Payroll");
+        request.setLines(List.of(
+            line("A2000001", "100.00"),
+            line("A2000002", "200.00"),
+            line("A2000001", "50.00"),
+            line("A9999999", "10.00"),
+            line("A2000003", "-5.00"),
+            line("A2000005", "10.00"),
+            line("A2000003", "1.234")));
+
+        BatchTransferResult result = batchTransferService.process(request);
+
+        assertEquals(7, result.getLineCount());
+        assertEquals(3, result.getPostedCount());
+        assertEquals(4, result.getRejectedCount());
+        assertEquals(0, new BigDecimal("350.00").compareTo(result.getPostedAmount()));
+        assertEquals(List.of(BatchTransferResult.LineStatus.POSTED, BatchTransferResult.LineStatus.POSTED,
+                BatchTransferResult.LineStatus.POSTED, BatchTransferResult.LineStatus.REJECTED,
+                BatchTransferResult.LineStatus.REJECTED, BatchTransferResult.LineStatus.REJECTED,
+                BatchTransferResult.LineStatus.REJECTED),
+            result.getLines().stream().map(BatchTransferResult.LineResult::getStatus).toList());
+        assertTrue(result.getLines().get(3).getMessage().contains("not found"));
+        assertEquals("Cannot transfer to the same account", result.getLines().get(5).getMessage());
+
+        assertEquals(0, source.subtract(new BigDecimal("350.00")).compareTo(balanceOf(jdbcTemplate, sourceId)));
+        assertEquals(0, source.subtract(new BigDecimal("350.00")).compareTo(result.getBalanceAfter()));
+        assertEquals(0, first.add(new BigDecimal("150.00")).compareTo(balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000001"))));
+        assertEquals(0, second.add(new BigDecimal("200.00")).compareTo(balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000002"))));
+
+        // One debit row per line, with running balances in line order
+        assertEquals(sourceRowsBefore + 3, transactionCount(sourceId));
+        List<Map<String, Object>> debits = jdbcTemplate.queryForList(
+            "SELECT balance_before, balance_after FROM transactions WHERE transaction_number IN (?, ?, ?) " +
+            "ORDER BY balance_before DESC",
+            result.getLines().get(0).getDebitTransactionNumber(),
+            result.getLines().get(1).getDebitTransactionNumber(),
+            result.getLines().get(2).getDebitTransactionNumber());
+        assertEquals(0, source.compareTo((BigDecimal) debits.get(0).get("balance_before")));
+        assertEquals(0, ((BigDecimal) debits.get(0).get("balance_after")).compareTo((BigDecimal) debits.get(1).get("balance_before")));
+        assertEquals(0, balanceOf(jdbcTemplate, sourceId).compareTo((BigDecimal) debits.get(2).get("balance_after")));
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE transaction_number IN (?, ?) AND transaction_type = 'TRANSFER_IN'",
+            Integer.class,
+            result.getLines().get(0).getCreditTransactionNumber(),
+            result.getLines().get(2).getCreditTransactionNumber()));
+
+        BigDecimal closing = jdbcTemplate.queryForObject(
+            "SELECT closing_balance FROM account_daily_balances WHERE id_accounts = ? AND balance_date = ?",
+            BigDecimal.class, sourceId, Date.valueOf(LocalDate.now()));
+        assertEquals(0, balanceOf(jdbcTemplate, sourceId).compareTo(closing));
+    }
+
+    @Test
+    @DisplayName("Should post nothing when the source cannot cover the total")
+    void shouldRejectWholeBatchOnInsufficientBalance() {
+        UUID sourceId = accountId(jdbcTemplate, "A2000003");
+        BigDecimal source = balanceOf(jdbcTemplate, sourceId);
+        BigDecimal destination = balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000004"));
+
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setFromAccountId(sourceId);
+        request.setLines(List.of(
+            line("A2000004", "1.00"),
+            line("A2000004", source.toPlainString())));
+
+        PostingRejectedException e = assertThrows(PostingRejectedException.class,
+            () -> batchTransferService.process(request));
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, e.getReason());
+        assertEquals(0, source.compareTo(balanceOf(jdbcTemplate, sourceId)));
+        assertEquals(0, destination.compareTo(balanceOf(jdbcTemplate, accountId(jdbcTemplate, "A2000004"))));
+    }
+
+    @Test
+    @DisplayName("Should refuse transfers to an account closed before the batch posts")
+    void shouldRefuseDestinationInactiveUnderLock() {
+        UUID sourceId = accountId(jdbcTemplate, "A2000006");
+        UUID activeId = accountId(jdbcTemplate, "A2000002");
+        UUID frozenId = accountId(jdbcTemplate, "A2000003");
+        BigDecimal source = balanceOf(jdbcTemplate, sourceId);
+        BigDecimal frozen = balanceOf(jdbcTemplate, frozenId);
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", frozenId);
+        try {
+            List<List<PostingResult>> results = postingService.postTransferBatch(
+                List.of(leg(Transaction.TransactionType.TRANSFER_OUT, sourceId, frozenId, "25.00"),
+                    leg(Transaction.TransactionType.TRANSFER_OUT, sourceId, activeId, "75.00")),
+                List.of(leg(Transaction.TransactionType.TRANSFER_IN, frozenId, sourceId, "25.00"),
+                    leg(Transaction.TransactionType.TRANSFER_IN, activeId, sourceId, "75.00")));
+
+            assertTrue(results.get(0).isEmpty());
+            assertEquals(2, results.get(1).size());
+            assertEquals(0, source.subtract(new BigDecimal("75.00")).compareTo(balanceOf(jdbcTemplate, sourceId)));
+            assertEquals(0, frozen.compareTo(balanceOf(jdbcTemplate, frozenId)));
+        } finally {
+            jdbcTemplate.update("UPDATE accounts SET status = 'ACTIVE' WHERE id = ?", frozenId);
+        }
+    }
+
+    @Test
+    @DisplayName("Should read CSV lines by column name and reject malformed amounts with their line")
+    void shouldReadCsv() {
+        List<BatchTransferRequest.Line> lines = batchTransferService.readCsv(new StringReader(
+            "\uFEFFAmount,toAccountNumber,referenceNumber\n" +
+            "1500000.00,A2000001,PAY-001\n" +
+            "\n" +
+            "\"2500.00\",A2000002,\n"));
+
+        assertEquals(2, lines.size());
+        assertEquals("A2000001", lines.get(0).getToAccountNumber());
+        assertEquals(0, new BigDecimal("1500000.00").compareTo(lines.get(0).getAmount()));
+        assertEquals("PAY-001", lines.get(0).getReferenceNumber());
+        assertNull(lines.get(1).getReferenceNumber());
+        assertNull(lines.get(1).getDescription());
+
+        IllegalArgumentException badAmount = assertThrows(IllegalArgumentException.class,
+            () -> batchTransferService.readCsv(new StringReader(
+                "toAccountNumber,amount\nA2000001,100.00\nA2000002,abc\n")));
+        assertTrue(badAmount.getMessage().startsWith("Line 3"), badAmount.getMessage());
+        assertThrows(IllegalArgumentException.class,
+            () -> batchTransferService.readCsv(new StringReader("account,amount\nA2000001,100.00\n")));
+    }
+
+    private BatchTransferRequest.Line line(String toAccountNumber, String amount) {
+        BatchTransferRequest.Line line = new BatchTransferRequest.Line();
+        line.setToAccountNumber(toAccountNumber);
+        line.setAmount(new BigDecimal(amount));
+        return line;
+    }
+
+    private PostingRequest leg(Transaction.TransactionType type, UUID accountId, UUID counterpartyId, String amount) {
+        PostingRequest leg = new PostingRequest();
+        leg.setAccountId(accountId);
+        leg.setCounterpartyAccountId(counterpartyId);
+        leg.setTransactionType(type);
+        leg.setAmount(new BigDecimal(amount));
+        leg.setDescription("Batch test");
+        leg.setChannel(Transaction.TransactionChannel.TRANSFER);
+        return leg;
+    }
+
+    private int transactionCount(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id_accounts = ?", Integer.class, accountId);
+    }
+}
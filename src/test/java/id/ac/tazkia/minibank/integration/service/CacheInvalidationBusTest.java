@@ -0,0 +1,103 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cache Invalidation Bus Integration Tests")
+class CacheInvalidationBusTest extends BaseIntegrationTest {
+
+    private static final String CHANNEL = "minibank_cache_invalidation";
+    private static final long DELIVERY_TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void awaitListener() throws InterruptedException {
+        // The listener connects in the background; until then it also flushes everything once
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        while (!cacheInvalidationBus.isListening()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Invalidation listener did not start");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict local caches when another node announces a change")
+    void shouldEvictOnRemoteNotification() throws InterruptedException {
+        Product product = productService.findActiveProducts().get(0);
+        renameBehindHibernate(product.getId(), "Renamed On Another Node");
+        assertNotEquals("Renamed On Another Node", cachedName(product.getId()));
+
+        // Unreadable events are skipped without stopping the listener
+        notifyAsOtherNode("not an invalidation");
+        notifyAsOtherNode("other-node UNKNOWN_TYPE *");
+        notifyAsOtherNode("other-node PRODUCT " + product.getId());
+
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        while (!"Renamed On Another Node".equals(cachedName(product.getId()))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Invalidation was not delivered");
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict local caches as soon as the publishing transaction commits")
+    void shouldEvictLocallyOnCommit() {
+        Product product = productService.findActiveProducts().get(0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            renameBehindHibernate(product.getId(), "Renamed On This Node");
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, product.getId());
+            assertNotEquals("Renamed On This Node", cachedName(product.getId()));
+        });
+
+        assertEquals("Renamed On This Node", cachedName(product.getId()));
+    }
+
+    @Test
+    @DisplayName("Should not evict anything when the publishing transaction rolls back")
+    void shouldNotEvictOnRollback() {
+        Product product = productService.findActiveProducts().get(0);
+        String name = cachedName(product.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.PRODUCT, product.getId());
+            status.setRollbackOnly();
+        });
+        renameBehindHibernate(product.getId(), "Renamed After Rollback");
+
+        assertEquals(name, cachedName(product.getId()));
+    }
+
+    private String cachedName(UUID productId) {
+        return productService.findActiveProducts().stream()
+            .filter(p -> p.getId().equals(productId))
+            .findFirst().orElseThrow().getProductName();
+    }
+
+    private void renameBehindHibernate(UUID productId, String name) {
+        jdbcTemplate.update("UPDATE products SET product_name = ? WHERE id = ?", name, productId);
+    }
+
+    private void notifyAsOtherNode(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+}
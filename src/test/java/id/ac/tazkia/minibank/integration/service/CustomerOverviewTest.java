@@ -0,0 +1,96 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.CustomerOverview;
+import id.ac.tazkia.minibank.service.CustomerOverviewService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Customer Overview Integration Tests")
+class CustomerOverviewTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerOverviewService customerOverviewService;
+
+    @Test
+    @DisplayName("Should assemble profile, accounts, latest transactions and approvals of a customer with many accounts")
+    void shouldAssembleOverview() {
+        UUID customerId = jdbcTemplate.queryForObject(
+            "SELECT id_customers FROM accounts WHERE account_number = 'A2000005'", UUID.class);
+        jdbcTemplate.update("""
+            INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name,
+                balance, status, opened_date, created_by)
+            SELECT id_customers, id_products, id_branches, 'AOVR' || lpad(n::text, 4, '0'), 'Overview Account ' || n,
+                n * 100, 'ACTIVE', CURRENT_DATE, 'TEST_SYSTEM'
+            FROM accounts CROSS JOIN generate_series(1, 30) n
+            WHERE account_number = 'A2000005'
+            """);
+        // Five transactions on each account, one hour apart per account
+        jdbcTemplate.update("""
+            INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount,
+                balance_before, balance_after, description, channel, transaction_date, created_by)
+            SELECT a.id, 'TOVR' || a.account_number || '-' || n, 'DEPOSIT', 10, 0, 10, 'Overview test', 'TELLER',
+                ? + (CAST(substring(a.account_number, 5) AS INTEGER) * INTERVAL '1 hour') + (n * INTERVAL '1 minute'),
+                'TEST_SYSTEM'
+            FROM accounts a CROSS JOIN generate_series(1, 5) n
+            WHERE a.account_number LIKE 'AOVR%'
+            """, Timestamp.valueOf(LocalDateTime.of(2030, 1, 1, 0, 0)));
+        UUID passbookAccountId = accountId(jdbcTemplate, "AOVR0001");
+        jdbcTemplate.update(
+            "INSERT INTO passbooks (id_accounts, passbook_number, created_by) VALUES (?, 'PBOVR0001', 'TEST_SYSTEM')",
+            passbookAccountId);
+        jdbcTemplate.update(
+            "INSERT INTO approval_requests (request_type, entity_type, entity_id, requested_by) " +
+            "VALUES ('ACCOUNT_OPENING', 'ACCOUNT', ?, 'TEST_SYSTEM')", accountId(jdbcTemplate, "AOVR0002"));
+
+        CustomerOverview overview = customerOverviewService.getOverview(customerId, 7).orElseThrow();
+
+        assertEquals(customerId, overview.getCustomerId());
+        assertNotNull(overview.getDisplayName());
+        assertNotNull(overview.getBranchCode());
+
+        List<CustomerOverview.AccountSummary> accounts = overview.getAccounts();
+        assertEquals(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM accounts WHERE id_customers = ?", Integer.class, customerId), accounts.size());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT SUM(balance) FROM accounts WHERE id_customers = ?", BigDecimal.class, customerId)
+            .compareTo(overview.getTotalBalance()));
+        assertTrue(accounts.stream().allMatch(a -> a.getProductName() != null));
+
+        CustomerOverview.AccountSummary withPassbook = accounts.stream()
+            .filter(a -> a.getAccountId().equals(passbookAccountId)).findFirst().orElseThrow();
+        assertEquals("PBOVR0001", withPassbook.getPassbookNumber());
+        assertTrue(withPassbook.isUnprintedTransactions());
+
+        // The newest transactions are those of the accounts with the highest numbers
+        List<CustomerOverview.RecentTransaction> recent = overview.getRecentTransactions();
+        assertEquals(7, recent.size());
+        assertEquals(recent.stream().sorted(Comparator.comparing(CustomerOverview.RecentTransaction::getTransactionDate)
+            .reversed()).toList(), recent);
+        assertEquals("AOVR0030", recent.get(0).getAccountNumber());
+        assertEquals("AOVR0029", recent.get(6).getAccountNumber());
+
+        assertEquals(1, overview.getPendingApprovals().size());
+        assertEquals(accountId(jdbcTemplate, "AOVR0002"), overview.getPendingApprovals().get(0).getEntityId());
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an unknown customer and reject an invalid limit")
+    void shouldHandleUnknownCustomerAndInvalidLimit() {
+        assertTrue(customerOverviewService.getOverview(UUID.randomUUID(), 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> customerOverviewService.getOverview(UUID.randomUUID(), 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> customerOverviewService.getOverview(UUID.randomUUID(), CustomerOverviewService.MAX_TRANSACTION_LIMIT + 1));
+    }
+}
@@ -0,0 +1,78 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.entity.Customer;
+import id.ac.tazkia.minibank.service.CustomerSearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Customer Search Integration Tests")
+class CustomerSearchTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CustomerSearchService customerSearchService;
+
+    @Test
+    @DisplayName("Should find backfilled customers by name, email and identity number")
+    void shouldFindBackfilledCustomers() {
+        assertEquals(List.of("C1000002"), customerNumbers(customerSearchService.search("Nurhaliza", null, PageRequest.of(0, 10))));
+        assertEquals(List.of("C1000004"), customerNumbers(customerSearchService.search("budi.santoso@", null, PageRequest.of(0, 10))));
+        assertEquals(List.of("C1000001"), customerNumbers(customerSearchService.search("3271081503850001", null, PageRequest.of(0, 10))));
+        assertEquals(List.of("C1000003"), customerNumbers(customerSearchService.search("  teknologi   MAJU ", null, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    @DisplayName("Should tolerate a typo and rank the exact customer number first")
+    void shouldRankMatches() {
+        assertEquals(List.of("C1000002"), customerNumbers(customerSearchService.search("Nurhalizu", null, PageRequest.of(0, 10))));
+
+        Page<Customer> page = customerSearchService.search("C100000", null, PageRequest.of(0, 2));
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+
+        List<Customer> exact = customerSearchService.searchActive("c1000003", null, 10);
+        assertEquals("C1000003", exact.get(0).getCustomerNumber());
+    }
+
+    @Test
+    @DisplayName("Should keep the search table in step with customer inserts and updates")
+    void shouldFollowCustomerChanges() {
+        UUID branchId = jdbcTemplate.queryForObject("SELECT id FROM branches WHERE branch_code = 'HO001'", UUID.class);
+        UUID customerId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (id, customer_type, customer_number, id_branches, email, status) " +
+            "VALUES (?, 'CORPORATE', 'C9000001', ?, 'finance@example.co.id', 'ACTIVE')", customerId, branchId);
+        jdbcTemplate.update("INSERT INTO corporate_customers (id, company_name, company_registration_number) " +
+            "VALUES (?, 'PT. Sinar Abadi', '9988776655')", customerId);
+
+        assertEquals(List.of("C9000001"), customerNumbers(
+            customerSearchService.searchActive("sinar abadi", Customer.CustomerType.CORPORATE, 10)));
+        assertTrue(customerSearchService.searchActive("sinar abadi", Customer.CustomerType.PERSONAL, 10).isEmpty());
+
+        jdbcTemplate.update("UPDATE corporate_customers SET company_name = 'PT. Cahaya Abadi' WHERE id = ?", customerId);
+        assertTrue(customerSearchService.searchActive("sinar abadi", null, 10).isEmpty());
+        assertEquals(List.of("C9000001"), customerNumbers(customerSearchService.searchActive("cahaya", null, 10)));
+
+        jdbcTemplate.update("UPDATE customers SET status = 'INACTIVE' WHERE id = ?", customerId);
+        assertTrue(customerSearchService.searchActive("cahaya", null, 10).isEmpty());
+        assertEquals(1, customerSearchService.search("cahaya", null, PageRequest.of(0, 10)).getTotalElements());
+
+        jdbcTemplate.update("DELETE FROM customers WHERE id = ?", customerId);
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM customer_search WHERE id_customers = ?", Integer.class, customerId));
+    }
+
+    private List<String> customerNumbers(Iterable<Customer> customers) {
+        List<String> numbers = new ArrayList<>();
+        customers.forEach(customer -> numbers.add(customer.getCustomerNumber()));
+        return numbers;
+    }
+}
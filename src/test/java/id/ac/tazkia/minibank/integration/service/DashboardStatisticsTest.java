@@ -0,0 +1,168 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.DashboardStatistics;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.DashboardStatisticsService;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Dashboard Statistics Integration Tests")
+class DashboardStatisticsTest extends BaseIntegrationTest {
+
+    private static final int POSTING_THREADS = 4;
+    private static final int POSTINGS_PER_THREAD = 2000;
+
+    @Autowired
+    private DashboardStatisticsService dashboardStatisticsService;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should count postings as they commit and persist them once")
+    void shouldCountPostingsIncrementally() {
+        UUID accountId = accountId(jdbcTemplate, "A2000001");
+        UUID branchId = branchId(accountId);
+        dashboardStatisticsService.flush();
+        DashboardStatistics.BranchStatistics before = branch(dashboardStatisticsService.getStatistics(branchId));
+
+        postingService.post(posting(accountId, Transaction.TransactionType.DEPOSIT, "150.00"));
+        postingService.post(posting(accountId, Transaction.TransactionType.WITHDRAWAL, "40.00"));
+
+        DashboardStatistics.BranchStatistics counted = branch(dashboardStatisticsService.getStatistics(branchId));
+        assertEquals(before.getDeposits().getCount() + 1, counted.getDeposits().getCount());
+        assertEquals(0, before.getDeposits().getVolume().add(new BigDecimal("150.00"))
+            .compareTo(counted.getDeposits().getVolume()));
+        assertEquals(before.getWithdrawals().getCount() + 1, counted.getWithdrawals().getCount());
+
+        // Flushing moves the counts into the table without counting them twice
+        dashboardStatisticsService.flush();
+        dashboardStatisticsService.flush();
+        DashboardStatistics.BranchStatistics flushed = branch(dashboardStatisticsService.getStatistics(branchId));
+        assertEquals(counted.getDeposits().getCount(), flushed.getDeposits().getCount());
+        assertEquals(0, counted.getDeposits().getVolume().compareTo(flushed.getDeposits().getVolume()));
+        assertEquals(counted.getDeposits().getCount(), persistedCount(LocalDate.now(), branchId, "DEPOSIT"));
+    }
+
+    @Test
+    @DisplayName("Should count a transfer once and include counts flushed by other nodes")
+    void shouldMergeOtherNodes() {
+        UUID fromId = accountId(jdbcTemplate, "A2000003");
+        UUID toId = accountId(jdbcTemplate, "A2000004");
+        UUID branchId = branchId(fromId);
+        dashboardStatisticsService.flush();
+        long bankTransfers = dashboardStatisticsService.getStatistics(null).getBank().getTransfers().getCount();
+
+        PostingRequest out = posting(fromId, Transaction.TransactionType.TRANSFER_OUT, "25.00");
+        out.setCounterpartyAccountId(toId);
+        PostingRequest in = posting(toId, Transaction.TransactionType.TRANSFER_IN, "25.00");
+        in.setCounterpartyAccountId(fromId);
+        postingService.postTransfer(out, in);
+        assertEquals(bankTransfers + 1, dashboardStatisticsService.getStatistics(null).getBank().getTransfers().getCount());
+
+        // Another node adds what it counted since its last flush
+        jdbcTemplate.update(
+            "INSERT INTO dashboard_daily_counters (counter_date, id_branches, activity, event_count, volume) " +
+            "VALUES (?, ?, 'TRANSFER', 3, 300.00) ON CONFLICT (counter_date, id_branches, activity) DO UPDATE SET " +
+            "event_count = dashboard_daily_counters.event_count + 3, volume = dashboard_daily_counters.volume + 300.00",
+            Date.valueOf(LocalDate.now()), branchId);
+        dashboardStatisticsService.flush();
+
+        DashboardStatistics statistics = dashboardStatisticsService.getStatistics(null);
+        assertEquals(bankTransfers + 4, statistics.getBank().getTransfers().getCount());
+        assertEquals(statistics.getBank().getTransfers().getCount(),
+            statistics.getBranches().stream().mapToLong(b -> b.getTransfers().getCount()).sum());
+    }
+
+    @Test
+    @DisplayName("Should not lose postings of a past day counted while it is being flushed")
+    void shouldKeepLatePostingsOfPastDay() throws Exception {
+        UUID branchId = branchId(accountId(jdbcTemplate, "A2000002"));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        long before = persistedCount(yesterday, branchId, "DEPOSIT");
+
+        ExecutorService executor = Executors.newFixedThreadPool(POSTING_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < POSTING_THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    dashboardStatisticsService.onPosted(List.of(deposit(branchId, yesterday)));
+                }
+            }));
+        }
+        // Flushing takes the past day's tallies out while the postings keep coming
+        while (!futures.stream().allMatch(Future::isDone)) {
+            dashboardStatisticsService.flush();
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        dashboardStatisticsService.flush();
+        dashboardStatisticsService.flush();
+
+        assertEquals(before + POSTING_THREADS * POSTINGS_PER_THREAD, persistedCount(yesterday, branchId, "DEPOSIT"));
+        dashboardStatisticsService.flush();
+        assertEquals(before + POSTING_THREADS * POSTINGS_PER_THREAD, persistedCount(yesterday, branchId, "DEPOSIT"));
+    }
+
+    @Test
+    @DisplayName("Should recount active accounts and pending approvals from the tables")
+    void shouldReconcileGauges() {
+        dashboardStatisticsService.reconcile();
+        DashboardStatistics.BranchStatistics bank = dashboardStatisticsService.getStatistics(null).getBank();
+
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE status = 'ACTIVE'", Long.class),
+            bank.getActiveAccountTotal());
+        assertEquals(bank.getActiveAccountTotal(),
+            bank.getActiveAccounts().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM approval_requests WHERE approval_status = 'PENDING' AND branch_id IS NOT NULL", Long.class),
+            bank.getPendingApprovals());
+    }
+
+    private DashboardStatistics.BranchStatistics branch(DashboardStatistics statistics) {
+        assertEquals(1, statistics.getBranches().size());
+        return statistics.getBranches().get(0);
+    }
+
+    private long persistedCount(LocalDate date, UUID branchId, String activity) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(event_count), 0) FROM dashboard_daily_counters " +
+            "WHERE counter_date = ? AND id_branches = ? AND activity = ?",
+            Long.class, Date.valueOf(date), branchId, activity);
+    }
+
+    private PostingResult deposit(UUID branchId, LocalDate date) {
+        PostingResult result = new PostingResult();
+        result.setTransactionType(Transaction.TransactionType.DEPOSIT);
+        result.setBranchId(branchId);
+        result.setAmount(new BigDecimal("1.00"));
+        result.setTransactionDate(date.atTime(23, 59, 59));
+        return result;
+    }
+
+    private UUID branchId(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT id_branches FROM accounts WHERE id = ?", UUID.class, accountId);
+    }
+}
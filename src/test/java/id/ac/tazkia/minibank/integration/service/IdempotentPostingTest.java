@@ -0,0 +1,135 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotent Posting Integration Tests")
+class IdempotentPostingTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should return the original deposit for a repeated key without posting again")
+    void shouldReplayRepeatedKey() {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+        String key = "deposit-" + UUID.randomUUID();
+
+        PostingResult original = postingService.post(keyedPosting(accountId, Transaction.TransactionType.DEPOSIT, "250.00", key));
+        PostingResult replay = postingService.post(keyedPosting(accountId, Transaction.TransactionType.DEPOSIT, "250.00", key));
+
+        assertFalse(original.isReplayed());
+        assertTrue(replay.isReplayed());
+        assertEquals(original.getTransactionId(), replay.getTransactionId());
+        assertEquals(original.getTransactionNumber(), replay.getTransactionNumber());
+        assertEquals(0, original.getBalanceAfter().compareTo(replay.getBalanceAfter()));
+        assertEquals(0, initial.add(new BigDecimal("250.00")).compareTo(balanceOf(jdbcTemplate, accountId)));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key));
+    }
+
+    @Test
+    @DisplayName("Should post once when retries with the same key race each other")
+    void shouldPostOnceUnderConcurrentRetries() throws Exception {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+        String key = "withdrawal-" + UUID.randomUUID();
+        int attempts = 8;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PostingResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(attempts)) {
+            for (int i = 0; i < attempts; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return postingService.post(keyedPosting(accountId, Transaction.TransactionType.WITHDRAWAL, "10.00", key));
+                }));
+            }
+            start.countDown();
+            List<PostingResult> results = new ArrayList<>();
+            for (Future<PostingResult> future : futures) {
+                results.add(future.get());
+            }
+
+            assertEquals(1, results.stream().map(PostingResult::getTransactionId).distinct().count());
+            assertEquals(1, results.stream().filter(result -> !result.isReplayed()).count());
+        }
+        assertEquals(0, initial.subtract(new BigDecimal("10.00")).compareTo(balanceOf(jdbcTemplate, accountId)));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions t JOIN idempotency_keys k ON k.id_transactions = t.id " +
+            "WHERE k.idempotency_key = ?", Integer.class, key));
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void shouldRejectReusedKey() {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+        String key = "deposit-" + UUID.randomUUID();
+        postingService.post(keyedPosting(accountId, Transaction.TransactionType.DEPOSIT, "100.00", key));
+        BigDecimal afterFirst = balanceOf(jdbcTemplate, accountId);
+
+        PostingRejectedException differentAmount = assertThrows(PostingRejectedException.class,
+            () -> postingService.post(keyedPosting(accountId, Transaction.TransactionType.DEPOSIT, "100.01", key)));
+        assertEquals(PostingRejectedException.Reason.IDEMPOTENCY_KEY_REUSED, differentAmount.getReason());
+        PostingRejectedException differentType = assertThrows(PostingRejectedException.class,
+            () -> postingService.post(keyedPosting(accountId, Transaction.TransactionType.WITHDRAWAL, "100.00", key)));
+        assertEquals(PostingRejectedException.Reason.IDEMPOTENCY_KEY_REUSED, differentType.getReason());
+
+        assertEquals(0, afterFirst.compareTo(balanceOf(jdbcTemplate, accountId)));
+    }
+
+    @Test
+    @DisplayName("Should reject a key longer than 100 characters")
+    void shouldRejectOverlongKey() {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+
+        PostingRejectedException e = assertThrows(PostingRejectedException.class,
+            () -> postingService.post(keyedPosting(accountId, Transaction.TransactionType.DEPOSIT, "1.00", "k".repeat(101))));
+        assertEquals(PostingRejectedException.Reason.INVALID_IDEMPOTENCY_KEY, e.getReason());
+        assertTrue(e.isIdempotencyKeyProblem());
+    }
+
+    @Test
+    @DisplayName("Should leave the key free when the posting is rejected")
+    void shouldNotClaimKeyOfRejectedPosting() {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+        String key = "withdrawal-" + UUID.randomUUID();
+        BigDecimal tooMuch = balanceOf(jdbcTemplate, accountId).add(new BigDecimal("1.00"));
+
+        assertThrows(PostingRejectedException.class, () -> postingService.post(
+            keyedPosting(accountId, Transaction.TransactionType.WITHDRAWAL, tooMuch.toPlainString(), key)));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key));
+
+        PostingResult retried = postingService.post(keyedPosting(accountId, Transaction.TransactionType.WITHDRAWAL, "1.00", key));
+        assertFalse(retried.isReplayed());
+    }
+
+    private PostingRequest keyedPosting(UUID accountId, Transaction.TransactionType type, String amount, String key) {
+        PostingRequest request = posting(accountId, type, amount);
+        request.setIdempotencyKey(key);
+        return request;
+    }
+}
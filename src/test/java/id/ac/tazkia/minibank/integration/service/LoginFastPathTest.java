@@ -0,0 +1,163 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.service.AuthenticationService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.LoginAttemptTracker;
+import id.ac.tazkia.minibank.service.LoginAuditWriter;
+import id.ac.tazkia.minibank.service.LoginUserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Login Fast Path Integration Tests")
+// Flushed by the tests themselves, so nothing reaches the users table in between
+@TestPropertySource(properties = "minibank.login.audit-flush-interval-millis=600000")
+class LoginFastPathTest extends BaseIntegrationTest {
+
+    private static final String PASSWORD = "minibank123";
+
+    @MockitoSpyBean
+    private JdbcUserDetailsManager jdbcUserDetailsManager;
+
+    @Autowired
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private LoginAuditWriter loginAuditWriter;
+
+    @Autowired
+    private LoginUserCache loginUserCache;
+
+    @Autowired
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        loginAuditWriter.flush();
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, null);
+        clearInvocations(jdbcUserDetailsManager);
+    }
+
+    @Test
+    @DisplayName("Should load user details once for repeated authentication")
+    void shouldAuthenticateFromCache() {
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate("teller1", PASSWORD);
+            assertTrue(authentication.isAuthenticated());
+            assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("TRANSACTION_VIEW")));
+        }
+        verify(jdbcUserDetailsManager, times(1)).loadUserByUsername("teller1");
+    }
+
+    @Test
+    @DisplayName("Should keep the cached password when an authenticated principal is erased")
+    void shouldCacheCopies() {
+        Authentication authentication = authenticate("teller2", PASSWORD);
+        ((CredentialsContainer) authentication.getPrincipal()).eraseCredentials();
+
+        assertNotNull(loginUserCache.getUserFromCache("teller2").getPassword());
+        authenticate("teller2", PASSWORD);
+        verify(jdbcUserDetailsManager, times(1)).loadUserByUsername("teller2");
+    }
+
+    @Test
+    @DisplayName("Should reload user details after a role change is announced")
+    void shouldReloadAfterRoleChange() {
+        authenticate("cs1", PASSWORD);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, null);
+        authenticate("cs1", PASSWORD);
+
+        verify(jdbcUserDetailsManager, times(2)).loadUserByUsername("cs1");
+    }
+
+    @Test
+    @DisplayName("Should check a wrong password against freshly loaded details before refusing")
+    void shouldReloadOnWrongPassword() {
+        authenticate("cs2", PASSWORD);
+
+        assertThrows(BadCredentialsException.class, () -> authenticate("cs2", "not-the-password"));
+        verify(jdbcUserDetailsManager, times(2)).loadUserByUsername("cs2");
+    }
+
+    @Test
+    @DisplayName("Should refuse a locked user at once and lock it in the users table on flush")
+    void shouldLockAfterTooManyFailures() {
+        authenticate("teller3", PASSWORD);
+        for (int i = 0; i < LoginAttemptTracker.MAX_FAILED_ATTEMPTS; i++) {
+            authenticationService.recordFailedLogin("teller3");
+        }
+
+        // Refused from memory, with the correct password and before the table is written
+        assertThrows(LockedException.class, () -> authenticate("teller3", PASSWORD));
+
+        loginAuditWriter.flush();
+        Map<String, Object> user = jdbcTemplate.queryForMap(
+            "SELECT is_locked, failed_login_attempts, locked_until FROM users WHERE username = 'teller3'");
+        assertEquals(Boolean.TRUE, user.get("is_locked"));
+        assertEquals(LoginAttemptTracker.MAX_FAILED_ATTEMPTS, user.get("failed_login_attempts"));
+        assertNotNull(user.get("locked_until"));
+
+        // The lock was announced, so this node now reads it from the table instead of memory
+        assertFalse(loginAttemptTracker.isLocked("teller3"));
+        assertThrows(DisabledException.class,
+            () -> authenticate("teller3", PASSWORD));
+
+        jdbcTemplate.update("UPDATE users SET is_locked = false, failed_login_attempts = 0, locked_until = NULL "
+            + "WHERE username = 'teller3'");
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.USER, null);
+        assertTrue(authenticate("teller3", PASSWORD).isAuthenticated());
+    }
+
+    @Test
+    @DisplayName("Should write the logins of many users in one flush")
+    void shouldBatchSuccessfulLogins() {
+        jdbcTemplate.update("UPDATE users SET last_login = NULL, failed_login_attempts = 2 "
+            + "WHERE username IN ('manager1', 'manager2')");
+
+        authenticationService.recordFailedLogin("manager1");
+        authenticationService.recordSuccessfulLogin("manager1");
+        authenticationService.recordSuccessfulLogin("manager2");
+        authenticationService.recordFailedLogin("manager2");
+        authenticationService.recordFailedLogin("no-such-user");
+        // Nothing is written on the login path
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE username IN ('manager1', 'manager2') AND last_login IS NULL", Integer.class));
+
+        loginAuditWriter.flush();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT failed_login_attempts FROM users WHERE username = 'manager1'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT failed_login_attempts FROM users WHERE username = 'manager2'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE username IN ('manager1', 'manager2') AND last_login IS NULL", Integer.class));
+    }
+
+    private Authentication authenticate(String username, String password) {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(username, password));
+    }
+}
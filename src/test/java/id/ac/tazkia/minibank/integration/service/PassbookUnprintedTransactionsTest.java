@@ -0,0 +1,88 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.entity.Passbook;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.TransactionRepository;
+import id.ac.tazkia.minibank.service.PassbookPrintService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Passbook Unprinted Transactions Integration Tests")
+class PassbookUnprintedTransactionsTest extends BaseIntegrationTest {
+
+    private static final int TRANSACTION_COUNT = 8;
+
+    @Autowired
+    private PassbookPrintService passbookPrintService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000003'", UUID.class);
+        jdbcTemplate.update("DELETE FROM passbook_print_history WHERE id_passbooks IN " +
+            "(SELECT id FROM passbooks WHERE id_accounts = ?)", accountId);
+        jdbcTemplate.update("DELETE FROM passbooks WHERE id_accounts = ?", accountId);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+
+        // Pairs of transactions share a timestamp, so the watermark has to break ties on id
+        LocalDateTime base = LocalDateTime.of(2025, 2, 1, 9, 0);
+        for (int i = 0; i < TRANSACTION_COUNT; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+                "balance_before, balance_after, description, transaction_date) " +
+                "VALUES (?, ?, 'DEPOSIT', 1000, 0, 1000, 'Passbook test', ?)",
+                accountId, String.format("PBT%04d", i), Timestamp.valueOf(base.plusHours(i / 2)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read only the rows after the print watermark, up to the remaining lines")
+    void shouldSeekFromWatermark() {
+        List<UUID> databaseOrder = jdbcTemplate.queryForList(
+            "SELECT id FROM transactions WHERE id_accounts = ? ORDER BY transaction_date, id", UUID.class, accountId);
+
+        assertEquals(TRANSACTION_COUNT, passbookPrintService.countUnprintedTransactions(accountId));
+        List<Transaction> firstBatch = passbookPrintService.getUnprintedTransactions(accountId, 3);
+        assertEquals(databaseOrder.subList(0, 3), ids(firstBatch));
+
+        passbookPrintService.recordPrintSuccess(accountId, firstBatch, "test-printer", "COM1");
+
+        Passbook passbook = passbookPrintService.getPassbookByAccountId(accountId).orElseThrow();
+        assertEquals(firstBatch.get(2).getTransactionDate(), passbook.getLastPrintedTransactionDate());
+        assertEquals(TRANSACTION_COUNT - 3, passbookPrintService.countUnprintedTransactions(accountId));
+
+        // The third row shares its timestamp with the fourth: the fourth must come next
+        List<Transaction> nextBatch = passbookPrintService.getUnprintedTransactions(accountId, 10);
+        assertEquals(databaseOrder.subList(3, TRANSACTION_COUNT), ids(nextBatch));
+        assertTrue(passbookPrintService.getUnprintedTransactions(accountId, 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should sort printed transactions the way the database orders them")
+    void shouldSortInDatabaseOrder() {
+        List<UUID> databaseOrder = jdbcTemplate.queryForList(
+            "SELECT id FROM transactions WHERE id_accounts = ? ORDER BY transaction_date, id", UUID.class, accountId);
+
+        List<Transaction> loaded = transactionRepository.findAllById(databaseOrder.reversed());
+        assertEquals(databaseOrder, ids(PassbookPrintService.sortInPrintOrder(loaded)));
+    }
+
+    private List<UUID> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).toList();
+    }
+}
@@ -0,0 +1,149 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.config.CompiledPermissionEvaluator;
+import id.ac.tazkia.minibank.config.PermissionRefreshFilter;
+import id.ac.tazkia.minibank.service.AuthenticatedUser;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.PermissionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Permission Registry Integration Tests")
+class PermissionRegistryTest extends BaseIntegrationTest {
+
+    private static final String GRANT_TELLER_USER_CREATE =
+        "INSERT INTO role_permissions (id_roles, id_permissions, granted_by) " +
+        "SELECT r.id, p.id, 'TEST' FROM roles r, permissions p " +
+        "WHERE r.role_code = 'TELLER' AND p.permission_code = 'USER_CREATE'";
+
+    @Autowired
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private PermissionRegistry permissionRegistry;
+
+    @Autowired
+    private ObjectProvider<PermissionRegistry> permissionRegistryProvider;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @AfterEach
+    void revokeGrant() {
+        jdbcTemplate.update("DELETE FROM role_permissions WHERE granted_by = 'TEST'");
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should resolve the display role and permissions of the user at login")
+    void shouldResolveAtLogin() {
+        Authentication authentication = login("teller1");
+
+        AuthenticatedUser user = assertInstanceOf(AuthenticatedUser.class, authentication.getPrincipal());
+        assertEquals("Teller", user.getRoleName());
+        assertEquals(List.of("TELLER"), user.getRoleCodes());
+        assertTrue(permissionRegistry.hasPermission(authentication, "TRANSACTION_DEPOSIT"));
+        assertFalse(permissionRegistry.hasPermission(authentication, "USER_CREATE"));
+        assertFalse(permissionRegistry.hasPermission(authentication, "NO_SUCH_PERMISSION"));
+
+        // The compiled set agrees with the authorities loaded by the authority query
+        authentication.getAuthorities().forEach(authority ->
+            assertTrue(permissionRegistry.hasPermission(authentication, authority.getAuthority()),
+                authority.getAuthority()));
+        assertEquals(authentication.getAuthorities().size(), permissionRegistry.permissionsOf(user).size());
+    }
+
+    @Test
+    @DisplayName("Should apply role grant changes to users already logged in")
+    void shouldRebuildOnRoleChange() {
+        Authentication authentication = login("teller2");
+        assertFalse(permissionRegistry.hasPermission(authentication, "USER_CREATE"));
+
+        jdbcTemplate.update(GRANT_TELLER_USER_CREATE);
+        // Not seen until the change is announced
+        assertFalse(permissionRegistry.hasPermission(authentication, "USER_CREATE"));
+
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, null);
+        assertTrue(permissionRegistry.hasPermission(authentication, "USER_CREATE"));
+
+        revokeGrant();
+        assertFalse(permissionRegistry.hasPermission(authentication, "USER_CREATE"));
+    }
+
+    @Test
+    @DisplayName("Should refresh the authorities of a logged-in session when role grants change")
+    void shouldRefreshAuthoritiesOnRoleChange() throws Exception {
+        Authentication authentication = login("teller1");
+        PermissionRefreshFilter filter = new PermissionRefreshFilter(permissionRegistry);
+        MockHttpSession session = new MockHttpSession();
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        filter.doFilter(request(session), new MockHttpServletResponse(), new MockFilterChain());
+        // Authorities loaded at login are current: nothing is replaced
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+
+        jdbcTemplate.update(GRANT_TELLER_USER_CREATE);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ROLE, null);
+        filter.doFilter(request(session), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication refreshed = SecurityContextHolder.getContext().getAuthentication();
+        assertNotSame(authentication, refreshed);
+        assertSame(authentication.getPrincipal(), refreshed.getPrincipal());
+        assertTrue(refreshed.getAuthorities().contains(new SimpleGrantedAuthority("USER_CREATE")));
+        assertFalse(authentication.getAuthorities().contains(new SimpleGrantedAuthority("USER_CREATE")));
+        SecurityContext saved = assertInstanceOf(SecurityContext.class,
+            session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY));
+        assertSame(refreshed, saved.getAuthentication());
+
+        revokeGrant();
+        SecurityContextHolder.getContext().setAuthentication(refreshed);
+        filter.doFilter(request(session), new MockHttpServletResponse(), new MockFilterChain());
+        assertFalse(SecurityContextHolder.getContext().getAuthentication().getAuthorities()
+            .contains(new SimpleGrantedAuthority("USER_CREATE")));
+    }
+
+    @Test
+    @DisplayName("Should answer method security hasPermission expressions")
+    void shouldEvaluatePermissions() {
+        Authentication manager = login("manager1");
+        Authentication teller = login("teller3");
+        CompiledPermissionEvaluator evaluator = new CompiledPermissionEvaluator(permissionRegistryProvider);
+
+        assertTrue(evaluator.hasPermission(manager, "CUSTOMER", "APPROVE"));
+        assertTrue(evaluator.hasPermission(manager, "customer", "approve"));
+        assertTrue(evaluator.hasPermission(manager, null, "ACCOUNT_APPROVE"));
+        assertTrue(evaluator.hasPermission(manager, "id", "APPROVAL", "VIEW"));
+        assertFalse(evaluator.hasPermission(teller, "CUSTOMER", "APPROVE"));
+        assertTrue(evaluator.hasPermission(teller, "TRANSACTION", "DEPOSIT"));
+    }
+
+    private static MockHttpServletRequest request(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        request.setSession(session);
+        return request;
+    }
+
+    private Authentication login(String username) {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(username, "minibank123"));
+    }
+}
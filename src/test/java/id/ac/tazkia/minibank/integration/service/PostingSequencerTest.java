@@ -0,0 +1,272 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.IdempotencyKeyStore;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingSequencer;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@DisplayName("Posting Sequencer Integration Tests")
+@TestPropertySource(properties = {
+    "minibank.posting.sequencer.enabled=true",
+    "minibank.posting.sequencer.partitions=4",
+    "minibank.posting.sequencer.max-group-size=50"
+})
+class PostingSequencerTest extends BaseIntegrationTest {
+
+    private static final String[] OPENING_BALANCES = {"0.00", "100.00", "1000.00", "50.00", "500.00"};
+
+    @Autowired
+    private PostingSequencer postingSequencer;
+
+    @Autowired
+    private PostingService postingService;
+
+    @MockitoSpyBean
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Test
+    @DisplayName("Should end every posting as the synchronous path does, on mirrored accounts")
+    void shouldMatchSynchronousPosting() {
+        List<UUID> syncAccounts = createAccounts("SYN");
+        List<UUID> sequencedAccounts = createAccounts("SEQ");
+        Random random = new Random(42);
+        Transaction.TransactionType[] types = {
+            Transaction.TransactionType.DEPOSIT, Transaction.TransactionType.WITHDRAWAL, Transaction.TransactionType.FEE
+        };
+
+        List<String> syncOutcomes = new ArrayList<>();
+        List<CompletableFuture<PostingResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int account = random.nextInt(OPENING_BALANCES.length);
+            Transaction.TransactionType type = types[random.nextInt(types.length)];
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(30_000), 2);
+
+            try {
+                syncOutcomes.add(outcomeOf(postingService.post(posting(syncAccounts.get(account), type, amount))));
+            } catch (PostingRejectedException e) {
+                syncOutcomes.add(outcomeOf(e));
+            }
+            futures.add(postingSequencer.submit(posting(sequencedAccounts.get(account), type, amount)));
+        }
+
+        List<String> sequencedOutcomes = new ArrayList<>();
+        for (CompletableFuture<PostingResult> future : futures) {
+            try {
+                sequencedOutcomes.add(outcomeOf(future.join()));
+            } catch (CompletionException e) {
+                sequencedOutcomes.add(outcomeOf((PostingRejectedException) e.getCause()));
+            }
+        }
+        assertEquals(syncOutcomes, sequencedOutcomes);
+        assertTrue(syncOutcomes.stream().anyMatch(outcome -> outcome.startsWith("INSUFFICIENT_BALANCE")));
+        assertTrue(syncOutcomes.stream().anyMatch(outcome -> outcome.startsWith("ACCOUNT_NOT_ACTIVE")));
+
+        for (int i = 0; i < OPENING_BALANCES.length; i++) {
+            UUID syncAccount = syncAccounts.get(i);
+            UUID sequencedAccount = sequencedAccounts.get(i);
+            assertEquals(0, balanceOf(jdbcTemplate, syncAccount).compareTo(balanceOf(jdbcTemplate, sequencedAccount)));
+            assertEquals(journalOf(syncAccount), journalOf(sequencedAccount));
+            assertEquals(dailyBalanceOf(syncAccount), dailyBalanceOf(sequencedAccount));
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent postings to a hot account without losing any")
+    void shouldApplyConcurrentPostingsToHotAccount() throws Exception {
+        UUID accountId = accountId(jdbcTemplate, "A2000006");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+        int submitters = 16;
+        int postingsEach = 100;
+
+        List<CompletableFuture<PostingResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(submitters)) {
+            List<Future<List<CompletableFuture<PostingResult>>>> submitted = new ArrayList<>();
+            for (int i = 0; i < submitters; i++) {
+                submitted.add(executor.submit(() -> {
+                    List<CompletableFuture<PostingResult>> own = new ArrayList<>();
+                    for (int j = 0; j < postingsEach; j++) {
+                        own.add(postingSequencer.submit(
+                            posting(accountId, Transaction.TransactionType.DEPOSIT, new BigDecimal("1.00"))));
+                    }
+                    return own;
+                }));
+            }
+            for (Future<List<CompletableFuture<PostingResult>>> own : submitted) {
+                futures.addAll(own.get());
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        int total = submitters * postingsEach;
+        assertEquals(0, initial.add(BigDecimal.valueOf(total)).compareTo(balanceOf(jdbcTemplate, accountId)));
+        // Each posting continues from the balance the one before it left
+        assertEquals(total, jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT balance_after) FROM transactions WHERE id_accounts = ? AND balance_after > ?",
+            Integer.class, accountId, initial));
+        assertEquals(0, initial.compareTo(jdbcTemplate.queryForObject(
+            "SELECT MIN(balance_before) FROM transactions WHERE id_accounts = ? AND balance_after > ?",
+            BigDecimal.class, accountId, initial)));
+    }
+
+    @Test
+    @DisplayName("Should post a repeated idempotency key once")
+    void shouldReplayRepeatedKey() {
+        UUID accountId = accountId(jdbcTemplate, "A2000005");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+        String key = "sequenced-" + UUID.randomUUID();
+
+        PostingRequest first = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("75.00"));
+        first.setIdempotencyKey(key);
+        PostingRequest repeat = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("75.00"));
+        repeat.setIdempotencyKey(key);
+        CompletableFuture<PostingResult> original = postingSequencer.submit(first);
+        CompletableFuture<PostingResult> replay = postingSequencer.submit(repeat);
+
+        assertFalse(original.join().isReplayed());
+        assertTrue(replay.join().isReplayed());
+        assertEquals(original.join().getTransactionId(), replay.join().getTransactionId());
+        assertEquals(0, initial.subtract(new BigDecimal("75.00")).compareTo(balanceOf(jdbcTemplate, accountId)));
+    }
+
+    @Test
+    @DisplayName("Should replay a retried key from the table after the balance has dropped")
+    void shouldReplayKeyAfterBalanceDropped() {
+        UUID accountId = createAccounts("RTY").get(2);
+        String key = "sequenced-" + UUID.randomUUID();
+
+        PostingRequest first = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("600.00"));
+        first.setIdempotencyKey(key);
+        PostingResult original = postingSequencer.post(first);
+        assertEquals(0, new BigDecimal("400.00").compareTo(balanceOf(jdbcTemplate, accountId)));
+
+        // As on another node, or after the key has left memory: only the table knows it
+        doReturn(Optional.empty()).when(idempotencyKeyStore).findRecent(any());
+        PostingRequest retry = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("600.00"));
+        retry.setIdempotencyKey(key);
+        PostingResult replay = postingSequencer.post(retry);
+
+        assertTrue(replay.isReplayed());
+        assertEquals(original.getTransactionId(), replay.getTransactionId());
+        assertEquals(0, new BigDecimal("400.00").compareTo(balanceOf(jdbcTemplate, accountId)));
+        assertEquals(1, journalOf(accountId).size());
+    }
+
+    @Test
+    @DisplayName("Should give back the key of a refused posting")
+    void shouldReleaseKeyOfRefusedPosting() {
+        UUID accountId = createAccounts("REL").get(1);
+        String key = "sequenced-" + UUID.randomUUID();
+
+        PostingRequest refused = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("150.00"));
+        refused.setIdempotencyKey(key);
+        CompletableFuture<PostingResult> refusal = postingSequencer.submit(refused);
+        CompletableFuture<PostingResult> deposit = postingSequencer.submit(
+            posting(accountId, Transaction.TransactionType.DEPOSIT, new BigDecimal("100.00")));
+
+        CompletionException e = assertThrows(CompletionException.class, refusal::join);
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE,
+            ((PostingRejectedException) e.getCause()).getReason());
+        deposit.join();
+
+        PostingRequest retry = posting(accountId, Transaction.TransactionType.WITHDRAWAL, new BigDecimal("150.00"));
+        retry.setIdempotencyKey(key);
+        PostingResult posted = postingSequencer.post(retry);
+
+        assertFalse(posted.isReplayed());
+        assertEquals(0, new BigDecimal("50.00").compareTo(balanceOf(jdbcTemplate, accountId)));
+    }
+
+    @Test
+    @DisplayName("Should refuse a transfer leg")
+    void shouldRefuseTransferLeg() {
+        CompletableFuture<PostingResult> future = postingSequencer.submit(
+            posting(accountId(jdbcTemplate, "A2000004"), Transaction.TransactionType.TRANSFER_OUT, new BigDecimal("10.00")));
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertEquals(PostingRejectedException.Reason.INVALID_REQUEST,
+            ((PostingRejectedException) e.getCause()).getReason());
+    }
+
+    @Test
+    @DisplayName("Should wait for the posting and throw its rejection as is")
+    void shouldPostAndWait() {
+        UUID accountId = accountId(jdbcTemplate, "A2000004");
+        BigDecimal initial = balanceOf(jdbcTemplate, accountId);
+
+        PostingResult result = postingSequencer.post(
+            posting(accountId, Transaction.TransactionType.DEPOSIT, new BigDecimal("20.00")));
+        assertEquals(0, initial.add(new BigDecimal("20.00")).compareTo(result.getBalanceAfter()));
+
+        PostingRejectedException e = assertThrows(PostingRejectedException.class, () -> postingSequencer.post(
+            posting(accountId, Transaction.TransactionType.WITHDRAWAL, initial.add(new BigDecimal("1000.00")))));
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, e.getReason());
+    }
+
+    /** Accounts with the opening balances above; the last one is frozen. */
+    private List<UUID> createAccounts(String prefix) {
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < OPENING_BALANCES.length; i++) {
+            String accountNumber = prefix + String.format("%04d", i);
+            jdbcTemplate.update(
+                "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, status, created_by) " +
+                "SELECT id_customers, id_products, id_branches, ?, ?, ?, ?, 'TEST' FROM accounts WHERE account_number = 'A2000001'",
+                accountNumber, "Sequencer " + accountNumber, new BigDecimal(OPENING_BALANCES[i]),
+                i == OPENING_BALANCES.length - 1 ? "FROZEN" : "ACTIVE");
+            accounts.add(accountId(jdbcTemplate, accountNumber));
+        }
+        return accounts;
+    }
+
+    private static String outcomeOf(PostingResult result) {
+        return "POSTED " + result.getTransactionType() + " " + result.getBalanceBefore().toPlainString()
+            + " -> " + result.getBalanceAfter().toPlainString();
+    }
+
+    // Messages name the account, which differs between the mirrors
+    private static String outcomeOf(PostingRejectedException e) {
+        return e.getReason() == PostingRejectedException.Reason.INSUFFICIENT_BALANCE
+            ? e.getReason() + " " + e.getMessage() : e.getReason().name();
+    }
+
+    private List<String> journalOf(UUID accountId) {
+        return jdbcTemplate.queryForList(
+            "SELECT transaction_type || ' ' || amount || ' ' || balance_before || ' ' || balance_after " +
+            "FROM transactions WHERE id_accounts = ? ORDER BY balance_before, balance_after, transaction_type",
+            String.class, accountId);
+    }
+
+    private List<String> dailyBalanceOf(UUID accountId) {
+        return jdbcTemplate.queryForList(
+            "SELECT opening_balance || ' ' || closing_balance || ' ' || total_debit || ' ' || total_credit || ' ' || transaction_count " +
+            "FROM account_daily_balances WHERE id_accounts = ? ORDER BY balance_date",
+            String.class, accountId);
+    }
+}
@@ -0,0 +1,201 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PostingService Integration Tests")
+class PostingServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should credit and debit the balance and journal each leg with its running balances")
+    void shouldPostCreditAndDebitLegs() {
+        UUID accountId = createAccount("PST0001", "100.00");
+
+        PostingResult deposit = postingService.post(posting(accountId, Transaction.TransactionType.DEPOSIT, "50.00"));
+        PostingResult withdrawal = postingService.post(posting(accountId, Transaction.TransactionType.WITHDRAWAL, "30.00"));
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(deposit.getBalanceBefore()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(deposit.getBalanceAfter()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(withdrawal.getBalanceBefore()));
+        assertEquals(0, new BigDecimal("120.00").compareTo(withdrawal.getBalanceAfter()));
+        assertNotEquals(deposit.getTransactionNumber(), withdrawal.getTransactionNumber());
+        assertEquals(0, new BigDecimal("120.00").compareTo(balanceOf(jdbcTemplate, accountId)));
+
+        Map<String, Object> journaled = jdbcTemplate.queryForMap(
+            "SELECT transaction_number, transaction_type, amount, balance_before, balance_after FROM transactions WHERE id = ?",
+            withdrawal.getTransactionId());
+        assertEquals(withdrawal.getTransactionNumber(), journaled.get("transaction_number"));
+        assertEquals("WITHDRAWAL", journaled.get("transaction_type"));
+        assertEquals(0, new BigDecimal("30.00").compareTo((BigDecimal) journaled.get("amount")));
+        assertEquals(0, new BigDecimal("150.00").compareTo((BigDecimal) journaled.get("balance_before")));
+        assertEquals(0, new BigDecimal("120.00").compareTo((BigDecimal) journaled.get("balance_after")));
+    }
+
+    @Test
+    @DisplayName("Should post both legs of a transfer")
+    void shouldPostTransferLegs() {
+        UUID fromId = createAccount("PST0002", "100.00");
+        UUID toId = createAccount("PST0003", "0.00");
+
+        List<PostingResult> legs = transfer(fromId, toId, "40.00");
+
+        assertEquals(Transaction.TransactionType.TRANSFER_OUT, legs.get(0).getTransactionType());
+        assertEquals(Transaction.TransactionType.TRANSFER_IN, legs.get(1).getTransactionType());
+        assertEquals(0, new BigDecimal("60.00").compareTo(balanceOf(jdbcTemplate, fromId)));
+        assertEquals(0, new BigDecimal("40.00").compareTo(balanceOf(jdbcTemplate, toId)));
+        assertEquals(toId, jdbcTemplate.queryForObject(
+            "SELECT id_accounts_destination FROM transactions WHERE id = ?", UUID.class, legs.get(0).getTransactionId()));
+        assertEquals(fromId, jdbcTemplate.queryForObject(
+            "SELECT id_accounts_destination FROM transactions WHERE id = ?", UUID.class, legs.get(1).getTransactionId()));
+    }
+
+    @Test
+    @DisplayName("Should lock transfer accounts in ascending id order whatever the direction")
+    void shouldLockTransferAccountsInIdOrder() throws Exception {
+        UUID firstId = createAccount("PST0004", "100.00");
+        UUID secondId = createAccount("PST0005", "100.00");
+        UUID lowerId = firstId.compareTo(secondId) < 0 ? firstId : secondId;
+        UUID higherId = lowerId.equals(firstId) ? secondId : firstId;
+
+        try (Connection holder = dataSource.getConnection()) {
+            holder.setAutoCommit(false);
+            lockRow(holder, lowerId, false);
+
+            // Debits the higher account, yet has to wait for the lower one first
+            CompletableFuture<List<PostingResult>> pending =
+                CompletableFuture.supplyAsync(() -> transfer(higherId, lowerId, "25.00"));
+            awaitLockWait();
+
+            try (Connection probe = dataSource.getConnection()) {
+                probe.setAutoCommit(false);
+                assertDoesNotThrow(() -> lockRow(probe, higherId, true),
+                    "The higher account must still be unlocked while the transfer waits for the lower one");
+                probe.rollback();
+            }
+            assertFalse(pending.isDone());
+
+            holder.rollback();
+            pending.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(0, new BigDecimal("75.00").compareTo(balanceOf(jdbcTemplate, higherId)));
+        assertEquals(0, new BigDecimal("125.00").compareTo(balanceOf(jdbcTemplate, lowerId)));
+    }
+
+    @Test
+    @DisplayName("Should reject postings with the reason and write nothing")
+    void shouldRejectWithReason() {
+        UUID accountId = createAccount("PST0006", "100.00");
+        UUID frozenId = createAccount("PST0007", "100.00");
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", frozenId);
+
+        assertRejected(PostingRejectedException.Reason.INVALID_REQUEST,
+            posting(accountId, Transaction.TransactionType.DEPOSIT, "0.00"));
+        assertRejected(PostingRejectedException.Reason.INVALID_REQUEST,
+            posting(accountId, Transaction.TransactionType.TRANSFER_IN, "10.00"));
+        assertRejected(PostingRejectedException.Reason.ACCOUNT_NOT_FOUND,
+            posting(UUID.randomUUID(), Transaction.TransactionType.DEPOSIT, "10.00"));
+        assertRejected(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE,
+            posting(frozenId, Transaction.TransactionType.DEPOSIT, "10.00"));
+        assertRejected(PostingRejectedException.Reason.INSUFFICIENT_BALANCE,
+            posting(accountId, Transaction.TransactionType.WITHDRAWAL, "100.01"));
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOf(jdbcTemplate, accountId)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOf(jdbcTemplate, frozenId)));
+        assertEquals(0, journalCount(accountId) + journalCount(frozenId));
+    }
+
+    @Test
+    @DisplayName("Should commit the journal rows and balances of a transfer together or not at all")
+    void shouldCommitJournalWithBalance() {
+        UUID richId = createAccount("PST0008", "100.00");
+        UUID poorId = createAccount("PST0009", "10.00");
+        UUID frozenId = createAccount("PST0010", "0.00");
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", frozenId);
+
+        // Whichever leg is applied first is rolled back with the rejected one
+        PostingRejectedException inactive = assertThrows(PostingRejectedException.class,
+            () -> transfer(richId, frozenId, "50.00"));
+        assertEquals(PostingRejectedException.Reason.ACCOUNT_NOT_ACTIVE, inactive.getReason());
+        PostingRejectedException insufficient = assertThrows(PostingRejectedException.class,
+            () -> transfer(poorId, richId, "50.00"));
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, insufficient.getReason());
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(balanceOf(jdbcTemplate, richId)));
+        assertEquals(0, new BigDecimal("10.00").compareTo(balanceOf(jdbcTemplate, poorId)));
+        assertEquals(0, journalCount(richId) + journalCount(poorId) + journalCount(frozenId));
+
+        transfer(richId, poorId, "50.00");
+
+        for (UUID accountId : List.of(richId, poorId)) {
+            assertEquals(1, journalCount(accountId));
+            assertEquals(0, balanceOf(jdbcTemplate, accountId).compareTo(jdbcTemplate.queryForObject(
+                "SELECT balance_after FROM transactions WHERE id_accounts = ?", BigDecimal.class, accountId)));
+        }
+    }
+
+    private List<PostingResult> transfer(UUID fromId, UUID toId, String amount) {
+        PostingRequest debit = posting(fromId, Transaction.TransactionType.TRANSFER_OUT, amount);
+        debit.setCounterpartyAccountId(toId);
+        PostingRequest credit = posting(toId, Transaction.TransactionType.TRANSFER_IN, amount);
+        credit.setCounterpartyAccountId(fromId);
+        return postingService.postTransfer(debit, credit);
+    }
+
+    private void assertRejected(PostingRejectedException.Reason reason, PostingRequest request) {
+        PostingRejectedException e = assertThrows(PostingRejectedException.class, () -> postingService.post(request));
+        assertEquals(reason, e.getReason());
+    }
+
+    private static void lockRow(Connection connection, UUID accountId, boolean noWait) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM accounts WHERE id = ? FOR UPDATE" + (noWait ? " NOWAIT" : ""))) {
+            statement.setObject(1, accountId);
+            statement.executeQuery().close();
+        }
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE NOT granted", Integer.class) == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Transfer never waited for the locked account");
+            Thread.sleep(20);
+        }
+    }
+
+    private UUID createAccount(String accountNumber, String balance) {
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT id_customers, id_products, id_branches, ?, ?, ?, 'TEST' FROM accounts WHERE account_number = 'A2000001'",
+            accountNumber, "Posting " + accountNumber, new BigDecimal(balance));
+        return accountId(jdbcTemplate, accountNumber);
+    }
+
+    private int journalCount(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id_accounts = ?", Integer.class, accountId);
+    }
+}
@@ -0,0 +1,201 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import id.ac.tazkia.minibank.config.ReadReplicaRouter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against a primary and a streaming replica cloned from it with pg_basebackup, so
+ * this class does not share the single database of BaseIntegrationTest.
+ */
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@DisplayName("Read Replica Routing Integration Tests")
+class ReadReplicaRoutingTest {
+
+    private static final long MAX_LAG_MILLIS = 3000;
+    private static final long TIMEOUT_MILLIS = 15000;
+
+    static Network network = Network.newNetwork();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:17-alpine")
+        .withNetwork(network)
+        .withNetworkAliases("primary")
+        .withCopyToContainer(Transferable.of(
+            "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\"\n"),
+            "/docker-entrypoint-initdb.d/replication.sh");
+
+    @Container
+    static GenericContainer<?> replica = new GenericContainer<>("postgres:17-alpine")
+        .withNetwork(network)
+        .dependsOn(primary)
+        .withEnv("PGPASSWORD", "test")
+        .withExposedPorts(5432)
+        .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+        .withCommand("sh", "-c",
+            "until pg_basebackup -h primary -U test -D /tmp/replica -X stream -R; do rm -rf /tmp/replica; sleep 1; done;"
+                + " chmod 700 /tmp/replica; exec postgres -D /tmp/replica")
+        .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*", 1)
+            .withStartupTimeout(Duration.ofMinutes(2)));
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("minibank.datasource.replica.urls", ReadReplicaRoutingTest::replicaUrl);
+        registry.add("minibank.datasource.replica.max-lag-millis", () -> MAX_LAG_MILLIS);
+        registry.add("minibank.datasource.replica.lag-check-interval-millis", () -> 100);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReadReplicaRouter readReplicaRouter;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products ORDER BY product_code LIMIT 1", UUID.class);
+
+        await(() -> readReplicaRouter.lagMillis("replica-1").isPresent(), "Replica lag was never measured");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SecurityContextHolder.clearContext();
+        onReplica("SELECT pg_wal_replay_resume()");
+    }
+
+    @Test
+    @DisplayName("Should read from the replica in read-only transactions only")
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        actAs("statement-reader");
+
+        assertTrue(readOnly.execute(status -> inRecovery()));
+        assertFalse(readWrite.execute(status -> inRecovery()));
+        // Outside a transaction JdbcTemplate is not read-only, so it stays on the primary
+        assertFalse(inRecovery());
+    }
+
+    @Test
+    @DisplayName("Should read a user's own write from the primary until the replica has replayed it")
+    void shouldReadOwnWritesWhileReplicaLags() throws SQLException {
+        onReplica("SELECT pg_wal_replay_pause()");
+
+        actAs("teller-a");
+        readWrite.executeWithoutResult(status -> rename("Renamed While Replica Paused"));
+
+        assertFalse(readOnly.execute(status -> inRecovery()));
+        assertEquals("Renamed While Replica Paused", readOnly.execute(status -> productName()));
+
+        // Another user may still read from the replica while it is within the allowed lag
+        actAs("teller-b");
+        assertTrue(readOnly.execute(status -> inRecovery()));
+
+        onReplica("SELECT pg_wal_replay_resume()");
+        actAs("teller-a");
+        await(() -> readOnly.execute(status -> inRecovery()), "Writer was never routed back to the replica");
+        assertEquals("Renamed While Replica Paused", readOnly.execute(status -> productName()));
+    }
+
+    @Test
+    @DisplayName("Should stop reading from a replica that falls too far behind")
+    void shouldSkipReplicaBeyondMaxLag() throws SQLException {
+        onReplica("SELECT pg_wal_replay_pause()");
+        actAs("teller-a");
+        readWrite.executeWithoutResult(status -> rename("Renamed Past Max Lag"));
+
+        actAs("report-reader");
+        await(() -> !readOnly.execute(status -> inRecovery()), "Lagging replica was still used");
+        assertEquals("Renamed Past Max Lag", readOnly.execute(status -> productName()));
+
+        onReplica("SELECT pg_wal_replay_resume()");
+        await(() -> readOnly.execute(status -> inRecovery()), "Replica was not used again after catching up");
+    }
+
+    private boolean inRecovery() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    private String productName() {
+        return jdbcTemplate.queryForObject("SELECT product_name FROM products WHERE id = ?", String.class, productId);
+    }
+
+    private void rename(String name) {
+        jdbcTemplate.update("UPDATE products SET product_name = ? WHERE id = ?", name, productId);
+    }
+
+    private static void actAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(message);
+            }
+        }
+    }
+
+    private static void onReplica(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(replicaUrl(), "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String replicaUrl() {
+        return "jdbc:postgresql://" + replica.getHost() + ":" + replica.getMappedPort(5432) + "/test";
+    }
+}
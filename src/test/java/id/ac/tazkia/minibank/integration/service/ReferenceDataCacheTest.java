@@ -0,0 +1,124 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.entity.Branch;
+import id.ac.tazkia.minibank.entity.Permission;
+import id.ac.tazkia.minibank.entity.Product;
+import id.ac.tazkia.minibank.entity.RolePermission;
+import id.ac.tazkia.minibank.repository.BranchRepository;
+import id.ac.tazkia.minibank.repository.PermissionRepository;
+import id.ac.tazkia.minibank.repository.RolePermissionRepository;
+import id.ac.tazkia.minibank.repository.RoleRepository;
+import id.ac.tazkia.minibank.service.ProductService;
+import id.ac.tazkia.minibank.service.ReferenceDataCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static id.ac.tazkia.minibank.config.QueryBudget.assertMaxQueries;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Reference Data Cache Integration Tests")
+class ReferenceDataCacheTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RolePermissionRepository rolePermissionRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Repeated reference data reads should not reach the database")
+    void shouldServeRepeatedReadsFromCache() {
+        List<Product> products = productService.findActiveProducts();
+        List<Branch> branches = branchRepository.findActiveBranches();
+        List<String> tellerPermissions = permissionCodes("TELLER");
+        assertFalse(products.isEmpty());
+        assertFalse(branches.isEmpty());
+        assertFalse(tellerPermissions.isEmpty());
+
+        assertMaxQueries(entityManagerFactory, 0, () -> {
+            assertEquals(products.size(), productService.findActiveProducts().size());
+            assertTrue(productService.findById(products.get(0).getId()).isPresent());
+            assertEquals(branches.size(), branchRepository.findActiveBranches().size());
+            assertEquals(tellerPermissions, permissionCodes("TELLER"));
+        });
+    }
+
+    @Test
+    @DisplayName("Product changes should be visible on the next read")
+    void shouldEvictProductsOnChange() {
+        Product product = productService.findActiveProducts().get(0);
+
+        product.setProductName("Renamed Cached Product");
+        productService.update(product);
+        assertTrue(productService.findActiveProducts().stream()
+            .anyMatch(p -> "Renamed Cached Product".equals(p.getProductName())));
+
+        productService.softDelete(product.getId());
+        assertTrue(productService.findActiveProducts().stream()
+            .noneMatch(p -> p.getId().equals(product.getId())));
+        assertFalse(productService.findById(product.getId()).orElseThrow().getIsActive());
+    }
+
+    @Test
+    @DisplayName("A permission granted on its own should show up on the cached role after eviction")
+    void shouldEvictRolePermissionsOnGrant() {
+        List<String> before = permissionCodes("TELLER");
+        Permission permission = permissionRepository.findAll().stream()
+            .filter(p -> !before.contains(p.getPermissionCode()))
+            .findFirst().orElseThrow();
+
+        RolePermission rolePermission = new RolePermission();
+        rolePermission.setRole(roleRepository.findByRoleCode("TELLER").orElseThrow());
+        rolePermission.setPermission(permission);
+        rolePermission.setGrantedBy("test");
+        rolePermissionRepository.save(rolePermission);
+        referenceDataCache.evictRolesAndPermissions();
+
+        assertTrue(permissionCodes("TELLER").contains(permission.getPermissionCode()));
+    }
+
+    @Test
+    @DisplayName("Branch rows changed outside Hibernate should be reloaded after eviction")
+    void shouldEvictBranchesChangedOutsideHibernate() {
+        Branch branch = branchRepository.findActiveBranches().get(0);
+
+        jdbcTemplate.update("UPDATE branches SET branch_name = 'Renamed Cached Branch' WHERE id = ?", branch.getId());
+        referenceDataCache.evictBranches();
+
+        assertEquals("Renamed Cached Branch", branchRepository.findActiveBranches().stream()
+            .filter(b -> b.getId().equals(branch.getId()))
+            .findFirst().orElseThrow().getBranchName());
+    }
+
+    private List<String> permissionCodes(String roleCode) {
+        return transactionTemplate.execute(status -> roleRepository.findByRoleCode(roleCode).orElseThrow()
+            .getRolePermissions().stream()
+            .map(rolePermission -> rolePermission.getPermission().getPermissionCode())
+            .sorted()
+            .toList());
+    }
+}
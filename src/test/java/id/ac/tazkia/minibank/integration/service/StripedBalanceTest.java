@@ -0,0 +1,287 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.dto.PostingResult;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.AccountRepository;
+import id.ac.tazkia.minibank.service.AccountBalanceHistoryService;
+import id.ac.tazkia.minibank.service.AccountStatementService;
+import id.ac.tazkia.minibank.service.PassbookPrintService;
+import id.ac.tazkia.minibank.service.PostingRejectedException;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.StripedBalanceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.accountId;
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static id.ac.tazkia.minibank.config.TestDataFactory.posting;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Striped Balance Integration Tests")
+// Folded by the tests themselves
+@TestPropertySource(properties = "minibank.posting.stripes.fold-interval-millis=600000")
+class StripedBalanceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+
+    @Autowired
+    private PassbookPrintService passbookPrintService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceHistoryService accountBalanceHistoryService;
+
+    @Autowired
+    private AccountStatementService accountStatementService;
+
+    @Test
+    @DisplayName("Should take transfers on the stripes and journal them when folded")
+    void shouldFoldStripedCredits() {
+        UUID hotId = createAccount("STR0001", "0.00");
+        UUID sourceId = accountId(jdbcTemplate, "A2000006");
+        stripedBalanceService.setStripes(hotId, 4);
+
+        for (int i = 0; i < 20; i++) {
+            List<PostingResult> legs = transfer(sourceId, hotId, "10.00");
+            assertNotNull(legs.get(1).getTransactionNumber());
+            assertNull(legs.get(1).getBalanceAfter());
+        }
+
+        // Nothing has reached the account row or the journal yet
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(jdbcTemplate, hotId)));
+        assertEquals(0, transactionCount(hotId));
+        assertEquals(0, new BigDecimal("200.00").compareTo(stripedBalanceService.visibleBalance(hotId)));
+        assertEquals(4, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM account_balance_stripes WHERE id_accounts = ?", Integer.class, hotId));
+
+        assertEquals(0, new BigDecimal("200.00").compareTo(postingService.foldStripes(hotId)));
+
+        assertEquals(0, new BigDecimal("200.00").compareTo(balanceOf(jdbcTemplate, hotId)));
+        assertEquals(20, transactionCount(hotId));
+        assertEquals(20, jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT balance_after) FROM transactions WHERE id_accounts = ?", Integer.class, hotId));
+        assertEquals(0, new BigDecimal("200.00").compareTo(jdbcTemplate.queryForObject(
+            "SELECT MAX(balance_after) FROM transactions WHERE id_accounts = ?", BigDecimal.class, hotId)));
+        // Dated at the fold, a microsecond apart, in the order their balances chain
+        List<BigDecimal> chained = jdbcTemplate.queryForList(
+            "SELECT balance_after FROM transactions WHERE id_accounts = ? ORDER BY transaction_date, id",
+            BigDecimal.class, hotId);
+        for (int i = 0; i < chained.size(); i++) {
+            assertEquals(0, new BigDecimal("10.00").multiply(BigDecimal.valueOf(i + 1)).compareTo(chained.get(i)));
+        }
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE id_accounts = ? " +
+            "AND (accepted_date IS NULL OR accepted_date > transaction_date)", Integer.class, hotId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM account_stripe_credits WHERE id_accounts = ?", Integer.class, hotId));
+        assertEquals(0, BigDecimal.ZERO.compareTo(jdbcTemplate.queryForObject(
+            "SELECT SUM(balance) FROM account_balance_stripes WHERE id_accounts = ?", BigDecimal.class, hotId)));
+
+        Map<String, Object> daily = jdbcTemplate.queryForMap(
+            "SELECT closing_balance, total_credit, transaction_count FROM account_daily_balances WHERE id_accounts = ?",
+            hotId);
+        assertEquals(0, new BigDecimal("200.00").compareTo((BigDecimal) daily.get("closing_balance")));
+        assertEquals(0, new BigDecimal("200.00").compareTo((BigDecimal) daily.get("total_credit")));
+        assertEquals(20, daily.get("transaction_count"));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(postingService.foldStripes(hotId)));
+    }
+
+    @Test
+    @DisplayName("Should book a credit accepted before midnight and folded after it on the day it was accepted")
+    void shouldBookCreditOnAcceptedDay() {
+        UUID hotId = createAccount("STR0008", "100.00");
+        stripedBalanceService.setStripes(hotId, 2);
+        transfer(accountId(jdbcTemplate, "A2000004"), hotId, "40.00");
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        // Accepted half a minute before midnight
+        jdbcTemplate.update("UPDATE account_stripe_credits SET transaction_date = ? WHERE id_accounts = ?",
+            Timestamp.valueOf(today.atStartOfDay().minusSeconds(30)), hotId);
+        postingService.post(posting(hotId, Transaction.TransactionType.WITHDRAWAL, "30.00"));
+
+        assertEquals(0, new BigDecimal("40.00").compareTo(postingService.foldStripes(hotId)));
+
+        Map<String, Object> accepted = jdbcTemplate.queryForMap(
+            "SELECT opening_balance, closing_balance, total_credit, transaction_count FROM account_daily_balances " +
+            "WHERE id_accounts = ? AND balance_date = ?", hotId, yesterday);
+        assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) accepted.get("opening_balance")));
+        assertEquals(0, new BigDecimal("140.00").compareTo((BigDecimal) accepted.get("closing_balance")));
+        assertEquals(0, new BigDecimal("40.00").compareTo((BigDecimal) accepted.get("total_credit")));
+        assertEquals(1, accepted.get("transaction_count"));
+        Map<String, Object> folded = jdbcTemplate.queryForMap(
+            "SELECT opening_balance, closing_balance, total_debit, total_credit FROM account_daily_balances " +
+            "WHERE id_accounts = ? AND balance_date = ?", hotId, today);
+        assertEquals(0, new BigDecimal("140.00").compareTo((BigDecimal) folded.get("opening_balance")));
+        assertEquals(0, new BigDecimal("110.00").compareTo((BigDecimal) folded.get("closing_balance")));
+        assertEquals(0, new BigDecimal("30.00").compareTo((BigDecimal) folded.get("total_debit")));
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) folded.get("total_credit")));
+
+        assertEquals(0, new BigDecimal("140.00").compareTo(accountBalanceHistoryService.getClosingBalance(hotId, yesterday)));
+        assertEquals(0, new BigDecimal("140.00").compareTo(accountBalanceHistoryService.getOpeningBalance(hotId, today)));
+        assertEquals(0, new BigDecimal("110.00").compareTo(accountBalanceHistoryService.getClosingBalance(hotId, today)));
+        assertEquals(0, balanceOf(jdbcTemplate, hotId).compareTo(accountBalanceHistoryService.getClosingBalance(hotId, today)));
+
+        assertEquals(List.of(Transaction.TransactionType.TRANSFER_IN), accountStatementService
+            .getTransactionsByAccountAndDateRange(hotId, yesterday, yesterday).stream()
+            .map(Transaction::getTransactionType).toList());
+        assertEquals(List.of(Transaction.TransactionType.WITHDRAWAL), accountStatementService
+            .getTransactionsByAccountAndDateRange(hotId, today, today).stream()
+            .map(Transaction::getTransactionType).toList());
+    }
+
+    @Test
+    @DisplayName("Should print credits folded after the last passbook print")
+    void shouldPrintFoldedCreditsAfterWatermark() {
+        UUID hotId = createAccount("STR0005", "0.00");
+        UUID sourceId = accountId(jdbcTemplate, "A2000006");
+        stripedBalanceService.setStripes(hotId, 2);
+
+        // Accepted on the stripes before the deposit that gets printed
+        transfer(sourceId, hotId, "30.00");
+        transfer(sourceId, hotId, "20.00");
+        postingService.post(posting(hotId, Transaction.TransactionType.DEPOSIT, "100.00"));
+        List<Transaction> printed = passbookPrintService.getUnprintedTransactions(hotId, 10);
+        assertEquals(1, printed.size());
+        passbookPrintService.recordPrintSuccess(hotId, printed, "test-printer", "COM1");
+
+        postingService.foldStripes(hotId);
+
+        List<Transaction> unprinted = passbookPrintService.getUnprintedTransactions(hotId, 10);
+        assertEquals(2, passbookPrintService.countUnprintedTransactions(hotId));
+        assertEquals(2, unprinted.size());
+        assertEquals(0, new BigDecimal("100.00").compareTo(unprinted.get(0).getBalanceBefore()));
+        assertEquals(0, new BigDecimal("130.00").compareTo(unprinted.get(0).getBalanceAfter()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(unprinted.get(1).getBalanceAfter()));
+        for (Transaction credit : unprinted) {
+            assertTrue(credit.getTransactionDate().isAfter(printed.get(0).getTransactionDate()));
+            assertTrue(credit.getAcceptedDate().isBefore(printed.get(0).getTransactionDate()));
+        }
+
+        // Only today's snapshot, closing on the folded balance
+        assertEquals(0, new BigDecimal("150.00").compareTo(jdbcTemplate.queryForObject(
+            "SELECT closing_balance FROM account_daily_balances WHERE id_accounts = ? AND balance_date = CURRENT_DATE",
+            BigDecimal.class, hotId)));
+    }
+
+    @Test
+    @DisplayName("Should fold the stripes when a debit needs them")
+    void shouldFoldBeforeDebit() {
+        UUID hotId = createAccount("STR0002", "50.00");
+        stripedBalanceService.setStripes(hotId, 8);
+        for (int i = 0; i < 3; i++) {
+            transfer(accountId(jdbcTemplate, "A2000005"), hotId, "100.00");
+        }
+
+        PostingResult withdrawal = postingService.post(posting(hotId, Transaction.TransactionType.WITHDRAWAL, "200.00"));
+
+        assertEquals(0, new BigDecimal("350.00").compareTo(withdrawal.getBalanceBefore()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(balanceOf(jdbcTemplate, hotId)));
+        assertEquals(4, transactionCount(hotId));
+
+        PostingRejectedException e = assertThrows(PostingRejectedException.class,
+            () -> postingService.post(posting(hotId, Transaction.TransactionType.WITHDRAWAL, "1000.00")));
+        assertEquals(PostingRejectedException.Reason.INSUFFICIENT_BALANCE, e.getReason());
+    }
+
+    @Test
+    @DisplayName("Should fold and credit the account row once the stripes are removed")
+    void shouldRemoveStripes() {
+        UUID hotId = createAccount("STR0003", "0.00");
+        UUID sourceId = accountId(jdbcTemplate, "A2000004");
+        stripedBalanceService.setStripes(hotId, 2);
+        transfer(sourceId, hotId, "25.00");
+
+        stripedBalanceService.setStripes(hotId, 0);
+
+        assertEquals(0, new BigDecimal("25.00").compareTo(balanceOf(jdbcTemplate, hotId)));
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM account_balance_stripes WHERE id_accounts = ?", Integer.class, hotId));
+        PostingResult credit = transfer(sourceId, hotId, "5.00").get(1);
+        assertEquals(0, new BigDecimal("30.00").compareTo(credit.getBalanceAfter()));
+    }
+
+    @Test
+    @DisplayName("Should keep the credits on the stripes while the account is not active")
+    void shouldNotFoldIntoInactiveAccount() {
+        UUID hotId = createAccount("STR0006", "0.00");
+        stripedBalanceService.setStripes(hotId, 2);
+        transfer(accountId(jdbcTemplate, "A2000004"), hotId, "40.00");
+        assertTrue(stripedBalanceService.hasStripes(hotId));
+
+        jdbcTemplate.update("UPDATE accounts SET status = 'FROZEN' WHERE id = ?", hotId);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(postingService.foldStripes(hotId)));
+        assertEquals(0, stripedBalanceService.foldAll());
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(jdbcTemplate, hotId)));
+        assertEquals(0, transactionCount(hotId));
+        assertThrows(IllegalArgumentException.class, () -> stripedBalanceService.setStripes(hotId, 0));
+
+        jdbcTemplate.update("UPDATE accounts SET status = 'ACTIVE' WHERE id = ?", hotId);
+
+        assertEquals(0, new BigDecimal("40.00").compareTo(postingService.foldStripes(hotId)));
+        assertEquals(0, new BigDecimal("40.00").compareTo(balanceOf(jdbcTemplate, hotId)));
+    }
+
+    @Test
+    @DisplayName("Should show striped accounts with the credits on their stripes")
+    void shouldShowVisibleBalances() {
+        UUID hotId = createAccount("STR0007", "5.00");
+        UUID plainId = accountId(jdbcTemplate, "A2000004");
+        stripedBalanceService.setStripes(hotId, 2);
+        transfer(plainId, hotId, "15.00");
+
+        Map<UUID, BigDecimal> balances = stripedBalanceService.visibleBalances(
+            accountRepository.findAllById(List.of(hotId, plainId)));
+
+        assertEquals(0, new BigDecimal("20.00").compareTo(balances.get(hotId)));
+        assertEquals(0, balanceOf(jdbcTemplate, plainId).compareTo(balances.get(plainId)));
+        assertEquals(0, new BigDecimal("5.00").compareTo(balanceOf(jdbcTemplate, hotId)));
+    }
+
+    @Test
+    @DisplayName("Should refuse an invalid stripe count or an unknown account")
+    void shouldRefuseInvalidStripes() {
+        UUID hotId = createAccount("STR0004", "0.00");
+
+        assertThrows(IllegalArgumentException.class, () -> stripedBalanceService.setStripes(hotId, 65));
+        assertThrows(IllegalArgumentException.class, () -> stripedBalanceService.setStripes(UUID.randomUUID(), 4));
+    }
+
+    private List<PostingResult> transfer(UUID fromId, UUID toId, String amount) {
+        PostingRequest debit = posting(fromId, Transaction.TransactionType.TRANSFER_OUT, amount);
+        debit.setCounterpartyAccountId(toId);
+        PostingRequest credit = posting(toId, Transaction.TransactionType.TRANSFER_IN, amount);
+        credit.setCounterpartyAccountId(fromId);
+        return postingService.postTransfer(debit, credit);
+    }
+
+    private UUID createAccount(String accountNumber, String balance) {
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT id_customers, id_products, id_branches, ?, ?, ?, 'TEST' FROM accounts WHERE account_number = 'A2000001'",
+            accountNumber, "Collection " + accountNumber, new BigDecimal(balance));
+        return accountId(jdbcTemplate, accountNumber);
+    }
+
+    private int transactionCount(UUID accountId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id_accounts = ?", Integer.class, accountId);
+    }
+}
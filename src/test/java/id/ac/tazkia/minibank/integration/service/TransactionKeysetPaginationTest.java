@@ -0,0 +1,99 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.TransactionQueryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Keyset Pagination Integration Tests")
+class TransactionKeysetPaginationTest extends BaseIntegrationTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+
+    private UUID accountId;
+    private TransactionSearchCriteria criteria;
+
+    @BeforeEach
+    void setUp() {
+        accountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000006'", UUID.class);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts = ?", accountId);
+
+        // Groups of three share a timestamp, so page boundaries fall inside ties
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        for (int i = 0; i < 15; i++) {
+            jdbcTemplate.update(
+                "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, " +
+                "balance_before, balance_after, description, transaction_date) " +
+                "VALUES (?, ?, 'DEPOSIT', 1000, 0, 1000, 'Keyset test', ?)",
+                accountId, "KEYSET" + String.format("%04d", i), Timestamp.valueOf(base.plusMinutes(i / 3)));
+        }
+
+        criteria = new TransactionSearchCriteria();
+        criteria.setAccountId(accountId);
+    }
+
+    @Test
+    @DisplayName("Should walk forward through every transaction exactly once, newest first")
+    void shouldWalkForwardWithoutGapsOrDuplicates() {
+        List<Transaction> walked = new ArrayList<>();
+        KeysetPage<Transaction> page = transactionQueryService.findTransactions(criteria, null, null, PAGE_SIZE);
+        assertFalse(page.hasPrevious());
+        walked.addAll(page.getContent());
+        while (page.hasNext()) {
+            page = transactionQueryService.findTransactions(criteria, page.getNextCursor(), null, PAGE_SIZE);
+            assertTrue(page.hasPrevious());
+            walked.addAll(page.getContent());
+        }
+
+        assertEquals(15, walked.size());
+        Set<UUID> ids = new LinkedHashSet<>();
+        walked.forEach(t -> ids.add(t.getId()));
+        assertEquals(15, ids.size(), "No transaction may appear on two pages");
+        for (int i = 1; i < walked.size(); i++) {
+            assertFalse(walked.get(i).getTransactionDate().isAfter(walked.get(i - 1).getTransactionDate()),
+                "Transactions must be ordered newest first");
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the same page when walking back with the previous cursor")
+    void shouldWalkBackToTheSamePage() {
+        KeysetPage<Transaction> first = transactionQueryService.findTransactions(criteria, null, null, PAGE_SIZE);
+        KeysetPage<Transaction> second = transactionQueryService.findTransactions(criteria, first.getNextCursor(), null, PAGE_SIZE);
+        KeysetPage<Transaction> back = transactionQueryService.findTransactions(criteria, null, second.getPreviousCursor(), PAGE_SIZE);
+
+        assertEquals(ids(first), ids(back));
+        assertFalse(back.hasPrevious(), "Walking back to the newest page must end the previous links");
+        assertTrue(back.hasNext());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+            () -> transactionQueryService.findTransactions(criteria, "not-a-cursor", null, PAGE_SIZE));
+    }
+
+    private List<UUID> ids(KeysetPage<Transaction> page) {
+        return page.getContent().stream().map(Transaction::getId).toList();
+    }
+}
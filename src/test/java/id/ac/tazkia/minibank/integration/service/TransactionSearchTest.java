@@ -0,0 +1,142 @@
+package id.ac.tazkia.minibank.integration.service;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.KeysetPage;
+import id.ac.tazkia.minibank.dto.TransactionFacets;
+import id.ac.tazkia.minibank.dto.TransactionSearchCriteria;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.TransactionQueryService;
+import id.ac.tazkia.minibank.service.TransactionSearchIndexer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Transaction Full-Text Search Integration Tests")
+class TransactionSearchTest extends BaseIntegrationTest {
+
+    @Autowired
+    private TransactionQueryService transactionQueryService;
+
+    @MockitoSpyBean
+    private TransactionSearchIndexer transactionSearchIndexer;
+
+    private UUID savingsAccountId;
+    private UUID checkingAccountId;
+
+    @BeforeEach
+    void setUp() {
+        savingsAccountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000005'", UUID.class);
+        checkingAccountId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000006'", UUID.class);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id_accounts IN (?, ?)", savingsAccountId, checkingAccountId);
+
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 9, 0);
+        insert(savingsAccountId, "FTS0001", "DEPOSIT", "TELLER", "Setoran zakat fitrah keluarga", "REF-2025-0001", base);
+        insert(savingsAccountId, "FTS0002", "WITHDRAWAL", "ATM", "Tarik tunai", null, base.plusDays(1));
+        insert(checkingAccountId, "FTS0003", "DEPOSIT", "ONLINE", "Pembayaran zakat maal", "REF-2025-0002", base.plusDays(2));
+        insert(checkingAccountId, "FTS0004", "DEPOSIT", "TELLER", "Infaq masjid", "INV/77/ZK", base.plusMonths(1));
+        transactionSearchIndexer.backfill();
+    }
+
+    @Test
+    @DisplayName("Should match word prefixes across description, transaction number and reference")
+    void shouldMatchIndexedText() {
+        assertEquals(List.of("FTS0003", "FTS0001"), numbers(search("ZAKAT", null)));
+        assertEquals(List.of("FTS0001"), numbers(search("zak fitr", null)));
+        assertEquals(List.of("FTS0003"), numbers(search("ref-2025-0002", null)));
+        assertEquals(List.of("FTS0002"), numbers(search("fts0002", null)));
+        assertEquals(List.of("FTS0004"), numbers(search("INV/77/ZK", null)));
+        assertTrue(search("sedekah", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should combine the search with filters and count facets without their own filter")
+    void shouldFilterAndCountFacets() {
+        TransactionSearchCriteria criteria = criteria("zakat");
+        criteria.setChannel(Transaction.TransactionChannel.ONLINE);
+        assertEquals(List.of("FTS0003"), numbers(transactionQueryService.findTransactions(criteria, null, null, 10)));
+
+        criteria.setChannel(null);
+        criteria.setAccountId(savingsAccountId);
+        criteria.setStartDate(LocalDateTime.of(2025, 3, 1, 0, 0));
+        criteria.setEndDate(LocalDateTime.of(2025, 3, 31, 23, 59, 59));
+        assertEquals(List.of("FTS0001"), numbers(transactionQueryService.findTransactions(criteria, null, null, 10)));
+
+        TransactionFacets facets = transactionQueryService.findFacets(criteria);
+        assertTrue(facets.isIndexComplete());
+        assertEquals(1L, facets.getTransactionTypes().get("DEPOSIT"));
+        assertEquals(1L, facets.getChannels().get("TELLER"));
+        // Account facet ignores the account filter: both accounts have a zakat transaction
+        assertEquals(1L, facets.getAccounts().get("A2000005"));
+        assertEquals(1L, facets.getAccounts().get("A2000006"));
+        assertEquals(1L, facets.getMonths().get("2025-03"));
+    }
+
+    @Test
+    @DisplayName("Should fall back to LIKE for rows waiting for the backfill, then index them")
+    void shouldFallBackUntilBackfilled() {
+        jdbcTemplate.update("UPDATE transactions SET search_vector = NULL WHERE id_accounts IN (?, ?)",
+            savingsAccountId, checkingAccountId);
+        assertTrue(search("masjid", null).isEmpty(), "Unindexed rows are invisible once the index is marked complete");
+
+        doReturn(false).when(transactionSearchIndexer).isIndexComplete();
+        assertEquals(List.of("FTS0004"), numbers(search("masjid", null)));
+        assertEquals(1L, transactionQueryService.findFacets(criteria("masjid")).getChannels().get("TELLER"));
+
+        doCallRealMethod().when(transactionSearchIndexer).isIndexComplete();
+        transactionSearchIndexer.backfill();
+        assertTrue(transactionSearchIndexer.isIndexComplete());
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE search_vector IS NULL", Integer.class));
+        assertEquals(List.of("FTS0004"), numbers(search("masjid", null)));
+    }
+
+    @Test
+    @DisplayName("Should page through search results with cursors")
+    void shouldPageSearchResults() {
+        KeysetPage<Transaction> first = search("fts", null);
+        assertEquals(4, first.getNumberOfElements());
+
+        KeysetPage<Transaction> page = transactionQueryService.findTransactions(criteria("fts"), null, null, 3);
+        assertEquals(List.of("FTS0004", "FTS0003", "FTS0002"), numbers(page));
+        KeysetPage<Transaction> next = transactionQueryService.findTransactions(criteria("fts"), page.getNextCursor(), null, 3);
+        assertEquals(List.of("FTS0001"), numbers(next));
+        assertFalse(next.hasNext());
+    }
+
+    private KeysetPage<Transaction> search(String term, Transaction.TransactionType type) {
+        TransactionSearchCriteria criteria = criteria(term);
+        criteria.setTransactionType(type);
+        return transactionQueryService.findTransactions(criteria, null, null, 10);
+    }
+
+    private TransactionSearchCriteria criteria(String term) {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setSearch(term);
+        return criteria;
+    }
+
+    private List<String> numbers(KeysetPage<Transaction> page) {
+        return page.getContent().stream().map(Transaction::getTransactionNumber).toList();
+    }
+
+    private void insert(UUID accountId, String number, String type, String channel, String description,
+                        String reference, LocalDateTime date) {
+        jdbcTemplate.update(
+            "INSERT INTO transactions (id_accounts, transaction_number, transaction_type, amount, balance_before, " +
+            "balance_after, description, reference_number, channel, transaction_date) " +
+            "VALUES (?, ?, ?, 1000, 0, 1000, ?, ?, ?, ?)",
+            accountId, number, type, description, reference, channel, Timestamp.valueOf(date));
+    }
+}
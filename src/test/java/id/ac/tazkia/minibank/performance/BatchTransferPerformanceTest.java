@@ -0,0 +1,92 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.BatchTransferRequest;
+import id.ac.tazkia.minibank.dto.BatchTransferResult;
+import id.ac.tazkia.minibank.service.BatchTransferService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static id.ac.tazkia.minibank.config.TestDataFactory.balanceOf;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DisplayName("Batch Transfer Performance Tests")
+class BatchTransferPerformanceTest extends BaseIntegrationTest {
+
+    private static final int PAYROLL_LINES = 10_000;
+    private static final BigDecimal SALARY = new BigDecimal("1000.00");
+    private static final long MAX_BATCH_MILLIS = 30_000;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Test
+    @DisplayName("Should post a 10k-line payroll in seconds and conserve the total balance")
+    void shouldPostPayrollBatch() {
+        // Employer account funded for the payroll, one payroll account per employee
+        UUID employerId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = 'A2000005'", UUID.class);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + ? WHERE id = ?",
+            SALARY.multiply(BigDecimal.valueOf(PAYROLL_LINES)), employerId);
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT a.id_customers, a.id_products, a.id_branches, 'PAY' || LPAD(n::text, 6, '0'), " +
+            "  'Payroll ' || n, 0.00, 'PERF_TEST' " +
+            "FROM accounts a, generate_series(1, ?) AS n WHERE a.account_number = 'A2000001'",
+            PAYROLL_LINES);
+        cacheInvalidationBus.publish(CacheInvalidationBus.EntityType.ACCOUNT, null);
+        BigDecimal totalBefore = totalBalance();
+        BigDecimal employerBefore = balanceOf(jdbcTemplate, employerId);
+
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setFromAccountId(employerId);
+        request.setDescription("Payroll");
+        List<BatchTransferRequest.Line> lines = new ArrayList<>(PAYROLL_LINES);
+        for (int n = 1; n <= PAYROLL_LINES; n++) {
+            BatchTransferRequest.Line line = new BatchTransferRequest.Line();
+            line.setToAccountNumber(String.format("PAY%06d", n));
+            line.setAmount(SALARY);
+            line.setReferenceNumber("PAYROLL-" + n);
+            lines.add(line);
+        }
+        request.setLines(lines);
+
+        long start = System.currentTimeMillis();
+        BatchTransferResult result = batchTransferService.process(request);
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+        assertEquals(PAYROLL_LINES, result.getPostedCount());
+        assertEquals(0, result.getRejectedCount());
+        assertEquals(0, employerBefore.subtract(SALARY.multiply(BigDecimal.valueOf(PAYROLL_LINES)))
+            .compareTo(balanceOf(jdbcTemplate, employerId)));
+        assertEquals(0, totalBefore.compareTo(totalBalance()), "Sum of balances must be conserved");
+        assertEquals(PAYROLL_LINES, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM accounts WHERE account_number LIKE 'PAY%' AND balance = ?", Integer.class, SALARY));
+        assertEquals(PAYROLL_LINES, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE id_accounts = ? AND transaction_type = 'TRANSFER_OUT'",
+            Integer.class, employerId));
+        assertEquals(PAYROLL_LINES, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE transaction_type = 'TRANSFER_IN'", Integer.class));
+        assertTrue(elapsed < MAX_BATCH_MILLIS, "Payroll batch took " + elapsed + "ms");
+
+        log.info("Batch transfer metrics - Lines: {}, Total: {}ms, Throughput: {} transfers/sec",
+            PAYROLL_LINES, elapsed, Math.round(PAYROLL_LINES * 1000.0 / elapsed));
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM accounts", BigDecimal.class);
+    }
+}
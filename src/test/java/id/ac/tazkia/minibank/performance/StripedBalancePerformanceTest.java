@@ -0,0 +1,118 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.StripedBalanceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Credit throughput on one hot collection account with one balance stripe against
+ * sixteen. Every thread transfers from its own source account, so the only contended
+ * rows are those of the collection account.
+ */
+@Slf4j
+@DisplayName("Striped Balance Performance Tests")
+class StripedBalancePerformanceTest extends BaseIntegrationTest {
+
+    private static final int CONCURRENT_THREADS = 32;
+    private static final int TRANSFERS_PER_THREAD = 100;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private PostingService postingService;
+
+    @Autowired
+    private StripedBalanceService stripedBalanceService;
+
+    @Test
+    @DisplayName("Should compare credit throughput on one account with 1 and 16 stripes")
+    void shouldCompareCreditThroughput() throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT a.id_customers, a.id_products, a.id_branches, 'SRC' || LPAD(n::text, 4, '0'), " +
+            "  'Payer ' || n, 1000000.00, 'PERF_TEST' " +
+            "FROM accounts a, generate_series(1, ?) AS n WHERE a.account_number = 'A2000001'",
+            CONCURRENT_THREADS);
+        List<UUID> sources = jdbcTemplate.queryForList(
+            "SELECT id FROM accounts WHERE account_number LIKE 'SRC%' ORDER BY account_number", UUID.class);
+
+        double oneStripe = measure("HOT0001", 1, sources);
+        double sixteenStripes = measure("HOT0016", 16, sources);
+
+        log.info("Credits per second on one account: {} with 1 stripe, {} with 16 stripes ({}x)",
+            String.format("%.0f", oneStripe), String.format("%.0f", sixteenStripes),
+            String.format("%.2f", sixteenStripes / oneStripe));
+    }
+
+    /** Transfers into a fresh account with {@code stripes} stripes; returns credits per second. */
+    private double measure(String accountNumber, int stripes, List<UUID> sources) throws Exception {
+        jdbcTemplate.update(
+            "INSERT INTO accounts (id_customers, id_products, id_branches, account_number, account_name, balance, created_by) " +
+            "SELECT id_customers, id_products, id_branches, ?, 'Collection', 0.00, 'PERF_TEST' " +
+            "FROM accounts WHERE account_number = 'A2000001'", accountNumber);
+        UUID collectionId = jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber);
+        stripedBalanceService.setStripes(collectionId, stripes);
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        long elapsedNanos;
+        try (ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_THREADS)) {
+            for (UUID sourceId : sources) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int n = 0; n < TRANSFERS_PER_THREAD; n++) {
+                        postingService.postTransfer(leg(sourceId, collectionId, Transaction.TransactionType.TRANSFER_OUT),
+                            leg(collectionId, sourceId, Transaction.TransactionType.TRANSFER_IN));
+                    }
+                    return null;
+                }));
+            }
+            long start = System.nanoTime();
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+        stripedBalanceService.foldAll();
+
+        int credits = CONCURRENT_THREADS * TRANSFERS_PER_THREAD;
+        assertEquals(0, AMOUNT.multiply(BigDecimal.valueOf(credits)).compareTo(
+            jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, collectionId)));
+        assertEquals(credits, jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT balance_after) FROM transactions WHERE id_accounts = ?", Integer.class, collectionId));
+
+        double perSecond = credits / (elapsedNanos / 1_000_000_000.0);
+        log.info("{} credits with {} stripe(s) in {}ms", credits, stripes, elapsedNanos / 1_000_000);
+        return perSecond;
+    }
+
+    private PostingRequest leg(UUID accountId, UUID counterpartyId, Transaction.TransactionType type) {
+        PostingRequest leg = new PostingRequest();
+        leg.setAccountId(accountId);
+        leg.setCounterpartyAccountId(counterpartyId);
+        leg.setTransactionType(type);
+        leg.setAmount(AMOUNT);
+        leg.setDescription("Collection");
+        return leg;
+    }
+}
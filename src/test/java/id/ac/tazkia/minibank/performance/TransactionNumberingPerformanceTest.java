@@ -0,0 +1,148 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.PostingRequest;
+import id.ac.tazkia.minibank.entity.Transaction;
+import id.ac.tazkia.minibank.repository.SequenceNumberRepository;
+import id.ac.tazkia.minibank.service.NativeSequenceAllocator;
+import id.ac.tazkia.minibank.service.PostingService;
+import id.ac.tazkia.minibank.service.SequenceBlockAllocator;
+import id.ac.tazkia.minibank.service.SequenceNumberService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DisplayName("Transaction Numbering Performance Tests")
+// The table-engine comparison builds its own SequenceNumberService and ignores this
+@TestPropertySource(properties = "minibank.posting.transaction-numbering=BRANCH")
+class TransactionNumberingPerformanceTest extends BaseIntegrationTest {
+
+    // Seed accounts A2000001-A2000004 live in four different branches
+    private static final Map<String, String> BRANCH_ACCOUNTS = Map.of(
+        "HO001", "A2000001", "JKT01", "A2000002", "BDG01", "A2000003", "SBY01", "A2000004");
+    private static final int THREADS_PER_BRANCH = 4;
+    private static final int NUMBERS_PER_THREAD = 100;
+    private static final int DEPOSITS_PER_THREAD = 25;
+
+    @Autowired
+    private SequenceNumberRepository sequenceNumberRepository;
+
+    @Autowired
+    private SequenceBlockAllocator sequenceBlockAllocator;
+
+    @Autowired
+    private NativeSequenceAllocator nativeSequenceAllocator;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PostingService postingService;
+
+    @Test
+    @DisplayName("Should compare global and per-branch numbering on the row-locked table engine")
+    void shouldCompareGlobalAndBranchNumbering() throws Exception {
+        // Table engine for every sequence: the worst case, one row lock per number
+        SequenceNumberService tableEngine = new SequenceNumberService(sequenceNumberRepository,
+            sequenceBlockAllocator, nativeSequenceAllocator, environment, Set.of(), Set.of());
+
+        long globalMillis = runPerBranch(branch -> transactionTemplate.execute(
+            status -> tableEngine.generateNextSequence("BENCH_NUMBER", "B")));
+        long branchMillis = runPerBranch(branch -> transactionTemplate.execute(
+            status -> tableEngine.generateNextSequenceForBranch("BENCH_NUMBER", "B", branch)));
+
+        int total = BRANCH_ACCOUNTS.size() * THREADS_PER_BRANCH * NUMBERS_PER_THREAD;
+        log.info("Numbering metrics - {} numbers from {} branches, GLOBAL: {}ms ({} numbers/sec), BRANCH: {}ms ({} numbers/sec)",
+            total, BRANCH_ACCOUNTS.size(),
+            globalMillis, Math.round(total * 1000.0 / globalMillis),
+            branchMillis, Math.round(total * 1000.0 / branchMillis));
+    }
+
+    @Test
+    @DisplayName("Should number concurrent postings per branch without duplicates")
+    void shouldNumberConcurrentPostingsPerBranch() throws Exception {
+        Map<String, UUID> accountIds = new ConcurrentHashMap<>();
+        BRANCH_ACCOUNTS.forEach((branch, accountNumber) -> accountIds.put(branch, jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = ?", UUID.class, accountNumber)));
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        long millis = run(THREADS_PER_BRANCH, DEPOSITS_PER_THREAD, branch -> {
+            String number = postingService.post(deposit(accountIds.get(branch))).getTransactionNumber();
+            assertTrue(number.startsWith("T" + branch + "-"), "Number must embed the branch code: " + number);
+            numbers.add(number);
+            return number;
+        });
+
+        int total = BRANCH_ACCOUNTS.size() * THREADS_PER_BRANCH * DEPOSITS_PER_THREAD;
+        assertEquals(total, numbers.size(), "Every posting must get a distinct transaction number");
+        log.info("Branch-numbered postings - {} deposits in {}ms ({} postings/sec)",
+            total, millis, Math.round(total * 1000.0 / millis));
+    }
+
+    private long runPerBranch(Function<String, String> generator) throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        long millis = run(THREADS_PER_BRANCH, NUMBERS_PER_THREAD, branch -> {
+            String number = generator.apply(branch);
+            numbers.add(number);
+            return number;
+        });
+        assertEquals(BRANCH_ACCOUNTS.size() * THREADS_PER_BRANCH * NUMBERS_PER_THREAD, numbers.size(),
+            "Every generated number must be unique");
+        return millis;
+    }
+
+    private long run(int threadsPerBranch, int callsPerThread, Function<String, String> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BRANCH_ACCOUNTS.size() * threadsPerBranch);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (String branch : BRANCH_ACCOUNTS.keySet()) {
+            for (int i = 0; i < threadsPerBranch; i++) {
+                futures.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int n = 0; n < callsPerThread; n++) {
+                        call.apply(branch);
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return Math.max(1, System.currentTimeMillis() - startTime);
+    }
+
+    private PostingRequest deposit(UUID accountId) {
+        PostingRequest request = new PostingRequest();
+        request.setAccountId(accountId);
+        request.setTransactionType(Transaction.TransactionType.DEPOSIT);
+        request.setAmount(new BigDecimal("1000.00"));
+        request.setDescription("Branch numbering benchmark");
+        request.setCreatedBy("PERF_TEST");
+        return request;
+    }
+}
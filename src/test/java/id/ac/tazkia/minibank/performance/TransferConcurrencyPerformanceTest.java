@@ -0,0 +1,130 @@
+package id.ac.tazkia.minibank.performance;
+
+import id.ac.tazkia.minibank.config.BaseIntegrationTest;
+import id.ac.tazkia.minibank.dto.TransferRequest;
+import id.ac.tazkia.minibank.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DisplayName("Transfer Concurrency Performance Tests")
+class TransferConcurrencyPerformanceTest extends BaseIntegrationTest {
+
+    private static final List<String> ACCOUNT_NUMBERS = List.of("A2000001", "A2000002", "A2000003", "A2000004", "A2000005");
+    private static final int CONCURRENT_THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 50;
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    private BigDecimal totalBalanceBefore;
+
+    @BeforeEach
+    void setUp() {
+        totalBalanceBefore = totalBalance();
+    }
+
+    @Test
+    @DisplayName("Should conserve total balance under concurrent bidirectional transfers")
+    void shouldConserveTotalBalanceUnderConcurrentBidirectionalTransfers() throws Exception {
+        log.info("Performance Test: {} threads x {} transfers across {} accounts",
+                CONCURRENT_THREADS, TRANSFERS_PER_THREAD, ACCOUNT_NUMBERS.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger rejectedCount = new AtomicInteger(0);
+        AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (int i = 0; i < CONCURRENT_THREADS; i++) {
+            final int threadId = i;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                for (int n = 0; n < TRANSFERS_PER_THREAD; n++) {
+                    // Neighbouring threads walk the ring in opposite directions to force A->B / B->A collisions
+                    int from = (threadId + n) % ACCOUNT_NUMBERS.size();
+                    int to = threadId % 2 == 0
+                        ? (from + 1) % ACCOUNT_NUMBERS.size()
+                        : (from + ACCOUNT_NUMBERS.size() - 1) % ACCOUNT_NUMBERS.size();
+                    try {
+                        transferService.processTransfer(createTransferRequest(
+                            ACCOUNT_NUMBERS.get(from), ACCOUNT_NUMBERS.get(to), threadId, n));
+                        successCount.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // Business rejection (e.g. insufficient balance) is an acceptable outcome
+                        rejectedCount.incrementAndGet();
+                    } catch (Exception e) {
+                        errorCount.incrementAndGet();
+                        log.error("Transfer thread {} failed: {}", threadId, e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.currentTimeMillis();
+        startGate.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        long totalTime = Math.max(1, System.currentTimeMillis() - startTime);
+        executor.shutdown();
+
+        // Then - money is neither created nor destroyed
+        assertEquals(0, errorCount.get(), "No transfer should fail with a technical error");
+        assertEquals(0, totalBalanceBefore.compareTo(totalBalance()),
+                "Sum of balances must be conserved");
+
+        Integer transferOut = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE transaction_type = 'TRANSFER_OUT' AND reference_number LIKE 'STRESS-%'",
+            Integer.class);
+        Integer transferIn = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM transactions WHERE transaction_type = 'TRANSFER_IN' AND reference_number LIKE 'STRESS-%'",
+            Integer.class);
+        assertEquals(successCount.get(), transferOut, "Every successful transfer must have one debit leg");
+        assertEquals(successCount.get(), transferIn, "Every successful transfer must have one credit leg");
+
+        Integer negativeBalances = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM accounts WHERE balance < 0", Integer.class);
+        assertEquals(0, negativeBalances);
+
+        double transfersPerSecond = successCount.get() * 1000.0 / totalTime;
+        log.info("✅ Concurrent transfer test completed");
+        log.info("Transfer metrics - Total: {}ms, Success: {}, Rejected: {}, Errors: {}, Throughput: {} transfers/sec",
+                totalTime, successCount.get(), rejectedCount.get(), errorCount.get(), Math.round(transfersPerSecond));
+    }
+
+    private TransferRequest createTransferRequest(String fromAccountNumber, String toAccountNumber, int threadId, int sequence) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(jdbcTemplate.queryForObject(
+            "SELECT id FROM accounts WHERE account_number = ?", UUID.class, fromAccountNumber));
+        request.setToAccountNumber(toAccountNumber);
+        request.setAmount(TRANSFER_AMOUNT);
+        request.setDescription("Stress transfer");
+        request.setReferenceNumber(String.format("STRESS-%02d-%04d", threadId, sequence));
+        request.setCreatedBy("PERF_TEST");
+        return request;
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(balance), 0) FROM accounts WHERE account_number IN ('A2000001','A2000002','A2000003','A2000004','A2000005')",
+            BigDecimal.class);
+    }
+}
@@ -0,0 +1,87 @@
+package id.ac.tazkia.minibank.unit.service;
+
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
+import id.ac.tazkia.minibank.service.LoginAttemptTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoginAttemptTracker Unit Tests")
+class LoginAttemptTrackerTest {
+
+    private final LoginAttemptTracker tracker = new LoginAttemptTracker();
+
+    @Test
+    @DisplayName("Should lock a username from the fifth consecutive failure")
+    void shouldLockAfterMaxFailures() {
+        for (int i = 1; i < LoginAttemptTracker.MAX_FAILED_ATTEMPTS; i++) {
+            assertEquals(i, tracker.recordFailure("teller1"));
+            assertFalse(tracker.isLocked("teller1"));
+        }
+
+        assertEquals(LoginAttemptTracker.MAX_FAILED_ATTEMPTS, tracker.recordFailure("teller1"));
+        assertTrue(tracker.isLocked("teller1"));
+        assertFalse(tracker.isLocked("teller2"));
+    }
+
+    @Test
+    @DisplayName("Should start counting again after a successful login")
+    void shouldResetOnSuccess() {
+        tracker.recordFailure("teller1");
+        tracker.recordFailure("teller1");
+        tracker.recordSuccess("teller1");
+
+        assertEquals(1, tracker.recordFailure("teller1"));
+    }
+
+    @Test
+    @DisplayName("Should forget every username when a user changes")
+    void shouldClearOnUserInvalidation() {
+        for (int i = 0; i < LoginAttemptTracker.MAX_FAILED_ATTEMPTS; i++) {
+            tracker.recordFailure("teller1");
+        }
+
+        tracker.onInvalidation(CacheInvalidationBus.EntityType.PRODUCT, null);
+        assertTrue(tracker.isLocked("teller1"));
+
+        tracker.onInvalidation(CacheInvalidationBus.EntityType.USER, UUID.randomUUID());
+        assertFalse(tracker.isLocked("teller1"));
+    }
+
+    @Test
+    @DisplayName("Should count every failure when many threads fail at once")
+    void shouldCountConcurrentFailures() throws InterruptedException {
+        int threads = 8;
+        int failuresPerThread = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < failuresPerThread; i++) {
+                    tracker.recordFailure("user" + (i % 50));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int expected = threads * failuresPerThread / 50;
+        for (int u = 0; u < 50; u++) {
+            assertEquals(expected + 1, tracker.recordFailure("user" + u));
+        }
+    }
+}
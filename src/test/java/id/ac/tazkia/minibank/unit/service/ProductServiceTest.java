@@ -3,6 +3,7 @@ package id.ac.tazkia.minibank.unit.service;
 import id.ac.tazkia.minibank.entity.Product;
 import id.ac.tazkia.minibank.repository.ProductRepository;
 import id.ac.tazkia.minibank.service.ProductService;
+import id.ac.tazkia.minibank.service.CacheInvalidationBus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +33,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CacheInvalidationBus cacheInvalidationBus;
+
     @InjectMocks
     private ProductService productService;
 
@@ -200,6 +204,7 @@ class ProductServiceTest {
         assertNotNull(result.getId());
         assertEquals("TWB001", result.getProductCode());
         verify(productRepository).save(product);
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.EntityType.PRODUCT, savedProduct.getId());
     }
 
     @ParameterizedTest
@@ -221,6 +226,7 @@ class ProductServiceTest {
         
         assertEquals(expectedMessage, exception.getMessage());
         verify(productRepository, never()).save(any());
+        verify(cacheInvalidationBus, never()).publish(any(), any());
     }
 
     @Test
@@ -352,6 +358,7 @@ class ProductServiceTest {
         // Then
         verify(productRepository).findById(productId);
         verify(productRepository).save(argThat(p -> !p.getIsActive()));
+        verify(cacheInvalidationBus).publish(CacheInvalidationBus.EntityType.PRODUCT, productId);
     }
 
     @Test
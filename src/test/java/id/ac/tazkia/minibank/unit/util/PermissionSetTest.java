@@ -0,0 +1,53 @@
+package id.ac.tazkia.minibank.unit.util;
+
+import id.ac.tazkia.minibank.util.PermissionSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PermissionSet Unit Tests")
+class PermissionSetTest {
+
+    @Test
+    @DisplayName("Should contain exactly the ids it was built from, across word boundaries")
+    void shouldContainGivenIds() {
+        PermissionSet set = PermissionSet.of(List.of(0, 63, 64, 130));
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(63));
+        assertTrue(set.contains(64));
+        assertTrue(set.contains(130));
+        assertFalse(set.contains(1));
+        assertFalse(set.contains(129));
+        assertFalse(set.contains(5000));
+        assertFalse(set.contains(-1));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    @DisplayName("Should union sets of different lengths without changing either")
+    void shouldUnion() {
+        PermissionSet small = PermissionSet.of(List.of(1, 2));
+        PermissionSet large = PermissionSet.of(List.of(2, 200));
+
+        PermissionSet union = small.union(large);
+
+        assertTrue(union.contains(1));
+        assertTrue(union.contains(2));
+        assertTrue(union.contains(200));
+        assertEquals(3, union.size());
+        assertFalse(small.contains(200));
+        assertFalse(large.contains(1));
+        assertEquals(union.size(), large.union(small).size());
+    }
+
+    @Test
+    @DisplayName("Should reject negative ids")
+    void shouldRejectNegativeIds() {
+        assertThrows(IllegalArgumentException.class, () -> PermissionSet.of(List.of(3, -1)));
+        assertSame(PermissionSet.EMPTY, PermissionSet.of(List.of()));
+    }
+}
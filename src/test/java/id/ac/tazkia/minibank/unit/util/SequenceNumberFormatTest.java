@@ -0,0 +1,51 @@
+package id.ac.tazkia.minibank.unit.util;
+
+import id.ac.tazkia.minibank.util.SequenceNumberFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SequenceNumberFormat Unit Tests")
+class SequenceNumberFormatTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 31);
+
+    @Test
+    @DisplayName("Default template should match the legacy prefix plus seven digits format")
+    void defaultTemplateShouldMatchLegacyFormat() {
+        SequenceNumberFormat format = SequenceNumberFormat.compile(SequenceNumberFormat.DEFAULT_TEMPLATE);
+
+        assertEquals("T3000001", format.format("T", null, DATE, 3000001));
+        assertEquals("A0000042", format.format("A", "JKT01", DATE, 42));
+        assertEquals("0000042", format.format(null, null, DATE, 42));
+    }
+
+    @Test
+    @DisplayName("Should render branch, date and literal segments")
+    void shouldRenderBranchAndDateSegments() {
+        SequenceNumberFormat format = SequenceNumberFormat.compile("{prefix}-{branch}-{date}-{number:5}");
+        assertEquals("T-BDG01-250131-00042", format.format("T", "BDG01", DATE, 42));
+
+        SequenceNumberFormat custom = SequenceNumberFormat.compile("{date:yyyyMM}{number:3}");
+        assertEquals("202501007", custom.format("T", "BDG01", DATE, 7));
+    }
+
+    @Test
+    @DisplayName("Should leave out the branch segment when no branch is given")
+    void shouldOmitMissingBranch() {
+        SequenceNumberFormat format = SequenceNumberFormat.compile("{prefix}{branch}{number}");
+        assertEquals("T0000042", format.format("T", null, DATE, 42));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"{prefix}", "{prefix}{number:0}", "{prefix}{number:x}", "{prefix}{unknown}{number}", "{prefix{number}", ""})
+    @DisplayName("Should reject invalid templates")
+    void shouldRejectInvalidTemplates(String template) {
+        assertThrows(IllegalArgumentException.class, () -> SequenceNumberFormat.compile(template));
+    }
+}